@@ -0,0 +1,47 @@
+package com.liftlab.loadbalancer.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Entry point of the benchmark profile.
+ *
+ * <p>Accepts the regular JMH command line. Unless a thread count is given with {@code -t}, every
+ * selected benchmark is run once per thread count in {@link #THREAD_COUNTS}, and the results of
+ * each run are written as JSON to {@code target/jmh/result-t<threads>.json} for later comparison.</p>
+ */
+public final class BenchmarkMain {
+
+    static final List<Integer> THREAD_COUNTS = List.of(1, 4, 16, 64);
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        List<Integer> threadCounts = commandLine.getThreads().hasValue()
+                ? List.of(commandLine.getThreads().get())
+                : THREAD_COUNTS;
+        new File("target/jmh").mkdirs();
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh/result-t" + threads + ".json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
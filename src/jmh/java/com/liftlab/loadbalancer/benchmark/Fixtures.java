@@ -0,0 +1,37 @@
+package com.liftlab.loadbalancer.benchmark;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+
+import java.util.stream.IntStream;
+
+/**
+ * Shared setup of the benchmarks.
+ */
+final class Fixtures {
+
+    /**
+     * Number of distinct routing keys cycled through by each benchmark thread.
+     */
+    static final int ROUTING_KEYS = 1024;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Returns a repository with the given number of healthy backends. Weights cycle through 1 to 3 so the
+     * weighted strategies do not degenerate into plain round robin.
+     */
+    static MapBasedBackendConfigRepository repository(int backends) throws LoadBalancerException {
+        MapBasedBackendConfigRepository repository = new MapBasedBackendConfigRepository();
+        for (int i = 0; i < backends; i++) {
+            repository.registerBackend(new BackendServer("http://backend" + i + ".liftlab.com", 1 + i % 3));
+        }
+        return repository;
+    }
+
+    static String[] routingKeys() {
+        return IntStream.range(0, ROUTING_KEYS).mapToObj(i -> "user-" + i).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,115 @@
+package com.liftlab.loadbalancer.benchmark;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.application.cache.ResponseCache;
+import com.liftlab.loadbalancer.application.factory.RoutingStrategyFactory;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreakerRegistry;
+import com.liftlab.loadbalancer.application.resilience.ConcurrencyLimiterRegistry;
+import com.liftlab.loadbalancer.application.resilience.OutlierDetector;
+import com.liftlab.loadbalancer.application.resilience.RetryPolicy;
+import com.liftlab.loadbalancer.application.service.LoadBalancerService;
+import com.liftlab.loadbalancer.configuration.AppConfig;
+import com.liftlab.loadbalancer.configuration.OutlierDetectionProperties;
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import com.liftlab.loadbalancer.domain.model.ProxyResponse;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import com.liftlab.loadbalancer.domain.strategy.LoadBalancingStrategy;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import com.liftlab.loadbalancer.port.out.BackendClientPort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the full {@link LoadBalancerService#forwardRequest(ProxyRequest, String)} path: backend
+ * selection, load accounting, outlier detection and relaying the response body.
+ *
+ * <p>The backend client answers from memory, so the results isolate the load balancer's own overhead
+ * from network and backend latency.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ForwardRequestBenchmark {
+
+    private static final byte[] RESPONSE_BODY = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+    private static final Map<String, List<String>> RESPONSE_HEADERS =
+            Map.of("Content-Type", List.of("application/json"));
+    private static final ProxyRequest REQUEST = new ProxyRequest("GET", "/orders", "page=1",
+            Map.of("Accept", List.of("application/json")), InputStream.nullInputStream(), 0);
+
+    @Param({"round-robin", "least-connections", "peak-ewma", "consistent-hash"})
+    public String strategy;
+
+    @Param({"2", "100", "10000"})
+    public int backends;
+
+    private LoadBalancerService loadBalancerService;
+    private OutlierDetector outlierDetector;
+
+    @Setup
+    public void setup() throws LoadBalancerException {
+        MapBasedBackendConfigRepository repository = Fixtures.repository(backends);
+        BackendStatsRegistry statsRegistry = new BackendStatsRegistry();
+        StrategyType type = StrategyType.valueOf(strategy.toUpperCase(Locale.ROOT).replace('-', '_'));
+        LoadBalancingStrategy loadBalancingStrategy = new AppConfig().loadBalancingStrategy(type, statsRegistry);
+        loadBalancingStrategy.onServersChanged(repository.getActiveServers());
+        BackendClientPort backendClient = (server, request) -> new ProxyResponse(200, RESPONSE_HEADERS,
+                new ByteArrayInputStream(RESPONSE_BODY), RESPONSE_BODY.length);
+        outlierDetector = new OutlierDetector(repository, statsRegistry, OutlierDetectionProperties.defaults());
+        loadBalancerService = new LoadBalancerService(new RoutingStrategyFactory(loadBalancingStrategy, statsRegistry),
+                message -> { }, repository, statsRegistry, backendClient, outlierDetector,
+                CircuitBreakerRegistry.disabled(), RetryPolicy.disabled(), ForkJoinPool.commonPool(),
+                ResponseCache.disabled(), ConcurrencyLimiterRegistry.disabled());
+    }
+
+    @TearDown
+    public void tearDown() {
+        outlierDetector.close();
+    }
+
+    /**
+     * Per-thread routing keys and relay buffer.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+        final String[] keys = Fixtures.routingKeys();
+        final byte[] buffer = new byte[256];
+        int next;
+
+        String nextKey() {
+            return keys[next++ & (Fixtures.ROUTING_KEYS - 1)];
+        }
+    }
+
+    @Benchmark
+    public int forwardRequest(Client client) throws IOException {
+        ProxyResponse response = loadBalancerService.forwardRequest(REQUEST, client.nextKey());
+        try (InputStream body = response.body()) {
+            return body.read(client.buffer);
+        }
+    }
+}
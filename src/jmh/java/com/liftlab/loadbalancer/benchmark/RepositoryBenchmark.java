@@ -0,0 +1,78 @@
+package com.liftlab.loadbalancer.benchmark;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link MapBasedBackendConfigRepository#getActiveServers()} on its own and while another thread
+ * keeps flipping the health of a backend, which republishes the snapshot on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    private static final BackendServer FLAPPING = new BackendServer("http://backend0.liftlab.com");
+
+    @Param({"2", "10", "100", "1000", "10000"})
+    public int backends;
+
+    private MapBasedBackendConfigRepository repository;
+
+    @Setup
+    public void setup() throws LoadBalancerException {
+        repository = Fixtures.repository(backends);
+    }
+
+    /**
+     * Health flag of the backend flipped by the writer thread of a group.
+     */
+    @State(Scope.Group)
+    public static class Flapper {
+        boolean healthy = true;
+    }
+
+    @Benchmark
+    public List<BackendServer> getActiveServers() {
+        return repository.getActiveServers();
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(3)
+    public List<BackendServer> readUnderChurn() {
+        return repository.getActiveServers();
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    public void flipHealth(Flapper flapper) throws LoadBalancerException {
+        flapper.healthy = !flapper.healthy;
+        if (flapper.healthy) {
+            repository.markHealthy(FLAPPING);
+        } else {
+            repository.markUnhealthy(FLAPPING);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.liftlab.loadbalancer.benchmark;
+
+import com.liftlab.loadbalancer.configuration.AppConfig;
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import com.liftlab.loadbalancer.domain.strategy.LoadBalancingStrategy;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LoadBalancingStrategy#select(List, String)} for every strategy against a stable list of
+ * backends, as served from the repository snapshot on the request path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StrategyBenchmark {
+
+    @Param({"round-robin", "random", "least-connections", "peak-ewma", "weighted-round-robin", "consistent-hash"})
+    public String strategy;
+
+    @Param({"2", "10", "100", "1000", "10000"})
+    public int backends;
+
+    private LoadBalancingStrategy loadBalancingStrategy;
+    private List<BackendServer> servers;
+
+    @Setup
+    public void setup() throws LoadBalancerException {
+        StrategyType type = StrategyType.valueOf(strategy.toUpperCase(Locale.ROOT).replace('-', '_'));
+        loadBalancingStrategy = new AppConfig().loadBalancingStrategy(type, new BackendStatsRegistry());
+        servers = Fixtures.repository(backends).getActiveServers();
+        // Build derived state up front, as the snapshot listener would.
+        loadBalancingStrategy.onServersChanged(servers);
+    }
+
+    /**
+     * Per-thread cursor over the routing keys, so hashing strategies see a realistic key spread.
+     */
+    @State(Scope.Thread)
+    public static class Keys {
+        final String[] keys = Fixtures.routingKeys();
+        int next;
+
+        String next() {
+            return keys[next++ & (Fixtures.ROUTING_KEYS - 1)];
+        }
+    }
+
+    @Benchmark
+    public BackendServer select(Keys keys) throws LoadBalancerException {
+        return loadBalancingStrategy.select(servers, keys.next());
+    }
+}
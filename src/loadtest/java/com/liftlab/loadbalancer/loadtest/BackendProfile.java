@@ -0,0 +1,117 @@
+package com.liftlab.loadbalancer.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * How a mock backend behaves: its latency distribution, its error rate and a brownout script of phases in
+ * which it is slower or fails more often.
+ *
+ * <p>Latency is log-normal, given by its median and 99th percentile, which matches the long right tail of
+ * real services better than a normal or uniform distribution.</p>
+ *
+ * @param medianLatency the median latency
+ * @param p99Latency    the 99th percentile latency, at least the median
+ * @param errorRate     the fraction of requests answered with a 500, from 0 to 1
+ * @param phases        the brownout script
+ */
+public record BackendProfile(Duration medianLatency, Duration p99Latency, double errorRate, List<Phase> phases) {
+
+    /** The 99th percentile of the standard normal distribution. */
+    private static final double Z_99 = 2.3263;
+
+    public BackendProfile {
+        phases = List.copyOf(phases);
+    }
+
+    /**
+     * Returns a profile without brownouts.
+     *
+     * @param medianLatency the median latency
+     * @param p99Latency    the 99th percentile latency
+     * @param errorRate     the fraction of requests answered with a 500
+     * @return the profile
+     */
+    public static BackendProfile steady(Duration medianLatency, Duration p99Latency, double errorRate) {
+        return new BackendProfile(medianLatency, p99Latency, errorRate, List.of());
+    }
+
+    /**
+     * Returns this profile with the latency scaled and the error rate replaced.
+     *
+     * @param latencyFactor the factor applied to the latency
+     * @param errorRate     the new error rate
+     * @return the degraded profile
+     */
+    public BackendProfile degraded(double latencyFactor, double errorRate) {
+        return new BackendProfile(scale(medianLatency, latencyFactor), scale(p99Latency, latencyFactor), errorRate,
+                phases);
+    }
+
+    /**
+     * Returns this profile with a brownout phase added to its script.
+     *
+     * @param phase the phase
+     * @return the new profile
+     */
+    public BackendProfile with(Phase phase) {
+        List<Phase> script = new ArrayList<>(phases);
+        script.add(phase);
+        return new BackendProfile(medianLatency, p99Latency, errorRate, script);
+    }
+
+    /**
+     * Draws the latency of a request.
+     *
+     * @param progress how far the measurement has got, from 0 to 1, or negative during warm-up
+     * @param random   the source of randomness
+     * @return the latency in nanoseconds
+     */
+    public long sampleLatencyNanos(double progress, RandomGenerator random) {
+        double median = medianLatency.toNanos();
+        double sigma = p99Latency.compareTo(medianLatency) > 0
+                ? Math.log(p99Latency.toNanos() / median) / Z_99
+                : 0;
+        double latency = median * Math.exp(sigma * random.nextGaussian());
+        Phase phase = phaseAt(progress);
+        return (long) (phase != null ? latency * phase.latencyFactor() : latency);
+    }
+
+    /**
+     * Draws whether a request fails.
+     *
+     * @param progress how far the measurement has got, from 0 to 1, or negative during warm-up
+     * @param random   the source of randomness
+     * @return true if the request is to be answered with a 500
+     */
+    public boolean sampleFailure(double progress, RandomGenerator random) {
+        Phase phase = phaseAt(progress);
+        return random.nextDouble() < (phase != null ? phase.errorRate() : errorRate);
+    }
+
+    private Phase phaseAt(double progress) {
+        for (Phase phase : phases) {
+            if (progress >= phase.from() && progress < phase.to()) {
+                return phase;
+            }
+        }
+        return null;
+    }
+
+    private static Duration scale(Duration duration, double factor) {
+        return Duration.ofNanos((long) (duration.toNanos() * factor));
+    }
+
+    /**
+     * A phase of a brownout script, during which the backend is slower and fails at a different rate while
+     * still passing its health checks.
+     *
+     * @param from          the start of the phase, as a fraction of the measurement
+     * @param to            the end of the phase, as a fraction of the measurement
+     * @param latencyFactor the factor applied to the latency
+     * @param errorRate     the error rate during the phase
+     */
+    public record Phase(double from, double to, double latencyFactor, double errorRate) { }
+}
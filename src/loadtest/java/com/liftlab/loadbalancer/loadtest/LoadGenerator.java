@@ -0,0 +1,197 @@
+package com.liftlab.loadbalancer.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: requests are sent at a fixed rate whatever the response times, as real clients
+ * keep arriving when a service slows down.
+ *
+ * <p>Request {@code i} is due at {@code start + i / rate} and is sent on a virtual thread of its own, so a
+ * slow response never delays the next request. Its latency is measured from when it was due rather than
+ * from when it was actually sent, which corrects for coordinated omission: should the generator itself fall
+ * behind, for example during a GC pause, the time requests spent waiting to be sent still counts. The
+ * largest such lag is reported so that a saturated generator can be told apart from a slow load balancer.</p>
+ *
+ * <p>Requests sent during the warm-up are not recorded.</p>
+ */
+public final class LoadGenerator implements AutoCloseable {
+
+    /** Status recorded for requests that failed or timed out without a response. */
+    public static final int NO_RESPONSE = 0;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+    private final Duration timeout;
+    private volatile long measurementStartNanos = Long.MAX_VALUE;
+    private volatile long measurementNanos = 1;
+
+    /**
+     * Constructor.
+     *
+     * @param timeout the time allowed for a response before a request counts as failed
+     */
+    public LoadGenerator(Duration timeout) {
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Returns how far the current measurement has got, for brownout scripts.
+     *
+     * @return the elapsed fraction of the measurement, negative before it starts
+     */
+    public double progress() {
+        return (double) (System.nanoTime() - measurementStartNanos) / measurementNanos;
+    }
+
+    /**
+     * Sends GET requests to the target at the given rate and waits for all responses.
+     *
+     * @param target   the URL to request
+     * @param rate     the number of requests per second
+     * @param warmup   how long to send requests before recording them
+     * @param duration how long to record requests
+     * @return the recorded requests
+     * @throws InterruptedException if interrupted while sending or waiting
+     */
+    public Result run(URI target, int rate, Duration warmup, Duration duration) throws InterruptedException {
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        int warmupRequests = (int) (warmup.toNanos() / periodNanos);
+        int measuredRequests = (int) (duration.toNanos() / periodNanos);
+        Result result = new Result(measuredRequests, duration);
+        HttpRequest request = HttpRequest.newBuilder(target).timeout(timeout).GET().build();
+        CountDownLatch completed = new CountDownLatch(warmupRequests + measuredRequests);
+
+        long startNanos = System.nanoTime();
+        measurementNanos = duration.toNanos();
+        measurementStartNanos = startNanos + warmupRequests * periodNanos;
+        long maxLagNanos = 0;
+        for (int i = 0; i < warmupRequests + measuredRequests; i++) {
+            long dueNanos = startNanos + i * periodNanos;
+            long waitNanos;
+            while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            maxLagNanos = Math.max(maxLagNanos, -waitNanos);
+            int index = i - warmupRequests;
+            executor.execute(() -> {
+                try {
+                    send(request, dueNanos, index < 0 ? null : result, index);
+                } finally {
+                    completed.countDown();
+                }
+            });
+        }
+        result.maxDispatchLagNanos = maxLagNanos;
+        if (!completed.await(timeout.toNanos() * 2, TimeUnit.NANOSECONDS)) {
+            throw new IllegalStateException("Requests did not complete within twice the timeout");
+        }
+        measurementStartNanos = Long.MAX_VALUE;
+        return result;
+    }
+
+    private void send(HttpRequest request, long dueNanos, Result result, int index) {
+        int status;
+        String backend = null;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            status = response.statusCode();
+            backend = response.headers().firstValue("X-Backend").orElse(null);
+        } catch (IOException e) {
+            status = NO_RESPONSE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = NO_RESPONSE;
+        }
+        if (result != null) {
+            result.latencyNanos[index] = System.nanoTime() - dueNanos;
+            result.statuses[index] = status;
+            result.backends[index] = backend;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The requests recorded during a measurement, by the order they were due in.
+     */
+    public static final class Result {
+
+        private final long[] latencyNanos;
+        private final int[] statuses;
+        private final String[] backends;
+        private final Duration duration;
+        private long maxDispatchLagNanos;
+
+        private Result(int requests, Duration duration) {
+            this.latencyNanos = new long[requests];
+            this.statuses = new int[requests];
+            this.backends = new String[requests];
+            this.duration = duration;
+        }
+
+        public int requests() {
+            return latencyNanos.length;
+        }
+
+        /**
+         * Returns the latency of a request, from when it was due until its response or failure.
+         *
+         * @param index the index of the request
+         * @return the latency in nanoseconds
+         */
+        public long latencyNanos(int index) {
+            return latencyNanos[index];
+        }
+
+        /**
+         * Returns the status of a request.
+         *
+         * @param index the index of the request
+         * @return the HTTP status, or {@link #NO_RESPONSE}
+         */
+        public int status(int index) {
+            return statuses[index];
+        }
+
+        /**
+         * Returns the backend that served a request, from its {@code X-Backend} header.
+         *
+         * @param index the index of the request
+         * @return the backend name, or {@code null} if no backend answered
+         */
+        public String backend(int index) {
+            return backends[index];
+        }
+
+        public Duration duration() {
+            return duration;
+        }
+
+        /**
+         * Returns how late the generator sent its most delayed request.
+         *
+         * @return the lag in nanoseconds
+         */
+        public long maxDispatchLagNanos() {
+            return maxDispatchLagNanos;
+        }
+    }
+}
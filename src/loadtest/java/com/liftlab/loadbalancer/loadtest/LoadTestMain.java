@@ -0,0 +1,196 @@
+package com.liftlab.loadbalancer.loadtest;
+
+import com.liftlab.loadbalancer.LoadBalancerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Entry point of the loadtest profile.
+ *
+ * <p>Starts the load balancer in-process and, for every scenario and strategy, a fresh fleet of
+ * {@link MockBackend}s, which is registered through the management API. The strategy is switched through the
+ * API too, and {@code /api/loadbalancer/forward} is then driven by an open-loop {@link LoadGenerator}. The
+ * results are printed as a table and written to {@code target/loadtest/report.csv}.</p>
+ *
+ * <p>Options, with their defaults:</p>
+ * <ul>
+ *     <li>{@code --rate=500} - requests per second</li>
+ *     <li>{@code --warmup=5s} and {@code --duration=20s} - warm-up, which is not recorded, and measurement
+ *     per run</li>
+ *     <li>{@code --jvm-warmup=20s} - a run against a steady fleet before the first scenario, which is not
+ *     recorded, so that the first scenario does not measure a cold JVM; {@code 0s} skips it</li>
+ *     <li>{@code --timeout=5s} - time allowed per request</li>
+ *     <li>{@code --backends=5} - backends per fleet</li>
+ *     <li>{@code --median=20ms}, {@code --p99=80ms} and {@code --error-rate=0} - the profile of a
+ *     well-behaved backend</li>
+ *     <li>{@code --scenarios=steady,slow-backend,flaky,brownout} - see {@link Scenario#named}</li>
+ *     <li>{@code --strategies=round-robin,least-connections,peak-ewma} - strategy ids</li>
+ * </ul>
+ * <p>Any other argument is passed to the load balancer, for example {@code --loadbalancer.retry.max-attempts=2}.
+ * Rate limiting and the response cache are off unless enabled that way.</p>
+ */
+public final class LoadTestMain {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("rate", "500"),
+            Map.entry("warmup", "5s"),
+            Map.entry("duration", "20s"),
+            Map.entry("timeout", "5s"),
+            Map.entry("jvm-warmup", "20s"),
+            Map.entry("backends", "5"),
+            Map.entry("median", "20ms"),
+            Map.entry("p99", "80ms"),
+            Map.entry("error-rate", "0"),
+            Map.entry("scenarios", String.join(",", Scenario.NAMES)),
+            Map.entry("strategies", "round-robin,least-connections,peak-ewma"));
+
+    /** Load balancer properties set unless given as arguments; command-line ones win over the config file. */
+    private static final Map<String, String> APPLICATION_DEFAULTS = Map.of(
+            "server.port", "0",
+            "spring.main.banner-mode", "off",
+            "loadbalancer.rate-limit.enabled", "false",
+            "loadbalancer.cache.enabled", "false",
+            "logging.level.com.liftlab.loadbalancer", "WARN");
+
+    private final HttpClient admin;
+    private final String api;
+    private final LoadGenerator generator;
+
+    private LoadTestMain(HttpClient admin, String api, LoadGenerator generator) {
+        this.admin = admin;
+        this.api = api;
+        this.generator = generator;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String key = arg.startsWith("--") && separator > 0 ? arg.substring(2, separator) : null;
+            if (key != null && DEFAULTS.containsKey(key)) {
+                options.put(key, arg.substring(separator + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+        int rate = Integer.parseInt(options.get("rate"));
+        Duration warmup = duration(options.get("warmup"));
+        Duration measurement = duration(options.get("duration"));
+        int backends = Integer.parseInt(options.get("backends"));
+        BackendProfile base = BackendProfile.steady(duration(options.get("median")), duration(options.get("p99")),
+                Double.parseDouble(options.get("error-rate")));
+        List<Scenario> scenarios = Arrays.stream(options.get("scenarios").split(","))
+                .map(name -> Scenario.named(name.trim(), backends, base))
+                .toList();
+        List<String> strategies = Arrays.stream(options.get("strategies").split(",")).map(String::trim).toList();
+
+        APPLICATION_DEFAULTS.forEach((key, value) -> {
+            if (applicationArgs.stream().noneMatch(arg -> arg.startsWith("--" + key + "="))) {
+                applicationArgs.add("--" + key + "=" + value);
+            }
+        });
+
+        LoadTestReport report = new LoadTestReport();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LoadBalancerApplication.class)
+                .run(applicationArgs.toArray(String[]::new));
+             LoadGenerator generator = new LoadGenerator(duration(options.get("timeout")))) {
+            String api = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/loadbalancer";
+            LoadTestMain harness = new LoadTestMain(HttpClient.newHttpClient(), api, generator);
+            Duration jvmWarmup = duration(options.get("jvm-warmup"));
+            if (!jvmWarmup.isZero()) {
+                System.out.printf(Locale.ROOT, "Warming up the JVM for %d s%n", jvmWarmup.toSeconds());
+                harness.run(Scenario.named("steady", backends, base), strategies.getFirst(), rate, Duration.ZERO,
+                        jvmWarmup);
+            }
+            for (Scenario scenario : scenarios) {
+                for (String strategy : strategies) {
+                    System.out.printf(Locale.ROOT, "Running %s with %s at %d requests/s%n", scenario.name(),
+                            strategy, rate);
+                    report.add(scenario.name(), strategy, rate,
+                            harness.run(scenario, strategy, rate, warmup, measurement));
+                }
+            }
+        }
+        System.out.println();
+        report.print(System.out);
+        Path csv = Path.of("target", "loadtest", "report.csv");
+        report.writeCsv(csv);
+        System.out.println("Report written to " + csv);
+    }
+
+    /**
+     * Starts the scenario's fleet, registers it and switches to the strategy, drives the load balancer and
+     * removes the fleet again.
+     */
+    private LoadGenerator.Result run(Scenario scenario, String strategy, int rate, Duration warmup,
+                                     Duration measurement) throws IOException, InterruptedException {
+        List<MockBackend> fleet = new ArrayList<>();
+        try {
+            for (BackendProfile profile : scenario.backends()) {
+                MockBackend backend = new MockBackend("b" + fleet.size(), profile, generator::progress);
+                fleet.add(backend);
+                call(admin, "POST", api + "/backend?url=" + encode(backend.url()));
+            }
+            call(admin, "PUT", api + "/strategy?strategy=" + encode(strategy));
+            return generator.run(URI.create(api + "/forward/work"), rate, warmup, measurement);
+        } finally {
+            for (MockBackend backend : fleet) {
+                call(admin, "DELETE", api + "/backend?url=" + encode(backend.url()));
+                backend.close();
+            }
+        }
+    }
+
+    private static void call(HttpClient client, String method, String url) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(url)).method(method, HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(method + " " + url + " failed: " + response.body());
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a duration such as {@code 250ms}, {@code 20s} or {@code 2m}.
+     */
+    private static Duration duration(String value) {
+        String text = value.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (text.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+            }
+            if (text.endsWith("s")) {
+                return Duration.ofMillis(Math.round(Double.parseDouble(text.substring(0, text.length() - 1)) * 1000));
+            }
+            if (text.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+            }
+            return Duration.parse(value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid duration: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.liftlab.loadbalancer.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summarises load test runs, one row per scenario and strategy: throughput, latency percentiles, the share
+ * of failed requests and the share of traffic each backend received.
+ *
+ * <p>Requests answered with a 5xx status or not answered at all count as errors. Latencies cover all
+ * requests, errors included, as a load balancer that fails fast is not the one that wins.</p>
+ */
+public final class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String NO_BACKEND = "none";
+
+    private final List<Row> rows = new ArrayList<>();
+
+    /**
+     * Adds the result of a run.
+     *
+     * @param scenario the scenario name
+     * @param strategy the strategy id
+     * @param rate     the offered rate, in requests per second
+     * @param result   the recorded requests
+     */
+    public void add(String scenario, String strategy, int rate, LoadGenerator.Result result) {
+        int requests = result.requests();
+        long[] latencies = new long[requests];
+        int errors = 0;
+        Map<String, Integer> backends = new TreeMap<>();
+        for (int i = 0; i < requests; i++) {
+            latencies[i] = result.latencyNanos(i);
+            int status = result.status(i);
+            if (status == LoadGenerator.NO_RESPONSE || status >= 500) {
+                errors++;
+            }
+            String backend = result.backend(i);
+            backends.merge(backend == null ? NO_BACKEND : backend, 1, Integer::sum);
+        }
+        Arrays.sort(latencies);
+        double[] percentiles = new double[PERCENTILES.length + 1];
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            percentiles[i] = millis(percentile(latencies, PERCENTILES[i]));
+        }
+        percentiles[PERCENTILES.length] = requests == 0 ? 0 : millis(latencies[requests - 1]);
+        Map<String, Double> shares = new LinkedHashMap<>();
+        backends.forEach((backend, count) -> shares.put(backend, 100.0 * count / Math.max(1, requests)));
+        rows.add(new Row(scenario, strategy, rate, (requests - errors) / (result.duration().toNanos() / 1e9),
+                percentiles, 100.0 * errors / Math.max(1, requests), shares, millis(result.maxDispatchLagNanos())));
+    }
+
+    /**
+     * Prints the table of all runs so far.
+     *
+     * @param out the stream to print to
+     */
+    public void print(PrintStream out) {
+        String header = String.format(Locale.ROOT, "%-14s %-20s %8s %8s %8s %8s %8s %8s %8s %7s  %s",
+                "scenario", "strategy", "offered", "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "errors", "traffic share");
+        out.println(header);
+        out.println("-".repeat(header.length()));
+        for (Row row : rows) {
+            StringJoiner shares = new StringJoiner(" ");
+            row.shares().forEach((backend, share) ->
+                    shares.add(String.format(Locale.ROOT, "%s=%.1f%%", backend, share)));
+            out.println(String.format(Locale.ROOT,
+                    "%-14s %-20s %8d %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f %6.2f%%  %s", row.scenario(),
+                    row.strategy(), row.rate(), row.throughput(), row.percentiles()[0], row.percentiles()[1],
+                    row.percentiles()[2], row.percentiles()[3], row.percentiles()[4], row.errorPercent(), shares));
+        }
+        double maxLag = rows.stream().mapToDouble(Row::maxLagMillis).max().orElse(0);
+        out.println(String.format(Locale.ROOT, "Largest generator lag: %.1f ms", maxLag));
+    }
+
+    /**
+     * Writes all runs so far as CSV, with the traffic shares as {@code backend=percent} pairs in one column.
+     *
+     * @param file the file to write, its directory is created if needed
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCsv(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("scenario,strategy,offered_rps,ok_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,error_percent,"
+                + "max_lag_ms,traffic_share");
+        for (Row row : rows) {
+            StringJoiner shares = new StringJoiner(";");
+            row.shares().forEach((backend, share) ->
+                    shares.add(String.format(Locale.ROOT, "%s=%.2f", backend, share)));
+            double[] p = row.percentiles();
+            lines.add(String.format(Locale.ROOT, "%s,%s,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%s",
+                    row.scenario(), row.strategy(), row.rate(), row.throughput(), p[0], p[1], p[2], p[3], p[4],
+                    row.errorPercent(), row.maxLagMillis(), shares));
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, lines);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.clamp(index, 0, sorted.length - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private record Row(String scenario, String strategy, int rate, double throughput, double[] percentiles,
+                       double errorPercent, Map<String, Double> shares, double maxLagMillis) {
+    }
+}
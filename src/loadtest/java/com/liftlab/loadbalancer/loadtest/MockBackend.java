@@ -0,0 +1,101 @@
+package com.liftlab.loadbalancer.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * An in-process HTTP backend behaving as its {@link BackendProfile} describes.
+ *
+ * <p>Requests to {@code /} are health checks and answered at once, so a backend in a brownout keeps passing
+ * them as real ones often do. Every other request waits out a latency drawn from the profile and is then
+ * answered with a 200, or a 500 at the profile's error rate, carrying the backend name in {@code X-Backend}.
+ * Each exchange runs on a virtual thread, so thousands of requests can wait concurrently.</p>
+ */
+public final class MockBackend implements AutoCloseable {
+
+    private final String name;
+    private final BackendProfile profile;
+    private final DoubleSupplier progress;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpServer server;
+    private final LongAdder served = new LongAdder();
+
+    /**
+     * Starts a backend on an ephemeral loopback port.
+     *
+     * @param name     the backend name
+     * @param profile  its behaviour
+     * @param progress how far the measurement has got, from 0 to 1, or negative during warm-up
+     * @throws IOException if the server cannot be started
+     */
+    public MockBackend(String name, BackendProfile profile, DoubleSupplier progress) throws IOException {
+        this.name = name;
+        this.profile = profile;
+        this.progress = progress;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of requests served, health checks excluded.
+     *
+     * @return the number of requests
+     */
+    public long served() {
+        return served.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+            if (exchange.getRequestURI().getPath().equals("/")) {
+                respond(exchange, 200);
+                return;
+            }
+            served.increment();
+            double current = progress.getAsDouble();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            TimeUnit.NANOSECONDS.sleep(profile.sampleLatencyNanos(current, random));
+            respond(exchange, profile.sampleFailure(current, random) ? 500 : 200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status) throws IOException {
+        byte[] bytes = (name + " " + status).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain");
+        exchange.getResponseHeaders().add("X-Backend", name);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
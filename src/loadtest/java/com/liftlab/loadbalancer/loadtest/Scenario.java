@@ -0,0 +1,53 @@
+package com.liftlab.loadbalancer.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fleet of mock backends to run the load test against, one profile per backend.
+ *
+ * @param name     the scenario name, as given on the command line
+ * @param backends the profiles of the backends
+ */
+public record Scenario(String name, List<BackendProfile> backends) {
+
+    /** The built-in scenarios, by name. */
+    public static final List<String> NAMES = List.of("steady", "slow-backend", "flaky", "brownout");
+
+    public Scenario {
+        backends = List.copyOf(backends);
+    }
+
+    /**
+     * Builds a built-in scenario, in which the first backend misbehaves and the others follow the base
+     * profile:
+     * <ul>
+     *     <li>{@code steady} - all backends follow the base profile</li>
+     *     <li>{@code slow-backend} - the first backend is five times slower throughout</li>
+     *     <li>{@code flaky} - the first backend fails 20% of the requests throughout</li>
+     *     <li>{@code brownout} - the first backend is ten times slower and fails half of the requests
+     *     during the middle half of the measurement, while still passing its health checks</li>
+     * </ul>
+     *
+     * @param name     the scenario name
+     * @param backends the number of backends, at least one
+     * @param base     the profile of a well-behaved backend
+     * @return the scenario
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static Scenario named(String name, int backends, BackendProfile base) {
+        BackendProfile first = switch (name) {
+            case "steady" -> base;
+            case "slow-backend" -> base.degraded(5, base.errorRate());
+            case "flaky" -> base.degraded(1, 0.2);
+            case "brownout" -> base.with(new BackendProfile.Phase(0.25, 0.75, 10, 0.5));
+            default -> throw new IllegalArgumentException("Unknown scenario: " + name + ", expected one of " + NAMES);
+        };
+        List<BackendProfile> profiles = new ArrayList<>();
+        profiles.add(first);
+        for (int i = 1; i < backends; i++) {
+            profiles.add(base);
+        }
+        return new Scenario(name, profiles);
+    }
+}
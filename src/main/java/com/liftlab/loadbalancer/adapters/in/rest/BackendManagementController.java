@@ -2,7 +2,11 @@ package com.liftlab.loadbalancer.adapters.in.rest;
 
 import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
 import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.exception.VersionConflictException;
+import com.liftlab.loadbalancer.domain.model.BackendBatch;
 import com.liftlab.loadbalancer.domain.model.BackendServer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,13 +27,15 @@ public class BackendManagementController {
     /**
      * Registers a new backend server.
      *
-     * @param url the URL of the backend server to register.
+     * @param url    the URL of the backend server to register.
+     * @param weight the relative weight of the backend server, defaults to 1.
      * @return a response indicating successful registration or an error message.
      */
     @PostMapping
-    public ResponseEntity<String> addBackend(@RequestParam("url") String url) {
+    public ResponseEntity<String> addBackend(@RequestParam("url") String url,
+                                             @RequestParam(value = "weight", defaultValue = "1") int weight) {
         try {
-            BackendServer server = new BackendServer(url);
+            BackendServer server = new BackendServer(url, weight);
             backendRepository.registerBackend(server);
             return ResponseEntity.ok("Backend server added: " + url);
         } catch (LoadBalancerException e) {
@@ -37,6 +43,29 @@ public class BackendManagementController {
         }
     }
 
+    /**
+     * Changes the weight of a registered backend server at runtime.
+     *
+     * @param url    the URL of the backend server to update.
+     * @param weight the new relative weight of the backend server.
+     * @return a response indicating a successful update, {@code 404} if the backend server is not
+     * registered, or an error message.
+     */
+    @PutMapping
+    public ResponseEntity<String> updateBackendWeight(@RequestParam("url") String url,
+                                                      @RequestParam("weight") int weight) {
+        try {
+            BackendServer server = new BackendServer(url, weight);
+            if (!backendRepository.updateWeight(server)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body("Error updating backend: not registered: " + url);
+            }
+            return ResponseEntity.ok("Backend server weight updated: " + url + " -> " + weight);
+        } catch (LoadBalancerException e) {
+            return ResponseEntity.badRequest().body("Error updating backend: " + e.getMessage());
+        }
+    }
+
     /**
      * Removes an existing backend server.
      *
@@ -53,4 +82,57 @@ public class BackendManagementController {
             return ResponseEntity.badRequest().body("Error removing backend: " + e.getMessage());
         }
     }
+
+    /**
+     * Applies a batch of changes atomically: either a desired set of backends, replacing the registered
+     * ones, or backends to add, drain and remove. The whole batch bumps the configuration version once.
+     * With {@code If-Match} carrying the ETag of the status endpoint, the batch is only applied if the
+     * configuration has not changed since.
+     *
+     * @param batch   the changes to apply.
+     * @param ifMatch the expected configuration version as an ETag, optional.
+     * @return a response with the new version, {@code 412} on a version conflict, or an error message.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<String> applyBatch(@RequestBody BackendBatch batch,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                             String ifMatch) {
+        try {
+            long expectedVersion = parseETag(ifMatch);
+            long version = backendRepository.applyBatch(batch, expectedVersion).version();
+            return ResponseEntity.ok().eTag(eTag(version)).body("Backend batch applied: version " + version);
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .eTag(eTag(e.getCurrentVersion()))
+                    .body("Error applying backend batch: " + e.getMessage());
+        } catch (LoadBalancerException e) {
+            return ResponseEntity.badRequest().body("Error applying backend batch: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Formats a configuration version as an ETag.
+     */
+    static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static long parseETag(String ifMatch) throws LoadBalancerException {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return MapBasedBackendConfigRepository.ANY_VERSION;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        try {
+            long version = Long.parseLong(value.replace("\"", ""));
+            if (version >= 0) {
+                return version;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below.
+        }
+        throw new LoadBalancerException("Invalid If-Match header: " + ifMatch);
+    }
 }
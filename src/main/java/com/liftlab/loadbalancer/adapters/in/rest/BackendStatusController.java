@@ -1,14 +1,15 @@
 package com.liftlab.loadbalancer.adapters.in.rest;
 
 import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
-import com.liftlab.loadbalancer.domain.model.BackendServer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -26,17 +27,45 @@ public class BackendStatusController {
     }
 
     /**
-     * Returns the status of all registered backend servers, divided into active and inactive.
+     * Returns the status of all registered backend servers, divided into active, inactive and draining,
+     * together with the version of the configuration. The version is also sent as the ETag, so a client
+     * polling with {@code If-None-Match} gets {@code 304 Not Modified} until something changes.
      *
-     * @return a JSON object containing the lists of active and inactive backend servers.
+     * <p>The header is evaluated here rather than through the servlet request, so the endpoint works
+     * unchanged on the reactive front end.</p>
+     *
+     * @param ifNoneMatch the {@code If-None-Match} header, if any
+     * @return a JSON object containing the version and the lists of backend servers.
      */
     @GetMapping("/status")
-    public ResponseEntity<Map<String, List<BackendServer>>> getBackendStatus() {
-        Map<String, List<BackendServer>> statusMap = new HashMap<>();
-        List<BackendServer> activeServers = backendRepository.getActiveServers();
-        List<BackendServer> inactiveServers = backendRepository.getInactiveServers();
-        statusMap.put("activeServers", activeServers);
-        statusMap.put("inactiveServers", inactiveServers);
-        return ResponseEntity.ok(statusMap);
+    public ResponseEntity<Map<String, Object>> getBackendStatus(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        MapBasedBackendConfigRepository.Snapshot snapshot = backendRepository.getSnapshot();
+        String eTag = BackendManagementController.eTag(snapshot.version());
+        if (matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        Map<String, Object> statusMap = new LinkedHashMap<>();
+        statusMap.put("version", snapshot.version());
+        statusMap.put("activeServers", snapshot.activeServers());
+        statusMap.put("inactiveServers", snapshot.inactiveServers());
+        statusMap.put("drainingServers", snapshot.drainingServers());
+        return ResponseEntity.ok().eTag(eTag).body(statusMap);
+    }
+
+    /**
+     * Weak comparison (RFC 9110, section 13.1.2): any listed tag, weak or strong, or {@code *} matches.
+     */
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -1,31 +1,132 @@
 package com.liftlab.loadbalancer.adapters.in.rest;
 
+import com.liftlab.loadbalancer.adapters.io.BufferPool;
+import com.liftlab.loadbalancer.adapters.io.StreamPipe;
+import com.liftlab.loadbalancer.application.resilience.RateLimiter;
 import com.liftlab.loadbalancer.application.service.LoadBalancerService;
+import com.liftlab.loadbalancer.domain.model.HopByHopHeaders;
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import com.liftlab.loadbalancer.domain.model.ProxyResponse;
 import com.liftlab.loadbalancer.port.in.LoadBalancerPort;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * REST controller that handles incoming load balancer requests.
+ * Any method and any path below {@code /api/loadbalancer/forward} is proxied to a backend server,
+ * with the remaining path and query string used as the request target on the backend.
+ *
+ * <p>Bodies are streamed in both directions: the servlet input stream is handed to the backend
+ * client as is, and the backend response is piped to the servlet output stream through a pooled
+ * buffer, so heap usage per request does not grow with the body size.</p>
+ *
+ * <p>Requests are rate limited per client before a backend is selected. The client is identified by
+ * {@code loadbalancer.rate-limit.client-key}, in the same format as the routing key, or by its IP
+ * address; clients over their rate get a 429 without touching the backends.</p>
+ *
+ * <p>Only active on the servlet stack; the {@code reactive} build replaces it with a non-blocking
+ * front end on the same path.</p>
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/loadbalancer")
 public class LoadBalancerController implements LoadBalancerPort {
 
+    private static final byte[] RATE_LIMITED = "Rate limit exceeded".getBytes(StandardCharsets.UTF_8);
+
     private final LoadBalancerService loadBalancerService;
+    private final RoutingKeyExtractor routingKeyExtractor;
+    private final BufferPool bufferPool;
+    private final RateLimiter rateLimiter;
+    private final RoutingKeyExtractor clientKeyExtractor;
 
-    public LoadBalancerController(LoadBalancerService loadBalancerService) {
+    public LoadBalancerController(LoadBalancerService loadBalancerService,
+                                  @Value("${loadbalancer.routing.key:}") String routingKey,
+                                  @Value("${loadbalancer.streaming.buffer-size:16384}") int bufferSize,
+                                  @Value("${loadbalancer.streaming.pooled-buffers:256}") int pooledBuffers,
+                                  RateLimiter rateLimiter,
+                                  @Value("${loadbalancer.rate-limit.client-key:}") String clientKey) {
         this.loadBalancerService = loadBalancerService;
+        this.routingKeyExtractor = RoutingKeyExtractor.parse(routingKey);
+        this.bufferPool = new BufferPool(bufferSize, pooledBuffers, false);
+        this.rateLimiter = rateLimiter;
+        this.clientKeyExtractor = RoutingKeyExtractor.parse(clientKey);
     }
 
     /**
      * Endpoint to forward a request to a backend server.
      *
-     * @param request the client request payload
-     * @return a response message indicating the result
+     * @param httpRequest  the servlet request, providing the method, path, query, headers and body
+     * @param httpResponse the servlet response the backend response is streamed to
+     * @throws IOException if relaying the response body fails
      */
+    @RequestMapping({"/forward", "/forward/**"})
+    public void forward(HttpServletRequest httpRequest, HttpServletResponse httpResponse) throws IOException {
+        if (!rateLimiter.tryAcquire(clientKey(httpRequest))) {
+            httpResponse.setStatus(429);
+            httpResponse.setHeader("Retry-After", Long.toString(rateLimiter.retryAfterSeconds()));
+            httpResponse.setContentType("text/plain;charset=UTF-8");
+            httpResponse.setContentLength(RATE_LIMITED.length);
+            httpResponse.getOutputStream().write(RATE_LIMITED);
+            return;
+        }
+        ProxyRequest request = new ProxyRequest(httpRequest.getMethod(), backendPath(httpRequest),
+                httpRequest.getQueryString(), requestHeaders(httpRequest), httpRequest.getInputStream(),
+                requestContentLength(httpRequest));
+        ProxyResponse response = handleRequest(request, routingKeyExtractor.extract(httpRequest));
+        try (InputStream body = response.body()) {
+            httpResponse.setStatus(response.status());
+            response.headers().forEach((name, values) -> values.forEach(value -> httpResponse.addHeader(name, value)));
+            if (response.contentLength() >= 0) {
+                httpResponse.setContentLengthLong(response.contentLength());
+            }
+            StreamPipe.copy(body, httpResponse.getOutputStream(), bufferPool);
+        }
+    }
+
     @Override
-    @PostMapping("/forward")
-    public String handleRequest(@RequestBody String request) {
-        return loadBalancerService.forwardRequest(request);
+    public ProxyResponse handleRequest(ProxyRequest request, String routingKey) {
+        return loadBalancerService.forwardRequest(request, routingKey);
+    }
+
+    private String clientKey(HttpServletRequest httpRequest) {
+        String clientKey = clientKeyExtractor.extract(httpRequest);
+        return clientKey != null ? clientKey : httpRequest.getRemoteAddr();
+    }
+
+    private static String backendPath(HttpServletRequest httpRequest) {
+        String path = httpRequest.getRequestURI().substring(
+                httpRequest.getContextPath().length() + RoutingKeyExtractor.FORWARD_PATH.length());
+        return path.isEmpty() ? "/" : path;
+    }
+
+    /**
+     * A request without {@code Content-Length} or {@code Transfer-Encoding} has no body (RFC 9112),
+     * which must be reported as zero rather than unknown so that no empty chunked body is sent.
+     */
+    private static long requestContentLength(HttpServletRequest httpRequest) {
+        long contentLength = httpRequest.getContentLengthLong();
+        return contentLength < 0 && httpRequest.getHeader("Transfer-Encoding") == null ? 0 : contentLength;
+    }
+
+    private static Map<String, List<String>> requestHeaders(HttpServletRequest httpRequest) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : Collections.list(httpRequest.getHeaderNames())) {
+            if (!HopByHopHeaders.isHopByHop(name)) {
+                headers.put(name, Collections.list(httpRequest.getHeaders(name)));
+            }
+        }
+        return headers;
     }
 }
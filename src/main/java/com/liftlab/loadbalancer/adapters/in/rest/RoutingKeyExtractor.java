@@ -0,0 +1,129 @@
+package com.liftlab.loadbalancer.adapters.in.rest;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.function.UnaryOperator;
+
+/**
+ * Extracts the routing key used by hash-based strategies from an incoming request.
+ *
+ * <p>The source is configured with {@code loadbalancer.routing.key} as one of:</p>
+ * <ul>
+ *     <li>{@code header:<name>} - the value of a request header</li>
+ *     <li>{@code query:<name>} - the value of a query parameter</li>
+ *     <li>{@code path:<index>} - the zero-based path segment after the forward endpoint</li>
+ * </ul>
+ * <p>An empty value disables key extraction.</p>
+ */
+public final class RoutingKeyExtractor {
+
+    public static final String FORWARD_PATH = "/api/loadbalancer/forward";
+
+    private enum Source { NONE, HEADER, QUERY, PATH }
+
+    private final Source source;
+    private final String name;
+    private final int segmentIndex;
+
+    private RoutingKeyExtractor(Source source, String name, int segmentIndex) {
+        this.source = source;
+        this.name = name;
+        this.segmentIndex = segmentIndex;
+    }
+
+    /**
+     * Parses a routing key specification.
+     *
+     * @param spec the specification, for example {@code header:X-Session-Id}
+     * @return the extractor
+     * @throws IllegalArgumentException if the specification is malformed
+     */
+    public static RoutingKeyExtractor parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return new RoutingKeyExtractor(Source.NONE, null, -1);
+        }
+        int separator = spec.indexOf(':');
+        if (separator <= 0 || separator == spec.length() - 1) {
+            throw new IllegalArgumentException("Invalid routing key specification: " + spec);
+        }
+        String type = spec.substring(0, separator).trim();
+        String value = spec.substring(separator + 1).trim();
+        return switch (type) {
+            case "header" -> new RoutingKeyExtractor(Source.HEADER, value, -1);
+            case "query" -> new RoutingKeyExtractor(Source.QUERY, value, -1);
+            case "path" -> new RoutingKeyExtractor(Source.PATH, null, Integer.parseInt(value));
+            default -> throw new IllegalArgumentException("Unknown routing key source: " + type);
+        };
+    }
+
+    /**
+     * Extracts the routing key from the request.
+     *
+     * @param request the incoming request
+     * @return the routing key, or {@code null} if the request does not carry one
+     */
+    public String extract(HttpServletRequest request) {
+        return extract(request::getHeader, request.getQueryString(),
+                request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    /**
+     * Extracts the routing key from the parts of a request, for front ends that are not servlet-based.
+     *
+     * @param headers a lookup of the first value of a request header by name
+     * @param query   the raw query string, or {@code null}
+     * @param path    the request path, without the context path
+     * @return the routing key, or {@code null} if the request does not carry one
+     */
+    public String extract(UnaryOperator<String> headers, String query, String path) {
+        return switch (source) {
+            case NONE -> null;
+            case HEADER -> headers.apply(name);
+            case QUERY -> queryParameter(query);
+            case PATH -> pathSegment(path);
+        };
+    }
+
+    /**
+     * Reads the parameter from the raw query string rather than {@code getParameter}, which would
+     * make the container consume a form-encoded body that still has to be forwarded.
+     */
+    private String queryParameter(String query) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+            if (URLDecoder.decode(key, StandardCharsets.UTF_8).equals(name)) {
+                return separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private String pathSegment(String path) {
+        if (!path.startsWith(FORWARD_PATH)) {
+            return null;
+        }
+        int index = 0;
+        int start = FORWARD_PATH.length();
+        while (start < path.length()) {
+            if (path.charAt(start) == '/') {
+                start++;
+                continue;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (index++ == segmentIndex) {
+                return path.substring(start, end);
+            }
+            start = end;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.liftlab.loadbalancer.adapters.in.rest;
+
+import com.liftlab.loadbalancer.application.factory.RoutingStrategyFactory;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * REST controller for switching load balancing strategies at runtime.
+ * The default strategy applies to every request; routes, identified by a path prefix below
+ * {@code /api/loadbalancer/forward}, can be given a strategy of their own.
+ */
+@RestController
+@RequestMapping("/api/loadbalancer/strategy")
+public class StrategyManagementController {
+
+    private final RoutingStrategyFactory routingStrategyFactory;
+
+    public StrategyManagementController(RoutingStrategyFactory routingStrategyFactory) {
+        this.routingStrategyFactory = routingStrategyFactory;
+    }
+
+    /**
+     * Returns the default strategy and the strategies assigned to routes.
+     *
+     * @return a JSON object with the default strategy and the strategy per route path prefix.
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStrategies() {
+        Map<String, String> routes = new LinkedHashMap<>();
+        routingStrategyFactory.getRouteStrategyTypes().forEach((prefix, type) -> routes.put(prefix, type.id()));
+        Map<String, Object> strategies = new LinkedHashMap<>();
+        strategies.put("defaultStrategy", routingStrategyFactory.getDefaultStrategyType().id());
+        strategies.put("routes", routes);
+        return ResponseEntity.ok(strategies);
+    }
+
+    /**
+     * Switches the default strategy.
+     *
+     * @param strategy the strategy id, for example {@code least-connections}.
+     * @return a response naming the previous and new strategy or an error message.
+     */
+    @PutMapping
+    public ResponseEntity<String> setDefaultStrategy(@RequestParam("strategy") String strategy) {
+        try {
+            StrategyType type = StrategyType.fromId(strategy);
+            StrategyType previous = routingStrategyFactory.setDefaultStrategy(type);
+            return ResponseEntity.ok("Default strategy switched: " + previous.id() + " -> " + type.id());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error switching strategy: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Assigns a strategy to a route.
+     *
+     * @param path     the path prefix of the route, for example {@code /orders}.
+     * @param strategy the strategy id, for example {@code consistent-hash}.
+     * @return a response indicating a successful assignment or an error message.
+     */
+    @PutMapping("/route")
+    public ResponseEntity<String> setRouteStrategy(@RequestParam("path") String path,
+                                                   @RequestParam("strategy") String strategy) {
+        try {
+            StrategyType type = StrategyType.fromId(strategy);
+            routingStrategyFactory.setRouteStrategy(path, type);
+            return ResponseEntity.ok("Route strategy set: " + path + " -> " + type.id());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error setting route strategy: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the strategy of a route, so that it uses the default strategy again.
+     *
+     * @param path the path prefix of the route.
+     * @return a response indicating a successful removal or an error message.
+     */
+    @DeleteMapping("/route")
+    public ResponseEntity<String> removeRouteStrategy(@RequestParam("path") String path) {
+        try {
+            if (!routingStrategyFactory.removeRouteStrategy(path)) {
+                return ResponseEntity.badRequest().body("Error removing route strategy: No strategy set for " + path);
+            }
+            return ResponseEntity.ok("Route strategy removed: " + path);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error removing route strategy: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,591 @@
+package com.liftlab.loadbalancer.adapters.in.tcp;
+
+import com.liftlab.loadbalancer.adapters.io.BufferPool;
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.application.factory.RoutingStrategyFactory;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreaker;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreakerRegistry;
+import com.liftlab.loadbalancer.application.resilience.ConcurrencyLimiter;
+import com.liftlab.loadbalancer.application.resilience.ConcurrencyLimiterRegistry;
+import com.liftlab.loadbalancer.application.resilience.OutlierDetector;
+import com.liftlab.loadbalancer.configuration.TcpProxyProperties;
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.stats.BackendStats;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Layer 4 proxy relaying raw TCP connections to the registered backends, for protocols other than
+ * HTTP/1.1 such as databases or gRPC.
+ *
+ * <p>Every accepted connection is assigned a backend by the default strategy of the
+ * {@link RoutingStrategyFactory}, with the client address as routing key, so consistent hashing keeps a
+ * client on one backend. The backend is connected to without blocking and the connection handed to one of
+ * a few event loops, each a thread with its own {@link Selector}. An event loop relays bytes in both
+ * directions through two pooled direct buffers: reading stops while the buffer towards a slow peer is
+ * full, which propagates backpressure to the fast side, and an end of stream is passed on as a half
+ * close, so request-response protocols that signal the end of a request that way keep working.</p>
+ *
+ * <p>Connections count as in-flight requests of their backend in the {@link BackendStatsRegistry}, so
+ * least-connections balancing sees them; the latency recorded is the time to connect.</p>
+ *
+ * <p>Backends are admitted as by the HTTP proxy: a backend whose circuit is open or that is at its
+ * concurrency limit is skipped, and a connection holds its concurrency slot until it is closed. Whether
+ * the connect succeeds, fails or times out is reported to the {@link OutlierDetector} and the backend's
+ * {@link CircuitBreaker}, so a backend refusing connections is ejected and its circuit opened.</p>
+ *
+ * <p>A failure on one connection closes only that connection. An event loop whose selector fails
+ * closes its connections and gets no new ones, and the acceptor backs off while accepting fails, for
+ * example when the process is out of file descriptors.</p>
+ */
+public class TcpProxyServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TcpProxyServer.class);
+
+    private static final long SELECT_TIMEOUT_MILLIS = 100;
+    private static final long MIN_ACCEPT_BACKOFF_MILLIS = 5;
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1000;
+
+    private final TcpProxyProperties properties;
+    private final MapBasedBackendConfigRepository backendRepository;
+    private final RoutingStrategyFactory routingStrategyFactory;
+    private final BackendStatsRegistry statsRegistry;
+    private final OutlierDetector outlierDetector;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final ConcurrencyLimiterRegistry concurrencyLimiters;
+    private final BufferPool bufferPool;
+    private final Map<String, InetSocketAddress> addressesByUrl = new ConcurrentHashMap<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong acceptedConnections = new AtomicLong();
+    private final ServerSocketChannel serverChannel;
+    private final List<EventLoop> eventLoops;
+    private volatile boolean closed;
+
+    /**
+     * Constructor. Starts listening right away if the proxy is enabled.
+     *
+     * @param properties             the TCP proxy settings
+     * @param backendRepository      the repository providing the active backends
+     * @param routingStrategyFactory the factory providing the strategy that selects a backend
+     * @param statsRegistry          the live backend statistics connections are counted in
+     * @param outlierDetector        the detector connect failures are reported to
+     * @param circuitBreakers        the per-backend circuit breakers admitting connections
+     * @param concurrencyLimiters    the per-backend concurrency limiters admitting connections
+     * @throws UncheckedIOException if the address cannot be bound
+     */
+    public TcpProxyServer(TcpProxyProperties properties, MapBasedBackendConfigRepository backendRepository,
+                          RoutingStrategyFactory routingStrategyFactory, BackendStatsRegistry statsRegistry,
+                          OutlierDetector outlierDetector, CircuitBreakerRegistry circuitBreakers,
+                          ConcurrencyLimiterRegistry concurrencyLimiters) {
+        this.properties = properties;
+        this.backendRepository = backendRepository;
+        this.routingStrategyFactory = routingStrategyFactory;
+        this.statsRegistry = statsRegistry;
+        this.outlierDetector = outlierDetector;
+        this.circuitBreakers = circuitBreakers;
+        this.concurrencyLimiters = concurrencyLimiters;
+        this.bufferPool = new BufferPool((int) properties.bufferSize().toBytes(), properties.pooledBuffers(), true);
+        if (!properties.enabled()) {
+            this.serverChannel = null;
+            this.eventLoops = List.of();
+            return;
+        }
+        int loops = properties.eventLoops() > 0 ? properties.eventLoops() : Runtime.getRuntime().availableProcessors();
+        try {
+            this.serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(properties.address(), properties.port()));
+            List<EventLoop> started = new ArrayList<>(loops);
+            for (int i = 0; i < loops; i++) {
+                started.add(new EventLoop(i));
+            }
+            this.eventLoops = List.copyOf(started);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start TCP proxy on " + properties.address() + ":"
+                    + properties.port(), e);
+        }
+        backendRepository.addSnapshotListener(
+                snapshot -> addressesByUrl.keySet().retainAll(snapshot.registeredUrls()));
+        Thread.ofPlatform().name("tcp-proxy-acceptor").daemon().start(this::accept);
+        logger.info("TCP proxy listening on {}:{} with {} event loops", properties.address(), port(), loops);
+    }
+
+    /**
+     * Returns the port the proxy listens on.
+     *
+     * @return the bound port, or {@code -1} if the proxy is disabled
+     */
+    public int port() {
+        return serverChannel == null ? -1 : serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Returns the number of client connections currently relayed.
+     *
+     * @return the open connections
+     */
+    public int openConnections() {
+        return openConnections.get();
+    }
+
+    /**
+     * Returns the number of client connections accepted since startup.
+     *
+     * @return the accepted connections
+     */
+    public long acceptedConnections() {
+        return acceptedConnections.get();
+    }
+
+    @Override
+    public void close() {
+        if (serverChannel == null) {
+            return;
+        }
+        closed = true;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            logger.warn("Cannot close TCP proxy port", e);
+        }
+        eventLoops.forEach(loop -> loop.selector.wakeup());
+    }
+
+    /**
+     * Accepts connections, selects their backend and starts connecting to it; DNS lookups of backend
+     * host names therefore never block an event loop. While accepting fails, it backs off exponentially
+     * instead of spinning on an error that persists.
+     */
+    private void accept() {
+        int next = 0;
+        long backoffMillis = 0;
+        while (!closed) {
+            SocketChannel client;
+            try {
+                client = serverChannel.accept();
+                backoffMillis = 0;
+            } catch (IOException e) {
+                if (closed) {
+                    break;
+                }
+                backoffMillis = Math.min(Math.max(backoffMillis * 2, MIN_ACCEPT_BACKOFF_MILLIS),
+                        MAX_ACCEPT_BACKOFF_MILLIS);
+                logger.warn("TCP proxy cannot accept connections, retrying in {} ms: {}", backoffMillis, e.toString());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                continue;
+            }
+            acceptedConnections.incrementAndGet();
+            Connection connection = connect(client);
+            if (connection != null) {
+                next = nextLiveLoop(next);
+                if (next < 0) {
+                    logger.error("TCP proxy has no event loop left, dropping connection");
+                    connection.close();
+                    next = 0;
+                } else {
+                    eventLoops.get(next).register(connection);
+                    next = (next + 1) % eventLoops.size();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first live event loop from {@code start} on, wrapping around, or
+     * {@code -1} if every loop has failed.
+     */
+    private int nextLiveLoop(int start) {
+        for (int i = 0; i < eventLoops.size(); i++) {
+            int index = (start + i) % eventLoops.size();
+            if (eventLoops.get(index).alive) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Selects a backend admitting the connection and starts connecting to it, or closes the client
+     * connection and returns {@code null} if there is none or the connect fails right away.
+     */
+    private Connection connect(SocketChannel client) {
+        BackendServer server = null;
+        SocketChannel backend = null;
+        try {
+            InetSocketAddress clientAddress = (InetSocketAddress) client.getRemoteAddress();
+            client.configureBlocking(false);
+            client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            server = routingStrategyFactory.getStrategy().select(backendRepository.getActiveServers(),
+                    clientAddress.getAddress().getHostAddress(), this::admits);
+            backend = SocketChannel.open();
+            backend.configureBlocking(false);
+            backend.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        } catch (IOException | LoadBalancerException | RuntimeException e) {
+            logger.debug("TCP proxy cannot relay a connection: {}", e.toString());
+            closeQuietly(client);
+            closeQuietly(backend);
+            if (server != null) {
+                circuitBreakers.circuitBreakerFor(server).onCancelled();
+                concurrencyLimiters.limiterFor(server).release();
+            }
+            return null;
+        }
+        Connection connection = new Connection(client, backend, server);
+        return connection.start() ? connection : null;
+    }
+
+    private boolean admits(BackendServer server) {
+        ConcurrencyLimiter limiter = concurrencyLimiters.limiterFor(server);
+        if (!limiter.tryAcquire()) {
+            return false;
+        }
+        if (circuitBreakers.circuitBreakerFor(server).tryAcquirePermission()) {
+            return true;
+        }
+        limiter.release();
+        return false;
+    }
+
+    private InetSocketAddress addressOf(BackendServer server) {
+        return addressesByUrl.computeIfAbsent(server.url(), url -> {
+            URI uri = URI.create(url);
+            int port = uri.getPort() >= 0 ? uri.getPort() : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+            return new InetSocketAddress(uri.getHost(), port);
+        });
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing left to do with the channel.
+            }
+        }
+    }
+
+    /**
+     * A selector thread relaying the connections registered with it.
+     */
+    private final class EventLoop {
+
+        private final Selector selector;
+        private final Queue<Connection> registrations = new ConcurrentLinkedQueue<>();
+        private final Set<Connection> connecting = new HashSet<>();
+        /**
+         * Cleared when the loop stops, after which connections handed to it are closed instead.
+         */
+        private volatile boolean alive = true;
+
+        EventLoop(int index) throws IOException {
+            this.selector = Selector.open();
+            Thread.ofPlatform().name("tcp-proxy-loop-" + index).daemon().start(this::run);
+        }
+
+        void register(Connection connection) {
+            registrations.add(connection);
+            if (alive) {
+                selector.wakeup();
+            } else {
+                // The loop stopped meanwhile and may have drained the queue already.
+                closeRegistrations();
+            }
+        }
+
+        private void run() {
+            try {
+                while (!closed) {
+                    try {
+                        selector.select(SELECT_TIMEOUT_MILLIS);
+                    } catch (IOException e) {
+                        logger.error("TCP proxy event loop failed to select, closing its connections", e);
+                        break;
+                    }
+                    Connection registered;
+                    while ((registered = registrations.poll()) != null) {
+                        registered.register(selector, connecting);
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        ((Connection) key.attachment()).handle(key, connecting);
+                    }
+                    expireConnects();
+                }
+            } catch (RuntimeException | Error e) {
+                logger.error("TCP proxy event loop failed, closing its connections", e);
+                throw e;
+            } finally {
+                alive = false;
+                shutdown();
+            }
+        }
+
+        private void shutdown() {
+            try {
+                for (SelectionKey key : selector.keys()) {
+                    ((Connection) key.attachment()).close();
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Cannot close all connections of a TCP proxy event loop", e);
+            }
+            closeRegistrations();
+            try {
+                selector.close();
+            } catch (IOException e) {
+                logger.warn("Cannot close TCP proxy selector", e);
+            }
+        }
+
+        private void closeRegistrations() {
+            Connection registered;
+            while ((registered = registrations.poll()) != null) {
+                registered.close();
+            }
+        }
+
+        private void expireConnects() {
+            if (connecting.isEmpty()) {
+                return;
+            }
+            long now = System.nanoTime();
+            connecting.removeIf(connection -> {
+                if (now - connection.connectDeadlineNanos >= 0) {
+                    logger.debug("TCP proxy timed out connecting to a backend");
+                    connection.connectFailed(new ConnectException("Connect to " + connection.server.url()
+                            + " timed out after " + properties.connectTimeout().toMillis() + " ms"));
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    /**
+     * A client connection and its backend connection, relayed by one event loop. {@code upstream} holds
+     * bytes from the client to the backend and {@code downstream} the reverse; both are kept in fill mode
+     * between events. A connection holds a circuit breaker permit until its connect succeeds or fails, and a
+     * concurrency limiter slot until it is closed.
+     */
+    private final class Connection {
+
+        private final SocketChannel client;
+        private final SocketChannel backend;
+        private final BackendServer server;
+        private final BackendStats stats;
+        private final CircuitBreaker circuitBreaker;
+        private final ConcurrencyLimiter limiter;
+        private final long startNanos = System.nanoTime();
+        private final long connectDeadlineNanos;
+        private final ByteBuffer upstream = bufferPool.acquire();
+        private final ByteBuffer downstream = bufferPool.acquire();
+        private SelectionKey clientKey;
+        private SelectionKey backendKey;
+        private boolean connected;
+        private boolean connectFailed;
+        private boolean clientEof;
+        private boolean backendEof;
+        private boolean upstreamShut;
+        private boolean downstreamShut;
+        private long connectNanos;
+        private boolean closed;
+
+        Connection(SocketChannel client, SocketChannel backend, BackendServer server) {
+            this.client = client;
+            this.backend = backend;
+            this.server = server;
+            this.stats = statsRegistry.statsFor(server);
+            this.circuitBreaker = circuitBreakers.circuitBreakerFor(server);
+            this.limiter = concurrencyLimiters.limiterFor(server);
+            this.connectDeadlineNanos = startNanos + properties.connectTimeout().toNanos();
+            openConnections.incrementAndGet();
+            stats.requestStarted();
+        }
+
+        /**
+         * Starts connecting to the backend, which rarely completes right away.
+         *
+         * @return false if the connect failed, in which case the connection is closed
+         */
+        boolean start() {
+            try {
+                if (backend.connect(addressOf(server))) {
+                    connected();
+                }
+                return true;
+            } catch (IOException e) {
+                connectFailed(e);
+            } catch (RuntimeException e) {
+                // Such as an UnresolvedAddressException.
+                ConnectException failure = new ConnectException("Cannot connect to " + server.url() + ": " + e);
+                failure.initCause(e);
+                connectFailed(failure);
+            }
+            return false;
+        }
+
+        private void connected() {
+            connected = true;
+            connectNanos = System.nanoTime() - startNanos;
+            outlierDetector.recordConnected(server);
+            circuitBreaker.onResult(connectNanos, false);
+        }
+
+        void connectFailed(IOException cause) {
+            logger.debug("TCP proxy cannot connect to {}: {}", server.url(), cause.toString());
+            connectFailed = true;
+            outlierDetector.recordFailure(server, cause);
+            circuitBreaker.onResult(System.nanoTime() - startNanos, true);
+            close();
+        }
+
+        void register(Selector selector, Set<Connection> connecting) {
+            try {
+                clientKey = client.register(selector, 0, this);
+                backendKey = backend.register(selector, 0, this);
+                if (!connected) {
+                    connecting.add(this);
+                }
+                updateInterest();
+            } catch (IOException | RuntimeException e) {
+                connecting.remove(this);
+                close();
+            }
+        }
+
+        void handle(SelectionKey key, Set<Connection> connecting) {
+            if (closed) {
+                return;
+            }
+            try {
+                if (!key.isValid()) {
+                    close();
+                    return;
+                }
+                if (key == backendKey && key.isConnectable()) {
+                    boolean finished;
+                    try {
+                        finished = backend.finishConnect();
+                    } catch (IOException e) {
+                        connecting.remove(this);
+                        connectFailed(e);
+                        return;
+                    }
+                    if (!finished) {
+                        return;
+                    }
+                    connected();
+                    connecting.remove(this);
+                }
+                if (key.isReadable()) {
+                    if (key == clientKey) {
+                        clientEof = client.read(upstream) < 0;
+                    } else {
+                        backendEof = backend.read(downstream) < 0;
+                    }
+                }
+                relay();
+            } catch (IOException | RuntimeException e) {
+                // Including a CancelledKeyException if the peer's key was cancelled meanwhile.
+                connecting.remove(this);
+                close();
+            }
+        }
+
+        /**
+         * Writes whatever is buffered, passes an end of stream on once its direction is drained, and
+         * closes the connection when both directions are done.
+         */
+        private void relay() throws IOException {
+            if (connected) {
+                flush(upstream, backend);
+                if (clientEof && upstream.position() == 0 && !upstreamShut) {
+                    backend.shutdownOutput();
+                    upstreamShut = true;
+                }
+            }
+            flush(downstream, client);
+            if (backendEof && downstream.position() == 0 && !downstreamShut) {
+                client.shutdownOutput();
+                downstreamShut = true;
+            }
+            if (upstreamShut && downstreamShut) {
+                close();
+            } else {
+                updateInterest();
+            }
+        }
+
+        private static void flush(ByteBuffer buffer, SocketChannel target) throws IOException {
+            if (buffer.position() > 0) {
+                buffer.flip();
+                target.write(buffer);
+                buffer.compact();
+            }
+        }
+
+        private void updateInterest() {
+            int clientOps = (!clientEof && upstream.hasRemaining() ? SelectionKey.OP_READ : 0)
+                    | (downstream.position() > 0 ? SelectionKey.OP_WRITE : 0);
+            int backendOps = !connected
+                    ? SelectionKey.OP_CONNECT
+                    : (!backendEof && downstream.hasRemaining() ? SelectionKey.OP_READ : 0)
+                            | (upstream.position() > 0 ? SelectionKey.OP_WRITE : 0);
+            clientKey.interestOps(clientOps);
+            backendKey.interestOps(backendOps);
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            closeQuietly(client);
+            closeQuietly(backend);
+            bufferPool.release(upstream);
+            bufferPool.release(downstream);
+            openConnections.decrementAndGet();
+            long elapsedNanos = System.nanoTime() - startNanos;
+            stats.requestCompleted(connected ? connectNanos : elapsedNanos);
+            if (connected) {
+                limiter.onSample(connectNanos, false);
+            } else if (connectFailed) {
+                limiter.onSample(elapsedNanos, true);
+            } else {
+                // Closed while connecting, for example because the client went away.
+                circuitBreaker.onCancelled();
+                limiter.release();
+            }
+        }
+    }
+}
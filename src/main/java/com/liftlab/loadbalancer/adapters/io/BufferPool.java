@@ -0,0 +1,71 @@
+package com.liftlab.loadbalancer.adapters.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free pool of fixed-size {@link ByteBuffer}s.
+ *
+ * <p>Buffers live in an array of slots. Acquiring swaps a buffer out of one of a few slots probed
+ * from a random start, and releasing CASes it back into an empty slot. When the probes find
+ * nothing, a new buffer is allocated on acquire or the buffer is left to the garbage collector on
+ * release. The pool therefore never blocks and never holds more than its capacity.</p>
+ */
+public final class BufferPool {
+
+    private static final int MAX_PROBES = 16;
+
+    private final int bufferSize;
+    private final boolean direct;
+    private final AtomicReferenceArray<ByteBuffer> slots;
+
+    /**
+     * Constructor.
+     *
+     * @param bufferSize the size of every buffer in bytes
+     * @param capacity   the maximum number of idle buffers kept in the pool
+     * @param direct     whether to allocate direct (off-heap) buffers, for channel I/O
+     */
+    public BufferPool(int bufferSize, int capacity, boolean direct) {
+        this.bufferSize = bufferSize;
+        this.direct = direct;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Takes a cleared buffer from the pool, allocating one if none is idle.
+     *
+     * @return a buffer ready for writing
+     */
+    public ByteBuffer acquire() {
+        int capacity = slots.length();
+        int start = ThreadLocalRandom.current().nextInt(capacity);
+        for (int i = 0; i < Math.min(MAX_PROBES, capacity); i++) {
+            ByteBuffer buffer = slots.getAndSet((start + i) % capacity, null);
+            if (buffer != null) {
+                return buffer.clear();
+            }
+        }
+        return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Returns a buffer to the pool. The caller must not use the buffer afterwards.
+     *
+     * @param buffer the buffer to return
+     */
+    public void release(ByteBuffer buffer) {
+        int capacity = slots.length();
+        int start = ThreadLocalRandom.current().nextInt(capacity);
+        for (int i = 0; i < Math.min(MAX_PROBES, capacity); i++) {
+            if (slots.compareAndSet((start + i) % capacity, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,47 @@
+package com.liftlab.loadbalancer.adapters.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Copies streams through a buffer borrowed from a {@link BufferPool}, so relaying a body of any
+ * size uses one pooled buffer instead of materializing the body or allocating per copy.
+ */
+public final class StreamPipe {
+
+    private StreamPipe() {
+    }
+
+    /**
+     * Copies the input to the output until end of stream. The output is flushed whenever the input
+     * has no more data ready, so the receiver sees data as soon as it arrives without a flush per chunk.
+     *
+     * @param in   the stream to read from
+     * @param out  the stream to write to
+     * @param pool the pool to borrow the copy buffer from
+     * @return the number of bytes copied
+     * @throws IOException if reading or writing fails
+     */
+    public static long copy(InputStream in, OutputStream out, BufferPool pool) throws IOException {
+        ByteBuffer buffer = pool.acquire();
+        try {
+            // Heap buffers expose their backing array, which the stream APIs read into directly.
+            byte[] chunk = buffer.hasArray() ? buffer.array() : new byte[buffer.capacity()];
+            long total = 0;
+            int read;
+            while ((read = in.read(chunk, 0, chunk.length)) != -1) {
+                out.write(chunk, 0, read);
+                if (in.available() == 0) {
+                    out.flush();
+                }
+                total += read;
+            }
+            out.flush();
+            return total;
+        } finally {
+            pool.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,655 @@
+package com.liftlab.loadbalancer.adapters.out.cluster;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.application.resilience.OutlierDetector;
+import com.liftlab.loadbalancer.configuration.ClusterProperties;
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendBatch;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares backend registrations and health verdicts with the other load balancer instances of a cluster.
+ *
+ * <p>Once per {@link ClusterProperties#gossipInterval()} the node synchronizes with one randomly chosen
+ * peer over a TCP connection (push-pull anti-entropy): both sides exchange their member lists with
+ * heartbeats and a digest of their {@link ClusterState}, and only if the digests differ their full state.
+ * Merged entries are applied to the local repository as one batch, while holding the repository's write
+ * lock. Local changes, made through the REST API, by the health checks or by the outlier detector, are
+ * stamped into the cluster state by a change listener as they are written, so a remote entry merged
+ * later cannot be mistaken for a newer one.</p>
+ *
+ * <p>Backends the repository recovered from its journal at startup are not stamped until the first
+ * exchange with a peer, or until {@link ClusterProperties#failureTimeout()} has passed without one. Stamped
+ * right away, they would be newer than any removal or weight change made elsewhere while this instance
+ * was down; merged first, the cluster's entries replace them, and only backends the cluster does not know
+ * are stamped afterwards.</p>
+ *
+ * <p>Gossip is served on the configured host's address only. Both sides of a connection exchange random
+ * nonces, and the connecting side proves it knows the cluster's shared secret with an HMAC over them
+ * before anything else is read; every message then carries an HMAC over the nonces, its position in the
+ * exchange and its content, so it can be neither forged, altered nor replayed.</p>
+ *
+ * <p>Every backend is health-checked by a single instance: the live member with the highest rendezvous
+ * hash for its URL. When a member stops sending heartbeats for {@link ClusterProperties#failureTimeout()},
+ * its backends move to the remaining members, and only they do. Each start of an instance has a new
+ * incarnation, compared before the heartbeat, so a restarted instance is recognized as alive although its
+ * heartbeat starts over. Health verdicts of backends this instance does not own are only published by
+ * their owner.</p>
+ */
+public class ClusterNode implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterNode.class);
+
+    private static final int MAGIC = 0x4C424732;
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+    private static final int READ_TIMEOUT_MILLIS = 5000;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+    private static final int NONCE_LENGTH = 16;
+    private static final int MAX_MESSAGE_BYTES = 16 * 1024 * 1024;
+
+    private final ClusterProperties properties;
+    private final MapBasedBackendConfigRepository backendRepository;
+    private final OutlierDetector outlierDetector;
+    private final String nodeId;
+    private final ClusterState state;
+    private final Map<String, Member> members = new ConcurrentHashMap<>();
+    private final ServerSocket serverSocket;
+    private final ScheduledExecutorService gossipScheduler;
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+    private final long incarnation = System.currentTimeMillis();
+    private long heartbeat;
+    private boolean applying;
+    private boolean changedWhileApplying;
+    private Map<String, Recovered> recovered;
+    private final long bootstrapDeadlineNanos;
+    private volatile List<String> liveMembers;
+
+    /**
+     * Constructor. Starts serving and gossiping right away if the cluster is enabled.
+     *
+     * @param properties        the cluster settings
+     * @param backendRepository the repository shared state is applied to and local changes are read from
+     * @param outlierDetector   the detector whose ejections remote verdicts must not cut short
+     * @throws UncheckedIOException if the gossip address cannot be bound
+     */
+    public ClusterNode(ClusterProperties properties, MapBasedBackendConfigRepository backendRepository,
+                       OutlierDetector outlierDetector) {
+        this.properties = properties;
+        this.backendRepository = backendRepository;
+        this.outlierDetector = outlierDetector;
+        if (!properties.enabled()) {
+            this.nodeId = "standalone";
+            this.state = null;
+            this.serverSocket = null;
+            this.gossipScheduler = null;
+            this.key = null;
+            this.bootstrapDeadlineNanos = 0;
+            this.liveMembers = List.of(nodeId);
+            return;
+        }
+        try {
+            this.serverSocket = new ServerSocket();
+            serverSocket.bind(new InetSocketAddress(properties.host(), properties.port()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot bind cluster address " + properties.host() + ":"
+                    + properties.port(), e);
+        }
+        this.nodeId = properties.host() + ":" + serverSocket.getLocalPort();
+        this.state = new ClusterState(nodeId);
+        this.key = new SecretKeySpec(properties.secret().getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        this.liveMembers = List.of(nodeId);
+        this.bootstrapDeadlineNanos = System.nanoTime() + properties.failureTimeout().toNanos();
+        backendRepository.atomically(() -> {
+            backendRepository.addChangeListener(this::onServersChanged);
+            synchronized (this) {
+                recovered = recovered(backendRepository.getSnapshot());
+            }
+        });
+        Thread.ofPlatform().name("cluster-acceptor").daemon().start(this::accept);
+        long intervalNanos = properties.gossipInterval().toNanos();
+        this.gossipScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("cluster-gossip").daemon().factory());
+        gossipScheduler.scheduleWithFixedDelay(this::gossip, 0, intervalNanos, TimeUnit.NANOSECONDS);
+        logger.info("Cluster node {} started with seeds {}", nodeId, properties.seeds());
+    }
+
+    /**
+     * Returns a node that is not part of any cluster and health-checks every backend itself.
+     *
+     * @return a disabled node
+     */
+    public static ClusterNode disabled() {
+        return new ClusterNode(ClusterProperties.disabled(), null, OutlierDetector.disabled());
+    }
+
+    /**
+     * Returns the id of this instance, the {@code host:port} peers reach it at.
+     *
+     * @return the node id
+     */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Returns the ids of the members currently considered alive, this instance included.
+     *
+     * @return the live member ids, sorted
+     */
+    public List<String> liveMembers() {
+        return liveMembers;
+    }
+
+    /**
+     * Returns whether this instance is responsible for health-checking a backend.
+     *
+     * @param server the backend
+     * @return true if this instance has the highest rendezvous hash for the backend among the live members
+     */
+    public boolean isHealthCheckOwner(BackendServer server) {
+        List<String> live = liveMembers;
+        if (live.size() == 1) {
+            return true;
+        }
+        String owner = null;
+        long bestScore = 0;
+        for (String member : live) {
+            long score = rendezvousScore(member, server.url());
+            if (owner == null || Long.compareUnsigned(score, bestScore) > 0) {
+                owner = member;
+                bestScore = score;
+            }
+        }
+        return nodeId.equals(owner);
+    }
+
+    @Override
+    public void close() {
+        if (gossipScheduler == null) {
+            return;
+        }
+        gossipScheduler.shutdownNow();
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.warn("Cannot close cluster port of {}", nodeId, e);
+        }
+    }
+
+    /**
+     * One gossip round: advances the heartbeat, purges old tombstones, refreshes the live members and
+     * synchronizes with one peer. Seeds stay candidates even while unknown or down, so a partitioned
+     * instance finds its way back.
+     */
+    private void gossip() {
+        try {
+            synchronized (this) {
+                heartbeat++;
+                int purged = state.purgeTombstones(
+                        System.currentTimeMillis() - properties.tombstoneRetention().toMillis());
+                if (purged > 0) {
+                    logger.debug("Cluster node {} purged {} tombstones", nodeId, purged);
+                }
+            }
+            refreshLiveMembers();
+            Set<String> candidates = new LinkedHashSet<>(properties.seeds());
+            candidates.addAll(members.keySet());
+            candidates.remove(nodeId);
+            if (candidates.isEmpty()) {
+                finishBootstrap();
+                return;
+            }
+            List<String> peers = new ArrayList<>(candidates);
+            String peer = peers.get(ThreadLocalRandom.current().nextInt(peers.size()));
+            if (synchronizeWith(peer) || System.nanoTime() - bootstrapDeadlineNanos >= 0) {
+                finishBootstrap();
+            }
+        } catch (RuntimeException e) {
+            logger.error("Gossip round of {} failed", nodeId, e);
+        }
+    }
+
+    /**
+     * Exchanges members and, if they differ, state with a peer.
+     *
+     * @return whether the exchange completed
+     */
+    private boolean synchronizeWith(String peer) {
+        int separator = peer.lastIndexOf(':');
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(peer.substring(0, separator),
+                    Integer.parseInt(peer.substring(separator + 1))), CONNECT_TIMEOUT_MILLIS);
+            socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            byte[] clientNonce = nonce();
+            out.writeInt(MAGIC);
+            out.write(clientNonce);
+            out.flush();
+            byte[] serverNonce = in.readNBytes(NONCE_LENGTH);
+            if (serverNonce.length != NONCE_LENGTH) {
+                throw new EOFException("Peer closed the connection");
+            }
+            Session session = new Session(clientNonce, serverNonce);
+            out.write(session.tag(0, new byte[0]));
+
+            ByteArrayOutputStream request = new ByteArrayOutputStream();
+            DataOutputStream requestOut = new DataOutputStream(request);
+            writeMembers(requestOut);
+            requestOut.writeLong(digest());
+            send(out, session, 1, request.toByteArray());
+
+            DataInputStream reply = receive(in, session, 2);
+            mergeMembers(reply);
+            if (reply.readBoolean()) {
+                merge(reply);
+                send(out, session, 3, serializeState());
+            }
+            return true;
+        } catch (IOException e) {
+            logger.debug("Cannot synchronize {} with {}: {}", nodeId, peer, e.toString());
+            return false;
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread.ofVirtual().name("cluster-sync").start(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.warn("Cluster node {} cannot accept connections", nodeId, e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (in.readInt() != MAGIC) {
+                return;
+            }
+            byte[] clientNonce = new byte[NONCE_LENGTH];
+            in.readFully(clientNonce);
+            byte[] serverNonce = nonce();
+            out.write(serverNonce);
+            out.flush();
+            Session session = new Session(clientNonce, serverNonce);
+            byte[] proof = new byte[MAC_LENGTH];
+            in.readFully(proof);
+            if (!MessageDigest.isEqual(proof, session.tag(0, new byte[0]))) {
+                throw new ProtocolException("Peer does not know the cluster secret");
+            }
+
+            DataInputStream request = receive(in, session, 1);
+            mergeMembers(request);
+            boolean differs = request.readLong() != digest();
+            ByteArrayOutputStream reply = new ByteArrayOutputStream();
+            DataOutputStream replyOut = new DataOutputStream(reply);
+            writeMembers(replyOut);
+            replyOut.writeBoolean(differs);
+            if (differs) {
+                replyOut.write(serializeState());
+            }
+            send(out, session, 2, reply.toByteArray());
+            if (differs) {
+                merge(receive(in, session, 3));
+            }
+            finishBootstrap();
+        } catch (ProtocolException e) {
+            logger.warn("Cluster node {} rejected {}: {}", nodeId, socket.getRemoteSocketAddress(), e.getMessage());
+        } catch (IOException e) {
+            logger.debug("Cluster node {} failed to serve a peer: {}", nodeId, e.toString());
+        }
+    }
+
+    private byte[] nonce() {
+        byte[] nonce = new byte[NONCE_LENGTH];
+        random.nextBytes(nonce);
+        return nonce;
+    }
+
+    private static void send(DataOutputStream out, Session session, int index, byte[] message) throws IOException {
+        out.writeInt(message.length);
+        out.write(message);
+        out.write(session.tag(index, message));
+        out.flush();
+    }
+
+    /**
+     * Reads a message and checks its HMAC, so nothing unauthenticated is ever parsed.
+     */
+    private static DataInputStream receive(DataInputStream in, Session session, int index) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_MESSAGE_BYTES) {
+            throw new ProtocolException("Invalid message length " + length);
+        }
+        byte[] message = new byte[length];
+        in.readFully(message);
+        byte[] tag = new byte[MAC_LENGTH];
+        in.readFully(tag);
+        if (!MessageDigest.isEqual(tag, session.tag(index, message))) {
+            throw new ProtocolException("Message failed authentication");
+        }
+        return new DataInputStream(new ByteArrayInputStream(message));
+    }
+
+    private synchronized long digest() {
+        return state.digest();
+    }
+
+    private synchronized byte[] serializeState() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        state.writeTo(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private void writeMembers(DataOutputStream out) throws IOException {
+        List<Member> known = new ArrayList<>(members.values());
+        out.writeInt(known.size() + 1);
+        synchronized (this) {
+            out.writeUTF(nodeId);
+            out.writeLong(incarnation);
+            out.writeLong(heartbeat);
+        }
+        for (Member member : known) {
+            out.writeUTF(member.id());
+            out.writeLong(member.incarnation());
+            out.writeLong(member.heartbeat());
+        }
+    }
+
+    /**
+     * Takes over the heartbeats of other members that are newer than the ones seen so far: from a later
+     * incarnation, or from the same one with a higher heartbeat.
+     */
+    private void mergeMembers(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        long now = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            String id = in.readUTF();
+            long memberIncarnation = in.readLong();
+            long memberHeartbeat = in.readLong();
+            if (!id.equals(nodeId)) {
+                members.merge(id, new Member(id, memberIncarnation, memberHeartbeat, now),
+                        (current, received) -> received.isNewerThan(current) ? received : current);
+            }
+        }
+        refreshLiveMembers();
+    }
+
+    private void refreshLiveMembers() {
+        long now = System.nanoTime();
+        long timeout = properties.failureTimeout().toNanos();
+        List<String> live = new ArrayList<>();
+        live.add(nodeId);
+        for (Member member : members.values()) {
+            if (now - member.updatedNanos() < timeout) {
+                live.add(member.id());
+            }
+        }
+        live.sort(null);
+        if (!live.equals(liveMembers)) {
+            logger.info("Cluster node {} sees live members {}", nodeId, live);
+            liveMembers = List.copyOf(live);
+        }
+    }
+
+    /**
+     * Merges a peer's state and applies what changed. The repository's write lock is held throughout, so
+     * no local change can be made, and stamped, between merging an entry and applying it.
+     */
+    private void merge(DataInputStream in) throws IOException {
+        List<ClusterState.Registration> registrations = ClusterState.readRegistrations(in);
+        List<ClusterState.HealthVerdict> verdicts = ClusterState.readVerdicts(in);
+        backendRepository.atomically(() -> {
+            synchronized (this) {
+                applying = true;
+                try {
+                    apply(state.mergeRegistrations(registrations), state.mergeVerdicts(verdicts));
+                } finally {
+                    applying = false;
+                }
+                if (changedWhileApplying) {
+                    // Stamp whatever could not be applied as it was shared, such as a backend still ejected.
+                    changedWhileApplying = false;
+                    stamp(backendRepository.getSnapshot());
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies merged entries to the repository: registrations as one batch, then the health verdicts,
+     * including the stored verdicts of backends the batch registered.
+     */
+    private void apply(List<ClusterState.Registration> registrations, List<ClusterState.HealthVerdict> verdicts) {
+        Map<String, ClusterState.HealthVerdict> changedVerdicts = new HashMap<>();
+        verdicts.forEach(verdict -> changedVerdicts.put(verdict.url(), verdict));
+        if (!registrations.isEmpty()) {
+            Set<String> registered = backendRepository.getSnapshot().registeredUrls();
+            List<BackendBatch.Backend> add = new ArrayList<>();
+            List<String> drain = new ArrayList<>();
+            List<String> remove = new ArrayList<>();
+            for (ClusterState.Registration registration : registrations) {
+                if (registration.removed()) {
+                    if (registered.contains(registration.url())) {
+                        remove.add(registration.url());
+                    }
+                    continue;
+                }
+                add.add(new BackendBatch.Backend(registration.url(), registration.weight()));
+                if (registration.draining()) {
+                    drain.add(registration.url());
+                }
+                ClusterState.HealthVerdict verdict = state.verdict(registration.url());
+                if (!registered.contains(registration.url()) && verdict != null) {
+                    changedVerdicts.putIfAbsent(registration.url(), verdict);
+                }
+            }
+            try {
+                backendRepository.applyBatch(new BackendBatch(null, add, drain, remove),
+                        MapBasedBackendConfigRepository.ANY_VERSION);
+            } catch (LoadBalancerException e) {
+                logger.warn("Cannot apply backend changes from the cluster: {}", e.getMessage());
+            }
+        }
+        for (ClusterState.HealthVerdict verdict : changedVerdicts.values()) {
+            BackendServer server = new BackendServer(verdict.url());
+            try {
+                if (!verdict.healthy()) {
+                    backendRepository.markUnhealthy(server);
+                } else if (!outlierDetector.isEjected(server)) {
+                    backendRepository.markHealthy(server);
+                }
+            } catch (LoadBalancerException e) {
+                logger.warn("Cannot apply health verdict on {} from the cluster: {}", verdict.url(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ends the wait for the cluster's state after the first exchange with a peer, or without one, and
+     * stamps the recovered backends that still differ from the shared state.
+     */
+    private void finishBootstrap() {
+        synchronized (this) {
+            if (recovered == null) {
+                return;
+            }
+        }
+        backendRepository.atomically(() -> {
+            synchronized (this) {
+                if (recovered != null) {
+                    recovered = null;
+                    stamp(backendRepository.getSnapshot());
+                }
+            }
+        });
+    }
+
+    private static Map<String, Recovered> recovered(MapBasedBackendConfigRepository.Snapshot snapshot) {
+        Map<String, Recovered> recovered = new HashMap<>();
+        for (BackendServer server : snapshot.activeServers()) {
+            recovered.put(server.url(), new Recovered(server.weight(), false));
+        }
+        for (BackendServer server : snapshot.inactiveServers()) {
+            recovered.put(server.url(), new Recovered(server.weight(), false));
+        }
+        for (BackendServer server : snapshot.drainingServers()) {
+            recovered.put(server.url(), new Recovered(server.weight(), true));
+        }
+        return recovered;
+    }
+
+    /**
+     * Called by the repository on every change, under its write lock. Changes applied from the cluster
+     * are stamped, if need be, once they have all been applied.
+     */
+    private synchronized void onServersChanged(MapBasedBackendConfigRepository.Snapshot snapshot) {
+        if (applying) {
+            changedWhileApplying = true;
+            return;
+        }
+        stamp(snapshot);
+    }
+
+    /**
+     * Stamps local changes into the cluster state: backends whose registration differs from the shared
+     * one, and changed health of backends this instance health-checks. Changes applied from the cluster
+     * match the shared state and are not stamped again, nor, until the first exchange with a peer, are
+     * backends still as they were recovered.
+     */
+    private void stamp(MapBasedBackendConfigRepository.Snapshot snapshot) {
+        Set<String> registered = snapshot.registeredUrls();
+        stampRegistrations(snapshot.activeServers(), false);
+        stampRegistrations(snapshot.inactiveServers(), false);
+        stampRegistrations(snapshot.drainingServers(), true);
+        for (ClusterState.Registration registration : List.copyOf(state.registrations())) {
+            if (!registration.removed() && !registered.contains(registration.url())) {
+                state.remove(registration.url());
+            }
+        }
+        stampHealth(snapshot.activeServers(), true);
+        stampHealth(snapshot.inactiveServers(), false);
+    }
+
+    private void stampRegistrations(List<BackendServer> servers, boolean draining) {
+        for (BackendServer server : servers) {
+            if (recovered != null && new Recovered(server.weight(), draining).equals(recovered.get(server.url()))) {
+                continue;
+            }
+            ClusterState.Registration registration = state.registration(server.url());
+            if (registration == null || registration.removed() || registration.weight() != server.weight()
+                    || registration.draining() != draining) {
+                state.register(server.url(), server.weight(), draining);
+            }
+        }
+    }
+
+    private void stampHealth(List<BackendServer> servers, boolean healthy) {
+        for (BackendServer server : servers) {
+            ClusterState.HealthVerdict verdict = state.verdict(server.url());
+            boolean shared = verdict == null || verdict.healthy();
+            if (shared != healthy && isHealthCheckOwner(server)) {
+                state.recordHealth(server.url(), healthy);
+            }
+        }
+    }
+
+    private static long rendezvousScore(String member, String url) {
+        long hash = member.hashCode() * 0x9E3779B97F4A7C15L + url.hashCode();
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * A registration as the repository recovered it at startup.
+     */
+    private record Recovered(int weight, boolean draining) {
+    }
+
+    /**
+     * Another instance, with the newest incarnation and heartbeat seen from it and when that was first
+     * seen locally.
+     */
+    private record Member(String id, long incarnation, long heartbeat, long updatedNanos) {
+
+        private boolean isNewerThan(Member other) {
+            return incarnation != other.incarnation ? incarnation > other.incarnation : heartbeat > other.heartbeat;
+        }
+    }
+
+    /**
+     * The nonces of one connection, which every HMAC covers so that messages cannot be replayed.
+     */
+    private final class Session {
+
+        private final byte[] clientNonce;
+        private final byte[] serverNonce;
+
+        private Session(byte[] clientNonce, byte[] serverNonce) {
+            this.clientNonce = clientNonce;
+            this.serverNonce = serverNonce;
+        }
+
+        /**
+         * Returns the HMAC of a message at a position of the exchange; position {@code 0} is the
+         * connecting side's proof that it knows the secret.
+         */
+        private byte[] tag(int index, byte[] message) {
+            try {
+                Mac mac = Mac.getInstance(MAC_ALGORITHM);
+                mac.init(key);
+                mac.update(clientNonce);
+                mac.update(serverNonce);
+                mac.update((byte) index);
+                return mac.doFinal(message);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(MAC_ALGORITHM + " is not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.liftlab.loadbalancer.adapters.out.cluster;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The backend state shared by the instances of a cluster, as a set of last-writer-wins registers.
+ *
+ * <p>Every backend URL has a {@link Registration} register, holding its weight and draining flag or a
+ * tombstone once it was removed, and a {@link HealthVerdict} register, written by the instance that
+ * health-checks it. Each write is stamped with a hybrid logical clock and the id of the writing instance,
+ * and merging keeps the entry with the higher stamp. Merging is commutative, associative and idempotent,
+ * so instances that have exchanged the same entries in any order hold the same state, which the
+ * {@link #digest()} lets them check cheaply. Tombstones are kept for a retention period, so a removal
+ * cannot be undone by an older registration arriving late, and are then purged together with the
+ * backend's verdict; tombstones older than the purge horizon are ignored when received.</p>
+ *
+ * <p>Not thread-safe: callers synchronize.</p>
+ */
+public class ClusterState {
+
+    private final String nodeId;
+    private final Map<String, Registration> registrations = new HashMap<>();
+    private final Map<String, HealthVerdict> verdicts = new HashMap<>();
+    private long clock;
+    private long tombstoneHorizon = Long.MIN_VALUE;
+
+    /**
+     * Constructor.
+     *
+     * @param nodeId the id of this instance, stamped on its writes
+     */
+    public ClusterState(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Records a local registration or update of a backend.
+     *
+     * @param url      the backend URL
+     * @param weight   its weight
+     * @param draining whether it is draining
+     * @return the new entry
+     */
+    public Registration register(String url, int weight, boolean draining) {
+        Registration registration = new Registration(url, weight, draining, false, tick(), nodeId);
+        registrations.put(url, registration);
+        return registration;
+    }
+
+    /**
+     * Records the local removal of a backend.
+     *
+     * @param url the backend URL
+     * @return the tombstone
+     */
+    public Registration remove(String url) {
+        Registration tombstone = new Registration(url, 0, false, true, tick(), nodeId);
+        registrations.put(url, tombstone);
+        return tombstone;
+    }
+
+    /**
+     * Records a local health verdict on a backend.
+     *
+     * @param url     the backend URL
+     * @param healthy whether the backend passed its health check
+     * @return the new entry
+     */
+    public HealthVerdict recordHealth(String url, boolean healthy) {
+        HealthVerdict verdict = new HealthVerdict(url, healthy, tick(), nodeId);
+        verdicts.put(url, verdict);
+        return verdict;
+    }
+
+    /**
+     * Merges registrations received from a peer.
+     *
+     * @param received the peer's entries
+     * @return the entries that replaced local ones
+     */
+    public List<Registration> mergeRegistrations(Collection<Registration> received) {
+        List<Registration> changed = new ArrayList<>();
+        for (Registration registration : received) {
+            observe(registration.timestamp());
+            if (registration.removed() && registration.timestamp() < tombstoneHorizon) {
+                continue;
+            }
+            Registration current = registrations.get(registration.url());
+            if (current == null || isNewer(registration.timestamp(), registration.origin(),
+                    current.timestamp(), current.origin())) {
+                registrations.put(registration.url(), registration);
+                changed.add(registration);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Merges health verdicts received from a peer.
+     *
+     * @param received the peer's entries
+     * @return the entries that replaced local ones
+     */
+    public List<HealthVerdict> mergeVerdicts(Collection<HealthVerdict> received) {
+        List<HealthVerdict> changed = new ArrayList<>();
+        for (HealthVerdict verdict : received) {
+            observe(verdict.timestamp());
+            HealthVerdict current = verdicts.get(verdict.url());
+            if (current == null || isNewer(verdict.timestamp(), verdict.origin(),
+                    current.timestamp(), current.origin())) {
+                verdicts.put(verdict.url(), verdict);
+                changed.add(verdict);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Drops tombstones written before a point in time, and the verdicts of backends without a
+     * registration, and ignores such tombstones from now on.
+     *
+     * @param horizon the hybrid logical clock before which tombstones are dropped
+     * @return the number of tombstones dropped
+     */
+    public int purgeTombstones(long horizon) {
+        tombstoneHorizon = Math.max(tombstoneHorizon, horizon);
+        int purged = 0;
+        for (Iterator<Registration> entries = registrations.values().iterator(); entries.hasNext(); ) {
+            Registration registration = entries.next();
+            if (registration.removed() && registration.timestamp() < tombstoneHorizon) {
+                entries.remove();
+                verdicts.remove(registration.url());
+                purged++;
+            }
+        }
+        // Verdicts on purged backends that peers sent back before purging them as well.
+        verdicts.keySet().removeIf(url -> !registrations.containsKey(url));
+        return purged;
+    }
+
+    /**
+     * Returns the registration register of a backend.
+     *
+     * @param url the backend URL
+     * @return the entry, or {@code null} if the URL was never registered
+     */
+    public Registration registration(String url) {
+        return registrations.get(url);
+    }
+
+    /**
+     * Returns the health verdict register of a backend.
+     *
+     * @param url the backend URL
+     * @return the entry, or {@code null} if the backend was never health-checked
+     */
+    public HealthVerdict verdict(String url) {
+        return verdicts.get(url);
+    }
+
+    /**
+     * Returns all registrations, tombstones included.
+     *
+     * @return the registrations
+     */
+    public Collection<Registration> registrations() {
+        return registrations.values();
+    }
+
+    /**
+     * Returns an order-independent hash of all entries. Instances holding the same entries have the
+     * same digest.
+     *
+     * @return the digest
+     */
+    public long digest() {
+        long digest = 0;
+        for (Registration registration : registrations.values()) {
+            digest += mix(((registration.url().hashCode() * 31L + registration.weight()) * 4
+                    + (registration.draining() ? 2 : 0) + (registration.removed() ? 1 : 0)) * 31
+                    + registration.origin().hashCode() ^ registration.timestamp());
+        }
+        for (HealthVerdict verdict : verdicts.values()) {
+            digest += mix(~((verdict.url().hashCode() * 2L + (verdict.healthy() ? 1 : 0)) * 31
+                    + verdict.origin().hashCode() ^ verdict.timestamp()));
+        }
+        return digest;
+    }
+
+    /**
+     * Writes all entries.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(registrations.size());
+        for (Registration registration : registrations.values()) {
+            out.writeUTF(registration.url());
+            out.writeInt(registration.weight());
+            out.writeBoolean(registration.draining());
+            out.writeBoolean(registration.removed());
+            out.writeLong(registration.timestamp());
+            out.writeUTF(registration.origin());
+        }
+        out.writeInt(verdicts.size());
+        for (HealthVerdict verdict : verdicts.values()) {
+            out.writeUTF(verdict.url());
+            out.writeBoolean(verdict.healthy());
+            out.writeLong(verdict.timestamp());
+            out.writeUTF(verdict.origin());
+        }
+    }
+
+    /**
+     * Reads the registrations written by {@link #writeTo(DataOutput)}, after which
+     * {@link #readVerdicts(DataInput)} reads the verdicts.
+     *
+     * @param in the stream to read from
+     * @return the registrations
+     * @throws IOException if reading fails
+     */
+    public static List<Registration> readRegistrations(DataInput in) throws IOException {
+        int count = in.readInt();
+        List<Registration> received = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            received.add(new Registration(in.readUTF(), in.readInt(), in.readBoolean(), in.readBoolean(),
+                    in.readLong(), in.readUTF()));
+        }
+        return received;
+    }
+
+    /**
+     * Reads the verdicts written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in the stream to read from
+     * @return the verdicts
+     * @throws IOException if reading fails
+     */
+    public static List<HealthVerdict> readVerdicts(DataInput in) throws IOException {
+        int count = in.readInt();
+        List<HealthVerdict> received = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            received.add(new HealthVerdict(in.readUTF(), in.readBoolean(), in.readLong(), in.readUTF()));
+        }
+        return received;
+    }
+
+    /**
+     * Advances the hybrid logical clock: wall-clock milliseconds, but always beyond every stamp seen, so
+     * a write is newer than everything its writer knew of even if the clocks of the instances disagree.
+     */
+    private long tick() {
+        clock = Math.max(System.currentTimeMillis(), clock + 1);
+        return clock;
+    }
+
+    private void observe(long timestamp) {
+        clock = Math.max(clock, timestamp);
+    }
+
+    private static boolean isNewer(long timestamp, String origin, long currentTimestamp, String currentOrigin) {
+        return timestamp != currentTimestamp ? timestamp > currentTimestamp : origin.compareTo(currentOrigin) > 0;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * The registration register of a backend.
+     *
+     * @param url       the backend URL
+     * @param weight    its weight, {@code 0} for a tombstone
+     * @param draining  whether it is draining
+     * @param removed   whether this is a tombstone
+     * @param timestamp the hybrid logical clock of the write
+     * @param origin    the id of the instance that wrote it
+     */
+    public record Registration(String url, int weight, boolean draining, boolean removed, long timestamp,
+                               String origin) { }
+
+    /**
+     * The health verdict register of a backend.
+     *
+     * @param url       the backend URL
+     * @param healthy   whether the backend passed its health check
+     * @param timestamp the hybrid logical clock of the write
+     * @param origin    the id of the instance that wrote it
+     */
+    public record HealthVerdict(String url, boolean healthy, long timestamp, String origin) { }
+}
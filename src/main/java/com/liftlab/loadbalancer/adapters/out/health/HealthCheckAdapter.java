@@ -1,43 +1,120 @@
 package com.liftlab.loadbalancer.adapters.out.health;
 
+import com.liftlab.loadbalancer.adapters.out.cluster.ClusterNode;
 import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.application.resilience.OutlierDetector;
+import com.liftlab.loadbalancer.configuration.HealthCheckProperties;
 import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
 import com.liftlab.loadbalancer.domain.model.BackendServer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.net.ConnectException;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * HealthCheckAdapter periodically checks the health of registered backend servers.
  * Unhealthy servers are moved out of the active list, and recovered servers are added back.
+ *
+ * <p>All servers are probed concurrently on virtual threads, at most
+ * {@link HealthCheckProperties#maxConcurrency()} at a time, through a shared HTTP client whose
+ * keep-alive connections are reused across sweeps. Every probe is bounded by the connect and read
+ * timeouts and the sweep as a whole by the sweep timeout, so a sweep takes about as long as the
+ * slowest backend and a backend that accepts connections but never answers cannot stall it. A probe
+ * still waiting for its turn at the sweep deadline never ran, and its backend keeps its current state.</p>
+ *
+ * <p>Servers ejected by the {@link OutlierDetector} are not probed for recovery: they are re-admitted
+ * by the detector once their ejection time has passed, and a passing probe must not cut that short.
+ * The detector uses this adapter's probe to check them before re-admitting them.</p>
+ *
+ * <p>In a cluster, only the backends this instance owns according to the {@link ClusterNode} are
+ * probed; the verdicts on the others arrive from their owners.</p>
  */
 @Component
 public class HealthCheckAdapter {
 
     private static final Logger logger = LoggerFactory.getLogger(HealthCheckAdapter.class);
     private final MapBasedBackendConfigRepository backendRepository;
+    private final HealthCheckProperties properties;
+    private final OutlierDetector outlierDetector;
+    private final ClusterNode clusterNode;
+    private final ExecutorService probeExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("health-probe-", 0).factory());
+    private final Semaphore probePermits;
+    private final HttpClient client;
 
     public HealthCheckAdapter(MapBasedBackendConfigRepository backendRepository) {
+        this(backendRepository, HealthCheckProperties.defaults());
+    }
+
+    public HealthCheckAdapter(MapBasedBackendConfigRepository backendRepository, HealthCheckProperties properties) {
+        this(backendRepository, properties, OutlierDetector.disabled());
+    }
+
+    public HealthCheckAdapter(MapBasedBackendConfigRepository backendRepository, HealthCheckProperties properties,
+                              OutlierDetector outlierDetector) {
+        this(backendRepository, properties, outlierDetector, ClusterNode.disabled());
+    }
+
+    @Autowired
+    public HealthCheckAdapter(MapBasedBackendConfigRepository backendRepository, HealthCheckProperties properties,
+                              OutlierDetector outlierDetector, ClusterNode clusterNode) {
         this.backendRepository = backendRepository;
+        this.properties = properties;
+        this.outlierDetector = outlierDetector;
+        this.clusterNode = clusterNode;
+        this.probePermits = new Semaphore(Math.max(1, properties.maxConcurrency()));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(probeExecutor)
+                .build();
+        outlierDetector.setHealthProbe(this::probe);
     }
 
     /**
      * Checks the health of active and inactive backend servers every 10 seconds.
      * If an active server fails its health check, it is marked unhealthy. Inactive servers
-     * are checked to see if they have recovered.
+     * are checked to see if they have recovered. In a cluster, only the backends this instance owns
+     * are checked.
      */
     @Scheduled(fixedRate = 10000)
     public void checkHealth() {
+        MapBasedBackendConfigRepository.Snapshot snapshot = backendRepository.getSnapshot();
+        long deadline = System.nanoTime() + properties.sweepTimeout().toNanos();
+        // Start every probe before waiting on any of them.
+        List<BackendServer> activeServers = snapshot.activeServers().stream()
+                .filter(clusterNode::isHealthCheckOwner)
+                .toList();
+        List<Probe> activeProbes = startProbes(activeServers, deadline);
+        List<BackendServer> inactiveServers = snapshot.inactiveServers().stream()
+                .filter(server -> !outlierDetector.isEjected(server) && clusterNode.isHealthCheckOwner(server))
+                .toList();
+        List<Probe> inactiveProbes = startProbes(inactiveServers, deadline);
+
         // Check active servers for failures.
-        List<BackendServer> activeServers = backendRepository.getActiveServers();
-        for (BackendServer server : activeServers) {
-            if (!isServerHealthy(server)) {
+        for (int i = 0; i < activeProbes.size(); i++) {
+            BackendServer server = activeServers.get(i);
+            if (Boolean.FALSE.equals(awaitProbe(server, activeProbes.get(i), deadline))) {
                 logger.warn("Health check FAILED for server {}. Marking as unhealthy.", server.url());
                 try {
                     backendRepository.markUnhealthy(server);
@@ -48,9 +125,9 @@ public class HealthCheckAdapter {
             }
         }
         // Check inactive servers to see if any have recovered.
-        List<BackendServer> inactiveServers = backendRepository.getInactiveServers();
-        for (BackendServer server : inactiveServers) {
-            if (isServerHealthy(server)) {
+        for (int i = 0; i < inactiveProbes.size(); i++) {
+            BackendServer server = inactiveServers.get(i);
+            if (Boolean.TRUE.equals(awaitProbe(server, inactiveProbes.get(i), deadline))) {
                 logger.info("Health check OK for server {}. Marking as healthy.", server.url());
                 try {
                     backendRepository.markHealthy(server);
@@ -62,29 +139,122 @@ public class HealthCheckAdapter {
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        client.shutdownNow();
+        probeExecutor.shutdownNow();
+    }
+
+    private List<Probe> startProbes(List<BackendServer> servers, long deadline) {
+        List<Probe> probes = new ArrayList<>(servers.size());
+        for (BackendServer server : servers) {
+            AtomicBoolean started = new AtomicBoolean();
+            probes.add(new Probe(probeExecutor.submit(() -> runProbe(server, deadline, started)), started));
+        }
+        return probes;
+    }
+
+    /**
+     * Probes a backend for a sweep once a permit is free, unless the sweep deadline has passed by then.
+     *
+     * @return whether the backend is healthy, or {@code null} if it was not probed
+     */
+    private Boolean runProbe(BackendServer server, long deadline, AtomicBoolean started) throws InterruptedException {
+        probePermits.acquire();
+        try {
+            if (System.nanoTime() - deadline >= 0) {
+                return null;
+            }
+            started.set(true);
+            return isServerHealthy(server);
+        } finally {
+            probePermits.release();
+        }
+    }
+
+    /**
+     * Probes a single backend outside a sweep, for the outlier detector re-admitting it.
+     */
+    private boolean probe(BackendServer server) {
+        try {
+            probePermits.acquire();
+            try {
+                return isServerHealthy(server);
+            } finally {
+                probePermits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Waits for a probe until the sweep deadline; a probe that has not finished by then is
+     * cancelled and counted as failed, unless it was still waiting for a permit.
+     *
+     * @return whether the backend is healthy, or {@code null} if it was not probed
+     */
+    private Boolean awaitProbe(BackendServer server, Probe probe, long deadline) {
+        Boolean healthy;
+        try {
+            healthy = probe.result().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            probe.result().cancel(true);
+            if (probe.started().get()) {
+                logger.error("Health check error for server {}: No answer within {}", server.url(),
+                        properties.sweepTimeout());
+                return false;
+            }
+            healthy = null;
+        } catch (InterruptedException e) {
+            probe.result().cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return false;
+        }
+        if (healthy == null) {
+            logger.warn("Health check skipped for server {}: no probe slot free within {}", server.url(),
+                    properties.sweepTimeout());
+        }
+        return healthy;
+    }
+
     /**
      * Checks whether the specified backend server is healthy by issuing an HTTP GET request.
      *
      * @param server the backend server to check
      * @return true if the server responds with HTTP 200; false otherwise
      */
-    private boolean isServerHealthy(BackendServer server) {
+    private boolean isServerHealthy(BackendServer server) throws InterruptedException {
         try {
-            URL url = new URL(server.url());
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(3000); // 3-second timeout
-            connection.connect();
-            int responseCode = connection.getResponseCode();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(server.url()))
+                    .timeout(properties.readTimeout())
+                    .GET()
+                    .build();
+            // Drain the body so the connection goes back to the pool for the next sweep.
+            int responseCode = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
             return responseCode == 200;
         } catch (ConnectException ce) {
             // Handle connection-specific errors gracefully.
             logger.error("Health check error for server {}: Connection refused", server.url());
             return false;
+        } catch (HttpTimeoutException te) {
+            logger.error("Health check error for server {}: {}", server.url(), te.getMessage());
+            return false;
+        } catch (InterruptedException ie) {
+            throw ie;
         } catch (Exception e) {
             logger.error("Health check error for server {}: {} - {}",
                     server.url(), e.getClass().getSimpleName(), e.getMessage(), e);
             return false;
         }
     }
+
+    /**
+     * A probe of a sweep, with whether it got its permit and was sent.
+     */
+    private record Probe(Future<Boolean> result, AtomicBoolean started) {
+    }
 }
@@ -0,0 +1,258 @@
+package com.liftlab.loadbalancer.adapters.out.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * The HTTP/2 connections to one backend, each carrying up to a fixed number of concurrent streams.
+ *
+ * <p>Every connection is an {@link HttpClient} of its own, as the JDK client multiplexes all requests to
+ * an origin over a single HTTP/2 connection. A request takes a stream on the oldest connection with one
+ * free, so load is packed onto few connections and the others idle out; when all connections are at their
+ * stream limit, a new one is opened, up to the connection limit. Beyond that, requests wait for a stream
+ * to be released, for at most the connect timeout.</p>
+ *
+ * <p>A new connection carries a single stream until a response arrives over HTTP/2: HTTP/2 is only agreed
+ * on by that first exchange, through the h2c upgrade or ALPN, and the client would open an HTTP/1.1
+ * connection for every other request sent meanwhile. A connection to a backend without HTTP/2 therefore
+ * keeps carrying one request at a time.</p>
+ *
+ * <p>A stream is held until the response body is closed, as the exchange occupies it until then.</p>
+ *
+ * <p>Connections without streams for the idle timeout are retired, and all of them when the pool is
+ * closed. The client of a retired connection is shut down once its last stream is released.</p>
+ */
+final class Http2ConnectionPool {
+
+    private final String url;
+    private final Supplier<HttpClient> clientFactory;
+    private final int maxStreamsPerConnection;
+    private final int maxConnections;
+    private final long idleTimeoutNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition streamReleased = lock.newCondition();
+    private final List<Connection> connections = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param url                     the backend URL, for error messages
+     * @param clientFactory           creates the client of a new connection
+     * @param maxStreamsPerConnection the maximum number of concurrent streams per connection
+     * @param maxConnections          the maximum number of connections
+     * @param idleTimeout             how long a connection without streams is kept
+     */
+    Http2ConnectionPool(String url, Supplier<HttpClient> clientFactory, int maxStreamsPerConnection,
+                        int maxConnections, Duration idleTimeout) {
+        this.url = url;
+        this.clientFactory = clientFactory;
+        this.maxStreamsPerConnection = Math.max(1, maxStreamsPerConnection);
+        this.maxConnections = Math.max(1, maxConnections);
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    /**
+     * Takes a stream, opening a connection if all are at their stream limit.
+     *
+     * @param timeout how long to wait for a stream once the connection limit is reached
+     * @return the connection the stream belongs to; {@link Connection#release()} must be called once
+     * @throws HttpConnectTimeoutException if no stream became free in time
+     * @throws InterruptedIOException      if interrupted while waiting
+     * @throws IOException                 if the pool is closed
+     */
+    Connection acquire(Duration timeout) throws IOException {
+        long remainingNanos = timeout.toNanos();
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new IOException("HTTP/2 connections to " + url + " are closed");
+                }
+                for (Connection connection : connections) {
+                    if (connection.streams < (connection.established ? maxStreamsPerConnection : 1)) {
+                        connection.streams++;
+                        return connection;
+                    }
+                }
+                if (connections.size() < maxConnections) {
+                    Connection connection = new Connection(clientFactory.get());
+                    connection.streams = 1;
+                    connections.add(connection);
+                    return connection;
+                }
+                if (remainingNanos <= 0) {
+                    throw new HttpConnectTimeoutException("No HTTP/2 stream available to " + url + " within "
+                            + timeout.toMillis() + " ms");
+                }
+                remainingNanos = streamReleased.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an HTTP/2 stream to " + url);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retires the connections that have carried no stream for the idle timeout.
+     */
+    void retireIdleConnections() {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            connections.removeIf(connection -> {
+                if (connection.streams > 0 || now - connection.idleSinceNanos < idleTimeoutNanos) {
+                    return false;
+                }
+                connection.retire();
+                return true;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retires every connection and fails later and waiting requests. Requests under way complete normally.
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            connections.forEach(Connection::retire);
+            connections.clear();
+            streamReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of open connections.
+     *
+     * @return the number of connections
+     */
+    int connections() {
+        lock.lock();
+        try {
+            return connections.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of streams in use over all connections.
+     *
+     * @return the number of streams
+     */
+    int streams() {
+        lock.lock();
+        try {
+            return connections.stream().mapToInt(connection -> connection.streams).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A connection, that is the client owning it, with the number of streams in use on it.
+     */
+    final class Connection {
+
+        private final HttpClient client;
+        private int streams;
+        private boolean established;
+        private boolean retired;
+        private long idleSinceNanos = System.nanoTime();
+
+        private Connection(HttpClient client) {
+            this.client = client;
+        }
+
+        HttpClient client() {
+            return client;
+        }
+
+        /**
+         * Records that a response arrived over HTTP/2 on this connection, after which it carries the full
+         * number of streams.
+         */
+        void established() {
+            lock.lock();
+            try {
+                if (!established) {
+                    established = true;
+                    streamReleased.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Releases a stream taken by {@link #acquire(Duration)}.
+         */
+        void release() {
+            lock.lock();
+            try {
+                streams--;
+                if (streams == 0) {
+                    idleSinceNanos = System.nanoTime();
+                    if (retired) {
+                        client.shutdown();
+                    }
+                }
+                streamReleased.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Takes the connection out of use, shutting its client down now if no stream is in use and otherwise
+         * once the last one is released. Called under the pool lock, after which the caller removes it.
+         */
+        private void retire() {
+            retired = true;
+            if (streams == 0) {
+                client.shutdown();
+            }
+        }
+
+        /**
+         * Wraps a response body so the stream is released when the body is closed.
+         *
+         * @param body the response body
+         * @return the wrapped body
+         */
+        InputStream releaseOnClose(InputStream body) {
+            AtomicBoolean released = new AtomicBoolean();
+            return new FilterInputStream(body) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            release();
+                        }
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.liftlab.loadbalancer.adapters.out.http;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.configuration.ForwardingProperties;
+import com.liftlab.loadbalancer.configuration.Http2Properties;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.model.HopByHopHeaders;
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import com.liftlab.loadbalancer.domain.model.ProxyResponse;
+import com.liftlab.loadbalancer.port.out.BackendClientPort;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Backend client built on the JDK {@link HttpClient}.
+ *
+ * <p>Clients are shared across requests so their keep-alive connection pools are reused, and run
+ * their asynchronous work on the supplied executor (the application's virtual-thread executor).
+ * Since the connect timeout is a client-level setting, one client is kept per distinct connect
+ * timeout; the read timeout is applied per request.</p>
+ *
+ * <p>Request and response bodies are streamed: the request body is published from the client's
+ * input stream and the response body is handed back as a stream, so memory per request stays
+ * bounded regardless of the body size.</p>
+ *
+ * <p>With HTTP/2 enabled, requests are multiplexed over a small set of connections per backend, kept by
+ * an {@link Http2ConnectionPool} with a stream limit per connection. A request is one stream, and since
+ * {@code BackendStats} counts requests, least-connections and EWMA balancing see streams, not sockets.
+ * Connections idle for the idle timeout are retired by a periodic sweep, and the pools of backends that
+ * are deregistered are closed, shutting their clients down.</p>
+ */
+public class JdkHttpBackendClient implements BackendClientPort {
+
+    private final ForwardingProperties properties;
+    private final Http2Properties http2Properties;
+    private final Executor executor;
+    private final Map<Duration, HttpClient> clientsByConnectTimeout = new ConcurrentHashMap<>();
+    private final Map<String, Http2ConnectionPool> http2Pools = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for forwarding over HTTP/1.1.
+     *
+     * @param properties the forwarding settings, including per-backend timeouts
+     * @param executor   the executor the HTTP clients run on
+     */
+    public JdkHttpBackendClient(ForwardingProperties properties, Executor executor) {
+        this(properties, Http2Properties.disabled(), executor);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param properties      the forwarding settings, including per-backend timeouts
+     * @param http2Properties the HTTP/2 settings
+     * @param executor        the executor the HTTP clients run on
+     */
+    public JdkHttpBackendClient(ForwardingProperties properties, Http2Properties http2Properties,
+                                Executor executor) {
+        this.properties = properties;
+        this.http2Properties = http2Properties;
+        this.executor = executor;
+    }
+
+    @Override
+    public ProxyResponse send(BackendServer server, ProxyRequest request) throws IOException {
+        if (!http2Properties.enabled()) {
+            HttpClient client = clientsByConnectTimeout.computeIfAbsent(
+                    properties.connectTimeoutFor(server.url()), this::newClient);
+            return send(client, server, request);
+        }
+        Duration connectTimeout = properties.connectTimeoutFor(server.url());
+        Http2ConnectionPool.Connection connection = http2Pools.computeIfAbsent(server.url(),
+                url -> new Http2ConnectionPool(url, () -> newClient(HttpClient.Version.HTTP_2, connectTimeout),
+                        http2Properties.maxStreamsPerConnection(), http2Properties.maxConnectionsPerBackend(),
+                        http2Properties.idleTimeout()))
+                .acquire(connectTimeout);
+        HttpResponse<InputStream> response;
+        try {
+            response = exchange(connection.client(), server, request);
+        } catch (IOException | RuntimeException e) {
+            connection.release();
+            throw e;
+        }
+        // A backend without HTTP/2 answers over HTTP/1.1, and its connection keeps carrying one request.
+        if (response.version() == HttpClient.Version.HTTP_2) {
+            connection.established();
+        }
+        return toProxyResponse(response, connection.releaseOnClose(response.body()));
+    }
+
+    /**
+     * Closes the HTTP/2 connections of backends that are no longer registered. Registered as a repository
+     * snapshot listener; requests still under way on them complete normally.
+     *
+     * @param snapshot the latest repository snapshot
+     */
+    public void onServersChanged(MapBasedBackendConfigRepository.Snapshot snapshot) {
+        http2Pools.entrySet().removeIf(entry -> {
+            if (snapshot.registeredUrls().contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().close();
+            return true;
+        });
+    }
+
+    /**
+     * Retires the HTTP/2 connections that carried no request for the idle timeout, shutting their clients
+     * down, every 10 seconds.
+     */
+    @Scheduled(fixedRate = 10000)
+    public void retireIdleConnections() {
+        http2Pools.values().forEach(Http2ConnectionPool::retireIdleConnections);
+    }
+
+    /**
+     * Returns the HTTP/2 connections to a backend, for tests.
+     *
+     * @param url the backend URL
+     * @return the pool, or {@code null} if nothing was forwarded to the backend over HTTP/2
+     */
+    Http2ConnectionPool http2Pool(String url) {
+        return http2Pools.get(url);
+    }
+
+    private ProxyResponse send(HttpClient client, BackendServer server, ProxyRequest request) throws IOException {
+        HttpResponse<InputStream> response = exchange(client, server, request);
+        return toProxyResponse(response, response.body());
+    }
+
+    private HttpResponse<InputStream> exchange(HttpClient client, BackendServer server, ProxyRequest request)
+            throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(server.url() + request.target()))
+                .timeout(properties.readTimeoutFor(server.url()))
+                .method(request.method(), bodyPublisher(request));
+        request.headers().forEach((name, values) -> {
+            if (!HopByHopHeaders.isHopByHop(name)) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        try {
+            // Returns once the headers have arrived; the body is streamed as the caller reads it.
+            return client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while forwarding to " + server.url());
+        }
+    }
+
+    /**
+     * Streams the request body from its input stream, declaring the length when it is known so
+     * the backend receives a {@code Content-Length} rather than a chunked body.
+     */
+    private static HttpRequest.BodyPublisher bodyPublisher(ProxyRequest request) {
+        if (!request.hasBody()) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        HttpRequest.BodyPublisher stream = HttpRequest.BodyPublishers.ofInputStream(request::body);
+        return request.contentLength() > 0
+                ? HttpRequest.BodyPublishers.fromPublisher(stream, request.contentLength())
+                : stream;
+    }
+
+    private HttpClient newClient(Duration connectTimeout) {
+        return newClient(HttpClient.Version.HTTP_1_1, connectTimeout);
+    }
+
+    private HttpClient newClient(HttpClient.Version version, Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(executor)
+                .build();
+    }
+
+    private static ProxyResponse toProxyResponse(HttpResponse<InputStream> response, InputStream body) {
+        return new ProxyResponse(response.statusCode(), endToEndHeaders(response), body,
+                response.headers().firstValueAsLong("content-length").orElse(-1));
+    }
+
+    private static Map<String, List<String>> endToEndHeaders(HttpResponse<?> response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        response.headers().map().forEach((name, values) -> {
+            if (!name.startsWith(":") && !HopByHopHeaders.isHopByHop(name)) {
+                headers.put(name, values);
+            }
+        });
+        return headers;
+    }
+}
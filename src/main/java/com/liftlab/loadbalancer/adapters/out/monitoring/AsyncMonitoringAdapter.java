@@ -0,0 +1,152 @@
+package com.liftlab.loadbalancer.adapters.out.monitoring;
+
+import com.liftlab.loadbalancer.configuration.MonitoringProperties;
+import com.liftlab.loadbalancer.domain.model.RequestEvent;
+import com.liftlab.loadbalancer.port.out.MonitoringPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Monitoring adapter that moves reporting off the request path.
+ *
+ * <p>Producers publish events into a preallocated {@link MpscRingBuffer} and return immediately;
+ * a single consumer thread drains the buffer in batches and hands the events to the underlying
+ * sink. When the sink falls behind and the buffer fills up, events are dropped (or, under
+ * {@link MonitoringProperties.OverflowPolicy#SAMPLE}, sampled first) and counted, so request
+ * threads never block on monitoring and memory use stays bounded.</p>
+ */
+public class AsyncMonitoringAdapter implements MonitoringPort, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncMonitoringAdapter.class);
+
+    /**
+     * How long the consumer sleeps when the buffer is empty.
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Minimum interval between two warnings about dropped events.
+     */
+    private static final long DROP_WARNING_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final MonitoringPort sink;
+    private final MonitoringProperties properties;
+    private final MpscRingBuffer<Object> buffer;
+    private final int sampleThreshold;
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder sampledOutEvents = new LongAdder();
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    /**
+     * Constructor. Starts the consumer thread.
+     *
+     * @param sink       the adapter the events are delivered to, on the consumer thread
+     * @param properties the buffer and overflow settings
+     */
+    public AsyncMonitoringAdapter(MonitoringPort sink, MonitoringProperties properties) {
+        this.sink = sink;
+        this.properties = properties;
+        this.buffer = new MpscRingBuffer<>(properties.bufferSize());
+        this.sampleThreshold = buffer.capacity() / 4 * 3;
+        this.consumer = Thread.ofPlatform().name("monitoring-consumer").daemon().start(this::consume);
+    }
+
+    @Override
+    public void report(String message) {
+        publish(message);
+    }
+
+    @Override
+    public void recordRequest(RequestEvent event) {
+        publish(event);
+    }
+
+    /**
+     * Returns the number of events dropped because the buffer was full.
+     *
+     * @return the dropped event count
+     */
+    public long droppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    /**
+     * Returns the number of events skipped by sampling while the buffer was nearly full.
+     *
+     * @return the sampled-out event count
+     */
+    public long sampledOutEvents() {
+        return sampledOutEvents.sum();
+    }
+
+    /**
+     * Stops accepting new events, delivers the ones already buffered and stops the consumer.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(Object event) {
+        if (!running) {
+            droppedEvents.increment();
+            return;
+        }
+        if (properties.overflowPolicy() == MonitoringProperties.OverflowPolicy.SAMPLE
+                && buffer.size() >= sampleThreshold
+                && ThreadLocalRandom.current().nextInt(properties.sampleRate()) != 0) {
+            sampledOutEvents.increment();
+            return;
+        }
+        if (!buffer.offer(event)) {
+            droppedEvents.increment();
+        }
+    }
+
+    private void consume() {
+        long reportedDrops = 0;
+        long lastWarningNanos = System.nanoTime() - DROP_WARNING_INTERVAL_NANOS;
+        while (true) {
+            int drained = buffer.drain(this::deliver, properties.batchSize());
+            if (drained == 0) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            long now = System.nanoTime();
+            if (now - lastWarningNanos >= DROP_WARNING_INTERVAL_NANOS) {
+                long dropped = droppedEvents.sum() + sampledOutEvents.sum();
+                if (dropped != reportedDrops) {
+                    logger.warn("Monitoring sink is falling behind: {} events dropped or sampled out so far", dropped);
+                    reportedDrops = dropped;
+                    lastWarningNanos = now;
+                }
+            }
+        }
+    }
+
+    private void deliver(Object event) {
+        try {
+            if (event instanceof RequestEvent requestEvent) {
+                sink.recordRequest(requestEvent);
+            } else {
+                sink.report((String) event);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Monitoring sink failed: {} - {}", e.getClass().getSimpleName(), e.getMessage(), e);
+        }
+    }
+}
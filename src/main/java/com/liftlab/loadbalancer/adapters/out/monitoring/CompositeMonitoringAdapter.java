@@ -0,0 +1,45 @@
+package com.liftlab.loadbalancer.adapters.out.monitoring;
+
+import com.liftlab.loadbalancer.domain.model.RequestEvent;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import com.liftlab.loadbalancer.port.out.MonitoringPort;
+
+import java.util.List;
+
+/**
+ * Monitoring adapter that hands every message and event to each of its delegates in turn.
+ */
+public class CompositeMonitoringAdapter implements MonitoringPort {
+
+    private final MonitoringPort[] delegates;
+
+    /**
+     * Constructor.
+     *
+     * @param delegates the adapters to forward to, in order
+     */
+    public CompositeMonitoringAdapter(List<MonitoringPort> delegates) {
+        this.delegates = delegates.toArray(MonitoringPort[]::new);
+    }
+
+    @Override
+    public void report(String message) {
+        for (MonitoringPort delegate : delegates) {
+            delegate.report(message);
+        }
+    }
+
+    @Override
+    public void recordRequest(RequestEvent event) {
+        for (MonitoringPort delegate : delegates) {
+            delegate.recordRequest(event);
+        }
+    }
+
+    @Override
+    public void recordForwarded(StrategyType strategy, String backendUrl, int status, long latencyNanos) {
+        for (MonitoringPort delegate : delegates) {
+            delegate.recordForwarded(strategy, backendUrl, status, latencyNanos);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.liftlab.loadbalancer.adapters.out.monitoring;
 
+import com.liftlab.loadbalancer.domain.model.RequestEvent;
 import com.liftlab.loadbalancer.port.out.MonitoringPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,4 +23,19 @@ public class ConsoleMonitoringAdapter implements MonitoringPort {
     public void report(String message) {
         logger.info("Monitoring Report: {}", message);
     }
+
+    /**
+     * Records the outcome of a forwarded request by logging it.
+     *
+     * @param event the request outcome
+     */
+    @Override
+    public void recordRequest(RequestEvent event) {
+        if (event.isFailure()) {
+            logger.info("Monitoring Report: {}", event.describe());
+        } else {
+            logger.info("Monitoring Report: Request forwarded to {} with status {} in {} ms",
+                    event.backendUrl(), event.status(), event.latencyNanos() / 1_000_000);
+        }
+    }
 }
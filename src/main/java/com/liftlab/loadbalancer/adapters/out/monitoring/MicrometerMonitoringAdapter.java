@@ -0,0 +1,176 @@
+package com.liftlab.loadbalancer.adapters.out.monitoring;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.model.RequestEvent;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import com.liftlab.loadbalancer.port.out.MonitoringPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monitoring adapter that records request metrics in a Micrometer {@link MeterRegistry}, from where
+ * Actuator exports them at {@code /actuator/metrics} and {@code /actuator/prometheus}.
+ *
+ * <p>For every backend and strategy it keeps a request counter, an error counter (load balancer
+ * failures and 5xx responses) and a latency timer publishing p50, p99 and p99.9. The percentiles
+ * are computed from a rolling, HDR-style bucketed histogram and exported to Prometheus as summary
+ * quantiles. Every registered backend also gets a gauge of its in-flight requests, read from
+ * {@link BackendStatsRegistry}.</p>
+ *
+ * <p>Meters are created once per backend and strategy and then looked up by URL in a per-strategy
+ * map. Forwarded requests arrive through {@link #recordForwarded} as plain values, so recording one
+ * only increments counters and records into the timer's preallocated histogram, without allocating
+ * or reading the clock. Meters of backends that are removed from the repository are
+ * removed from the registry as well.</p>
+ */
+public class MicrometerMonitoringAdapter implements MonitoringPort {
+
+    static final String REQUESTS = "loadbalancer.requests";
+    static final String ERRORS = "loadbalancer.errors";
+    static final String LATENCY = "loadbalancer.request.latency";
+    static final String IN_FLIGHT = "loadbalancer.backend.in.flight";
+
+    /**
+     * Backend tag of requests that failed before a backend was selected.
+     */
+    static final String NO_BACKEND = "none";
+
+    private final MeterRegistry registry;
+    private final BackendStatsRegistry statsRegistry;
+    private final Map<StrategyType, Map<String, BackendMeters>> metersByStrategy = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> inFlightGauges = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param registry      the registry the meters are registered in
+     * @param statsRegistry the live statistics backing the in-flight gauges
+     */
+    public MicrometerMonitoringAdapter(MeterRegistry registry, BackendStatsRegistry statsRegistry) {
+        this.registry = registry;
+        this.statsRegistry = statsRegistry;
+    }
+
+    /**
+     * Free-form messages carry no metrics and are ignored.
+     *
+     * @param message the message to report
+     */
+    @Override
+    public void report(String message) {
+    }
+
+    @Override
+    public void recordRequest(RequestEvent event) {
+        String backend = event.backendUrl() != null ? event.backendUrl() : NO_BACKEND;
+        if (!event.isFailure()) {
+            recordForwarded(event.strategy(), backend, event.status(), event.latencyNanos());
+            return;
+        }
+        BackendMeters meters = metersFor(event.strategy(), backend);
+        meters.requests.increment();
+        meters.errors.increment();
+    }
+
+    @Override
+    public void recordForwarded(StrategyType strategy, String backendUrl, int status, long latencyNanos) {
+        BackendMeters meters = metersFor(strategy, backendUrl);
+        meters.requests.increment();
+        if (status >= 500) {
+            meters.errors.increment();
+        }
+        meters.latency.record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registers in-flight gauges for newly registered backends and removes all meters of backends that
+     * are no longer registered. Intended as a repository snapshot listener.
+     *
+     * @param snapshot the latest repository snapshot
+     */
+    public void onServersChanged(MapBasedBackendConfigRepository.Snapshot snapshot) {
+        Set<String> registered = snapshot.registeredUrls();
+        for (String url : registered) {
+            inFlightGauges.computeIfAbsent(url, this::inFlightGauge);
+        }
+        inFlightGauges.entrySet().removeIf(entry -> {
+            if (registered.contains(entry.getKey())) {
+                return false;
+            }
+            registry.remove(entry.getValue());
+            return true;
+        });
+        for (Map<String, BackendMeters> meters : metersByStrategy.values()) {
+            meters.entrySet().removeIf(entry -> {
+                if (registered.contains(entry.getKey()) || NO_BACKEND.equals(entry.getKey())) {
+                    return false;
+                }
+                entry.getValue().removeFrom(registry);
+                return true;
+            });
+        }
+    }
+
+    private BackendMeters metersFor(StrategyType strategy, String backend) {
+        Map<String, BackendMeters> meters = metersByStrategy.get(strategy);
+        if (meters == null) {
+            meters = metersByStrategy.computeIfAbsent(strategy, type -> new ConcurrentHashMap<>());
+        }
+        BackendMeters backendMeters = meters.get(backend);
+        return backendMeters != null
+                ? backendMeters
+                : meters.computeIfAbsent(backend, url -> new BackendMeters(registry, strategy.id(), url));
+    }
+
+    private Gauge inFlightGauge(String url) {
+        return Gauge.builder(IN_FLIGHT, statsRegistry.statsFor(new BackendServer(url)), stats -> stats.inFlight())
+                .description("Requests currently in flight to the backend")
+                .tag("backend", url)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * The meters of one backend under one strategy.
+     */
+    private static final class BackendMeters {
+        final Counter requests;
+        final Counter errors;
+        final Timer latency;
+
+        BackendMeters(MeterRegistry registry, String strategy, String backend) {
+            requests = Counter.builder(REQUESTS)
+                    .description("Requests forwarded or rejected by the load balancer")
+                    .tags("backend", backend, "strategy", strategy)
+                    .register(registry);
+            errors = Counter.builder(ERRORS)
+                    .description("Requests that failed in the load balancer or got a 5xx from the backend")
+                    .tags("backend", backend, "strategy", strategy)
+                    .register(registry);
+            latency = Timer.builder(LATENCY)
+                    .description("Time until the backend's response headers arrived")
+                    .tags("backend", backend, "strategy", strategy)
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .percentilePrecision(2)
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(registry);
+        }
+
+        void removeFrom(MeterRegistry registry) {
+            registry.remove(requests);
+            registry.remove(errors);
+            registry.remove(latency);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.liftlab.loadbalancer.adapters.out.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free ring buffer for many producers and a single consumer.
+ *
+ * <p>Slots and their sequence numbers are allocated once up front. A producer claims a slot by
+ * advancing the shared tail with a CAS, writes the element and then publishes it by releasing the
+ * slot's sequence; the consumer only reads slots whose sequence shows they are published, and hands
+ * them back by moving the sequence one lap ahead. When the buffer is full {@link #offer(Object)}
+ * fails immediately instead of waiting, so producers never block.</p>
+ *
+ * @param <E> the element type
+ */
+public final class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * Next position to consume; written only by the consumer, read by producers to estimate the size.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the minimum capacity, rounded up to a power of two
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if there is room. Safe to call from any number of threads.
+     *
+     * @param element the element to add
+     * @return false if the buffer is full
+     */
+    public boolean offer(E element) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) position & mask;
+            long available = sequences.getAcquire(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (available < 0) {
+                // The slot one lap back has not been consumed yet.
+                return false;
+            }
+            // Otherwise another producer claimed this position first; retry with the new tail.
+        }
+        slots.setPlain(index, element);
+        sequences.setRelease(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Removes up to {@code maxElements} published elements in order, handing each to the consumer.
+     * Must only be called from the single consumer thread.
+     *
+     * @param consumer    receives the removed elements
+     * @param maxElements the maximum number of elements to remove
+     * @return the number of elements removed
+     */
+    public int drain(Consumer<? super E> consumer, int maxElements) {
+        long position = head.getPlain();
+        int drained = 0;
+        while (drained < maxElements) {
+            int index = (int) position & mask;
+            if (sequences.getAcquire(index) != position + 1) {
+                break;
+            }
+            E element = slots.getPlain(index);
+            slots.setPlain(index, null);
+            sequences.setRelease(index, position + mask + 1);
+            head.setRelease(++position);
+            drained++;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    /**
+     * Returns the approximate number of elements in the buffer.
+     *
+     * @return the number of claimed but not yet consumed slots
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(tail.get() - head.getAcquire(), capacity()));
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,377 @@
+package com.liftlab.loadbalancer.adapters.out.repository;
+
+import com.liftlab.loadbalancer.configuration.PersistenceProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of backend registrations, so the registry survives restarts.
+ *
+ * <p>Changes are appended to a memory-mapped file, which costs a memory copy on the write path. A
+ * background thread flushes the file once per {@link PersistenceProperties#syncInterval()} if anything
+ * was written, so a burst of registrations shares one flush. Written entries survive a crash of the
+ * process as soon as they are appended, and a crash of the machine once they are flushed.</p>
+ *
+ * <p>When the journal is three quarters full, the full registry is written to a snapshot file and the
+ * journal starts over. Both carry a generation: the snapshot of generation {@code g} holds everything
+ * written before the journal of generation {@code g} started. Journal entries are checksummed together
+ * with their generation, so entries left over from an earlier generation, and torn writes, end the
+ * replay. The entries of one {@link MapBasedBackendConfigRepository#applyBatch batch} are linked and
+ * replayed either all or not at all.</p>
+ *
+ * <p>Not thread-safe: appends and compactions are serialized by the repository's write lock.</p>
+ */
+public class BackendJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackendJournal.class);
+
+    private static final int JOURNAL_MAGIC = 0x4C424A31;
+    private static final int SNAPSHOT_MAGIC = 0x4C425331;
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    private static final int ENTRY_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int REMOVED = 1;
+    private static final int DRAINING = 2;
+    private static final int MORE_FOLLOW = 0x80;
+
+    private final Path journalFile;
+    private final Path snapshotFile;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int compactThreshold;
+    private final ScheduledExecutorService syncScheduler;
+    private final CRC32C checksum = new CRC32C();
+    private final ByteBuffer generationBytes = ByteBuffer.allocate(Long.BYTES);
+    private long generation;
+    private int position = HEADER_SIZE;
+    private volatile boolean dirty;
+
+    /**
+     * Constructor. Opens or creates the journal; its content is read by {@link #recover()}.
+     *
+     * @param properties the persistence settings
+     * @throws UncheckedIOException if the journal cannot be opened
+     */
+    public BackendJournal(PersistenceProperties properties) {
+        if (!properties.enabled()) {
+            this.journalFile = null;
+            this.snapshotFile = null;
+            this.channel = null;
+            this.buffer = null;
+            this.compactThreshold = 0;
+            this.syncScheduler = null;
+            return;
+        }
+        try {
+            Path directory = Files.createDirectories(Path.of(properties.directory()));
+            this.journalFile = directory.resolve("journal.log");
+            this.snapshotFile = directory.resolve("snapshot.dat");
+            this.channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long size = Math.max(properties.journalSize().toBytes(), channel.size());
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Journal size must be below 2GB: " + size);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open backend journal in " + properties.directory(), e);
+        }
+        this.compactThreshold = (int) (buffer.capacity() / 4L * 3);
+        long syncNanos = Math.max(1, properties.syncInterval().toNanos());
+        this.syncScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("backend-journal-sync").daemon().factory());
+        syncScheduler.scheduleWithFixedDelay(this::sync, syncNanos, syncNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns a journal that writes nothing and recovers nothing.
+     *
+     * @return a disabled journal
+     */
+    public static BackendJournal disabled() {
+        return new BackendJournal(PersistenceProperties.disabled());
+    }
+
+    /**
+     * Reads the snapshot and replays the journal on top of it, then compacts both into a new snapshot
+     * so the journal starts empty, without entries of an interrupted batch left behind.
+     *
+     * @return the recovered backends in registration order
+     * @throws UncheckedIOException if the snapshot cannot be read, is corrupt or cannot be rewritten
+     */
+    public Collection<Entry> recover() {
+        if (buffer == null) {
+            return List.of();
+        }
+        Map<String, Entry> state = new LinkedHashMap<>();
+        long snapshotGeneration = readSnapshot(state);
+        int magic = buffer.getInt(0);
+        if (magic != 0 && magic != JOURNAL_MAGIC) {
+            throw new UncheckedIOException(new IOException("Not a backend journal: " + journalFile));
+        }
+        int replayed = 0;
+        if (magic == JOURNAL_MAGIC && buffer.getLong(Integer.BYTES) == snapshotGeneration) {
+            replayed = replay(snapshotGeneration, state);
+        }
+        logger.info("Recovered {} backends from generation {} with {} journal entries",
+                state.size(), snapshotGeneration, replayed);
+        generation = snapshotGeneration;
+        try {
+            startGeneration(state.values());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write backend snapshot " + snapshotFile, e);
+        }
+        return List.copyOf(state.values());
+    }
+
+    /**
+     * Appends changes that are replayed together. Changes that no longer fit are not written, as the
+     * compaction that follows captures them.
+     *
+     * @param entries the changes, in the order they were made
+     * @return true if the journal should be {@link #compact(Collection) compacted}
+     */
+    public boolean append(List<Entry> entries) {
+        if (buffer == null) {
+            return false;
+        }
+        List<byte[]> urls = new ArrayList<>(entries.size());
+        int size = 0;
+        for (Entry entry : entries) {
+            byte[] url = entry.url().getBytes(StandardCharsets.UTF_8);
+            urls.add(url);
+            size += ENTRY_HEADER_SIZE + 1 + Integer.BYTES + url.length;
+        }
+        if (position + size + Integer.BYTES > buffer.capacity()) {
+            return true;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            byte[] url = urls.get(i);
+            int flags = (entry.removed() ? REMOVED : 0) | (entry.draining() ? DRAINING : 0)
+                    | (i < entries.size() - 1 ? MORE_FOLLOW : 0);
+            int payload = position + ENTRY_HEADER_SIZE;
+            buffer.put(payload, (byte) flags);
+            buffer.putInt(payload + 1, entry.weight());
+            buffer.put(payload + 1 + Integer.BYTES, url);
+            int length = 1 + Integer.BYTES + url.length;
+            buffer.putInt(position + Integer.BYTES, checksum(generation, payload, length));
+            buffer.putInt(position, length);
+            position += ENTRY_HEADER_SIZE + length;
+        }
+        dirty = true;
+        return position >= compactThreshold;
+    }
+
+    /**
+     * Writes the full registry to a new snapshot and starts the journal over. If the snapshot cannot be
+     * written the journal is kept, and the next append asks for another compaction.
+     *
+     * @param backends the current state of every registered backend
+     */
+    public void compact(Collection<MapBasedBackendConfigRepository.BackendStatus> backends) {
+        if (buffer == null) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>(backends.size());
+        for (MapBasedBackendConfigRepository.BackendStatus status : backends) {
+            entries.add(Entry.of(status));
+        }
+        try {
+            startGeneration(entries);
+        } catch (IOException e) {
+            logger.error("Cannot write backend snapshot {}, keeping the journal", snapshotFile, e);
+        }
+    }
+
+    private void startGeneration(Collection<Entry> entries) throws IOException {
+        long next = generation + 1;
+        writeSnapshot(next, entries);
+        generation = next;
+        position = HEADER_SIZE;
+        buffer.putInt(0, JOURNAL_MAGIC);
+        buffer.putLong(Integer.BYTES, next);
+        buffer.putInt(HEADER_SIZE, 0);
+        buffer.force(0, HEADER_SIZE + Integer.BYTES);
+    }
+
+    /**
+     * Flushes outstanding writes and stops the background flushes.
+     */
+    @Override
+    public void close() {
+        if (buffer == null) {
+            return;
+        }
+        syncScheduler.shutdown();
+        try {
+            syncScheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        buffer.force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Cannot close backend journal {}", journalFile, e);
+        }
+    }
+
+    private void sync() {
+        if (dirty) {
+            dirty = false;
+            buffer.force();
+        }
+    }
+
+    private int replay(long expectedGeneration, Map<String, Entry> state) {
+        List<Entry> pending = new ArrayList<>();
+        int replayed = 0;
+        int offset = HEADER_SIZE;
+        while (offset + ENTRY_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            int payload = offset + ENTRY_HEADER_SIZE;
+            if (length <= 1 + Integer.BYTES || length > buffer.capacity() - payload
+                    || buffer.getInt(offset + Integer.BYTES) != checksum(expectedGeneration, payload, length)) {
+                break;
+            }
+            int flags = buffer.get(payload);
+            byte[] url = new byte[length - 1 - Integer.BYTES];
+            buffer.get(payload + 1 + Integer.BYTES, url);
+            pending.add(new Entry(new String(url, StandardCharsets.UTF_8), buffer.getInt(payload + 1),
+                    (flags & DRAINING) != 0, (flags & REMOVED) != 0));
+            if ((flags & MORE_FOLLOW) == 0) {
+                pending.forEach(entry -> apply(state, entry));
+                replayed += pending.size();
+                pending.clear();
+            }
+            offset = payload + length;
+        }
+        return replayed;
+    }
+
+    private static void apply(Map<String, Entry> state, Entry entry) {
+        if (entry.removed()) {
+            state.remove(entry.url());
+        } else {
+            state.put(entry.url(), entry);
+        }
+    }
+
+    private int checksum(long entryGeneration, int offset, int length) {
+        checksum.reset();
+        checksum.update(generationBytes.clear().putLong(0, entryGeneration));
+        checksum.update(buffer.slice(offset, length));
+        return (int) checksum.getValue();
+    }
+
+    private long readSnapshot(Map<String, Entry> state) {
+        if (!Files.exists(snapshotFile)) {
+            return 0;
+        }
+        try {
+            ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+            int end = snapshot.limit() - Integer.BYTES;
+            CRC32C crc = new CRC32C();
+            crc.update(snapshot.slice(0, Math.max(0, end)));
+            if (end < HEADER_SIZE + Integer.BYTES || snapshot.getInt(0) != SNAPSHOT_MAGIC
+                    || snapshot.getInt(end) != (int) crc.getValue()) {
+                throw new IOException("Corrupt backend snapshot: " + snapshotFile);
+            }
+            long snapshotGeneration = snapshot.getLong(Integer.BYTES);
+            int count = snapshot.getInt(HEADER_SIZE);
+            snapshot.position(HEADER_SIZE + Integer.BYTES);
+            for (int i = 0; i < count; i++) {
+                int weight = snapshot.getInt();
+                boolean draining = snapshot.get() != 0;
+                byte[] url = new byte[snapshot.getInt()];
+                snapshot.get(url);
+                Entry entry = new Entry(new String(url, StandardCharsets.UTF_8), weight, draining, false);
+                state.put(entry.url(), entry);
+            }
+            return snapshotGeneration;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeSnapshot(long snapshotGeneration, Collection<Entry> entries) throws IOException {
+        List<byte[]> urls = new ArrayList<>(entries.size());
+        int size = HEADER_SIZE + 2 * Integer.BYTES;
+        for (Entry entry : entries) {
+            byte[] url = entry.url().getBytes(StandardCharsets.UTF_8);
+            urls.add(url);
+            size += Integer.BYTES + 1 + Integer.BYTES + url.length;
+        }
+        ByteBuffer snapshot = ByteBuffer.allocate(size);
+        snapshot.putInt(SNAPSHOT_MAGIC).putLong(snapshotGeneration).putInt(entries.size());
+        int i = 0;
+        for (Entry entry : entries) {
+            byte[] url = urls.get(i++);
+            snapshot.putInt(entry.weight()).put((byte) (entry.draining() ? 1 : 0)).putInt(url.length).put(url);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(snapshot.slice(0, snapshot.position()));
+        snapshot.putInt((int) crc.getValue()).flip();
+
+        Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (snapshot.hasRemaining()) {
+                out.write(snapshot);
+            }
+            out.force(true);
+        }
+        Files.move(temporary, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * A journaled change: the registration or update of a backend, or its removal.
+     *
+     * @param url      the URL of the backend
+     * @param weight   the weight of the backend, {@code 0} for a removal
+     * @param draining whether the backend is draining
+     * @param removed  whether the backend was removed
+     */
+    public record Entry(String url, int weight, boolean draining, boolean removed) {
+
+        /**
+         * Returns the entry recording the current state of a backend.
+         *
+         * @param status the backend and its state
+         * @return the entry
+         */
+        public static Entry of(MapBasedBackendConfigRepository.BackendStatus status) {
+            return new Entry(status.server().url(), status.server().weight(), status.draining(), false);
+        }
+
+        /**
+         * Returns the entry recording the removal of a backend.
+         *
+         * @param url the URL of the removed backend
+         * @return the entry
+         */
+        public static Entry removal(String url) {
+            return new Entry(url, 0, false, true);
+        }
+    }
+}
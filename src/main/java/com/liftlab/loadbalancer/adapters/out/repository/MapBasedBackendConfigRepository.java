@@ -1,25 +1,101 @@
 package com.liftlab.loadbalancer.adapters.out.repository;
 
 import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.exception.VersionConflictException;
+import com.liftlab.loadbalancer.domain.model.BackendBatch;
 import com.liftlab.loadbalancer.domain.model.BackendServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Repository for managing backend server configurations using a map-based approach.
- * Each backend server is stored along with its health status.
+ * Each backend server is stored along with its health status and whether it is draining.
+ *
+ * <p>Mutations are serialized on a write lock and, when they actually change state, republish an
+ * immutable {@link Snapshot} of the healthy and unhealthy servers. Readers only perform a single
+ * volatile load of the current snapshot, so the request path never allocates or iterates the map.</p>
+ *
+ * <p>Snapshot listeners are notified asynchronously on a dedicated thread, so expensive derived
+ * structures (such as hash lookup tables) are rebuilt off the request path. Bursts of changes are
+ * coalesced and listeners always receive the latest snapshot.</p>
+ *
+ * <p>A {@link BackendBatch} applies any number of changes under one lock acquisition and publishes a
+ * single snapshot, so readers see either none or all of them.</p>
+ *
+ * <p>Registrations, weights and draining are written to a {@link BackendJournal} and recovered from it
+ * on startup; the journal is disabled unless {@code loadbalancer.persistence.enabled} is set.</p>
  */
 @Repository
 public class MapBasedBackendConfigRepository {
 
+    private static final Logger logger = LoggerFactory.getLogger(MapBasedBackendConfigRepository.class);
+
+    /**
+     * Version accepted by {@link #applyBatch(BackendBatch, long)} to apply a batch regardless of the
+     * current version.
+     */
+    public static final long ANY_VERSION = -1;
+
     /**
      * Internal map storing backend servers by URL along with their health status.
+     * Guarded by {@link #writeLock}; insertion order is kept so snapshots are stable.
+     */
+    private final Map<String, BackendStatus> serverMap = new LinkedHashMap<>();
+
+    private final Object writeLock = new Object();
+
+    /**
+     * The latest published snapshot, replaced atomically on every state change.
+     */
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private final List<Consumer<Snapshot>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Snapshot>> changeListeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean notificationPending = new AtomicBoolean();
+    private final ExecutorService notifier =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("backend-snapshot-listener").factory());
+
+    private final BackendJournal journal;
+
+    /**
+     * Creates an in-memory repository whose registrations are lost on restart.
      */
-    private final Map<String, BackendStatus> serverMap = new ConcurrentHashMap<>();
+    public MapBasedBackendConfigRepository() {
+        this(BackendJournal.disabled());
+    }
+
+    /**
+     * Creates a repository that journals registrations and starts with the backends recovered from the
+     * journal, all of them considered healthy until the health checks say otherwise.
+     *
+     * @param journal the journal of backend registrations
+     */
+    @Autowired
+    public MapBasedBackendConfigRepository(BackendJournal journal) {
+        this.journal = journal;
+        for (BackendJournal.Entry entry : journal.recover()) {
+            BackendServer server = new BackendServer(entry.url(), entry.weight());
+            serverMap.put(server.url(), new BackendStatus(server, true, entry.draining()));
+        }
+        if (!serverMap.isEmpty()) {
+            publish();
+        }
+    }
 
     /**
      * Registers a new backend server.
@@ -29,10 +105,36 @@ public class MapBasedBackendConfigRepository {
      * @throws LoadBalancerException if the provided server is null or invalid
      */
     public void registerBackend(BackendServer server) throws LoadBalancerException {
-        if (server == null || server.url() == null) {
-            throw new LoadBalancerException("Invalid backend server provided");
+        validate(server);
+        synchronized (writeLock) {
+            if (!serverMap.containsKey(server.url())) {
+                persist(List.of(put(new BackendStatus(server, true, false))));
+                publish();
+            }
+        }
+    }
+
+    /**
+     * Updates the weight of an already registered backend server, keeping its health status.
+     * If the server is not registered or its weight is unchanged, it does nothing.
+     *
+     * @param server the backend server carrying the new weight
+     * @return true if the server is registered, false if there was nothing to update
+     * @throws LoadBalancerException if the provided server is null or invalid
+     */
+    public boolean updateWeight(BackendServer server) throws LoadBalancerException {
+        validate(server);
+        synchronized (writeLock) {
+            BackendStatus current = serverMap.get(server.url());
+            if (current == null) {
+                return false;
+            }
+            if (current.server().weight() != server.weight()) {
+                persist(List.of(put(new BackendStatus(server, current.healthy(), current.draining()))));
+                publish();
+            }
+            return true;
         }
-        serverMap.putIfAbsent(server.url(), new BackendStatus(server, true));
     }
 
     /**
@@ -42,10 +144,83 @@ public class MapBasedBackendConfigRepository {
      * @throws LoadBalancerException if the provided server is null or invalid
      */
     public void removeBackend(BackendServer server) throws LoadBalancerException {
-        if (server == null || server.url() == null) {
-            throw new LoadBalancerException("Invalid backend server provided");
+        validate(server);
+        synchronized (writeLock) {
+            if (serverMap.remove(server.url()) != null) {
+                persist(List.of(BackendJournal.Entry.removal(server.url())));
+                publish();
+            }
+        }
+    }
+
+    /**
+     * Applies a batch of changes atomically: either all of them are applied, bumping the version once,
+     * or none if the batch is invalid or the version does not match. A batch that changes nothing leaves
+     * the version as it is.
+     *
+     * @param batch           the changes to apply
+     * @param expectedVersion the version the batch was prepared against, or {@link #ANY_VERSION}
+     * @return the snapshot after the batch
+     * @throws VersionConflictException if the current version is not the expected one
+     * @throws LoadBalancerException    if the batch is invalid
+     */
+    public Snapshot applyBatch(BackendBatch batch, long expectedVersion) throws LoadBalancerException {
+        Map<String, BackendServer> additions = new LinkedHashMap<>();
+        for (BackendBatch.Backend backend : batch.isDesiredSet() ? batch.desired() : batch.add()) {
+            BackendServer server = backend.toServer();
+            validate(server);
+            additions.put(server.url(), server);
+        }
+        if (batch.isDesiredSet() && !(batch.add().isEmpty() && batch.drain().isEmpty() && batch.remove().isEmpty())) {
+            throw new LoadBalancerException("A batch lists either the desired backends or changes, not both");
+        }
+        for (String url : batch.remove()) {
+            if (additions.containsKey(url)) {
+                throw new LoadBalancerException("Backend both added and removed: " + url);
+            }
+        }
+        synchronized (writeLock) {
+            if (expectedVersion != ANY_VERSION && expectedVersion != snapshot.version()) {
+                throw new VersionConflictException(expectedVersion, snapshot.version());
+            }
+            for (String url : batch.drain()) {
+                if (!serverMap.containsKey(url) && !additions.containsKey(url)) {
+                    throw new LoadBalancerException("Cannot drain unregistered backend: " + url);
+                }
+            }
+            List<BackendJournal.Entry> changes = new ArrayList<>();
+            if (batch.isDesiredSet()) {
+                for (Iterator<String> urls = serverMap.keySet().iterator(); urls.hasNext(); ) {
+                    String url = urls.next();
+                    if (!additions.containsKey(url)) {
+                        urls.remove();
+                        changes.add(BackendJournal.Entry.removal(url));
+                    }
+                }
+            }
+            for (BackendServer server : additions.values()) {
+                BackendStatus current = serverMap.get(server.url());
+                if (current == null || !current.server().equals(server) || current.draining()) {
+                    changes.add(put(new BackendStatus(server, current == null || current.healthy(), false)));
+                }
+            }
+            for (String url : batch.drain()) {
+                BackendStatus current = serverMap.get(url);
+                if (!current.draining()) {
+                    changes.add(put(new BackendStatus(current.server(), current.healthy(), true)));
+                }
+            }
+            for (String url : batch.remove()) {
+                if (serverMap.remove(url) != null) {
+                    changes.add(BackendJournal.Entry.removal(url));
+                }
+            }
+            if (!changes.isEmpty()) {
+                persist(changes);
+                publish();
+            }
+            return snapshot;
         }
-        serverMap.remove(server.url());
     }
 
     /**
@@ -55,10 +230,8 @@ public class MapBasedBackendConfigRepository {
      * @throws LoadBalancerException if the provided server is null or invalid
      */
     public void markUnhealthy(BackendServer server) throws LoadBalancerException {
-        if (server == null || server.url() == null) {
-            throw new LoadBalancerException("Invalid backend server provided");
-        }
-        serverMap.computeIfPresent(server.url(), (k, v) -> new BackendStatus(v.server(), false));
+        validate(server);
+        updateHealth(server, false);
     }
 
     /**
@@ -68,38 +241,177 @@ public class MapBasedBackendConfigRepository {
      * @throws LoadBalancerException if the provided server is null or invalid
      */
     public void markHealthy(BackendServer server) throws LoadBalancerException {
-        if (server == null || server.url() == null) {
-            throw new LoadBalancerException("Invalid backend server provided");
-        }
-        serverMap.computeIfPresent(server.url(), (k, v) -> new BackendStatus(v.server(), true));
+        validate(server);
+        updateHealth(server, true);
     }
 
     /**
      * Returns a list of active (healthy) backend servers.
+     * The returned list is an immutable view of the current snapshot.
      *
      * @return list of healthy backend servers
      */
     public List<BackendServer> getActiveServers() {
-        return serverMap.values().stream()
-                .filter(BackendStatus::healthy)
-                .map(BackendStatus::server)
-                .collect(Collectors.toList());
+        return snapshot.activeServers();
     }
 
     /**
      * Returns a list of inactive (unhealthy) backend servers.
+     * The returned list is an immutable view of the current snapshot.
      *
      * @return list of unhealthy backend servers
      */
     public List<BackendServer> getInactiveServers() {
-        return serverMap.values().stream()
-                .filter(status -> !status.healthy())
-                .map(BackendStatus::server)
-                .collect(Collectors.toList());
+        return snapshot.inactiveServers();
     }
 
     /**
-     * Internal record that stores the backend server and its health status.
+     * Returns the current snapshot, allowing callers to read the active and inactive
+     * servers consistently along with the version they belong to.
+     *
+     * @return the latest published snapshot
      */
-    public record BackendStatus(BackendServer server, boolean healthy) { }
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Registers a listener that is notified with the latest snapshot after state changes.
+     * The listener is also notified once with the current snapshot right after registration.
+     *
+     * @param listener the listener to register
+     */
+    public void addSnapshotListener(Consumer<Snapshot> listener) {
+        listeners.add(listener);
+        notifyListeners();
+    }
+
+    /**
+     * Registers a listener that is called with every new snapshot on the thread that made the change,
+     * while it still holds the write lock, so it sees every change in the order changes are made and
+     * before any other change. It must be quick and must not block on anything a writer may hold.
+     *
+     * @param listener the listener to register
+     */
+    public void addChangeListener(Consumer<Snapshot> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Runs a task while holding the write lock, so that the changes it makes, and whatever it reads
+     * before making them, are not interleaved with any other change.
+     *
+     * @param task the task, which may call the other methods of this repository
+     */
+    public void atomically(Runnable task) {
+        synchronized (writeLock) {
+            task.run();
+        }
+    }
+
+    private void updateHealth(BackendServer server, boolean healthy) {
+        synchronized (writeLock) {
+            BackendStatus current = serverMap.get(server.url());
+            if (current != null && current.healthy() != healthy) {
+                serverMap.put(server.url(), new BackendStatus(current.server(), healthy, current.draining()));
+                publish();
+            }
+        }
+    }
+
+    /**
+     * Stores a status in the map and returns its journal entry. Must be called while holding the write lock.
+     */
+    private BackendJournal.Entry put(BackendStatus status) {
+        serverMap.put(status.server().url(), status);
+        return BackendJournal.Entry.of(status);
+    }
+
+    /**
+     * Journals changes already applied to the map; health changes are not journaled, as recovered
+     * backends start healthy and the health checks correct them.
+     */
+    private void persist(List<BackendJournal.Entry> changes) {
+        if (journal.append(changes)) {
+            journal.compact(serverMap.values());
+        }
+    }
+
+    /**
+     * Rebuilds and publishes a new snapshot from the map. Must be called while holding the write lock.
+     */
+    private void publish() {
+        List<BackendServer> active = new ArrayList<>(serverMap.size());
+        List<BackendServer> inactive = new ArrayList<>();
+        List<BackendServer> draining = new ArrayList<>();
+        for (BackendStatus status : serverMap.values()) {
+            (status.draining() ? draining : status.healthy() ? active : inactive).add(status.server());
+        }
+        snapshot = new Snapshot(snapshot.version() + 1, List.copyOf(active), List.copyOf(inactive),
+                List.copyOf(draining));
+        for (Consumer<Snapshot> listener : changeListeners) {
+            listener.accept(snapshot);
+        }
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        if (listeners.isEmpty() || !notificationPending.compareAndSet(false, true)) {
+            return;
+        }
+        notifier.execute(() -> {
+            // Clear the flag before reading, so a change published meanwhile schedules another round.
+            notificationPending.set(false);
+            Snapshot current = snapshot;
+            for (Consumer<Snapshot> listener : listeners) {
+                try {
+                    listener.accept(current);
+                } catch (RuntimeException e) {
+                    logger.error("Snapshot listener failed for version {}: {} - {}",
+                            current.version(), e.getClass().getSimpleName(), e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    private static void validate(BackendServer server) throws LoadBalancerException {
+        if (server == null || server.url() == null) {
+            throw new LoadBalancerException("Invalid backend server provided");
+        }
+        if (server.weight() < 1) {
+            throw new LoadBalancerException("Backend weight must be at least 1");
+        }
+    }
+
+    /**
+     * Internal record that stores the backend server, its health status and whether it is draining.
+     */
+    public record BackendStatus(BackendServer server, boolean healthy, boolean draining) { }
+
+    /**
+     * Immutable, versioned view of the registered servers split by health status.
+     *
+     * @param version         monotonically increasing version, bumped on every state change
+     * @param activeServers   healthy backend servers
+     * @param inactiveServers unhealthy backend servers
+     * @param drainingServers backend servers that get no new requests, whatever their health
+     */
+    public record Snapshot(long version, List<BackendServer> activeServers, List<BackendServer> inactiveServers,
+                           List<BackendServer> drainingServers) {
+
+        static final Snapshot EMPTY = new Snapshot(0, List.of(), List.of(), List.of());
+
+        /**
+         * Returns the URLs of all registered servers, active, inactive or draining.
+         *
+         * @return the registered URLs
+         */
+        public Set<String> registeredUrls() {
+            Set<String> urls = new HashSet<>();
+            activeServers.forEach(server -> urls.add(server.url()));
+            inactiveServers.forEach(server -> urls.add(server.url()));
+            drainingServers.forEach(server -> urls.add(server.url()));
+            return urls;
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package com.liftlab.loadbalancer.application.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size blocks of direct memory for cached bodies.
+ *
+ * <p>Blocks are carved from slabs allocated on demand, up to a fixed number of blocks, and go back to
+ * a free list when the entry holding them is evicted. The memory is therefore reused at once instead of
+ * waiting for the garbage collector to run the cleaner of a discarded direct buffer, and the direct
+ * memory of the cache never exceeds its limit.</p>
+ */
+final class DirectBufferPool {
+
+    static final int BLOCK_SIZE = 4 * 1024;
+    private static final int BLOCKS_PER_SLAB = 256;
+
+    private final int maxBlocks;
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private int allocatedBlocks;
+    private volatile int blocksInUse;
+
+    /**
+     * Constructor.
+     *
+     * @param maxBytes the direct memory the pool may allocate, rounded up to whole blocks
+     */
+    DirectBufferPool(long maxBytes) {
+        this.maxBlocks = (int) Math.min(Integer.MAX_VALUE, (maxBytes + BLOCK_SIZE - 1) / BLOCK_SIZE);
+    }
+
+    /**
+     * Takes a cleared block, allocating a new slab if the free list is empty.
+     *
+     * @return a block of {@link #BLOCK_SIZE} bytes, or {@code null} if every block is in use
+     */
+    ByteBuffer allocate() {
+        lock.lock();
+        try {
+            ByteBuffer block = free.pollFirst();
+            if (block == null && allocatedBlocks < maxBlocks) {
+                int blocks = Math.min(BLOCKS_PER_SLAB, maxBlocks - allocatedBlocks);
+                ByteBuffer slab = ByteBuffer.allocateDirect(blocks * BLOCK_SIZE);
+                for (int i = 0; i < blocks; i++) {
+                    free.addLast(slab.slice(i * BLOCK_SIZE, BLOCK_SIZE));
+                }
+                allocatedBlocks += blocks;
+                block = free.pollFirst();
+            }
+            if (block != null) {
+                blocksInUse++;
+                block.clear();
+            }
+            return block;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns blocks to the free list.
+     *
+     * @param blocks blocks taken from this pool that nobody reads any more
+     */
+    void release(List<ByteBuffer> blocks) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (ByteBuffer block : blocks) {
+                free.addFirst(block);
+            }
+            blocksInUse -= blocks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int maxBlocks() {
+        return maxBlocks;
+    }
+
+    int blocksInUse() {
+        return blocksInUse;
+    }
+}
@@ -0,0 +1,688 @@
+package com.liftlab.loadbalancer.application.cache;
+
+import com.liftlab.loadbalancer.configuration.CacheProperties;
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import com.liftlab.loadbalancer.domain.model.ProxyResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Shared HTTP cache for responses to GET and HEAD requests, in front of the backends.
+ *
+ * <p>Entries are keyed on method, request target and the configured key headers. A response is stored
+ * only if its status is cacheable by default (RFC 9110, section 15.1), it has a freshness lifetime from
+ * {@code s-maxage}, {@code max-age} or the configured default TTL, and none of {@code no-store},
+ * {@code no-cache}, {@code private}, {@code Set-Cookie} or a {@code Vary} on headers outside the key
+ * rules it out. Requests with a body or an {@code Authorization} header bypass the cache, and requests
+ * with {@code Cache-Control: no-cache} skip the lookup but refresh the entry.</p>
+ *
+ * <p>Bodies are read straight into blocks of a {@link DirectBufferPool}, so cached data stays outside
+ * the Java heap and is not traced by the garbage collector, and the blocks of an evicted entry are
+ * reused as soon as the last response reading it is closed. Eviction follows the CLOCK algorithm: hits
+ * set the entry's reference bit, and once the entry count, the total body size or the pool exceeds its
+ * limit, one thread sweeps the entries in insertion order, giving referenced ones a second chance and
+ * removing the others down to 90% of the limits. Lookups therefore never take a lock, and eviction
+ * costs a constant amount of work per entry removed.</p>
+ *
+ * <p>Concurrent misses for the same key are coalesced: the first one forwards the request, the others
+ * wait for its entry. If the response turns out not to be cacheable, they are forwarded in turn. A key
+ * whose response rules out caching itself, through {@code no-store}, {@code no-cache}, {@code private},
+ * {@code Set-Cookie} or {@code Vary}, or is too large, is remembered as uncacheable for a while, so that
+ * later misses go straight to a backend instead of queueing behind each other. An error status does not
+ * mark the key: coalescing keeps sparing the backends while they recover.</p>
+ */
+public class ResponseCache {
+
+    /**
+     * Statuses that may be cached without being explicitly marked cacheable.
+     */
+    private static final Set<Integer> CACHEABLE_STATUSES = Set.of(200, 203, 204, 300, 301, 404, 405, 410, 414, 501);
+    private static final double EVICTION_TARGET = 0.9;
+
+    /**
+     * How long a key whose response ruled out caching skips request coalescing.
+     */
+    private static final long UNCACHEABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+    private static final long TOO_LARGE = -1;
+    private static final long OUT_OF_MEMORY = -2;
+
+    private final CacheProperties properties;
+    private final long maxSizeBytes;
+    private final long maxEntrySizeBytes;
+    private final ConcurrentHashMap<CacheKey, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<CacheKey, CompletableFuture<Entry>> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<CacheKey, Long> uncacheableUntilNanos = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger clockSize = new AtomicInteger();
+    private final DirectBufferPool bufferPool;
+    private final AtomicLong sizeBytes = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param properties the cache settings
+     */
+    public ResponseCache(CacheProperties properties) {
+        this.properties = properties;
+        this.maxSizeBytes = properties.maxSize().toBytes();
+        this.maxEntrySizeBytes = Math.min(properties.maxEntrySize().toBytes(), Integer.MAX_VALUE - 8);
+        this.bufferPool = new DirectBufferPool(maxSizeBytes);
+    }
+
+    /**
+     * Returns a cache that stores nothing.
+     *
+     * @return a disabled cache
+     */
+    public static ResponseCache disabled() {
+        return new ResponseCache(CacheProperties.disabled());
+    }
+
+    /**
+     * Returns whether a response to the request may be served from or stored in the cache.
+     *
+     * @param request the client request
+     * @return true for GET and HEAD requests without a body, credentials or {@code Cache-Control: no-store}
+     */
+    public boolean isCacheable(ProxyRequest request) {
+        return properties.enabled()
+                && (request.method().equals("GET") || request.method().equals("HEAD"))
+                && !request.hasBody()
+                && header(request.headers(), "Authorization") == null
+                && !cacheControl(request.headers()).containsKey("no-store");
+    }
+
+    /**
+     * Serves the request from the cache, or forwards it to the backends and caches the response.
+     *
+     * @param request the client request
+     * @param backend forwards the request to a backend
+     * @return the cached or forwarded response
+     */
+    public ProxyResponse forward(ProxyRequest request, Function<ProxyRequest, ProxyResponse> backend) {
+        if (!isCacheable(request)) {
+            return backend.apply(request);
+        }
+        CacheKey key = keyFor(request);
+        boolean lookup = !skipsLookup(request);
+        if (lookup) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                long now = System.nanoTime();
+                if (now - entry.expiresAtNanos >= 0) {
+                    remove(key, entry);
+                } else if (entry.retain()) {
+                    hits.increment();
+                    entry.touch();
+                    return entry.toResponse(now);
+                }
+            }
+        }
+        misses.increment();
+        boolean coalesce = lookup && !isUncacheable(key);
+        CompletableFuture<Entry> ours = new CompletableFuture<>();
+        CompletableFuture<Entry> leader = coalesce ? pending.putIfAbsent(key, ours) : null;
+        if (leader != null) {
+            Entry entry = await(leader);
+            if (entry != null && entry.retain()) {
+                coalesced.increment();
+                return entry.toResponse(System.nanoTime());
+            }
+            return backend.apply(request);
+        }
+        Entry stored = null;
+        try {
+            ProxyResponse response = backend.apply(request);
+            long ttlNanos = freshnessLifetimeNanos(response);
+            if (ttlNanos <= 0 || response.contentLength() > maxEntrySizeBytes) {
+                if (response.contentLength() > maxEntrySizeBytes || forbidsCaching(response)) {
+                    markUncacheable(key);
+                }
+                return response;
+            }
+            List<ByteBuffer> blocks = new ArrayList<>();
+            long length;
+            try {
+                length = response.contentLength() == 0 ? 0 : readBody(response.body(), blocks);
+            } catch (IOException e) {
+                bufferPool.release(blocks);
+                closeQuietly(response.body());
+                return ProxyResponse.error(502, "Failed to read backend response: " + e.getMessage());
+            }
+            if (length < 0) {
+                if (length == TOO_LARGE) {
+                    markUncacheable(key);
+                }
+                // Relay what was read, followed by the rest of the stream.
+                byte[] head = drain(blocks);
+                return new ProxyResponse(response.status(), response.headers(),
+                        new SequenceInputStream(new ByteArrayInputStream(head), response.body()),
+                        response.contentLength());
+            }
+            closeQuietly(response.body());
+            stored = store(key, response, blocks, length, ttlNanos);
+            return stored.toResponse(System.nanoTime());
+        } finally {
+            if (coalesce) {
+                pending.remove(key, ours);
+                ours.complete(stored);
+            }
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long coalescedRequests() {
+        return coalesced.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long sizeBytes() {
+        return sizeBytes.get();
+    }
+
+    /**
+     * Reads a body into blocks of the buffer pool, leaving the blocks read so far in {@code blocks}.
+     *
+     * @return the body length, or {@link #TOO_LARGE} or {@link #OUT_OF_MEMORY} if it cannot be stored,
+     *         in which case the blocks are left unflipped for {@link #drain(List)}
+     */
+    private long readBody(InputStream body, List<ByteBuffer> blocks) throws IOException {
+        byte[] chunk = new byte[DirectBufferPool.BLOCK_SIZE];
+        long length = 0;
+        ByteBuffer block = null;
+        while (true) {
+            if (block == null || !block.hasRemaining()) {
+                block = allocateBlock();
+                if (block == null) {
+                    return OUT_OF_MEMORY;
+                }
+                blocks.add(block);
+            }
+            int count = body.read(chunk, 0, block.remaining());
+            if (count < 0) {
+                break;
+            }
+            block.put(chunk, 0, count);
+            length += count;
+            if (length > maxEntrySizeBytes) {
+                return TOO_LARGE;
+            }
+        }
+        if (block.position() == 0) {
+            blocks.remove(blocks.size() - 1);
+            bufferPool.release(List.of(block));
+        }
+        for (ByteBuffer filled : blocks) {
+            filled.flip();
+        }
+        return length;
+    }
+
+    private ByteBuffer allocateBlock() {
+        ByteBuffer block = bufferPool.allocate();
+        if (block == null) {
+            evict();
+            block = bufferPool.allocate();
+        }
+        return block;
+    }
+
+    /**
+     * Copies the blocks of a body that is not stored onto the heap and returns them to the pool.
+     */
+    private byte[] drain(List<ByteBuffer> blocks) {
+        int length = 0;
+        for (ByteBuffer block : blocks) {
+            length += block.position();
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        for (ByteBuffer block : blocks) {
+            int count = block.position();
+            block.get(0, bytes, offset, count);
+            offset += count;
+        }
+        bufferPool.release(blocks);
+        return bytes;
+    }
+
+    private Entry store(CacheKey key, ProxyResponse response, List<ByteBuffer> blocks, long length, long ttlNanos) {
+        Map<String, List<String>> headers = new LinkedHashMap<>(response.headers());
+        headers.keySet().removeIf(name -> name.equalsIgnoreCase("Age"));
+        long now = System.nanoTime();
+        // A HEAD response has no body but announces the length of the GET response.
+        long contentLength = key.method().equals("HEAD") ? response.contentLength() : length;
+        Entry entry = new Entry(key, response.status(), Map.copyOf(headers), List.copyOf(blocks), length,
+                contentLength, now, now + ttlNanos, ageSeconds(response.headers()), bufferPool);
+        Entry previous = entries.put(key, entry);
+        uncacheableUntilNanos.remove(key);
+        sizeBytes.addAndGet(length - (previous == null ? 0 : previous.length));
+        if (previous != null) {
+            previous.release();
+        }
+        clock.offer(entry);
+        int queued = clockSize.incrementAndGet();
+        if (entries.size() > properties.maxEntries() || sizeBytes.get() > maxSizeBytes
+                || queued > 2 * properties.maxEntries()) {
+            evict();
+        }
+        return entry;
+    }
+
+    private boolean remove(CacheKey key, Entry entry) {
+        if (!entries.remove(key, entry)) {
+            return false;
+        }
+        sizeBytes.addAndGet(-entry.length);
+        entry.release();
+        return true;
+    }
+
+    /**
+     * Sweeps the clock until the cache is back under 90% of its limits. Entries that were replaced or
+     * removed since they were queued are dropped from the clock on the way, which also runs when they
+     * make up more than half of it.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            long targetEntries = (long) (properties.maxEntries() * EVICTION_TARGET);
+            long targetBytes = (long) (maxSizeBytes * EVICTION_TARGET);
+            long targetBlocks = (long) (bufferPool.maxBlocks() * EVICTION_TARGET);
+            // Each entry is passed at most twice: once to clear its reference bit, once to remove it.
+            for (int budget = 2 * clockSize.get(); budget > 0; budget--) {
+                boolean full = entries.size() > targetEntries || sizeBytes.get() > targetBytes
+                        || bufferPool.blocksInUse() > targetBlocks;
+                if (!full && clockSize.get() <= 2 * properties.maxEntries()) {
+                    break;
+                }
+                Entry entry = clock.poll();
+                if (entry == null) {
+                    break;
+                }
+                clockSize.decrementAndGet();
+                if (entries.get(entry.key) != entry) {
+                    continue;
+                }
+                if (now - entry.expiresAtNanos >= 0) {
+                    remove(entry.key, entry);
+                    continue;
+                }
+                if (full && !entry.referenced) {
+                    if (remove(entry.key, entry)) {
+                        evictions.increment();
+                    }
+                    continue;
+                }
+                if (full) {
+                    entry.referenced = false;
+                }
+                clock.offer(entry);
+                clockSize.incrementAndGet();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private boolean isUncacheable(CacheKey key) {
+        Long until = uncacheableUntilNanos.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        uncacheableUntilNanos.remove(key, until);
+        return false;
+    }
+
+    private void markUncacheable(CacheKey key) {
+        if (uncacheableUntilNanos.size() >= properties.maxEntries()) {
+            dropUncacheableMark();
+        }
+        uncacheableUntilNanos.put(key, System.nanoTime() + UNCACHEABLE_NANOS);
+    }
+
+    /**
+     * Makes room for a mark by dropping one, an expired one if there is one among the first few.
+     */
+    private void dropUncacheableMark() {
+        long now = System.nanoTime();
+        CacheKey victim = null;
+        Iterator<Map.Entry<CacheKey, Long>> marks = uncacheableUntilNanos.entrySet().iterator();
+        for (int i = 0; i < 8 && marks.hasNext(); i++) {
+            Map.Entry<CacheKey, Long> mark = marks.next();
+            if (victim == null || now - mark.getValue() >= 0) {
+                victim = mark.getKey();
+                if (now - mark.getValue() >= 0) {
+                    break;
+                }
+            }
+        }
+        if (victim != null) {
+            uncacheableUntilNanos.remove(victim);
+        }
+    }
+
+    private static Entry await(CompletableFuture<Entry> leader) {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private CacheKey keyFor(ProxyRequest request) {
+        List<String> values = new ArrayList<>(properties.keyHeaders().size());
+        for (String name : properties.keyHeaders()) {
+            List<String> headerValues = headerValues(request.headers(), name);
+            values.add(headerValues == null ? "" : String.join(",", headerValues));
+        }
+        return new CacheKey(request.method(), request.target(), values);
+    }
+
+    private static boolean skipsLookup(ProxyRequest request) {
+        Map<String, String> cacheControl = cacheControl(request.headers());
+        return cacheControl.containsKey("no-cache") || "0".equals(cacheControl.get("max-age"))
+                || "no-cache".equalsIgnoreCase(header(request.headers(), "Pragma"));
+    }
+
+    /**
+     * Returns how long the response may be served from the cache, or {@code 0} if it must not be stored.
+     */
+    private long freshnessLifetimeNanos(ProxyResponse response) {
+        if (!CACHEABLE_STATUSES.contains(response.status()) || header(response.headers(), "Set-Cookie") != null
+                || !varyIsCovered(response.headers())) {
+            return 0;
+        }
+        Map<String, String> cacheControl = cacheControl(response.headers());
+        if (cacheControl.containsKey("no-store") || cacheControl.containsKey("no-cache")
+                || cacheControl.containsKey("private")) {
+            return 0;
+        }
+        long lifetimeSeconds = seconds(cacheControl.getOrDefault("s-maxage", cacheControl.get("max-age")));
+        long lifetimeNanos = lifetimeSeconds >= 0 ? TimeUnit.SECONDS.toNanos(lifetimeSeconds)
+                : properties.defaultTtl().toNanos();
+        return lifetimeNanos - TimeUnit.SECONDS.toNanos(ageSeconds(response.headers()));
+    }
+
+    /**
+     * Returns whether the response itself rules out caching, as opposed to an error status or a missing
+     * freshness lifetime, which may differ on the next response.
+     */
+    private boolean forbidsCaching(ProxyResponse response) {
+        if (response.status() >= 500) {
+            return false;
+        }
+        Map<String, String> cacheControl = cacheControl(response.headers());
+        return header(response.headers(), "Set-Cookie") != null || !varyIsCovered(response.headers())
+                || cacheControl.containsKey("no-store") || cacheControl.containsKey("no-cache")
+                || cacheControl.containsKey("private");
+    }
+
+    private boolean varyIsCovered(Map<String, List<String>> headers) {
+        List<String> vary = headerValues(headers, "Vary");
+        if (vary == null) {
+            return true;
+        }
+        for (String value : vary) {
+            for (String name : value.split(",")) {
+                String trimmed = name.trim();
+                if (!trimmed.isEmpty()
+                        && properties.keyHeaders().stream().noneMatch(key -> key.equalsIgnoreCase(trimmed))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static long ageSeconds(Map<String, List<String>> headers) {
+        return Math.max(0, seconds(header(headers, "Age")));
+    }
+
+    /**
+     * Parses a delta-seconds value, returning {@code -1} if it is absent or malformed.
+     */
+    private static long seconds(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Map<String, String> cacheControl(Map<String, List<String>> headers) {
+        List<String> values = headerValues(headers, "Cache-Control");
+        if (values == null) {
+            return Map.of();
+        }
+        Map<String, String> directives = new HashMap<>();
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                int equals = directive.indexOf('=');
+                String name = (equals < 0 ? directive : directive.substring(0, equals)).trim().toLowerCase(Locale.ROOT);
+                String argument = equals < 0 ? "" : directive.substring(equals + 1).trim().replace("\"", "");
+                if (!name.isEmpty()) {
+                    directives.put(name, argument);
+                }
+            }
+        }
+        return directives;
+    }
+
+    private static String header(Map<String, List<String>> headers, String name) {
+        List<String> values = headerValues(headers, name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static List<String> headerValues(Map<String, List<String>> headers, String name) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+            // The body has been read or the response is dropped.
+        }
+    }
+
+    private record CacheKey(String method, String target, List<String> headerValues) {
+    }
+
+    private static final class Entry {
+
+        private final CacheKey key;
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final List<ByteBuffer> blocks;
+        private final long length;
+        private final long contentLength;
+        private final long storedAtNanos;
+        private final long expiresAtNanos;
+        private final long initialAgeSeconds;
+        private final DirectBufferPool pool;
+        /**
+         * One reference for the cache and one for each response reading the blocks; the first response
+         * is the one of the request that stored the entry.
+         */
+        private final AtomicInteger references = new AtomicInteger(2);
+        private volatile boolean referenced;
+
+        private Entry(CacheKey key, int status, Map<String, List<String>> headers, List<ByteBuffer> blocks,
+                      long length, long contentLength, long storedAtNanos, long expiresAtNanos,
+                      long initialAgeSeconds, DirectBufferPool pool) {
+            this.key = key;
+            this.status = status;
+            this.headers = headers;
+            this.blocks = blocks;
+            this.length = length;
+            this.contentLength = contentLength;
+            this.storedAtNanos = storedAtNanos;
+            this.expiresAtNanos = expiresAtNanos;
+            this.initialAgeSeconds = initialAgeSeconds;
+            this.pool = pool;
+        }
+
+        /**
+         * Takes a reference for a response, unless the entry has been removed and its blocks released.
+         */
+        private boolean retain() {
+            for (int count = references.get(); count > 0; count = references.get()) {
+                if (references.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void release() {
+            if (references.decrementAndGet() == 0) {
+                pool.release(blocks);
+            }
+        }
+
+        /**
+         * Sets the reference bit, skipping the write when it is already set so hits stay read-only.
+         */
+        private void touch() {
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+
+        /**
+         * Returns the cached response with its current {@code Age} (RFC 9111, section 5.1).
+         */
+        private ProxyResponse toResponse(long nowNanos) {
+            Map<String, List<String>> responseHeaders = new LinkedHashMap<>(headers);
+            long age = initialAgeSeconds + TimeUnit.NANOSECONDS.toSeconds(nowNanos - storedAtNanos);
+            responseHeaders.put("Age", List.of(Long.toString(age)));
+            return new ProxyResponse(status, responseHeaders, new BlockInputStream(blocks, this::release),
+                    contentLength);
+        }
+    }
+
+    /**
+     * Reads a cached body straight from its direct blocks, giving up its reference to them once the
+     * body has been read to the end or the stream is closed, whichever comes first.
+     */
+    private static final class BlockInputStream extends InputStream {
+
+        private final List<ByteBuffer> blocks;
+        private final Runnable release;
+        private ByteBuffer current;
+        private int next;
+        private boolean closed;
+
+        private BlockInputStream(List<ByteBuffer> blocks, Runnable release) {
+            this.blocks = blocks;
+            this.release = release;
+        }
+
+        @Override
+        public int read() {
+            ByteBuffer buffer = current();
+            return buffer == null ? -1 : buffer.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            ByteBuffer buffer = current();
+            if (buffer == null) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return current == null || closed ? 0 : current.remaining();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                current = null;
+                release.run();
+            }
+        }
+
+        /**
+         * Returns the block to read from, or {@code null} at the end of the body.
+         */
+        private ByteBuffer current() {
+            while (!closed && (current == null || !current.hasRemaining())) {
+                if (next == blocks.size()) {
+                    close();
+                } else {
+                    current = blocks.get(next++).duplicate();
+                }
+            }
+            return current;
+        }
+    }
+}
@@ -1,29 +1,237 @@
 package com.liftlab.loadbalancer.application.factory;
 
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import com.liftlab.loadbalancer.domain.strategy.ConsistentHashStrategy;
+import com.liftlab.loadbalancer.domain.strategy.LeastConnectionsStrategy;
 import com.liftlab.loadbalancer.domain.strategy.LoadBalancingStrategy;
+import com.liftlab.loadbalancer.domain.strategy.PeakEwmaStrategy;
+import com.liftlab.loadbalancer.domain.strategy.RandomStrategy;
+import com.liftlab.loadbalancer.domain.strategy.RoundRobinStrategy;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import com.liftlab.loadbalancer.domain.strategy.WeightedRoundRobinStrategy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Factory to provide the current load balancing strategy.
+ * Factory to provide the load balancing strategy for a request.
+ *
+ * <p>A default strategy applies to all requests, and individual routes, identified by a path prefix
+ * of the forwarded request, can be assigned a strategy of their own. Both can be changed at runtime.
+ * The routing table is immutable and replaced as a whole on every change, so a change is published
+ * atomically with a single volatile write and requests look up their strategy without locking.</p>
+ *
+ * <p>There is one strategy instance per {@link StrategyType}, created on first use and kept for the
+ * lifetime of the factory. Switching back to a strategy therefore resumes its state, such as the
+ * round-robin position or the consistent-hash ring, and routes using the same type share one instance.
+ * Strategies that balance on load read it from the shared {@link BackendStatsRegistry}, so requests
+ * forwarded under the previous strategy still count when they switch in.</p>
  */
 public class RoutingStrategyFactory {
 
-    private final LoadBalancingStrategy defaultStrategy;
+    private final BackendStatsRegistry statsRegistry;
+    /**
+     * Strategy instances by type; guarded by {@code this}.
+     */
+    private final Map<StrategyType, LoadBalancingStrategy> strategies = new EnumMap<>(StrategyType.class);
+    /**
+     * Latest active servers handed to new strategy instances; guarded by {@code this}.
+     */
+    private List<BackendServer> activeServers = List.of();
+    private volatile RoutingTable routingTable;
 
     /**
      * Constructor.
      *
-     * @param defaultStrategy the active load balancing strategy
+     * @param defaultStrategy the strategy applied to requests of routes without a strategy of their own
+     * @param statsRegistry   the live backend statistics used by load-aware strategies
+     */
+    public RoutingStrategyFactory(LoadBalancingStrategy defaultStrategy, BackendStatsRegistry statsRegistry) {
+        this.statsRegistry = statsRegistry;
+        this.strategies.put(StrategyType.of(defaultStrategy), defaultStrategy);
+        this.routingTable = new RoutingTable(defaultStrategy, new Route[0]);
+    }
+
+    /**
+     * Creates a new instance of a load balancing strategy.
+     *
+     * @param strategyType  the type of strategy to create
+     * @param statsRegistry the live backend statistics used by load-aware strategies
+     * @return the new strategy
      */
-    public RoutingStrategyFactory(LoadBalancingStrategy defaultStrategy) {
-        this.defaultStrategy = defaultStrategy;
+    public static LoadBalancingStrategy createStrategy(StrategyType strategyType,
+                                                       BackendStatsRegistry statsRegistry) {
+        return switch (strategyType) {
+            case ROUND_ROBIN -> new RoundRobinStrategy();
+            case RANDOM -> new RandomStrategy();
+            case LEAST_CONNECTIONS -> new LeastConnectionsStrategy(statsRegistry);
+            case PEAK_EWMA -> new PeakEwmaStrategy(statsRegistry);
+            case WEIGHTED_ROUND_ROBIN -> new WeightedRoundRobinStrategy();
+            case CONSISTENT_HASH -> new ConsistentHashStrategy();
+        };
     }
 
     /**
-     * Returns the active load balancing strategy.
+     * Returns the default load balancing strategy.
      *
      * @return the load balancing strategy
      */
     public LoadBalancingStrategy getStrategy() {
-        return defaultStrategy;
+        return routingTable.defaultStrategy;
+    }
+
+    /**
+     * Returns the load balancing strategy for a request path: the strategy of the route with the longest
+     * prefix matching the path, or the default strategy if no route matches.
+     *
+     * @param path the path forwarded to the backend, starting with {@code /}
+     * @return the load balancing strategy
+     */
+    public LoadBalancingStrategy getStrategy(String path) {
+        RoutingTable table = routingTable;
+        if (path != null) {
+            for (Route route : table.routes) {
+                if (route.matches(path)) {
+                    return route.strategy;
+                }
+            }
+        }
+        return table.defaultStrategy;
+    }
+
+    /**
+     * Returns the type of the default strategy.
+     *
+     * @return the default strategy type
+     */
+    public StrategyType getDefaultStrategyType() {
+        return StrategyType.of(routingTable.defaultStrategy);
+    }
+
+    /**
+     * Returns the routes with a strategy of their own.
+     *
+     * @return the strategy type by path prefix, longest prefix first
+     */
+    public Map<String, StrategyType> getRouteStrategyTypes() {
+        Map<String, StrategyType> routes = new LinkedHashMap<>();
+        for (Route route : routingTable.routes) {
+            routes.put(route.prefix, StrategyType.of(route.strategy));
+        }
+        return routes;
+    }
+
+    /**
+     * Switches the default strategy. Requests already past strategy selection are not affected.
+     *
+     * @param strategyType the new default strategy type
+     * @return the previous default strategy type
+     */
+    public synchronized StrategyType setDefaultStrategy(StrategyType strategyType) {
+        RoutingTable current = routingTable;
+        routingTable = new RoutingTable(strategyFor(strategyType), current.routes);
+        return StrategyType.of(current.defaultStrategy);
+    }
+
+    /**
+     * Assigns a strategy to all requests whose path starts with the given prefix, replacing any strategy
+     * previously assigned to the same prefix. Prefixes match whole path segments, so {@code /orders}
+     * matches {@code /orders} and {@code /orders/42} but not {@code /orders-archive}.
+     *
+     * @param pathPrefix   the path prefix identifying the route
+     * @param strategyType the strategy type for the route
+     * @throws IllegalArgumentException if the prefix does not start with {@code /}
+     */
+    public synchronized void setRouteStrategy(String pathPrefix, StrategyType strategyType) {
+        String prefix = normalizePrefix(pathPrefix);
+        RoutingTable current = routingTable;
+        List<Route> routes = new ArrayList<>(List.of(current.routes));
+        routes.removeIf(route -> route.prefix.equals(prefix));
+        routes.add(new Route(prefix, strategyFor(strategyType)));
+        routingTable = new RoutingTable(current.defaultStrategy, sorted(routes));
+    }
+
+    /**
+     * Removes the strategy assigned to a route, so that its requests use the default strategy again.
+     *
+     * @param pathPrefix the path prefix identifying the route
+     * @return true if the route had a strategy of its own
+     * @throws IllegalArgumentException if the prefix does not start with {@code /}
+     */
+    public synchronized boolean removeRouteStrategy(String pathPrefix) {
+        String prefix = normalizePrefix(pathPrefix);
+        RoutingTable current = routingTable;
+        List<Route> routes = new ArrayList<>(List.of(current.routes));
+        if (!routes.removeIf(route -> route.prefix.equals(prefix))) {
+            return false;
+        }
+        routingTable = new RoutingTable(current.defaultStrategy, sorted(routes));
+        return true;
+    }
+
+    /**
+     * Notifies every strategy instance, in use or not, that the set of active servers has changed, so
+     * that an idle strategy is ready when it is switched in. Intended as a repository snapshot listener.
+     *
+     * @param servers the new list of active backend servers
+     */
+    public synchronized void onServersChanged(List<BackendServer> servers) {
+        activeServers = servers;
+        for (LoadBalancingStrategy strategy : strategies.values()) {
+            strategy.onServersChanged(servers);
+        }
+    }
+
+    /**
+     * Returns the instance of a strategy type, creating and preparing it on first use.
+     */
+    private LoadBalancingStrategy strategyFor(StrategyType strategyType) {
+        return strategies.computeIfAbsent(strategyType, type -> {
+            LoadBalancingStrategy strategy = createStrategy(type, statsRegistry);
+            strategy.onServersChanged(activeServers);
+            return strategy;
+        });
+    }
+
+    private static String normalizePrefix(String pathPrefix) {
+        if (pathPrefix == null || !pathPrefix.startsWith("/")) {
+            throw new IllegalArgumentException("Route path prefix must start with '/': " + pathPrefix);
+        }
+        String prefix = pathPrefix;
+        while (prefix.length() > 1 && prefix.endsWith("/")) {
+            prefix = prefix.substring(0, prefix.length() - 1);
+        }
+        return prefix;
+    }
+
+    private static Route[] sorted(List<Route> routes) {
+        // Longest prefix first, so the first match is the most specific one.
+        routes.sort(Comparator.comparingInt((Route route) -> route.prefix.length()).reversed()
+                .thenComparing(route -> route.prefix));
+        return routes.toArray(new Route[0]);
+    }
+
+    /**
+     * Immutable routing state, replaced as a whole on every change.
+     */
+    private record RoutingTable(LoadBalancingStrategy defaultStrategy, Route[] routes) {
+    }
+
+    /**
+     * A path prefix and the strategy for the requests below it.
+     */
+    private record Route(String prefix, LoadBalancingStrategy strategy) {
+
+        boolean matches(String path) {
+            if (!path.startsWith(prefix)) {
+                return false;
+            }
+            return prefix.length() == 1 || path.length() == prefix.length() || path.charAt(prefix.length()) == '/';
+        }
     }
 }
@@ -0,0 +1,204 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import com.liftlab.loadbalancer.configuration.CircuitBreakerProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker guarding calls to a single backend.
+ *
+ * <p>While closed, the outcome of every call is recorded in a sliding window over the last
+ * {@link CircuitBreakerProperties#slidingWindowSize()} calls. Once the window holds enough calls and
+ * the share of failed or slow calls reaches its threshold, the circuit opens and rejects calls for
+ * {@link CircuitBreakerProperties#openDuration()}. It then turns half open and admits a limited number
+ * of trial calls: if all of them succeed it closes again, and the first failed or slow one opens it
+ * for another period.</p>
+ *
+ * <p>The window is a fixed ring of outcome slots plus running totals, allocated once, so its memory
+ * does not grow with traffic. Recording a call claims a slot with an atomic increment and swaps in
+ * the new outcome; the totals are adjusted by the difference to the outcome it replaces, which keeps
+ * them consistent with the slots without a lock. When the outcome does not change, as for a
+ * successful call replacing another one, the totals are not written at all.</p>
+ */
+public final class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * The states of a circuit.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final int RECORDED = 1;
+    private static final int FAILED = 2;
+    private static final int SLOW = 4;
+
+    private final String name;
+    private final CircuitBreakerProperties properties;
+    private final int minimumCalls;
+    private final long slowCallNanos;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private volatile long openUntilNanos;
+
+    private final AtomicIntegerArray outcomes;
+    private final AtomicLong nextSlot = new AtomicLong();
+    private final AtomicInteger recordedCalls = new AtomicInteger();
+    private final AtomicInteger failedCalls = new AtomicInteger();
+    private final AtomicInteger slowCalls = new AtomicInteger();
+
+    private final AtomicInteger trialPermits = new AtomicInteger();
+    private final AtomicInteger trialSuccesses = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param name       the name used in log messages, usually the backend URL
+     * @param properties the circuit breaker settings
+     */
+    public CircuitBreaker(String name, CircuitBreakerProperties properties) {
+        this.name = name;
+        this.properties = properties;
+        int windowSize = Math.max(1, properties.slidingWindowSize());
+        this.minimumCalls = Math.max(1, Math.min(properties.minimumCalls(), windowSize));
+        this.slowCallNanos = properties.slowCallDuration().toNanos();
+        this.outcomes = new AtomicIntegerArray(windowSize);
+    }
+
+    /**
+     * Returns the current state of the circuit.
+     *
+     * @return the state
+     */
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Asks for permission to send a call. An open circuit whose open period has passed turns half open
+     * here. Every permitted call must be followed by {@link #onResult(long, boolean)}.
+     *
+     * @return true if the call may be sent
+     */
+    public boolean tryAcquirePermission() {
+        if (!properties.enabled()) {
+            return true;
+        }
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (System.nanoTime() - openUntilNanos < 0) {
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                trialSuccesses.set(0);
+                trialPermits.set(Math.max(1, properties.halfOpenTrialCalls()) - 1);
+                logger.info("Circuit for {} half open, admitting trial calls", name);
+                return true;
+            }
+        }
+        return trialPermits.getAndUpdate(permits -> permits > 0 ? permits - 1 : 0) > 0;
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     *
+     * @param durationNanos the time until the response headers arrived or the call failed
+     * @param failed        whether the call failed or the backend answered with a 5xx
+     */
+    public void onResult(long durationNanos, boolean failed) {
+        if (!properties.enabled()) {
+            return;
+        }
+        boolean slow = durationNanos >= slowCallNanos;
+        switch (state.get()) {
+            case CLOSED -> {
+                record(RECORDED | (failed ? FAILED : 0) | (slow ? SLOW : 0));
+                evaluateWindow();
+            }
+            case HALF_OPEN -> {
+                if (failed || slow) {
+                    open(State.HALF_OPEN, failed ? "a failed trial call" : "a slow trial call");
+                } else if (trialSuccesses.incrementAndGet() >= properties.halfOpenTrialCalls()) {
+                    close();
+                }
+            }
+            case OPEN -> {
+                // A late result of a call sent before the circuit opened.
+            }
+        }
+    }
+
+    /**
+     * Records that a permitted call was abandoned before its outcome was known, such as the losing
+     * copy of a hedged request. A trial call of a half-open circuit is handed back for another request.
+     */
+    public void onCancelled() {
+        if (properties.enabled() && state.get() == State.HALF_OPEN) {
+            trialPermits.incrementAndGet();
+        }
+    }
+
+    private void record(int outcome) {
+        int slot = (int) (nextSlot.getAndIncrement() % outcomes.length());
+        int previous = outcomes.getAndSet(slot, outcome);
+        if (previous != outcome) {
+            adjust(recordedCalls, previous, outcome, RECORDED);
+            adjust(failedCalls, previous, outcome, FAILED);
+            adjust(slowCalls, previous, outcome, SLOW);
+        }
+    }
+
+    private static void adjust(AtomicInteger total, int previous, int outcome, int flag) {
+        int delta = (outcome & flag) - (previous & flag);
+        if (delta != 0) {
+            total.addAndGet(delta / flag);
+        }
+    }
+
+    private void evaluateWindow() {
+        int recorded = recordedCalls.get();
+        if (recorded < minimumCalls) {
+            return;
+        }
+        int failed = failedCalls.get();
+        int slow = slowCalls.get();
+        if (failed * 100L >= (long) properties.failureRateThreshold() * recorded) {
+            open(State.CLOSED, String.format("failure rate of %d%% over %d calls", failed * 100 / recorded, recorded));
+        } else if (slow * 100L >= (long) properties.slowCallRateThreshold() * recorded) {
+            open(State.CLOSED, String.format("slow call rate of %d%% over %d calls", slow * 100 / recorded, recorded));
+        }
+    }
+
+    private void open(State from, String reason) {
+        // Set before publishing the state, so no one sees the circuit open with the previous deadline.
+        openUntilNanos = System.nanoTime() + properties.openDuration().toNanos();
+        if (state.compareAndSet(from, State.OPEN)) {
+            trialPermits.set(0);
+            logger.warn("Circuit for {} opened for {} after {}", name, properties.openDuration(), reason);
+        }
+    }
+
+    private void close() {
+        // No calls are recorded while half open, so the window can be cleared before closing.
+        for (int i = 0; i < outcomes.length(); i++) {
+            int previous = outcomes.getAndSet(i, 0);
+            adjust(recordedCalls, previous, 0, RECORDED);
+            adjust(failedCalls, previous, 0, FAILED);
+            adjust(slowCalls, previous, 0, SLOW);
+        }
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            logger.info("Circuit for {} closed after {} successful trial calls", name, trialSuccesses.get());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.configuration.CircuitBreakerProperties;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the {@link CircuitBreaker} of every backend.
+ *
+ * <p>Backends with an open circuit are not filtered out of the server list: selection hands strategies
+ * the repository's list itself, which keeps their per-list state, such as the weighted round-robin
+ * schedule, valid, and skips a backend whose circuit does not grant a
+ * {@link CircuitBreaker#tryAcquirePermission() permission} after it has been chosen.</p>
+ */
+public class CircuitBreakerRegistry {
+
+    private final CircuitBreakerProperties properties;
+    private final Map<String, CircuitBreaker> circuitBreakersByUrl = new ConcurrentHashMap<>();
+    private final CircuitBreaker disabledCircuitBreaker;
+
+    /**
+     * Constructor.
+     *
+     * @param properties the circuit breaker settings
+     */
+    public CircuitBreakerRegistry(CircuitBreakerProperties properties) {
+        this.properties = properties;
+        this.disabledCircuitBreaker = properties.enabled()
+                ? null
+                : new CircuitBreaker("disabled", properties);
+    }
+
+    /**
+     * Returns a registry whose circuits never open.
+     *
+     * @return a disabled registry
+     */
+    public static CircuitBreakerRegistry disabled() {
+        return new CircuitBreakerRegistry(CircuitBreakerProperties.disabled());
+    }
+
+    /**
+     * Returns the circuit breaker of a backend, creating it on first use.
+     *
+     * @param server the backend
+     * @return its circuit breaker
+     */
+    public CircuitBreaker circuitBreakerFor(BackendServer server) {
+        if (disabledCircuitBreaker != null) {
+            return disabledCircuitBreaker;
+        }
+        CircuitBreaker circuitBreaker = circuitBreakersByUrl.get(server.url());
+        return circuitBreaker != null
+                ? circuitBreaker
+                : circuitBreakersByUrl.computeIfAbsent(server.url(),
+                        url -> new CircuitBreaker(url, properties));
+    }
+
+    /**
+     * Drops the circuit breakers of backends that are no longer registered. Intended as a repository
+     * snapshot listener.
+     *
+     * @param snapshot the latest repository snapshot
+     */
+    public void onServersChanged(MapBasedBackendConfigRepository.Snapshot snapshot) {
+        Set<String> registered = snapshot.registeredUrls();
+        circuitBreakersByUrl.keySet().retainAll(registered);
+    }
+}
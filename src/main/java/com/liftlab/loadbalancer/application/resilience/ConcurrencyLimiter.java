@@ -0,0 +1,146 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import com.liftlab.loadbalancer.configuration.ConcurrencyLimitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive limit on the number of concurrent requests to one backend, in the style of TCP Vegas.
+ *
+ * <p>The limiter keeps the lowest latency seen as the backend's no-load latency. Every sample
+ * estimates how many requests are queued at the backend as
+ * {@code limit * (1 - noLoadLatency / latency)}. While that queue is short the limit grows, and once it
+ * is long the limit shrinks, as the backend is past the point where more concurrency adds throughput.
+ * A failed or rejected request shrinks the limit as well. Thresholds and steps scale with
+ * {@code log10(limit)}, so large limits move proportionally. The limit only grows while at least
+ * half of it is used. Every {@code probeInterval} samples the no-load latency is measured afresh.</p>
+ *
+ * <p>Admission is a compare-and-set on the in-flight count. Samples are applied by one thread at a
+ * time; a sample arriving while another is applied is skipped, so the request path never blocks.</p>
+ */
+public final class ConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimiter.class);
+
+    private final String name;
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    private volatile int limit;
+    // Guarded by sampleLock.
+    private double estimatedLimit;
+    private long noLoadLatencyNanos = Long.MAX_VALUE;
+    private int samplesUntilProbe;
+
+    /**
+     * Constructor.
+     *
+     * @param name       the backend URL, for logging
+     * @param properties the concurrency limit settings
+     */
+    public ConcurrencyLimiter(String name, ConcurrencyLimitProperties properties) {
+        this.name = name;
+        this.enabled = properties.enabled();
+        this.minLimit = Math.max(1, properties.minLimit());
+        this.maxLimit = Math.max(minLimit, properties.maxLimit());
+        this.probeInterval = Math.max(1, properties.probeInterval());
+        this.estimatedLimit = Math.clamp(properties.initialLimit(), minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+        this.samplesUntilProbe = probeInterval;
+    }
+
+    /**
+     * Admits a request if the backend is below its limit. Every admitted request must be followed by
+     * {@link #onSample(long, boolean)} or {@link #release()}.
+     *
+     * @return true if the request may be sent
+     */
+    public boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        int current = inFlight.get();
+        while (current < limit) {
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            current = inFlight.get();
+        }
+        return false;
+    }
+
+    /**
+     * Ends an admitted request without a sample, for example one that was abandoned.
+     */
+    public void release() {
+        if (enabled) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Ends an admitted request and adapts the limit to its outcome.
+     *
+     * @param latencyNanos the time until the response headers arrived or the request failed
+     * @param overloaded   whether the request failed or the backend reported that it is overloaded
+     */
+    public void onSample(long latencyNanos, boolean overloaded) {
+        if (!enabled) {
+            return;
+        }
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (!sampleLock.tryLock()) {
+            return;
+        }
+        try {
+            update(Math.max(1, latencyNanos), overloaded, inFlightAtCompletion);
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void update(long latencyNanos, boolean overloaded, int inFlightAtCompletion) {
+        if (--samplesUntilProbe <= 0) {
+            samplesUntilProbe = probeInterval;
+            noLoadLatencyNanos = latencyNanos;
+        } else if (latencyNanos < noLoadLatencyNanos) {
+            noLoadLatencyNanos = latencyNanos;
+        }
+        double log = Math.max(1, Math.log10(estimatedLimit));
+        double next;
+        if (overloaded) {
+            next = estimatedLimit - log;
+        } else {
+            double queued = Math.ceil(estimatedLimit * (1 - (double) noLoadLatencyNanos / latencyNanos));
+            if (queued <= log && inFlightAtCompletion * 2 >= estimatedLimit) {
+                next = estimatedLimit + 3 * log;
+            } else if (queued < 3 * log && inFlightAtCompletion * 2 >= estimatedLimit) {
+                next = estimatedLimit + log;
+            } else if (queued > 6 * log) {
+                next = estimatedLimit - log;
+            } else {
+                return;
+            }
+        }
+        estimatedLimit = Math.clamp(next, minLimit, maxLimit);
+        int previous = limit;
+        limit = (int) estimatedLimit;
+        if (limit != previous && logger.isDebugEnabled()) {
+            logger.debug("Concurrency limit for {} changed from {} to {}", name, previous, limit);
+        }
+    }
+}
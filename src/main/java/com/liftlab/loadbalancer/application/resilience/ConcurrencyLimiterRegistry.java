@@ -0,0 +1,65 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.configuration.ConcurrencyLimitProperties;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the {@link ConcurrencyLimiter} of every backend.
+ */
+public class ConcurrencyLimiterRegistry {
+
+    private final ConcurrencyLimitProperties properties;
+    private final Map<String, ConcurrencyLimiter> limitersByUrl = new ConcurrentHashMap<>();
+    private final ConcurrencyLimiter disabledLimiter;
+
+    /**
+     * Constructor.
+     *
+     * @param properties the concurrency limit settings
+     */
+    public ConcurrencyLimiterRegistry(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        this.disabledLimiter = properties.enabled() ? null : new ConcurrencyLimiter("disabled", properties);
+    }
+
+    /**
+     * Returns a registry whose limiters admit every request.
+     *
+     * @return a disabled registry
+     */
+    public static ConcurrencyLimiterRegistry disabled() {
+        return new ConcurrencyLimiterRegistry(ConcurrencyLimitProperties.disabled());
+    }
+
+    /**
+     * Returns the concurrency limiter of a backend, creating it on first use.
+     *
+     * @param server the backend
+     * @return its concurrency limiter
+     */
+    public ConcurrencyLimiter limiterFor(BackendServer server) {
+        if (disabledLimiter != null) {
+            return disabledLimiter;
+        }
+        ConcurrencyLimiter limiter = limitersByUrl.get(server.url());
+        return limiter != null
+                ? limiter
+                : limitersByUrl.computeIfAbsent(server.url(), url -> new ConcurrencyLimiter(url, properties));
+    }
+
+    /**
+     * Drops the limiters of backends that are no longer registered. Intended as a repository snapshot
+     * listener.
+     *
+     * @param snapshot the latest repository snapshot
+     */
+    public void onServersChanged(MapBasedBackendConfigRepository.Snapshot snapshot) {
+        Set<String> registered = snapshot.registeredUrls();
+        limitersByUrl.keySet().retainAll(registered);
+    }
+}
@@ -0,0 +1,311 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.configuration.OutlierDetectionProperties;
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Passive health checking driven by live traffic.
+ *
+ * <p>The forwarding path reports the outcome of every exchange. A backend is ejected, i.e. marked
+ * unhealthy in the repository, as soon as it returns too many consecutive 5xx responses, fails too
+ * many consecutive connection attempts, or its latency average grows too far above the median of
+ * the pool. Once its ejection time has passed it is re-admitted if the active health probe, when
+ * one is set, finds it healthy; otherwise it stays out of service and is left to the regular health
+ * checks. The ejection time doubles with every repeated ejection up to a maximum, and is reset once
+ * the backend stays in service longer than that maximum.</p>
+ *
+ * <p>Per-backend counters are plain atomics that are only written when they change, so the common
+ * case of a successful response costs a couple of volatile reads. The latency comparison reads the
+ * averages already kept in {@link BackendStatsRegistry} and runs for a random sample of one in
+ * {@link OutlierDetectionProperties#latencyCheckInterval()} responses, so it needs no shared counter.
+ * It gathers the latencies of the whole pool, so it runs on the detector's own thread rather than
+ * on the request thread, at most once at a time per backend.</p>
+ */
+public class OutlierDetector implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutlierDetector.class);
+
+    /**
+     * Minimum pool size for latency comparisons; with fewer backends the median says little.
+     */
+    private static final int MIN_LATENCY_POOL = 3;
+
+    private final MapBasedBackendConfigRepository backendRepository;
+    private final BackendStatsRegistry statsRegistry;
+    private final OutlierDetectionProperties properties;
+    private final Map<String, State> statesByUrl = new ConcurrentHashMap<>();
+    private final AtomicInteger ejectedCount = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+    private volatile Predicate<BackendServer> healthProbe = server -> true;
+
+    /**
+     * Constructor.
+     *
+     * @param backendRepository the repository backends are ejected from and re-admitted to
+     * @param statsRegistry     the live statistics providing latency averages
+     * @param properties        the outlier detection settings
+     */
+    public OutlierDetector(MapBasedBackendConfigRepository backendRepository, BackendStatsRegistry statsRegistry,
+                           OutlierDetectionProperties properties) {
+        this.backendRepository = backendRepository;
+        this.statsRegistry = statsRegistry;
+        this.properties = properties;
+        this.scheduler = properties.enabled()
+                ? Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("outlier-detector").daemon().factory())
+                : null;
+    }
+
+    /**
+     * Returns a detector that never ejects any backend.
+     *
+     * @return a disabled detector
+     */
+    public static OutlierDetector disabled() {
+        return new OutlierDetector(null, null, OutlierDetectionProperties.disabled());
+    }
+
+    /**
+     * Sets the active health probe a backend must pass to be re-admitted once its ejection time has
+     * passed. Without one, the ejection time alone decides.
+     *
+     * @param healthProbe returns whether a backend answers its health check
+     */
+    public void setHealthProbe(Predicate<BackendServer> healthProbe) {
+        this.healthProbe = healthProbe;
+    }
+
+    /**
+     * Records a response received from a backend.
+     *
+     * @param server the backend that answered
+     * @param status the HTTP status of the response
+     */
+    public void recordResponse(BackendServer server, int status) {
+        if (!properties.enabled()) {
+            return;
+        }
+        State state = stateFor(server);
+        if (state.ejected.get()) {
+            return;
+        }
+        if (status >= 500) {
+            recordError(server, state);
+            return;
+        }
+        reset(state.consecutiveErrors);
+        reset(state.consecutiveConnectFailures);
+        if (properties.latencyFactor() > 0
+                && ThreadLocalRandom.current().nextInt(properties.latencyCheckInterval()) == 0
+                && state.latencyCheckPending.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                state.latencyCheckPending.set(false);
+                checkLatency(server, state);
+            });
+        }
+    }
+
+    /**
+     * Records an exchange with a backend that failed without a response.
+     * Connection failures count towards their own threshold; any other failure counts as a 5xx.
+     *
+     * @param server the backend the exchange was sent to
+     * @param cause  the failure
+     */
+    public void recordFailure(BackendServer server, IOException cause) {
+        if (!properties.enabled()) {
+            return;
+        }
+        State state = stateFor(server);
+        if (state.ejected.get()) {
+            return;
+        }
+        if (cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException) {
+            int failures = state.consecutiveConnectFailures.incrementAndGet();
+            if (failures >= properties.consecutiveConnectFailures()) {
+                eject(server, state, failures + " consecutive connection failures");
+            }
+        } else {
+            recordError(server, state);
+        }
+    }
+
+    /**
+     * Records a connection established to a backend by the TCP proxy, which sees no responses to judge;
+     * it ends a run of connection failures.
+     *
+     * @param server the backend connected to
+     */
+    public void recordConnected(BackendServer server) {
+        if (!properties.enabled()) {
+            return;
+        }
+        State state = stateFor(server);
+        if (!state.ejected.get()) {
+            reset(state.consecutiveConnectFailures);
+        }
+    }
+
+    /**
+     * Returns whether the backend is currently ejected, in which case it must not be re-admitted by
+     * anyone else before its ejection time has passed.
+     *
+     * @param server the backend
+     * @return true if the backend is ejected
+     */
+    public boolean isEjected(BackendServer server) {
+        State state = statesByUrl.get(server.url());
+        return state != null && state.ejected.get();
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private State stateFor(BackendServer server) {
+        State state = statesByUrl.get(server.url());
+        return state != null ? state : statesByUrl.computeIfAbsent(server.url(), url -> new State());
+    }
+
+    private void recordError(BackendServer server, State state) {
+        int errors = state.consecutiveErrors.incrementAndGet();
+        if (errors >= properties.consecutiveErrors()) {
+            eject(server, state, errors + " consecutive errors");
+        }
+    }
+
+    /**
+     * Ejects the backend if its latency average exceeds the pool median by the configured factor.
+     * Runs on the detector's thread.
+     */
+    private void checkLatency(BackendServer server, State state) {
+        List<BackendServer> pool = backendRepository.getActiveServers();
+        if (pool.size() < MIN_LATENCY_POOL) {
+            return;
+        }
+        double latency = statsRegistry.statsFor(server).ewmaLatencyNanos();
+        if (latency < properties.minLatency().toNanos()) {
+            return;
+        }
+        double[] latencies = new double[pool.size()];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = statsRegistry.statsFor(pool.get(i)).ewmaLatencyNanos();
+        }
+        Arrays.sort(latencies);
+        double median = latencies[latencies.length / 2];
+        if (latency > median * properties.latencyFactor()) {
+            eject(server, state, String.format("latency %.1f ms against a pool median of %.1f ms",
+                    latency / 1e6, median / 1e6));
+        }
+    }
+
+    private void eject(BackendServer server, State state, String reason) {
+        if (!state.ejected.compareAndSet(false, true)) {
+            return;
+        }
+        MapBasedBackendConfigRepository.Snapshot snapshot = backendRepository.getSnapshot();
+        int registered = snapshot.activeServers().size() + snapshot.inactiveServers().size();
+        if (ejectedCount.incrementAndGet() * 100 > Math.max(properties.maxEjectionPercent() * registered, 100)) {
+            // Too much of the pool is already out; keep serving from this backend rather than from none.
+            ejectedCount.decrementAndGet();
+            state.ejected.set(false);
+            return;
+        }
+        long now = System.nanoTime();
+        long maxNanos = properties.maxEjectionTime().toNanos();
+        if (state.readmittedAtNanos != 0 && now - state.readmittedAtNanos > maxNanos) {
+            state.ejections.set(0);
+        }
+        int ejections = state.ejections.incrementAndGet();
+        long ejectionNanos = Math.min(properties.baseEjectionTime().toNanos() << Math.min(ejections - 1, 30),
+                maxNanos);
+        logger.warn("Ejecting backend {} for {} after {}", server.url(), Duration.ofNanos(ejectionNanos), reason);
+        try {
+            backendRepository.markUnhealthy(server);
+        } catch (LoadBalancerException e) {
+            logger.error("Error marking server {} as unhealthy: {} - {}",
+                    server.url(), e.getClass().getSimpleName(), e.getMessage(), e);
+        }
+        scheduler.schedule(() -> readmit(server, state), ejectionNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Ends the ejection of a backend, putting it back into service only if it passes the health probe.
+     * A backend failing the probe stays unhealthy until a regular health check finds it recovered.
+     */
+    private void readmit(BackendServer server, State state) {
+        state.consecutiveErrors.set(0);
+        state.consecutiveConnectFailures.set(0);
+        state.readmittedAtNanos = System.nanoTime();
+        boolean healthy = probe(server);
+        state.ejected.set(false);
+        ejectedCount.decrementAndGet();
+        if (!healthy) {
+            logger.warn("Backend {} failed its health check after ejection; leaving it to the health checks",
+                    server.url());
+            return;
+        }
+        logger.info("Re-admitting backend {} after ejection", server.url());
+        try {
+            backendRepository.markHealthy(server);
+        } catch (LoadBalancerException e) {
+            logger.error("Error marking server {} as healthy: {} - {}",
+                    server.url(), e.getClass().getSimpleName(), e.getMessage(), e);
+        }
+    }
+
+    private boolean probe(BackendServer server) {
+        try {
+            return healthProbe.test(server);
+        } catch (RuntimeException e) {
+            logger.error("Health probe error for server {}: {} - {}",
+                    server.url(), e.getClass().getSimpleName(), e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Resets a counter, skipping the write when it is already zero so the success path stays read-only.
+     */
+    private static void reset(AtomicInteger counter) {
+        if (counter.get() != 0) {
+            counter.set(0);
+        }
+    }
+
+    /**
+     * Outlier detection state of a single backend.
+     */
+    private static final class State {
+        final AtomicInteger consecutiveErrors = new AtomicInteger();
+        final AtomicInteger consecutiveConnectFailures = new AtomicInteger();
+        final AtomicInteger ejections = new AtomicInteger();
+        final AtomicBoolean ejected = new AtomicBoolean();
+        final AtomicBoolean latencyCheckPending = new AtomicBoolean();
+        volatile long readmittedAtNanos;
+    }
+}
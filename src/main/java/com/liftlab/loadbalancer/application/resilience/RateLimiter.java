@@ -0,0 +1,143 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import com.liftlab.loadbalancer.configuration.RateLimitProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client token-bucket rate limiter with a fixed memory footprint.
+ *
+ * <p>Buckets live in a set-associative table: a client's 64-bit key fingerprint picks a set of
+ * {@link #WAYS} slots, and its bucket is an immutable {@link Bucket} replaced by compare-and-set on
+ * every admitted request. A client not found in its set takes the slot of the bucket with the most
+ * tokens after refilling. A full bucket behaves exactly like a missing one, so idle clients are
+ * forgotten at no cost, while throttled clients, whose buckets are empty, are the last to go. The
+ * table never grows, however many distinct clients there are, and no request takes a lock.</p>
+ *
+ * <p>When the table is too small for the active clients, evicted clients start over with a full
+ * bucket, so the limiter errs on the side of admitting requests. Two racing first requests of a client
+ * may briefly create two buckets for it; the spare one is evicted first.</p>
+ */
+public final class RateLimiter {
+
+    private static final int WAYS = 4;
+
+    private final boolean enabled;
+    private final double burst;
+    private final double tokensPerNano;
+    private final int setMask;
+    private final long retryAfterSeconds;
+    private final AtomicReferenceArray<Bucket> slots;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param properties the rate limit settings
+     */
+    public RateLimiter(RateLimitProperties properties) {
+        this.enabled = properties.enabled();
+        this.burst = Math.max(1, properties.burst());
+        this.tokensPerNano = properties.requestsPerSecond() / TimeUnit.SECONDS.toNanos(1);
+        int sets = Integer.highestOneBit(Math.max(1, (properties.maxClients() + WAYS - 1) / WAYS) * 2 - 1);
+        this.setMask = sets - 1;
+        this.retryAfterSeconds = Math.max(1, (long) Math.ceil(1 / properties.requestsPerSecond()));
+        this.slots = new AtomicReferenceArray<>(enabled ? sets * WAYS : 0);
+    }
+
+    /**
+     * Returns a limiter that admits every request.
+     *
+     * @return a disabled limiter
+     */
+    public static RateLimiter disabled() {
+        return new RateLimiter(RateLimitProperties.disabled());
+    }
+
+    /**
+     * Takes a token from the client's bucket.
+     *
+     * @param clientKey the client identity
+     * @return true if the request is admitted, false if the client exceeded its rate
+     */
+    public boolean tryAcquire(String clientKey) {
+        if (!enabled) {
+            return true;
+        }
+        long fingerprint = fingerprint(clientKey);
+        int set = (int) (fingerprint >>> 32 & setMask) * WAYS;
+        while (true) {
+            long now = System.nanoTime();
+            int victim = -1;
+            Bucket victimBucket = null;
+            double victimTokens = -1;
+            boolean retry = false;
+            for (int slot = set; slot < set + WAYS; slot++) {
+                Bucket bucket = slots.get(slot);
+                double tokens = bucket == null ? Double.MAX_VALUE : bucket.tokensAt(now, tokensPerNano, burst);
+                if (bucket != null && bucket.fingerprint == fingerprint) {
+                    if (tokens < 1) {
+                        rejected.increment();
+                        return false;
+                    }
+                    if (slots.compareAndSet(slot, bucket, new Bucket(fingerprint, tokens - 1, now))) {
+                        return true;
+                    }
+                    retry = true;
+                    break;
+                }
+                if (tokens > victimTokens) {
+                    victim = slot;
+                    victimBucket = bucket;
+                    victimTokens = tokens;
+                }
+            }
+            if (!retry && slots.compareAndSet(victim, victimBucket, new Bucket(fingerprint, burst - 1, now))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns how long a rejected client should wait before retrying, for the {@code Retry-After} header.
+     *
+     * @return the time until a token is added to a bucket, in whole seconds
+     */
+    public long retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Returns the number of rejected requests since startup.
+     *
+     * @return the rejected requests
+     */
+    public long rejectedRequests() {
+        return rejected.sum();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the key, finalized with the MurmurHash3 mixer, so that distinct clients
+     * practically never share a bucket.
+     */
+    static long fingerprint(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ hash >>> 33;
+    }
+
+    private record Bucket(long fingerprint, double tokens, long updatedNanos) {
+
+        double tokensAt(long nowNanos, double tokensPerNano, double burst) {
+            return Math.min(burst, tokens + (nowNanos - updatedNanos) * tokensPerNano);
+        }
+    }
+}
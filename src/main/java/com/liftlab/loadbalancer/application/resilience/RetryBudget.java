@@ -0,0 +1,78 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits retries and hedged requests to a share of the live traffic, so that a struggling backend
+ * pool is not pushed over by extra load when requests start failing or slowing down everywhere.
+ *
+ * <p>A token bucket: every original request deposits {@code percent / 100} of a token and every
+ * retry or hedge withdraws a whole one. The bucket holds at most {@code burst} tokens and starts
+ * full, so a quiet load balancer can still retry the occasional failure. Tokens are kept as
+ * thousandths in a single {@link AtomicLong}; once the bucket is full, depositing is a plain read.</p>
+ */
+public final class RetryBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * Constructor.
+     *
+     * @param percent the retries and hedges allowed per 100 original requests
+     * @param burst   the maximum number of retries and hedges that can be saved up
+     */
+    public RetryBudget(int percent, int burst) {
+        this.deposit = Math.max(0, percent) * TOKEN / 100;
+        this.capacity = Math.max(0, burst) * TOKEN;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    /**
+     * Records an original request, adding to the budget.
+     */
+    public void recordRequest() {
+        long current = balance.get();
+        while (current < capacity && !balance.compareAndSet(current, Math.min(capacity, current + deposit))) {
+            current = balance.get();
+        }
+    }
+
+    /**
+     * Takes one retry or hedge from the budget if there is one left.
+     *
+     * @return true if the retry or hedge may be sent
+     */
+    public boolean tryAcquire() {
+        long current = balance.get();
+        while (current >= TOKEN) {
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+            current = balance.get();
+        }
+        return false;
+    }
+
+    /**
+     * Hands back a retry or hedge taken by {@link #tryAcquire()} that was not sent after all.
+     */
+    public void refund() {
+        long current = balance.get();
+        while (!balance.compareAndSet(current, Math.min(capacity, current + TOKEN))) {
+            current = balance.get();
+        }
+    }
+
+    /**
+     * Returns the number of retries and hedges currently available.
+     *
+     * @return the whole tokens in the bucket
+     */
+    public long available() {
+        return balance.get() / TOKEN;
+    }
+}
@@ -0,0 +1,148 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import com.liftlab.loadbalancer.configuration.RetryProperties;
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import com.liftlab.loadbalancer.domain.stats.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which requests may be retried or hedged, and when.
+ *
+ * <p>Only requests without a body qualify, as a body is streamed from the client and can be sent
+ * only once. Such requests are retried on another backend after a connection failure, since the
+ * first backend never received them. Requests with an idempotent method are also hedged: when the
+ * first backend has not answered after the configured percentile of recent latency, a copy is sent
+ * to a second one. Every retry and hedge is paid for from a shared {@link RetryBudget}.</p>
+ *
+ * <p>The hedge delay is computed from a {@link LatencyHistogram} of the qualifying requests and
+ * refreshed at most once per {@link #HEDGE_DELAY_REFRESH_NANOS}, so requests only read a volatile.</p>
+ */
+public class RetryPolicy {
+
+    /**
+     * Methods that may be sent more than once (RFC 9110, section 9.2.2).
+     */
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE", "PUT", "DELETE");
+    private static final long MIN_HEDGE_SAMPLES = 100;
+    private static final long HEDGE_DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final Duration LATENCY_WINDOW = Duration.ofSeconds(10);
+
+    private final RetryProperties properties;
+    private final RetryBudget budget;
+    private final LatencyHistogram latencies = new LatencyHistogram(LATENCY_WINDOW);
+    private final AtomicLong nextHedgeDelayRefreshNanos = new AtomicLong(System.nanoTime());
+    private volatile long hedgeDelayNanos = -1;
+
+    /**
+     * Constructor.
+     *
+     * @param properties the retry settings
+     */
+    public RetryPolicy(RetryProperties properties) {
+        this.properties = properties;
+        this.budget = new RetryBudget(properties.budgetPercent(), properties.budgetBurst());
+    }
+
+    /**
+     * Returns a policy under which requests are never retried or hedged.
+     *
+     * @return a disabled policy
+     */
+    public static RetryPolicy disabled() {
+        return new RetryPolicy(RetryProperties.disabled());
+    }
+
+    /**
+     * Returns whether the request may be hedged.
+     *
+     * @param request the client request
+     * @return true if hedging is enabled and the request is idempotent and has no body
+     */
+    public boolean canHedge(ProxyRequest request) {
+        return properties.hedging() && !request.hasBody() && IDEMPOTENT_METHODS.contains(request.method());
+    }
+
+    /**
+     * Returns whether the request may be retried after a connection failure.
+     *
+     * @param request the client request
+     * @return true if retries are enabled and the request has no body
+     */
+    public boolean canRetry(ProxyRequest request) {
+        return properties.connectRetries() > 0 && !request.hasBody();
+    }
+
+    /**
+     * Returns whether a failure is a connection failure, after which the request can safely be retried.
+     *
+     * @param failure the failure of an exchange
+     * @return true if the backend never received the request
+     */
+    public static boolean isConnectFailure(IOException failure) {
+        return failure instanceof ConnectException || failure instanceof HttpConnectTimeoutException;
+    }
+
+    /**
+     * Returns the maximum number of retries after connection failures.
+     *
+     * @return the retries per request
+     */
+    public int maxConnectRetries() {
+        return properties.connectRetries();
+    }
+
+    /**
+     * Returns how long to wait for the first backend before sending a hedged copy.
+     *
+     * @return the hedge delay in nanoseconds, or {@code -1} while too few latencies have been recorded
+     */
+    public long hedgeDelayNanos() {
+        long now = System.nanoTime();
+        long refreshAt = nextHedgeDelayRefreshNanos.get();
+        if (now - refreshAt >= 0
+                && nextHedgeDelayRefreshNanos.compareAndSet(refreshAt, now + HEDGE_DELAY_REFRESH_NANOS)) {
+            long percentile = latencies.percentileNanos(properties.hedgePercentile(), MIN_HEDGE_SAMPLES);
+            hedgeDelayNanos = percentile < 0 ? -1 : Math.max(percentile, properties.hedgeMinDelay().toNanos());
+        }
+        return hedgeDelayNanos;
+    }
+
+    /**
+     * Records the latency of an exchange of a request that qualifies for hedging.
+     *
+     * @param latencyNanos the time until the response headers arrived
+     */
+    public void recordLatency(long latencyNanos) {
+        latencies.record(latencyNanos);
+    }
+
+    /**
+     * Records an original request, adding to the retry budget.
+     */
+    public void recordRequest() {
+        budget.recordRequest();
+    }
+
+    /**
+     * Takes a retry or hedge from the budget.
+     *
+     * @return true if the retry or hedge may be sent
+     */
+    public boolean tryAcquireRetry() {
+        return budget.tryAcquire();
+    }
+
+    /**
+     * Hands back a retry or hedge that could not be sent, as no other backend admitted it.
+     */
+    public void refundRetry() {
+        budget.refund();
+    }
+}
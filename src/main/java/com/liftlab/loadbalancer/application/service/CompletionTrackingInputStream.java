@@ -0,0 +1,57 @@
+package com.liftlab.loadbalancer.application.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Response body wrapper that runs a callback exactly once when the backend's body ends, that is when
+ * the last byte has been read from it or, if the body is abandoned, when it is closed. A request is
+ * thereby accounted as in-flight until the backend has sent its whole response, not just the headers,
+ * while a slow client still reading the relayed bytes, or closing late, does not count against the
+ * backend.
+ */
+final class CompletionTrackingInputStream extends FilterInputStream {
+
+    private final Runnable onComplete;
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    CompletionTrackingInputStream(InputStream body, Runnable onComplete) {
+        super(body);
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int read = super.read();
+        if (read < 0) {
+            complete();
+        }
+        return read;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read < 0) {
+            complete();
+        }
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            complete();
+        }
+    }
+
+    private void complete() {
+        if (completed.compareAndSet(false, true)) {
+            onComplete.run();
+        }
+    }
+}
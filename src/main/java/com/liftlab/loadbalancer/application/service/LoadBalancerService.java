@@ -1,58 +1,459 @@
 package com.liftlab.loadbalancer.application.service;
 
 import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.application.cache.ResponseCache;
 import com.liftlab.loadbalancer.application.factory.RoutingStrategyFactory;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreaker;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreakerRegistry;
+import com.liftlab.loadbalancer.application.resilience.ConcurrencyLimiter;
+import com.liftlab.loadbalancer.application.resilience.ConcurrencyLimiterRegistry;
+import com.liftlab.loadbalancer.application.resilience.OutlierDetector;
+import com.liftlab.loadbalancer.application.resilience.RetryPolicy;
 import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
 import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import com.liftlab.loadbalancer.domain.model.ProxyResponse;
+import com.liftlab.loadbalancer.domain.model.RequestEvent;
+import com.liftlab.loadbalancer.domain.stats.BackendStats;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
 import com.liftlab.loadbalancer.domain.strategy.LoadBalancingStrategy;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import com.liftlab.loadbalancer.port.out.BackendClientPort;
 import com.liftlab.loadbalancer.port.out.MonitoringPort;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Service that forwards client requests to backend servers using a selected load-balancing strategy.
- * It uses a map-based repository to obtain dynamically managed healthy backend servers.
+ * It uses a map-based repository to obtain dynamically managed healthy backend servers and a
+ * {@link BackendClientPort} to proxy the request to the selected server. The outcome of every
+ * exchange is reported to the {@link OutlierDetector}, which ejects misbehaving backends, and to the
+ * backend's {@link CircuitBreaker}; backends with an open circuit are skipped during selection, as are
+ * backends at their adaptive {@link ConcurrencyLimiter} limit.
+ * Failed connections are retried and slow requests hedged as the {@link RetryPolicy} allows.
  */
 public class LoadBalancerService {
 
     private final RoutingStrategyFactory routingStrategyFactory;
     private final MonitoringPort monitoringPort;
     private final MapBasedBackendConfigRepository backendRepository;
-    // Use virtual threads for asynchronous processing.
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final BackendStatsRegistry statsRegistry;
+    private final BackendClientPort backendClient;
+    private final OutlierDetector outlierDetector;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final RetryPolicy retryPolicy;
+    private final ExecutorService hedgeExecutor;
+    private final ResponseCache responseCache;
+    private final ConcurrencyLimiterRegistry concurrencyLimiters;
 
+    /**
+     * Constructor. Each resilience collaborator has a {@code disabled()} factory for callers that do not
+     * use it.
+     *
+     * @param routingStrategyFactory the factory providing the strategy that selects a backend
+     * @param monitoringPort         the port request outcomes are reported to
+     * @param backendRepository      the repository providing the active backends
+     * @param statsRegistry          the live backend statistics requests are counted in
+     * @param backendClient          the client sending requests to backends
+     * @param outlierDetector        the detector exchanges are reported to
+     * @param circuitBreakers        the per-backend circuit breakers admitting requests
+     * @param retryPolicy            the policy deciding on retries and hedges
+     * @param hedgeExecutor          the executor hedged requests are sent on
+     * @param responseCache          the cache answering cacheable requests
+     * @param concurrencyLimiters    the per-backend concurrency limiters admitting requests
+     */
     public LoadBalancerService(RoutingStrategyFactory routingStrategyFactory, MonitoringPort monitoringPort,
-                               MapBasedBackendConfigRepository backendRepository) {
+                               MapBasedBackendConfigRepository backendRepository,
+                               BackendStatsRegistry statsRegistry, BackendClientPort backendClient,
+                               OutlierDetector outlierDetector, CircuitBreakerRegistry circuitBreakers,
+                               RetryPolicy retryPolicy, ExecutorService hedgeExecutor, ResponseCache responseCache,
+                               ConcurrencyLimiterRegistry concurrencyLimiters) {
         this.routingStrategyFactory = routingStrategyFactory;
         this.monitoringPort = monitoringPort;
         this.backendRepository = backendRepository;
+        this.statsRegistry = statsRegistry;
+        this.backendClient = backendClient;
+        this.outlierDetector = outlierDetector;
+        this.circuitBreakers = circuitBreakers;
+        this.retryPolicy = retryPolicy;
+        this.hedgeExecutor = hedgeExecutor;
+        this.responseCache = responseCache;
+        this.concurrencyLimiters = concurrencyLimiters;
     }
 
     /**
-     * Forwards a client request to a healthy backend server.
+     * Forwards a client request to a healthy backend server and returns the backend's response.
+     * The response body is streamed from the backend and must be closed by the caller.
+     * If no backend is available, or all of them have an open circuit, the response is a 503, if the
+     * backend cannot be reached a 502, and if it does not answer in time a 504.
+     *
+     * <p>Requests without a body are retried on another backend when the connection fails, and
+     * idempotent ones are hedged: if the first backend is slower than the {@link RetryPolicy}'s hedge
+     * delay, a copy goes to a second backend and the first response wins. Both are limited by the
+     * policy's retry budget.</p>
+     *
+     * <p>Cacheable requests are served from the {@link ResponseCache} when it holds a fresh response.</p>
      *
-     * @param request the client request payload
-     * @return a response message indicating which server the request was forwarded to, or an error message
+     * @param request    the client request
+     * @param routingKey the routing key extracted from the request, or {@code null} if there is none
+     * @return the backend response, or an error response generated by the load balancer
+     */
+    public ProxyResponse forwardRequest(ProxyRequest request, String routingKey) {
+        if (responseCache.isCacheable(request)) {
+            return responseCache.forward(request, cacheMiss -> forward(cacheMiss, routingKey));
+        }
+        return forward(request, routingKey);
+    }
+
+    private ProxyResponse forward(ProxyRequest request, String routingKey) {
+        LoadBalancingStrategy strategy = routingStrategyFactory.getStrategy(request.path());
+        StrategyType strategyType = StrategyType.of(strategy);
+        retryPolicy.recordRequest();
+        boolean hedgeable = retryPolicy.canHedge(request);
+        BackendServer server;
+        try {
+            server = selectServer(strategy, routingKey, List.of());
+        } catch (LoadBalancerException e) {
+            RequestEvent event = RequestEvent.failed(strategyType, null, 503, e.getMessage());
+            monitoringPort.recordRequest(event);
+            return ProxyResponse.error(503, event.describe());
+        }
+        Attempt first = new Attempt(server, request, strategyType, hedgeable);
+        long hedgeDelayNanos = hedgeable ? retryPolicy.hedgeDelayNanos() : -1;
+        if (hedgeDelayNanos >= 0) {
+            return forwardHedged(first, strategy, routingKey, hedgeDelayNanos);
+        }
+        first.run();
+        Attempt attempt = first;
+        List<BackendServer> tried = List.of();
+        for (int retries = 0; attempt.failure != null && mayRetry(attempt, retries); retries++) {
+            tried = append(tried, attempt.server);
+            BackendServer next = trySelectServer(strategy, routingKey, tried);
+            if (next == null) {
+                retryPolicy.refundRetry();
+                break;
+            }
+            attempt = new Attempt(next, request, strategyType, hedgeable);
+            attempt.run();
+        }
+        return attempt.result();
+    }
+
+    /**
+     * Runs the first attempt on the forwarding executor and, if it has not answered within the hedge
+     * delay, a second one on another backend. Connection failures are retried as in the inline path.
+     * The first response wins; the other attempt is cancelled, or its response closed.
      */
-    public String forwardRequest(String request) {
+    private ProxyResponse forwardHedged(Attempt first, LoadBalancingStrategy strategy, String routingKey,
+                                        long hedgeDelayNanos) {
+        BlockingQueue<Attempt> completed = new LinkedBlockingQueue<>();
+        List<Attempt> attempts = new ArrayList<>(2);
+        List<BackendServer> tried = new ArrayList<>(2);
+        Attempt winner = null;
+        try {
+            start(first, completed, attempts, tried);
+            long hedgeAtNanos = System.nanoTime() + hedgeDelayNanos;
+            boolean hedged = false;
+            int pending = 1;
+            int retries = 0;
+            Attempt last = first;
+            while (pending > 0) {
+                Attempt done = hedged ? completed.take()
+                        : completed.poll(hedgeAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    hedged = true;
+                    if (retryPolicy.tryAcquireRetry() && startNext(first, strategy, routingKey, completed, attempts,
+                            tried)) {
+                        pending++;
+                    }
+                    continue;
+                }
+                pending--;
+                last = done;
+                if (done.response != null) {
+                    winner = done;
+                    return done.response;
+                }
+                if (mayRetry(done, retries) && startNext(first, strategy, routingKey, completed, attempts, tried)) {
+                    retries++;
+                    pending++;
+                }
+            }
+            return last.result();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            RequestEvent event = RequestEvent.failed(first.strategyType, null, 502,
+                    "Interrupted while waiting for a backend");
+            monitoringPort.recordRequest(event);
+            return ProxyResponse.error(502, event.describe());
+        } finally {
+            for (Attempt attempt : attempts) {
+                if (attempt != winner) {
+                    attempt.discard();
+                }
+            }
+        }
+    }
+
+    private void start(Attempt attempt, BlockingQueue<Attempt> completed, List<Attempt> attempts,
+                       List<BackendServer> tried) {
+        attempt.completion = completed;
+        attempts.add(attempt);
+        tried.add(attempt.server);
+        attempt.future = hedgeExecutor.submit(attempt);
+    }
+
+    /**
+     * Starts a retry or hedge, already taken from the budget, on a backend not tried yet. If no such backend
+     * admits it, the retry or hedge is refunded, so the budget does not drain while backends are refused.
+     */
+    private boolean startNext(Attempt first, LoadBalancingStrategy strategy, String routingKey,
+                              BlockingQueue<Attempt> completed, List<Attempt> attempts, List<BackendServer> tried) {
+        BackendServer server = trySelectServer(strategy, routingKey, tried);
+        if (server == null) {
+            retryPolicy.refundRetry();
+            return false;
+        }
+        start(new Attempt(server, first.request, first.strategyType, first.sampleLatency), completed, attempts,
+                tried);
+        return true;
+    }
+
+    /**
+     * Returns whether a failed attempt may be retried on another backend. Takes a retry from the budget,
+     * which the caller refunds if no other backend can be selected.
+     */
+    private boolean mayRetry(Attempt attempt, int retries) {
+        return retries < retryPolicy.maxConnectRetries()
+                && retryPolicy.canRetry(attempt.request)
+                && attempt.failure != null
+                && RetryPolicy.isConnectFailure(attempt.failure)
+                && retryPolicy.tryAcquireRetry();
+    }
+
+    private static List<BackendServer> append(List<BackendServer> servers, BackendServer server) {
+        List<BackendServer> appended = new ArrayList<>(servers.size() + 1);
+        appended.addAll(servers);
+        appended.add(server);
+        return appended;
+    }
+
+    private BackendServer trySelectServer(LoadBalancingStrategy strategy, String routingKey,
+                                          List<BackendServer> excluded) {
         try {
-            LoadBalancingStrategy strategy = routingStrategyFactory.getStrategy();
-            List<BackendServer> servers = backendRepository.getActiveServers();
-            final BackendServer server = strategy.select(servers);
-            executor.submit(() -> {
-                // Simulated request forwarding; replace with actual HTTP forwarding logic.
-                System.out.println("Forwarding request '" + request + "' to " + server.url());
-            });
-            String message = "Request forwarded to " + server.url();
-            monitoringPort.report(message);
-            return message;
+            return selectServer(strategy, routingKey, excluded);
         } catch (LoadBalancerException e) {
-            String errorMessage = "Failed to forward request: " + e.getMessage();
-            monitoringPort.report(errorMessage);
-            e.printStackTrace();
-            return errorMessage;
+            return null;
+        }
+    }
+
+    /**
+     * Selects a backend that is not among the excluded ones, the backends a retry or hedge has already
+     * been sent to, and that admits the request: its circuit is not open and it is below its concurrency
+     * limit. Excluded backends, and those that do not admit the request, such as one with a half-open
+     * circuit whose trial calls are all taken, are skipped by the strategy within the same server list.
+     */
+    private BackendServer selectServer(LoadBalancingStrategy strategy, String routingKey,
+                                       List<BackendServer> excluded) throws LoadBalancerException {
+        List<BackendServer> servers = backendRepository.getActiveServers();
+        if (excluded.isEmpty()) {
+            return strategy.select(servers, routingKey, this::admits);
+        }
+        return strategy.select(servers, routingKey, server -> !excluded.contains(server) && admits(server));
+    }
+
+    private boolean admits(BackendServer server) {
+        ConcurrencyLimiter limiter = concurrencyLimiters.limiterFor(server);
+        if (!limiter.tryAcquire()) {
+            return false;
+        }
+        if (circuitBreakers.circuitBreakerFor(server).tryAcquirePermission()) {
+            return true;
+        }
+        limiter.release();
+        return false;
+    }
+
+    /**
+     * One exchange with one backend. The request is tracked as in-flight until the backend's response
+     * body has ended, and its outcome is reported to the outlier detector, the circuit breaker and
+     * monitoring, and it holds a slot of the backend's concurrency limit until the body has ended. An
+     * attempt that is discarded while its exchange is under way, or before it has started, only hands back
+     * its circuit breaker permission and its slot, as its failure says nothing about the backend.
+     */
+    private final class Attempt implements Runnable {
+
+        private final BackendServer server;
+        private final ProxyRequest request;
+        private final StrategyType strategyType;
+        private final boolean sampleLatency;
+        private BlockingQueue<Attempt> completion;
+        private Future<?> future;
+        private ProxyResponse response;
+        private IOException failure;
+        private boolean discarded;
+        /** Claimed by whichever comes first: the run, or a discard of the attempt before it has started. */
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        Attempt(BackendServer server, ProxyRequest request, StrategyType strategyType, boolean sampleLatency) {
+            this.server = server;
+            this.request = request;
+            this.strategyType = strategyType;
+            this.sampleLatency = sampleLatency;
+        }
+
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            BackendStats stats = statsRegistry.statsFor(server);
+            CircuitBreaker circuitBreaker = circuitBreakers.circuitBreakerFor(server);
+            ConcurrencyLimiter limiter = concurrencyLimiters.limiterFor(server);
+            long startNanos = System.nanoTime();
+            stats.requestStarted();
+            boolean streaming = false;
+            boolean limiterReleased = false;
+            try {
+                ProxyResponse backendResponse = backendClient.send(server, request);
+                long latencyNanos = System.nanoTime() - startNanos;
+                outlierDetector.recordResponse(server, backendResponse.status());
+                circuitBreaker.onResult(latencyNanos, backendResponse.status() >= 500);
+                if (sampleLatency) {
+                    retryPolicy.recordLatency(latencyNanos);
+                }
+                monitoringPort.recordForwarded(strategyType, server.url(), backendResponse.status(), latencyNanos);
+                InputStream body = new CompletionTrackingInputStream(backendResponse.body(), () -> {
+                    stats.requestCompleted(System.nanoTime() - startNanos);
+                    limiter.onSample(latencyNanos, isOverloaded(backendResponse.status()));
+                });
+                streaming = true;
+                complete(new ProxyResponse(backendResponse.status(), backendResponse.headers(), body,
+                        backendResponse.contentLength()), null);
+            } catch (IOException | RuntimeException thrown) {
+                IOException e = asIOException(thrown);
+                if (isDiscarded()) {
+                    circuitBreaker.onCancelled();
+                } else {
+                    outlierDetector.recordFailure(server, e);
+                    circuitBreaker.onResult(System.nanoTime() - startNanos, true);
+                    limiter.onSample(System.nanoTime() - startNanos, true);
+                    limiterReleased = true;
+                    monitoringPort.recordRequest(failedEvent(e));
+                }
+                complete(null, e);
+            } finally {
+                if (!streaming) {
+                    stats.requestCompleted(System.nanoTime() - startNanos);
+                    if (!limiterReleased) {
+                        limiter.release();
+                    }
+                }
+                if (completion != null) {
+                    completion.add(this);
+                }
+            }
+        }
+
+        /**
+         * Any exception escaping the exchange, such as an invalid backend URL, fails the attempt like an I/O
+         * error, so that the circuit breaker's permission is always settled.
+         */
+        private static IOException asIOException(Exception thrown) {
+            return switch (thrown) {
+                case IOException e -> e;
+                case UncheckedIOException e -> e.getCause();
+                default -> new IOException(thrown.toString(), thrown);
+            };
+        }
+
+        /**
+         * 429 and 503 are how backends shed load, so they count against the concurrency limit.
+         */
+        private static boolean isOverloaded(int status) {
+            return status == 429 || status == 503;
+        }
+
+        private void complete(ProxyResponse response, IOException failure) {
+            boolean closeBody;
+            synchronized (this) {
+                this.response = response;
+                this.failure = failure;
+                closeBody = discarded && response != null;
+            }
+            if (closeBody) {
+                closeQuietly(response.body());
+            }
+        }
+
+        private synchronized boolean isDiscarded() {
+            return discarded;
+        }
+
+        /**
+         * Abandons the attempt: its response is closed if it has arrived, an attempt that has not started is
+         * prevented from starting, and otherwise the exchange is interrupted.
+         */
+        void discard() {
+            ProxyResponse arrived;
+            synchronized (this) {
+                discarded = true;
+                arrived = response;
+            }
+            if (arrived != null) {
+                closeQuietly(arrived.body());
+            } else if (started.compareAndSet(false, true)) {
+                // The exchange never started, so the permission and slot taken at selection are returned here.
+                circuitBreakers.circuitBreakerFor(server).onCancelled();
+                concurrencyLimiters.limiterFor(server).release();
+                if (future != null) {
+                    future.cancel(false);
+                }
+            } else if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        /**
+         * Returns the response of the attempt, or the error response for its failure.
+         */
+        ProxyResponse result() {
+            if (response != null) {
+                return response;
+            }
+            RequestEvent event = failedEvent(failure);
+            if (failure == null) {
+                monitoringPort.recordRequest(event);
+            }
+            return ProxyResponse.error(event.status(), event.describe());
+        }
+
+        private RequestEvent failedEvent(IOException e) {
+            if (e == null) {
+                return RequestEvent.failed(strategyType, server.url(), 502,
+                        "Unexpected failure forwarding to " + server.url());
+            }
+            return RequestEvent.failed(strategyType, server.url(), e instanceof HttpTimeoutException ? 504 : 502,
+                    e.getClass().getSimpleName() + " - " + e.getMessage());
+        }
+
+        private static void closeQuietly(InputStream body) {
+            try {
+                body.close();
+            } catch (IOException ignored) {
+                // The response is dropped either way.
+            }
         }
     }
 }
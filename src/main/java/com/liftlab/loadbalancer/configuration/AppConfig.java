@@ -1,49 +1,267 @@
 package com.liftlab.loadbalancer.configuration;
 
+import com.liftlab.loadbalancer.adapters.in.tcp.TcpProxyServer;
+import com.liftlab.loadbalancer.adapters.out.cluster.ClusterNode;
+import com.liftlab.loadbalancer.adapters.out.http.JdkHttpBackendClient;
+import com.liftlab.loadbalancer.adapters.out.monitoring.AsyncMonitoringAdapter;
+import com.liftlab.loadbalancer.adapters.out.monitoring.CompositeMonitoringAdapter;
 import com.liftlab.loadbalancer.adapters.out.monitoring.ConsoleMonitoringAdapter;
+import com.liftlab.loadbalancer.adapters.out.monitoring.MicrometerMonitoringAdapter;
+import com.liftlab.loadbalancer.adapters.out.repository.BackendJournal;
 import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.application.cache.ResponseCache;
 import com.liftlab.loadbalancer.application.factory.RoutingStrategyFactory;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreakerRegistry;
+import com.liftlab.loadbalancer.application.resilience.ConcurrencyLimiterRegistry;
+import com.liftlab.loadbalancer.application.resilience.OutlierDetector;
+import com.liftlab.loadbalancer.application.resilience.RateLimiter;
+import com.liftlab.loadbalancer.application.resilience.RetryPolicy;
 import com.liftlab.loadbalancer.application.service.LoadBalancerService;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
 import com.liftlab.loadbalancer.domain.strategy.LoadBalancingStrategy;
-import com.liftlab.loadbalancer.domain.strategy.RandomStrategy;
-import com.liftlab.loadbalancer.domain.strategy.RoundRobinStrategy;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import com.liftlab.loadbalancer.port.out.BackendClientPort;
 import com.liftlab.loadbalancer.port.out.MonitoringPort;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.Primary;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Spring configuration class for application beans.
  */
 @Configuration
+@EnableConfigurationProperties({ForwardingProperties.class, HealthCheckProperties.class,
+        OutlierDetectionProperties.class, MonitoringProperties.class, CircuitBreakerProperties.class,
+        RetryProperties.class, CacheProperties.class, RateLimitProperties.class, ConcurrencyLimitProperties.class,
+        PersistenceProperties.class, ClusterProperties.class, TcpProxyProperties.class, Http2Properties.class})
 public class AppConfig {
 
+    /**
+     * Creates the journal the backend repository persists registrations to, a no-op unless
+     * {@code loadbalancer.persistence.enabled} is set.
+     */
+    @Bean(destroyMethod = "close")
+    public BackendJournal backendJournal(PersistenceProperties persistenceProperties) {
+        return new BackendJournal(persistenceProperties);
+    }
+
+    @Bean
+    public BackendStatsRegistry backendStatsRegistry() {
+        return new BackendStatsRegistry();
+    }
+
+    /**
+     * Creates the load balancing strategy named by {@code loadbalancer.strategy}.
+     * The profile-specific property files pick round robin for prod and random for dev.
+     */
+    @Bean
+    public LoadBalancingStrategy loadBalancingStrategy(
+            @Value("${loadbalancer.strategy:round-robin}") StrategyType strategyType,
+            BackendStatsRegistry backendStatsRegistry) {
+        return RoutingStrategyFactory.createStrategy(strategyType, backendStatsRegistry);
+    }
+
+    /**
+     * Provides the strategy per request, starting with the configured strategy as the default.
+     * The default and per-route strategies can be switched at runtime through the admin API.
+     */
+    @Bean
+    public RoutingStrategyFactory routingStrategyFactory(LoadBalancingStrategy loadBalancingStrategy,
+                                                         BackendStatsRegistry backendStatsRegistry,
+                                                         MapBasedBackendConfigRepository backendConfigRepository) {
+        RoutingStrategyFactory factory = new RoutingStrategyFactory(loadBalancingStrategy, backendStatsRegistry);
+        // Let the strategies rebuild derived state, such as lookup tables, whenever the active servers change.
+        backendConfigRepository.addSnapshotListener(snapshot -> factory.onServersChanged(snapshot.activeServers()));
+        return factory;
+    }
+
+    /**
+     * Buffers monitoring events and logs them through the console adapter on a background thread.
+     * Dropped and sampled-out events are exported as metrics.
+     */
+    @Bean
+    public AsyncMonitoringAdapter asyncMonitoringAdapter(ConsoleMonitoringAdapter consoleMonitoringAdapter,
+                                                         MonitoringProperties monitoringProperties,
+                                                         MeterRegistry meterRegistry) {
+        AsyncMonitoringAdapter adapter = new AsyncMonitoringAdapter(consoleMonitoringAdapter, monitoringProperties);
+        FunctionCounter.builder("loadbalancer.monitoring.dropped", adapter, AsyncMonitoringAdapter::droppedEvents)
+                .description("Monitoring events dropped because the buffer was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("loadbalancer.monitoring.sampled.out", adapter,
+                        AsyncMonitoringAdapter::sampledOutEvents)
+                .description("Monitoring events skipped by sampling while the buffer was nearly full")
+                .register(meterRegistry);
+        return adapter;
+    }
+
+    /**
+     * Records per-backend and per-strategy request metrics, exported through Actuator.
+     */
+    @Bean
+    public MicrometerMonitoringAdapter micrometerMonitoringAdapter(
+            MeterRegistry meterRegistry, BackendStatsRegistry backendStatsRegistry,
+            MapBasedBackendConfigRepository backendConfigRepository) {
+        MicrometerMonitoringAdapter adapter = new MicrometerMonitoringAdapter(meterRegistry, backendStatsRegistry);
+        backendConfigRepository.addSnapshotListener(adapter::onServersChanged);
+        return adapter;
+    }
+
+    /**
+     * Monitoring port used on the request path: metrics are recorded in place, as that does not
+     * allocate or block, while log output goes through the asynchronous adapter.
+     */
     @Bean
-    @Profile({"prod", "default"})
-    public LoadBalancingStrategy roundRobinStrategy() {
-        return new RoundRobinStrategy();
+    @Primary
+    public MonitoringPort monitoringPort(MicrometerMonitoringAdapter micrometerMonitoringAdapter,
+                                         AsyncMonitoringAdapter asyncMonitoringAdapter) {
+        return new CompositeMonitoringAdapter(List.of(micrometerMonitoringAdapter, asyncMonitoringAdapter));
+    }
+
+    /**
+     * Virtual-thread executor shared by the outbound HTTP clients.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService forwardingExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public BackendClientPort backendClientPort(ForwardingProperties forwardingProperties,
+                                               Http2Properties http2Properties,
+                                               ExecutorService forwardingExecutor,
+                                               MapBasedBackendConfigRepository backendConfigRepository) {
+        JdkHttpBackendClient client = new JdkHttpBackendClient(forwardingProperties, http2Properties,
+                forwardingExecutor);
+        backendConfigRepository.addSnapshotListener(client::onServersChanged);
+        return client;
+    }
+
+    @Bean
+    public OutlierDetector outlierDetector(MapBasedBackendConfigRepository backendConfigRepository,
+                                           BackendStatsRegistry backendStatsRegistry,
+                                           OutlierDetectionProperties outlierDetectionProperties) {
+        return new OutlierDetector(backendConfigRepository, backendStatsRegistry, outlierDetectionProperties);
+    }
+
+    /**
+     * Creates the node sharing backend state with the other instances of the cluster, a standalone node
+     * unless {@code loadbalancer.cluster.enabled} is set.
+     */
+    @Bean(destroyMethod = "close")
+    public ClusterNode clusterNode(ClusterProperties clusterProperties,
+                                   MapBasedBackendConfigRepository backendConfigRepository,
+                                   OutlierDetector outlierDetector) {
+        return new ClusterNode(clusterProperties, backendConfigRepository, outlierDetector);
     }
 
     @Bean
-    @Profile("dev")
-    public LoadBalancingStrategy randomStrategy() {
-        return new RandomStrategy();
+    public CircuitBreakerRegistry circuitBreakerRegistry(CircuitBreakerProperties circuitBreakerProperties,
+                                                         MapBasedBackendConfigRepository backendConfigRepository) {
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(circuitBreakerProperties);
+        backendConfigRepository.addSnapshotListener(registry::onServersChanged);
+        return registry;
     }
 
     @Bean
-    public RoutingStrategyFactory routingStrategyFactory(LoadBalancingStrategy loadBalancingStrategy) {
-        return new RoutingStrategyFactory(loadBalancingStrategy);
+    public ConcurrencyLimiterRegistry concurrencyLimiterRegistry(
+            ConcurrencyLimitProperties concurrencyLimitProperties,
+            MapBasedBackendConfigRepository backendConfigRepository) {
+        ConcurrencyLimiterRegistry registry = new ConcurrencyLimiterRegistry(concurrencyLimitProperties);
+        backendConfigRepository.addSnapshotListener(registry::onServersChanged);
+        return registry;
+    }
+
+    @Bean
+    public RetryPolicy retryPolicy(RetryProperties retryProperties) {
+        return new RetryPolicy(retryProperties);
+    }
+
+    /**
+     * Limits the request rate per client at the forward endpoint; rejected requests are exported as a metric.
+     */
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry) {
+        RateLimiter rateLimiter = new RateLimiter(rateLimitProperties);
+        FunctionCounter.builder("loadbalancer.ratelimit.rejected", rateLimiter, RateLimiter::rejectedRequests)
+                .description("Requests rejected with 429 because the client exceeded its rate")
+                .register(meterRegistry);
+        return rateLimiter;
+    }
+
+    /**
+     * Starts the layer 4 TCP proxy if {@code loadbalancer.tcp-proxy.enabled} is set; open and accepted
+     * connections are exported as metrics.
+     */
+    @Bean(destroyMethod = "close")
+    public TcpProxyServer tcpProxyServer(TcpProxyProperties tcpProxyProperties,
+                                         MapBasedBackendConfigRepository backendConfigRepository,
+                                         RoutingStrategyFactory routingStrategyFactory,
+                                         BackendStatsRegistry backendStatsRegistry,
+                                         OutlierDetector outlierDetector,
+                                         CircuitBreakerRegistry circuitBreakerRegistry,
+                                         ConcurrencyLimiterRegistry concurrencyLimiterRegistry,
+                                         MeterRegistry meterRegistry) {
+        TcpProxyServer server = new TcpProxyServer(tcpProxyProperties, backendConfigRepository,
+                routingStrategyFactory, backendStatsRegistry, outlierDetector, circuitBreakerRegistry,
+                concurrencyLimiterRegistry);
+        Gauge.builder("loadbalancer.tcp.connections", server, TcpProxyServer::openConnections)
+                .description("Client connections currently relayed by the TCP proxy")
+                .register(meterRegistry);
+        FunctionCounter.builder("loadbalancer.tcp.accepted", server, TcpProxyServer::acceptedConnections)
+                .description("Client connections accepted by the TCP proxy")
+                .register(meterRegistry);
+        return server;
     }
 
+    /**
+     * Caches responses to GET and HEAD requests; hits, misses, coalesced requests and evictions are
+     * exported as metrics.
+     */
     @Bean
-    public MonitoringPort monitoringPort() {
-        return new ConsoleMonitoringAdapter();
+    public ResponseCache responseCache(CacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        ResponseCache cache = new ResponseCache(cacheProperties);
+        FunctionCounter.builder("loadbalancer.cache.hits", cache, ResponseCache::hits)
+                .description("Requests served from the response cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("loadbalancer.cache.misses", cache, ResponseCache::misses)
+                .description("Cacheable requests not found in the response cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("loadbalancer.cache.coalesced", cache, ResponseCache::coalescedRequests)
+                .description("Cache misses served by the backend request of a concurrent miss for the same key")
+                .register(meterRegistry);
+        FunctionCounter.builder("loadbalancer.cache.evictions", cache, ResponseCache::evictions)
+                .description("Entries evicted from the response cache to stay within its limits")
+                .register(meterRegistry);
+        Gauge.builder("loadbalancer.cache.size", cache, ResponseCache::sizeBytes)
+                .description("Total body size of the cached responses")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return cache;
     }
 
     @Bean
     public LoadBalancerService loadBalancerService(RoutingStrategyFactory routingStrategyFactory,
                                                    MonitoringPort monitoringPort,
-                                                   MapBasedBackendConfigRepository backendConfigRepository) {
-        return new LoadBalancerService(routingStrategyFactory, monitoringPort, backendConfigRepository);
+                                                   MapBasedBackendConfigRepository backendConfigRepository,
+                                                   BackendStatsRegistry backendStatsRegistry,
+                                                   BackendClientPort backendClientPort,
+                                                   OutlierDetector outlierDetector,
+                                                   CircuitBreakerRegistry circuitBreakerRegistry,
+                                                   RetryPolicy retryPolicy,
+                                                   ExecutorService forwardingExecutor,
+                                                   ResponseCache responseCache,
+                                                   ConcurrencyLimiterRegistry concurrencyLimiterRegistry) {
+        return new LoadBalancerService(routingStrategyFactory, monitoringPort, backendConfigRepository,
+                backendStatsRegistry, backendClientPort, outlierDetector, circuitBreakerRegistry, retryPolicy,
+                forwardingExecutor, responseCache, concurrencyLimiterRegistry);
     }
 }
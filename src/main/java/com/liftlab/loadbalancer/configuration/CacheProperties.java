@@ -0,0 +1,53 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings of the response cache, bound from {@code loadbalancer.cache.*}.
+ *
+ * @param enabled      whether responses to GET and HEAD requests are cached
+ * @param maxEntries   the number of entries above which the least recently used ones are evicted
+ * @param maxSize      the total body size above which the least recently used entries are evicted
+ * @param maxEntrySize the largest body that is cached; larger responses are streamed through
+ * @param defaultTtl   how long to cache responses without an explicit freshness lifetime;
+ *                     {@code 0} caches only responses with {@code Cache-Control: max-age} or {@code s-maxage}
+ * @param keyHeaders   request headers that are part of the cache key, and the only ones a response may vary on
+ */
+@ConfigurationProperties("loadbalancer.cache")
+public record CacheProperties(@DefaultValue("true") boolean enabled,
+                              @DefaultValue("10000") int maxEntries,
+                              @DefaultValue("64MB") DataSize maxSize,
+                              @DefaultValue("1MB") DataSize maxEntrySize,
+                              @DefaultValue("0s") Duration defaultTtl,
+                              @DefaultValue({"Accept", "Accept-Encoding"}) List<String> keyHeaders) {
+
+    public CacheProperties {
+        keyHeaders = List.copyOf(keyHeaders);
+    }
+
+    /**
+     * Returns the default cache settings.
+     *
+     * @return the defaults
+     */
+    public static CacheProperties defaults() {
+        return new CacheProperties(true, 10_000, DataSize.ofMegabytes(64), DataSize.ofMegabytes(1), Duration.ZERO,
+                List.of("Accept", "Accept-Encoding"));
+    }
+
+    /**
+     * Returns settings under which nothing is cached.
+     *
+     * @return the disabled settings
+     */
+    public static CacheProperties disabled() {
+        CacheProperties defaults = defaults();
+        return new CacheProperties(false, defaults.maxEntries(), defaults.maxSize(), defaults.maxEntrySize(),
+                defaults.defaultTtl(), defaults.keyHeaders());
+    }
+}
@@ -0,0 +1,51 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the per-backend circuit breakers, bound from {@code loadbalancer.circuit-breaker.*}.
+ *
+ * @param enabled               whether circuits can open at all
+ * @param slidingWindowSize     number of most recent calls the failure and slow-call rates are computed over
+ * @param minimumCalls          calls the window must hold before the rates are evaluated
+ * @param failureRateThreshold  percentage of failed calls, i.e. 5xx responses or failed exchanges, that opens
+ *                              the circuit
+ * @param slowCallRateThreshold percentage of slow calls that opens the circuit
+ * @param slowCallDuration      time to the response headers from which a call counts as slow
+ * @param openDuration          how long an open circuit rejects calls before admitting trial calls
+ * @param halfOpenTrialCalls    trial calls admitted while half open; the circuit closes once all succeed
+ */
+@ConfigurationProperties("loadbalancer.circuit-breaker")
+public record CircuitBreakerProperties(@DefaultValue("true") boolean enabled,
+                                       @DefaultValue("50") int slidingWindowSize,
+                                       @DefaultValue("20") int minimumCalls,
+                                       @DefaultValue("50") int failureRateThreshold,
+                                       @DefaultValue("80") int slowCallRateThreshold,
+                                       @DefaultValue("5s") Duration slowCallDuration,
+                                       @DefaultValue("10s") Duration openDuration,
+                                       @DefaultValue("3") int halfOpenTrialCalls) {
+
+    /**
+     * Returns the default circuit breaker settings.
+     *
+     * @return the defaults
+     */
+    public static CircuitBreakerProperties defaults() {
+        return new CircuitBreakerProperties(true, 50, 20, 50, 80, Duration.ofSeconds(5), Duration.ofSeconds(10), 3);
+    }
+
+    /**
+     * Returns settings under which no circuit ever opens.
+     *
+     * @return the disabled settings
+     */
+    public static CircuitBreakerProperties disabled() {
+        CircuitBreakerProperties defaults = defaults();
+        return new CircuitBreakerProperties(false, defaults.slidingWindowSize(), defaults.minimumCalls(),
+                defaults.failureRateThreshold(), defaults.slowCallRateThreshold(), defaults.slowCallDuration(),
+                defaults.openDuration(), defaults.halfOpenTrialCalls());
+    }
+}
@@ -0,0 +1,60 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings of the cluster of load balancer instances sharing backend state, bound from
+ * {@code loadbalancer.cluster.*}.
+ *
+ * @param enabled            whether this instance joins a cluster
+ * @param host               the host name other instances reach this one at, and the address gossip is served on
+ * @param port               the port gossip is served on; {@code 0} picks a free port
+ * @param seeds              {@code host:port} addresses of instances to contact first
+ * @param gossipInterval     how often this instance synchronizes with one randomly chosen peer
+ * @param failureTimeout     how long a peer may go without a heartbeat before it is considered down and its
+ *                           health checks are taken over
+ * @param secret             the key shared by all instances, which authenticates every gossip message; required
+ *                           when the cluster is enabled
+ * @param tombstoneRetention how long removed backends are remembered; an instance cut off from the others
+ *                           for longer may bring them back
+ */
+@ConfigurationProperties("loadbalancer.cluster")
+public record ClusterProperties(@DefaultValue("false") boolean enabled,
+                                @DefaultValue("localhost") String host,
+                                @DefaultValue("7946") int port,
+                                @DefaultValue List<String> seeds,
+                                @DefaultValue("1s") Duration gossipInterval,
+                                @DefaultValue("5s") Duration failureTimeout,
+                                @DefaultValue("") String secret,
+                                @DefaultValue("1h") Duration tombstoneRetention) {
+
+    public ClusterProperties {
+        seeds = List.copyOf(seeds);
+        if (enabled && secret.isBlank()) {
+            throw new IllegalArgumentException("loadbalancer.cluster.secret must be set to enable the cluster");
+        }
+    }
+
+    /**
+     * Returns the default cluster settings.
+     *
+     * @return the defaults
+     */
+    public static ClusterProperties defaults() {
+        return new ClusterProperties(false, "localhost", 7946, List.of(), Duration.ofSeconds(1),
+                Duration.ofSeconds(5), "", Duration.ofHours(1));
+    }
+
+    /**
+     * Returns settings under which this instance runs on its own.
+     *
+     * @return the disabled settings
+     */
+    public static ClusterProperties disabled() {
+        return defaults();
+    }
+}
@@ -0,0 +1,43 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the adaptive per-backend concurrency limits, bound from
+ * {@code loadbalancer.concurrency-limit.*}.
+ *
+ * @param enabled       whether the number of in-flight requests per backend is limited
+ * @param initialLimit  the limit a backend starts with
+ * @param minLimit      the limit never drops below this
+ * @param maxLimit      the limit never grows above this
+ * @param probeInterval the number of samples after which the no-load latency is measured afresh, so the
+ *                      limit follows backends that got permanently slower or faster
+ */
+@ConfigurationProperties("loadbalancer.concurrency-limit")
+public record ConcurrencyLimitProperties(@DefaultValue("true") boolean enabled,
+                                         @DefaultValue("20") int initialLimit,
+                                         @DefaultValue("4") int minLimit,
+                                         @DefaultValue("1000") int maxLimit,
+                                         @DefaultValue("1000") int probeInterval) {
+
+    /**
+     * Returns the default concurrency limit settings.
+     *
+     * @return the defaults
+     */
+    public static ConcurrencyLimitProperties defaults() {
+        return new ConcurrencyLimitProperties(true, 20, 4, 1000, 1000);
+    }
+
+    /**
+     * Returns settings under which backends get any number of concurrent requests.
+     *
+     * @return the disabled settings
+     */
+    public static ConcurrencyLimitProperties disabled() {
+        ConcurrencyLimitProperties defaults = defaults();
+        return new ConcurrencyLimitProperties(false, defaults.initialLimit(), defaults.minLimit(),
+                defaults.maxLimit(), defaults.probeInterval());
+    }
+}
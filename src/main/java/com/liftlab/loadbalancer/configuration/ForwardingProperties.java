@@ -0,0 +1,63 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Settings of the HTTP forwarding engine, bound from {@code loadbalancer.forwarding.*}.
+ *
+ * @param connectTimeout default time allowed to establish a connection to a backend
+ * @param readTimeout    default time allowed for a backend to return its response headers
+ * @param backends       per-backend overrides keyed by backend URL
+ */
+@ConfigurationProperties("loadbalancer.forwarding")
+public record ForwardingProperties(@DefaultValue("2s") Duration connectTimeout,
+                                   @DefaultValue("30s") Duration readTimeout,
+                                   Map<String, BackendTimeouts> backends) {
+
+    public ForwardingProperties {
+        backends = backends == null ? Map.of() : Map.copyOf(backends);
+    }
+
+    /**
+     * Returns the default forwarding settings.
+     *
+     * @return the defaults
+     */
+    public static ForwardingProperties defaults() {
+        return new ForwardingProperties(Duration.ofSeconds(2), Duration.ofSeconds(30), Map.of());
+    }
+
+    /**
+     * Returns the connect timeout to use for the given backend.
+     *
+     * @param url the backend URL
+     * @return the connect timeout
+     */
+    public Duration connectTimeoutFor(String url) {
+        BackendTimeouts override = backends.get(url);
+        return override != null && override.connectTimeout() != null ? override.connectTimeout() : connectTimeout;
+    }
+
+    /**
+     * Returns the read timeout to use for the given backend.
+     *
+     * @param url the backend URL
+     * @return the read timeout
+     */
+    public Duration readTimeoutFor(String url) {
+        BackendTimeouts override = backends.get(url);
+        return override != null && override.readTimeout() != null ? override.readTimeout() : readTimeout;
+    }
+
+    /**
+     * Timeout overrides for a single backend; unset values fall back to the defaults.
+     *
+     * @param connectTimeout time allowed to establish a connection
+     * @param readTimeout    time allowed for the response headers to arrive
+     */
+    public record BackendTimeouts(Duration connectTimeout, Duration readTimeout) { }
+}
@@ -0,0 +1,31 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the periodic backend health check, bound from {@code loadbalancer.health.*}.
+ *
+ * @param connectTimeout time allowed to establish a connection to a backend
+ * @param readTimeout    time allowed for a backend to return its response headers
+ * @param sweepTimeout   time allowed for a whole sweep; probes still running are counted as failed, and backends
+ *                       whose probe has not started yet keep their state
+ * @param maxConcurrency maximum number of probes in flight at once
+ */
+@ConfigurationProperties("loadbalancer.health")
+public record HealthCheckProperties(@DefaultValue("2s") Duration connectTimeout,
+                                    @DefaultValue("3s") Duration readTimeout,
+                                    @DefaultValue("8s") Duration sweepTimeout,
+                                    @DefaultValue("64") int maxConcurrency) {
+
+    /**
+     * Returns the default health check settings.
+     *
+     * @return the defaults
+     */
+    public static HealthCheckProperties defaults() {
+        return new HealthCheckProperties(Duration.ofSeconds(2), Duration.ofSeconds(3), Duration.ofSeconds(8), 64);
+    }
+}
@@ -0,0 +1,32 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of HTTP/2 forwarding to the backends, bound from {@code loadbalancer.forwarding.http2.*}.
+ *
+ * @param enabled                  whether requests are forwarded over HTTP/2: h2 over TLS, negotiated with ALPN, or
+ *                                 h2c, upgraded from HTTP/1.1; backends without HTTP/2 are still served over HTTP/1.1
+ * @param maxStreamsPerConnection  the maximum number of concurrent requests on one connection; should not exceed
+ *                                 the backend's {@code SETTINGS_MAX_CONCURRENT_STREAMS}
+ * @param maxConnectionsPerBackend the maximum number of connections to one backend
+ * @param idleTimeout              how long a connection without requests is kept before it is closed
+ */
+@ConfigurationProperties("loadbalancer.forwarding.http2")
+public record Http2Properties(@DefaultValue("false") boolean enabled,
+                              @DefaultValue("100") int maxStreamsPerConnection,
+                              @DefaultValue("4") int maxConnectionsPerBackend,
+                              @DefaultValue("60s") Duration idleTimeout) {
+
+    /**
+     * Returns settings that forward over HTTP/1.1.
+     *
+     * @return the disabled settings
+     */
+    public static Http2Properties disabled() {
+        return new Http2Properties(false, 100, 4, Duration.ofSeconds(60));
+    }
+}
@@ -0,0 +1,43 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the asynchronous monitoring pipeline, bound from {@code loadbalancer.monitoring.*}.
+ *
+ * @param bufferSize     number of events the ring buffer holds, rounded up to a power of two
+ * @param batchSize      maximum number of events handed to the sink per drain
+ * @param overflowPolicy what to do with events once the buffer fills up
+ * @param sampleRate     under {@link OverflowPolicy#SAMPLE}, keep one in this many events while the
+ *                       buffer is more than three quarters full
+ */
+@ConfigurationProperties("loadbalancer.monitoring")
+public record MonitoringProperties(@DefaultValue("8192") int bufferSize,
+                                   @DefaultValue("256") int batchSize,
+                                   @DefaultValue("drop") OverflowPolicy overflowPolicy,
+                                   @DefaultValue("10") int sampleRate) {
+
+    /**
+     * Returns the default monitoring settings.
+     *
+     * @return the defaults
+     */
+    public static MonitoringProperties defaults() {
+        return new MonitoringProperties(8192, 256, OverflowPolicy.DROP, 10);
+    }
+
+    /**
+     * Handling of events that arrive faster than the sink consumes them.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Accept every event while there is room and drop new events once the buffer is full.
+         */
+        DROP,
+        /**
+         * Start sampling events once the buffer is three quarters full, and drop them when it is full.
+         */
+        SAMPLE
+    }
+}
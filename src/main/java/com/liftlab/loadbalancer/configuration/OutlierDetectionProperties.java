@@ -0,0 +1,55 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of passive outlier detection, bound from {@code loadbalancer.outlier-detection.*}.
+ *
+ * @param enabled                    whether live traffic can eject backends at all
+ * @param consecutiveErrors          consecutive 5xx responses or failed exchanges that eject a backend
+ * @param consecutiveConnectFailures consecutive connection failures that eject a backend
+ * @param latencyFactor              how many times slower than the pool median a backend may get before
+ *                                   it is ejected; {@code 0} disables latency-based ejection
+ * @param minLatency                 latency below which a backend is never considered an outlier
+ * @param latencyCheckInterval       average number of responses from a backend between two latency comparisons
+ * @param baseEjectionTime           ejection time of a first ejection, doubled on every repeated ejection
+ * @param maxEjectionTime            upper bound of the ejection time
+ * @param maxEjectionPercent         maximum share of the registered backends that may be ejected at once
+ */
+@ConfigurationProperties("loadbalancer.outlier-detection")
+public record OutlierDetectionProperties(@DefaultValue("true") boolean enabled,
+                                         @DefaultValue("5") int consecutiveErrors,
+                                         @DefaultValue("3") int consecutiveConnectFailures,
+                                         @DefaultValue("3.0") double latencyFactor,
+                                         @DefaultValue("50ms") Duration minLatency,
+                                         @DefaultValue("32") int latencyCheckInterval,
+                                         @DefaultValue("10s") Duration baseEjectionTime,
+                                         @DefaultValue("5m") Duration maxEjectionTime,
+                                         @DefaultValue("50") int maxEjectionPercent) {
+
+    /**
+     * Returns the default outlier detection settings.
+     *
+     * @return the defaults
+     */
+    public static OutlierDetectionProperties defaults() {
+        return new OutlierDetectionProperties(true, 5, 3, 3.0, Duration.ofMillis(50), 32,
+                Duration.ofSeconds(10), Duration.ofMinutes(5), 50);
+    }
+
+    /**
+     * Returns settings under which no backend is ever ejected.
+     *
+     * @return the disabled settings
+     */
+    public static OutlierDetectionProperties disabled() {
+        OutlierDetectionProperties defaults = defaults();
+        return new OutlierDetectionProperties(false, defaults.consecutiveErrors(),
+                defaults.consecutiveConnectFailures(), defaults.latencyFactor(), defaults.minLatency(),
+                defaults.latencyCheckInterval(), defaults.baseEjectionTime(), defaults.maxEjectionTime(),
+                defaults.maxEjectionPercent());
+    }
+}
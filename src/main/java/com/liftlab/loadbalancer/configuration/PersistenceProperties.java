@@ -0,0 +1,42 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the persistent backend registry, bound from {@code loadbalancer.persistence.*}.
+ *
+ * @param enabled      whether backend registrations are written to disk and recovered on startup
+ * @param directory    the directory holding the journal and the snapshot
+ * @param journalSize  the size of the memory-mapped journal; once three quarters of it are used the
+ *                     registry is compacted into a new snapshot and the journal starts over
+ * @param syncInterval how often journal writes are flushed to disk; changes made within one interval
+ *                     share a single flush
+ */
+@ConfigurationProperties("loadbalancer.persistence")
+public record PersistenceProperties(@DefaultValue("false") boolean enabled,
+                                    @DefaultValue("data/registry") String directory,
+                                    @DefaultValue("16MB") DataSize journalSize,
+                                    @DefaultValue("10ms") Duration syncInterval) {
+
+    /**
+     * Returns the default persistence settings.
+     *
+     * @return the defaults
+     */
+    public static PersistenceProperties defaults() {
+        return new PersistenceProperties(false, "data/registry", DataSize.ofMegabytes(16), Duration.ofMillis(10));
+    }
+
+    /**
+     * Returns settings under which nothing is written to disk.
+     *
+     * @return the disabled settings
+     */
+    public static PersistenceProperties disabled() {
+        return defaults();
+    }
+}
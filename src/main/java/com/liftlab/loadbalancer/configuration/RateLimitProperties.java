@@ -0,0 +1,38 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of per-client rate limiting, bound from {@code loadbalancer.rate-limit.*}.
+ *
+ * @param enabled           whether requests are rate limited per client
+ * @param requestsPerSecond the sustained request rate allowed per client
+ * @param burst             the number of requests a client can send at once after being idle
+ * @param maxClients        the number of clients tracked at once; rounded up to a power of two
+ */
+@ConfigurationProperties("loadbalancer.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("1000") double requestsPerSecond,
+                                  @DefaultValue("2000") int burst,
+                                  @DefaultValue("65536") int maxClients) {
+
+    /**
+     * Returns the default rate limiting settings.
+     *
+     * @return the defaults
+     */
+    public static RateLimitProperties defaults() {
+        return new RateLimitProperties(true, 1000, 2000, 65536);
+    }
+
+    /**
+     * Returns settings under which no request is rate limited.
+     *
+     * @return the disabled settings
+     */
+    public static RateLimitProperties disabled() {
+        RateLimitProperties defaults = defaults();
+        return new RateLimitProperties(false, defaults.requestsPerSecond(), defaults.burst(), 1);
+    }
+}
@@ -0,0 +1,46 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of retries and hedged requests, bound from {@code loadbalancer.retry.*}.
+ *
+ * @param connectRetries  how often a request without a body is retried on another backend after a
+ *                        connection failure; {@code 0} disables retries
+ * @param hedging         whether idempotent requests without a body are hedged
+ * @param hedgePercentile the percentile of recent latency after which a hedged copy is sent to a
+ *                        second backend
+ * @param hedgeMinDelay   lower bound of the hedge delay, so fast backends are not hedged on noise
+ * @param budgetPercent   retries and hedges allowed per 100 requests
+ * @param budgetBurst     retries and hedges that can be saved up while traffic is healthy
+ */
+@ConfigurationProperties("loadbalancer.retry")
+public record RetryProperties(@DefaultValue("1") int connectRetries,
+                              @DefaultValue("true") boolean hedging,
+                              @DefaultValue("95") double hedgePercentile,
+                              @DefaultValue("10ms") Duration hedgeMinDelay,
+                              @DefaultValue("20") int budgetPercent,
+                              @DefaultValue("100") int budgetBurst) {
+
+    /**
+     * Returns the default retry settings.
+     *
+     * @return the defaults
+     */
+    public static RetryProperties defaults() {
+        return new RetryProperties(1, true, 95, Duration.ofMillis(10), 20, 100);
+    }
+
+    /**
+     * Returns settings under which requests are never retried or hedged.
+     *
+     * @return the disabled settings
+     */
+    public static RetryProperties disabled() {
+        RetryProperties defaults = defaults();
+        return new RetryProperties(0, false, defaults.hedgePercentile(), defaults.hedgeMinDelay(), 0, 0);
+    }
+}
@@ -0,0 +1,37 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the layer 4 TCP proxy, bound from {@code loadbalancer.tcp-proxy.*}.
+ *
+ * @param enabled        whether the TCP proxy listens for connections
+ * @param address        the local address it listens on; {@code 0.0.0.0} listens on every interface
+ * @param port           the port it listens on; {@code 0} picks a free port
+ * @param eventLoops     the number of selector threads relaying bytes; {@code 0} uses one per processor
+ * @param bufferSize     the size of the buffer of each direction of a connection
+ * @param pooledBuffers  the maximum number of idle direct buffers kept for reuse
+ * @param connectTimeout how long to wait for a backend to accept a connection
+ */
+@ConfigurationProperties("loadbalancer.tcp-proxy")
+public record TcpProxyProperties(@DefaultValue("false") boolean enabled,
+                                 @DefaultValue("0.0.0.0") String address,
+                                 @DefaultValue("9090") int port,
+                                 @DefaultValue("0") int eventLoops,
+                                 @DefaultValue("16KB") DataSize bufferSize,
+                                 @DefaultValue("1024") int pooledBuffers,
+                                 @DefaultValue("2s") Duration connectTimeout) {
+
+    /**
+     * Returns the default TCP proxy settings.
+     *
+     * @return the defaults
+     */
+    public static TcpProxyProperties defaults() {
+        return new TcpProxyProperties(false, "0.0.0.0", 9090, 0, DataSize.ofKilobytes(16), 1024, Duration.ofSeconds(2));
+    }
+}
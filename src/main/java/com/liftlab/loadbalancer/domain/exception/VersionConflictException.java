@@ -0,0 +1,29 @@
+package com.liftlab.loadbalancer.domain.exception;
+
+/**
+ * Thrown when a change is made against a version of the backend configuration that is no longer current.
+ */
+public class VersionConflictException extends LoadBalancerException {
+
+    private final long currentVersion;
+
+    /**
+     * Constructs a new exception for the given versions.
+     *
+     * @param expectedVersion the version the change was made against
+     * @param currentVersion  the current version
+     */
+    public VersionConflictException(long expectedVersion, long currentVersion) {
+        super("Version conflict: expected " + expectedVersion + " but current version is " + currentVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    /**
+     * Returns the version that was current when the change was rejected.
+     *
+     * @return the current version
+     */
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,53 @@
+package com.liftlab.loadbalancer.domain.model;
+
+import java.util.List;
+
+/**
+ * A set of backend changes applied as one atomic step.
+ *
+ * <p>A batch either lists the full {@code desired} set of backends, in which case every other backend
+ * is removed, or describes a diff of backends to {@code add}, {@code drain} and {@code remove}. Adding a
+ * registered backend updates its weight and ends its draining. A draining backend stays registered but
+ * gets no new requests, so in-flight ones can finish before it is removed.</p>
+ *
+ * @param desired the complete set of backends, or {@code null} for a diff
+ * @param add     backends to register or update
+ * @param drain   URLs of registered backends to stop sending new requests to
+ * @param remove  URLs of backends to remove
+ */
+public record BackendBatch(List<Backend> desired, List<Backend> add, List<String> drain, List<String> remove) {
+
+    public BackendBatch {
+        add = add == null ? List.of() : List.copyOf(add);
+        drain = drain == null ? List.of() : List.copyOf(drain);
+        remove = remove == null ? List.of() : List.copyOf(remove);
+        desired = desired == null ? null : List.copyOf(desired);
+    }
+
+    /**
+     * Returns whether the batch lists the full desired set rather than a diff.
+     *
+     * @return true for a desired set
+     */
+    public boolean isDesiredSet() {
+        return desired != null;
+    }
+
+    /**
+     * A backend in a batch, with an optional weight.
+     *
+     * @param url    the base URL of the backend server
+     * @param weight the relative weight, or {@code null} for the {@link BackendServer#DEFAULT_WEIGHT default}
+     */
+    public record Backend(String url, Integer weight) {
+
+        /**
+         * Returns the backend server described by this entry.
+         *
+         * @return the backend server
+         */
+        public BackendServer toServer() {
+            return new BackendServer(url, weight == null ? BackendServer.DEFAULT_WEIGHT : weight);
+        }
+    }
+}
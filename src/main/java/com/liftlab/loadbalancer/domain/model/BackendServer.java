@@ -3,6 +3,25 @@ package com.liftlab.loadbalancer.domain.model;
 /**
  * Represents a backend server.
  *
- * <p>Implemented as a record to ensure immutability.</p>
+ * <p>Implemented as a record to ensure immutability. The weight is the relative share of
+ * traffic the server should receive from weight-aware strategies.</p>
+ *
+ * @param url    the base URL of the backend server
+ * @param weight the relative weight of the server, at least 1
  */
-public record BackendServer(String url) { }
+public record BackendServer(String url, int weight) {
+
+    /**
+     * Weight given to servers registered without an explicit weight.
+     */
+    public static final int DEFAULT_WEIGHT = 1;
+
+    /**
+     * Creates a backend server with the {@link #DEFAULT_WEIGHT default weight}.
+     *
+     * @param url the base URL of the backend server
+     */
+    public BackendServer(String url) {
+        this(url, DEFAULT_WEIGHT);
+    }
+}
@@ -0,0 +1,29 @@
+package com.liftlab.loadbalancer.domain.model;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Identifies headers that apply to a single connection and must not be relayed by a proxy,
+ * as well as headers that the proxy recomputes for the outgoing message.
+ */
+public final class HopByHopHeaders {
+
+    private static final Set<String> NAMES = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "proxy-connection",
+            "te", "trailer", "transfer-encoding", "upgrade", "host", "content-length", "expect",
+            "http2-settings");
+
+    private HopByHopHeaders() {
+    }
+
+    /**
+     * Returns whether the header must be dropped when relaying a message.
+     *
+     * @param name the header name, in any case
+     * @return true if the header is hop-by-hop
+     */
+    public static boolean isHopByHop(String name) {
+        return NAMES.contains(name.toLowerCase(Locale.ROOT));
+    }
+}
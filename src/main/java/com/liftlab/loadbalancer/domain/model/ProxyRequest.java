@@ -0,0 +1,40 @@
+package com.liftlab.loadbalancer.domain.model;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A client request to be forwarded to a backend server.
+ *
+ * <p>The body is a stream that is consumed while the request is sent, so it can be forwarded
+ * only once and is never held in memory as a whole.</p>
+ *
+ * @param method        the HTTP method
+ * @param path          the path to request on the backend, starting with {@code /}
+ * @param query         the raw query string, or {@code null} if there is none
+ * @param headers       the end-to-end request headers
+ * @param body          the request body stream
+ * @param contentLength the body length in bytes, or {@code -1} if unknown
+ */
+public record ProxyRequest(String method, String path, String query, Map<String, List<String>> headers,
+                           InputStream body, long contentLength) {
+
+    /**
+     * Returns the path and query string to request on the backend.
+     *
+     * @return the request target
+     */
+    public String target() {
+        return query == null || query.isEmpty() ? path : path + "?" + query;
+    }
+
+    /**
+     * Returns whether the request carries a body.
+     *
+     * @return false only if the body is known to be empty
+     */
+    public boolean hasBody() {
+        return contentLength != 0;
+    }
+}
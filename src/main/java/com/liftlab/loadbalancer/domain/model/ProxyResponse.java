@@ -0,0 +1,35 @@
+package com.liftlab.loadbalancer.domain.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The response relayed back to the client, either received from a backend server or
+ * produced by the load balancer itself when forwarding failed.
+ *
+ * <p>The body is a stream that the receiver must close once it has relayed it, which also
+ * releases the backend connection.</p>
+ *
+ * @param status        the HTTP status code
+ * @param headers       the end-to-end response headers
+ * @param body          the response body stream
+ * @param contentLength the body length in bytes, or {@code -1} if unknown
+ */
+public record ProxyResponse(int status, Map<String, List<String>> headers, InputStream body, long contentLength) {
+
+    /**
+     * Creates a plain-text error response generated by the load balancer.
+     *
+     * @param status  the HTTP status code
+     * @param message the error message
+     * @return the error response
+     */
+    public static ProxyResponse error(int status, String message) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        return new ProxyResponse(status, Map.of("Content-Type", List.of("text/plain;charset=UTF-8")),
+                new ByteArrayInputStream(bytes), bytes.length);
+    }
+}
@@ -0,0 +1,69 @@
+package com.liftlab.loadbalancer.domain.model;
+
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+
+/**
+ * The outcome of a forwarded request, reported to monitoring.
+ *
+ * <p>Events carry the raw values rather than a formatted message, so the request path does not pay for
+ * string building; a message is only formatted by {@link #describe()} when a sink needs one.</p>
+ *
+ * @param timestampMillis wall-clock time the outcome was known, in epoch milliseconds
+ * @param strategy        the strategy that routed the request
+ * @param backendUrl      the backend the request was sent to, or {@code null} if none was selected
+ * @param status          the status returned to the client
+ * @param latencyNanos    time until the backend's response headers arrived, or {@code 0} on failure
+ * @param error           the failure description, or {@code null} if the backend answered
+ */
+public record RequestEvent(long timestampMillis, StrategyType strategy, String backendUrl, int status,
+                           long latencyNanos, String error) {
+
+    /**
+     * Creates the event of a request the backend answered.
+     *
+     * @param strategy     the strategy that routed the request
+     * @param backendUrl   the backend that answered
+     * @param status       the backend's status
+     * @param latencyNanos time until the response headers arrived
+     * @return the event
+     */
+    public static RequestEvent forwarded(StrategyType strategy, String backendUrl, int status, long latencyNanos) {
+        return new RequestEvent(System.currentTimeMillis(), strategy, backendUrl, status, latencyNanos, null);
+    }
+
+    /**
+     * Creates the event of a request that failed in the load balancer.
+     *
+     * @param strategy   the strategy that routed the request
+     * @param backendUrl the backend the request was sent to, or {@code null} if none was selected
+     * @param status     the error status returned to the client
+     * @param error      the failure description
+     * @return the event
+     */
+    public static RequestEvent failed(StrategyType strategy, String backendUrl, int status, String error) {
+        return new RequestEvent(System.currentTimeMillis(), strategy, backendUrl, status, 0, error);
+    }
+
+    /**
+     * Returns whether the request failed in the load balancer rather than being answered by a backend.
+     *
+     * @return true if the request failed
+     */
+    public boolean isFailure() {
+        return error != null;
+    }
+
+    /**
+     * Formats the event as a human-readable monitoring message.
+     *
+     * @return the message
+     */
+    public String describe() {
+        if (error == null) {
+            return "Request forwarded to " + backendUrl + " with status " + status;
+        }
+        return backendUrl == null
+                ? "Failed to forward request: " + error
+                : "Failed to forward request to " + backendUrl + ": " + error;
+    }
+}
@@ -0,0 +1,101 @@
+package com.liftlab.loadbalancer.domain.stats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live load statistics for a single backend server.
+ *
+ * <p>The in-flight counter is a {@link LongAdder}, whose striped cells keep concurrent
+ * increments and decrements from contending on a single memory location.</p>
+ *
+ * <p>Observed latencies feed a "peak EWMA": a latency above the current average replaces it
+ * immediately, while lower latencies are blended in with a weight that decays exponentially
+ * with the time since the previous observation. The average is kept as raw double bits in an
+ * {@link AtomicLong} and updated with a CAS loop, so neither recording nor reading allocates.</p>
+ */
+public final class BackendStats {
+
+    /**
+     * Time constant of the moving average.
+     */
+    static final long DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * Cost reported for a backend that has requests outstanding but no latency observation yet,
+     * so that a new backend is not flooded before its first response comes back.
+     */
+    static final double PENALTY = Long.MAX_VALUE >> 16;
+
+    private final LongAdder inFlight = new LongAdder();
+    private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private volatile long lastObservedNanos = System.nanoTime();
+
+    /**
+     * Records that a request to the backend has started.
+     */
+    public void requestStarted() {
+        inFlight.increment();
+    }
+
+    /**
+     * Records that a request to the backend has completed, successfully or not.
+     *
+     * @param latencyNanos the observed latency of the request in nanoseconds
+     */
+    public void requestCompleted(long latencyNanos) {
+        inFlight.decrement();
+        observe(latencyNanos);
+    }
+
+    /**
+     * Returns the number of requests currently outstanding against the backend.
+     *
+     * @return the in-flight request count
+     */
+    public long inFlight() {
+        return inFlight.sum();
+    }
+
+    /**
+     * Returns the current latency average in nanoseconds, decayed to the present.
+     *
+     * @return the peak EWMA latency
+     */
+    public double ewmaLatencyNanos() {
+        double ewma = Double.longBitsToDouble(ewmaBits.get());
+        long elapsed = Math.max(System.nanoTime() - lastObservedNanos, 0);
+        return ewma * Math.exp((double) -elapsed / DECAY_NANOS);
+    }
+
+    /**
+     * Returns the load score used by latency-aware strategies: the peak EWMA latency
+     * multiplied by the number of outstanding requests plus one. Lower is better.
+     *
+     * @return the load score of the backend
+     */
+    public double cost() {
+        long pending = inFlight();
+        double latency = ewmaLatencyNanos();
+        if (latency == 0.0 && pending != 0) {
+            return PENALTY + pending;
+        }
+        return latency * (pending + 1);
+    }
+
+    private void observe(long latencyNanos) {
+        long now = System.nanoTime();
+        long elapsed = Math.max(now - lastObservedNanos, 0);
+        double weight = Math.exp((double) -elapsed / DECAY_NANOS);
+        long currentBits;
+        long updatedBits;
+        do {
+            currentBits = ewmaBits.get();
+            double current = Double.longBitsToDouble(currentBits);
+            double updated = latencyNanos > current ? latencyNanos : current * weight + latencyNanos * (1 - weight);
+            updatedBits = Double.doubleToRawLongBits(updated);
+        } while (!ewmaBits.compareAndSet(currentBits, updatedBits));
+        lastObservedNanos = now;
+    }
+}
@@ -0,0 +1,28 @@
+package com.liftlab.loadbalancer.domain.stats;
+
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of {@link BackendStats} keyed by backend URL.
+ *
+ * <p>Shared between the forwarding path, which records request activity, and the
+ * load-aware strategies, which read it during selection.</p>
+ */
+public class BackendStatsRegistry {
+
+    private final Map<String, BackendStats> statsByUrl = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the statistics for the given backend server, creating them on first use.
+     *
+     * @param server the backend server
+     * @return the statistics of the server
+     */
+    public BackendStats statsFor(BackendServer server) {
+        BackendStats stats = statsByUrl.get(server.url());
+        return stats != null ? stats : statsByUrl.computeIfAbsent(server.url(), url -> new BackendStats());
+    }
+}
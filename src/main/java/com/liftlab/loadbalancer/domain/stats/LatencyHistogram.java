@@ -0,0 +1,123 @@
+package com.liftlab.loadbalancer.domain.stats;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of recent latencies for percentile estimates.
+ *
+ * <p>Latencies are counted in log-linear buckets at microsecond resolution: each power of two is
+ * split into eight buckets, so an estimate is at most 12.5% above the true value. Buckets are
+ * {@link LongAdder}s, so concurrent recording does not contend on the popular buckets.</p>
+ *
+ * <p>Two bucket sets are kept, one for the current window and one for the window before it.
+ * Percentiles are computed over both, so an estimate always covers between one and two windows of
+ * history. Windows are rotated when percentiles are read, keeping recording free of time checks.</p>
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /**
+     * Enough buckets for every non-negative {@code long} number of microseconds.
+     */
+    static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final LongAdder[][] windows = new LongAdder[2][BUCKETS];
+    private final long windowNanos;
+    private final AtomicLong windowEndNanos;
+    private volatile int current;
+
+    /**
+     * Constructor.
+     *
+     * @param window the length of one window
+     */
+    public LatencyHistogram(Duration window) {
+        this.windowNanos = window.toNanos();
+        this.windowEndNanos = new AtomicLong(System.nanoTime() + windowNanos);
+        for (LongAdder[] buckets : windows) {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param latencyNanos the latency in nanoseconds
+     */
+    public void record(long latencyNanos) {
+        windows[current][bucket(Math.max(0, latencyNanos) / 1000)].increment();
+    }
+
+    /**
+     * Returns the latency at the given percentile of the recent recordings, rounded up to the end of
+     * its bucket.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @param minSamples the number of recordings below which no estimate is made
+     * @return the latency in nanoseconds, or {@code -1} if there are fewer recordings than {@code minSamples}
+     */
+    public long percentileNanos(double percentile, long minSamples) {
+        rotateIfDue(System.nanoTime());
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = windows[0][i].sum() + windows[1][i].sum();
+            total += counts[i];
+        }
+        if (total == 0 || total < minSamples) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundMicros(i) + 1, Long.MAX_VALUE / 1000) * 1000;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private void rotateIfDue(long nowNanos) {
+        long end = windowEndNanos.get();
+        if (nowNanos - end < 0 || !windowEndNanos.compareAndSet(end, nowNanos + windowNanos)) {
+            return;
+        }
+        int next = current ^ 1;
+        reset(windows[next]);
+        if (nowNanos - end >= windowNanos) {
+            // Nothing was rotated for more than a window, so the current window is stale as well.
+            reset(windows[current]);
+        }
+        current = next;
+    }
+
+    private static void reset(LongAdder[] buckets) {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+    }
+
+    static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) | subBucket;
+    }
+
+    static long upperBoundMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        long lowerBound = (long) (SUB_BUCKETS | (bucket & (SUB_BUCKETS - 1))) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
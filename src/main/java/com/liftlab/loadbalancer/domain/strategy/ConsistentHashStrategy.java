@@ -0,0 +1,231 @@
+package com.liftlab.loadbalancer.domain.strategy;
+
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Load balancing strategy that routes requests by a hash of their routing key using a Maglev
+ * lookup table, so that requests sharing a key land on the same backend server.
+ *
+ * <p>Each server fills the table following its own permutation, which keeps the load spread
+ * nearly evenly and makes only about 1/n of the keys move when a server joins or leaves.
+ * Tables are built for a specific server list instance, only from {@link #onServersChanged(List)},
+ * and swapped in atomically. A request that sees a list the table was not built for, as happens
+ * between the repository publishing a list and the strategy being notified of it, keeps using the
+ * last table: a key whose server is still in the list stays on it, and a key whose server left is
+ * rehashed onto the table until it lands on a server still present.</p>
+ *
+ * <p>Requests without a routing key are spread randomly.</p>
+ */
+public final class ConsistentHashStrategy implements LoadBalancingStrategy {
+
+    /**
+     * Minimum number of table slots per server, bounding the load imbalance to about 1%.
+     */
+    static final int SLOTS_PER_SERVER = 100;
+
+    static final int MIN_TABLE_SIZE = 65537;
+
+    /**
+     * Number of table lookups a key gets, on a stale table or when its server is unavailable, before it
+     * falls back to modulo hashing.
+     */
+    static final int MAX_STALE_PROBES = 8;
+
+    private volatile LookupTable table = LookupTable.EMPTY;
+
+    /**
+     * Selects a random backend server, as there is no routing key to hash.
+     *
+     * @param servers list of available backend servers
+     * @return the selected backend server
+     * @throws LoadBalancerException if the list is empty
+     */
+    @Override
+    public BackendServer select(List<BackendServer> servers) throws LoadBalancerException {
+        return select(servers, null);
+    }
+
+    /**
+     * Selects the backend server owning the routing key in the Maglev lookup table.
+     *
+     * @param servers    list of available backend servers
+     * @param routingKey the key extracted from the request, or {@code null} if there is none
+     * @return the selected backend server
+     * @throws LoadBalancerException if the list is empty
+     */
+    @Override
+    public BackendServer select(List<BackendServer> servers, String routingKey) throws LoadBalancerException {
+        if (servers == null || servers.isEmpty()) {
+            throw new LoadBalancerException("No backend servers available");
+        }
+        if (routingKey == null) {
+            return servers.get(ThreadLocalRandom.current().nextInt(servers.size()));
+        }
+        long hash = hash(routingKey, 0);
+        LookupTable current = table;
+        if (current.source == servers) {
+            return current.lookup(hash);
+        }
+        if (current.entries.length > 0) {
+            for (int probe = 0; probe < MAX_STALE_PROBES; probe++) {
+                BackendServer candidate = find(servers, current.lookup(probe == 0 ? hash : hash(routingKey, probe)));
+                if (candidate != null) {
+                    return candidate;
+                }
+            }
+        }
+        // No table yet, or none of the probed servers is left: the next table will settle the key.
+        return servers.get((int) Math.floorMod(hash, (long) servers.size()));
+    }
+
+    /**
+     * Selects the backend server owning the routing key, or if the filter rejects it, the owner of the key
+     * rehashed, so that a key keeps moving to the same server while its own is unavailable.
+     *
+     * @param servers    list of available backend servers
+     * @param routingKey the key extracted from the request, or {@code null} if there is none
+     * @param filter     accepts the servers the request may go to
+     * @return the selected backend server
+     * @throws LoadBalancerException if the list is empty or the filter rejects every server
+     */
+    @Override
+    public BackendServer select(List<BackendServer> servers, String routingKey, Predicate<BackendServer> filter)
+            throws LoadBalancerException {
+        if (routingKey == null) {
+            return LoadBalancingStrategy.super.select(servers, null, filter);
+        }
+        BackendServer selected = select(servers, routingKey);
+        if (filter.test(selected)) {
+            return selected;
+        }
+        LookupTable current = table;
+        if (current.source == servers) {
+            for (int probe = 1; probe < MAX_STALE_PROBES; probe++) {
+                BackendServer candidate = current.lookup(hash(routingKey, probe));
+                if (!candidate.equals(selected) && filter.test(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        int size = servers.size();
+        int start = (int) Math.floorMod(hash(routingKey, 0), (long) size);
+        for (int i = 0; i < size; i++) {
+            BackendServer candidate = servers.get((start + i) % size);
+            if (filter.test(candidate)) {
+                return candidate;
+            }
+        }
+        throw new LoadBalancerException("No backend server has capacity");
+    }
+
+    /**
+     * Builds the lookup table for the new server list, off the request path.
+     *
+     * @param servers the new list of active backend servers
+     */
+    @Override
+    public void onServersChanged(List<BackendServer> servers) {
+        if (table.source != servers && !servers.isEmpty()) {
+            table = LookupTable.build(servers);
+        }
+    }
+
+    /**
+     * Returns the server of the list with the same URL as the given one, as a weight update replaces the
+     * instance but not the server. A linear scan, as it only runs until the next table is built.
+     */
+    private static BackendServer find(List<BackendServer> servers, BackendServer server) {
+        for (int i = 0; i < servers.size(); i++) {
+            if (servers.get(i).url().equals(server.url())) {
+                return servers.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes of the value, finished with the SplitMix64 mixer.
+     */
+    static long hash(String value, long seed) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * Immutable Maglev lookup table built for one server list.
+     */
+    private static final class LookupTable {
+
+        static final LookupTable EMPTY = new LookupTable(List.of(), new BackendServer[0]);
+
+        final List<BackendServer> source;
+        final BackendServer[] entries;
+
+        private LookupTable(List<BackendServer> source, BackendServer[] entries) {
+            this.source = source;
+            this.entries = entries;
+        }
+
+        BackendServer lookup(long hash) {
+            return entries[(int) Math.floorMod(hash, (long) entries.length)];
+        }
+
+        static LookupTable build(List<BackendServer> servers) {
+            int size = servers.size();
+            int tableSize = nextPrime(Math.max(MIN_TABLE_SIZE, (long) size * SLOTS_PER_SERVER));
+            long[] offsets = new long[size];
+            long[] skips = new long[size];
+            long[] next = new long[size];
+            for (int i = 0; i < size; i++) {
+                String url = servers.get(i).url();
+                offsets[i] = Math.floorMod(hash(url, 0x5bd1e995L), (long) tableSize);
+                skips[i] = Math.floorMod(hash(url, 0x9e3779b9L), (long) tableSize - 1) + 1;
+            }
+            BackendServer[] entries = new BackendServer[tableSize];
+            int filled = 0;
+            while (true) {
+                for (int i = 0; i < size; i++) {
+                    int slot = (int) ((offsets[i] + next[i] * skips[i]) % tableSize);
+                    while (entries[slot] != null) {
+                        next[i]++;
+                        slot = (int) ((offsets[i] + next[i] * skips[i]) % tableSize);
+                    }
+                    entries[slot] = servers.get(i);
+                    next[i]++;
+                    if (++filled == tableSize) {
+                        return new LookupTable(servers, entries);
+                    }
+                }
+            }
+        }
+
+        private static int nextPrime(long from) {
+            long candidate = from | 1;
+            while (!isPrime(candidate)) {
+                candidate += 2;
+            }
+            return (int) candidate;
+        }
+
+        private static boolean isPrime(long value) {
+            for (long divisor = 3; divisor * divisor <= value; divisor += 2) {
+                if (value % divisor == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
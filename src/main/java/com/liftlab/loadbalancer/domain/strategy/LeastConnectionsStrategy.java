@@ -0,0 +1,105 @@
+package com.liftlab.loadbalancer.domain.strategy;
+
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Load balancing strategy that selects the backend server with the fewest outstanding requests.
+ *
+ * <p>The scan starts at a random offset so that ties are spread across servers instead of
+ * always favouring the first one in the list.</p>
+ *
+ * <p>With a filter, rejected servers are left out of the scan. The least-loaded admitted server therefore
+ * still wins when an idle server, such as one whose circuit is open, is rejected.</p>
+ */
+public final class LeastConnectionsStrategy implements LoadBalancingStrategy {
+
+    private final BackendStatsRegistry statsRegistry;
+
+    /**
+     * Constructor.
+     *
+     * @param statsRegistry the registry holding the in-flight counts of each backend
+     */
+    public LeastConnectionsStrategy(BackendStatsRegistry statsRegistry) {
+        this.statsRegistry = statsRegistry;
+    }
+
+    /**
+     * Selects the backend server with the fewest in-flight requests.
+     *
+     * @param servers list of available backend servers
+     * @return the selected backend server
+     * @throws LoadBalancerException if the list is empty
+     */
+    @Override
+    public BackendServer select(List<BackendServer> servers) throws LoadBalancerException {
+        if (servers == null || servers.isEmpty()) {
+            throw new LoadBalancerException("No backend servers available");
+        }
+        return servers.get(leastLoaded(servers, ThreadLocalRandom.current().nextInt(servers.size()), null));
+    }
+
+    /**
+     * Selects the backend server with the fewest in-flight requests among those the filter accepts.
+     *
+     * @param servers    list of available backend servers
+     * @param routingKey ignored
+     * @param filter     accepts the servers the request may go to
+     * @return the selected backend server
+     * @throws LoadBalancerException if the list is empty or the filter rejects every server
+     */
+    @Override
+    public BackendServer select(List<BackendServer> servers, String routingKey, Predicate<BackendServer> filter)
+            throws LoadBalancerException {
+        if (servers == null || servers.isEmpty()) {
+            throw new LoadBalancerException("No backend servers available");
+        }
+        int size = servers.size();
+        int offset = ThreadLocalRandom.current().nextInt(size);
+        // Allocated only once the filter rejects a server.
+        boolean[] rejected = null;
+        for (int attempt = 0; attempt < size; attempt++) {
+            int index = leastLoaded(servers, offset, rejected);
+            BackendServer candidate = servers.get(index);
+            if (filter.test(candidate)) {
+                return candidate;
+            }
+            if (rejected == null) {
+                rejected = new boolean[size];
+            }
+            rejected[index] = true;
+        }
+        throw new LoadBalancerException("No backend server has capacity");
+    }
+
+    /**
+     * Returns the index of the server with the fewest in-flight requests, scanning from the offset and
+     * skipping rejected servers; at least one server must not be rejected.
+     */
+    private int leastLoaded(List<BackendServer> servers, int offset, boolean[] rejected) {
+        int size = servers.size();
+        int selected = -1;
+        long fewest = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            int index = (offset + i) % size;
+            if (rejected != null && rejected[index]) {
+                continue;
+            }
+            long inFlight = statsRegistry.statsFor(servers.get(index)).inFlight();
+            if (inFlight < fewest) {
+                fewest = inFlight;
+                selected = index;
+                if (inFlight == 0) {
+                    break;
+                }
+            }
+        }
+        return selected;
+    }
+}
@@ -4,12 +4,15 @@ import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
 import com.liftlab.loadbalancer.domain.model.BackendServer;
 
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
 
 /**
  * Defines the contract for load balancing strategies.
  * This is a sealed interface permitting only approved implementations.
  */
-public sealed interface LoadBalancingStrategy permits RoundRobinStrategy, RandomStrategy {
+public sealed interface LoadBalancingStrategy permits RoundRobinStrategy, RandomStrategy, LeastConnectionsStrategy,
+        PeakEwmaStrategy, WeightedRoundRobinStrategy, ConsistentHashStrategy {
 
     /**
      * Selects a backend server from the list.
@@ -19,4 +22,65 @@ public sealed interface LoadBalancingStrategy permits RoundRobinStrategy, Random
      * @throws LoadBalancerException if no server is available
      */
     BackendServer select(List<BackendServer> servers) throws LoadBalancerException;
+
+    /**
+     * Selects a backend server from the list for a request carrying the given routing key.
+     * Strategies that do not route on request content ignore the key.
+     *
+     * @param servers    list of available backend servers
+     * @param routingKey the key extracted from the request, or {@code null} if there is none
+     * @return the selected backend server
+     * @throws LoadBalancerException if no server is available
+     */
+    default BackendServer select(List<BackendServer> servers, String routingKey) throws LoadBalancerException {
+        return select(servers);
+    }
+
+    /**
+     * Selects a backend server that the filter accepts, for a request carrying the given routing key.
+     * Servers the filter rejects, such as ones at their concurrency limit, are skipped within the given
+     * list rather than removed from a copy of it, so that state the strategy derives from the list
+     * instance stays valid.
+     *
+     * <p>The default implementation makes up to two more choices of the strategy's own when the filter
+     * rejects the first, and then tries every server in list order from a random position. The filter may
+     * take a resource, such as a permit, when it accepts a server, which is then returned.</p>
+     *
+     * @param servers    list of available backend servers
+     * @param routingKey the key extracted from the request, or {@code null} if there is none
+     * @param filter     accepts the servers the request may go to
+     * @return the selected backend server
+     * @throws LoadBalancerException if the list is empty or the filter rejects every server
+     */
+    default BackendServer select(List<BackendServer> servers, String routingKey, Predicate<BackendServer> filter)
+            throws LoadBalancerException {
+        BackendServer selected = select(servers, routingKey);
+        if (filter.test(selected)) {
+            return selected;
+        }
+        int size = servers.size();
+        for (int i = 0; i < Math.min(size - 1, 2); i++) {
+            BackendServer candidate = select(servers, routingKey);
+            if (!candidate.equals(selected) && filter.test(candidate)) {
+                return candidate;
+            }
+        }
+        int start = ThreadLocalRandom.current().nextInt(size);
+        for (int i = 0; i < size; i++) {
+            BackendServer candidate = servers.get((start + i) % size);
+            if (filter.test(candidate)) {
+                return candidate;
+            }
+        }
+        throw new LoadBalancerException("No backend server has capacity");
+    }
+
+    /**
+     * Notifies the strategy that the set of active servers has changed, allowing it to rebuild
+     * derived state ahead of the next selection. Called off the request path.
+     *
+     * @param servers the new list of active backend servers
+     */
+    default void onServersChanged(List<BackendServer> servers) {
+    }
 }
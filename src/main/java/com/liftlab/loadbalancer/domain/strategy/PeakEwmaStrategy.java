@@ -0,0 +1,120 @@
+package com.liftlab.loadbalancer.domain.strategy;
+
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Load balancing strategy that applies "power of two choices" to a peak EWMA latency score.
+ *
+ * <p>Two distinct backend servers are sampled at random and the one with the lower
+ * {@link com.liftlab.loadbalancer.domain.stats.BackendStats#cost() cost} wins. Selection is
+ * O(1) and allocation-free regardless of the number of servers.</p>
+ *
+ * <p>With a filter, rejected servers are left out of later samples, so an idle server whose cost has
+ * decayed towards zero, such as one whose circuit is open, does not hand the choice to a random one.</p>
+ */
+public final class PeakEwmaStrategy implements LoadBalancingStrategy {
+
+    private final BackendStatsRegistry statsRegistry;
+
+    /**
+     * Constructor.
+     *
+     * @param statsRegistry the registry holding the latency and in-flight statistics of each backend
+     */
+    public PeakEwmaStrategy(BackendStatsRegistry statsRegistry) {
+        this.statsRegistry = statsRegistry;
+    }
+
+    /**
+     * Selects the cheaper of two randomly sampled backend servers.
+     *
+     * @param servers list of available backend servers
+     * @return the selected backend server
+     * @throws LoadBalancerException if the list is empty
+     */
+    @Override
+    public BackendServer select(List<BackendServer> servers) throws LoadBalancerException {
+        if (servers == null || servers.isEmpty()) {
+            throw new LoadBalancerException("No backend servers available");
+        }
+        return servers.get(choose(servers));
+    }
+
+    /**
+     * Selects the cheaper of two randomly sampled backend servers the filter accepts. A rejected server is
+     * excluded and two servers are sampled again from the rest.
+     *
+     * @param servers    list of available backend servers
+     * @param routingKey ignored
+     * @param filter     accepts the servers the request may go to
+     * @return the selected backend server
+     * @throws LoadBalancerException if the list is empty or the filter rejects every server
+     */
+    @Override
+    public BackendServer select(List<BackendServer> servers, String routingKey, Predicate<BackendServer> filter)
+            throws LoadBalancerException {
+        if (servers == null || servers.isEmpty()) {
+            throw new LoadBalancerException("No backend servers available");
+        }
+        int selected = choose(servers);
+        if (filter.test(servers.get(selected))) {
+            return servers.get(selected);
+        }
+        int size = servers.size();
+        boolean[] rejected = new boolean[size];
+        rejected[selected] = true;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int remaining = size - 1; remaining > 0; remaining--) {
+            int chosen = sample(random, rejected, -1);
+            if (remaining > 1) {
+                chosen = cheaper(servers, chosen, sample(random, rejected, chosen));
+            }
+            BackendServer candidate = servers.get(chosen);
+            if (filter.test(candidate)) {
+                return candidate;
+            }
+            rejected[chosen] = true;
+        }
+        throw new LoadBalancerException("No backend server has capacity");
+    }
+
+    private int choose(List<BackendServer> servers) {
+        int size = servers.size();
+        if (size == 1) {
+            return 0;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        return cheaper(servers, first, second);
+    }
+
+    private int cheaper(List<BackendServer> servers, int first, int second) {
+        return statsRegistry.statsFor(servers.get(second)).cost() < statsRegistry.statsFor(servers.get(first)).cost()
+                ? second : first;
+    }
+
+    /**
+     * Returns a random index that is neither rejected nor excluded, probing forward from a random start;
+     * such an index must exist.
+     */
+    private static int sample(ThreadLocalRandom random, boolean[] rejected, int excluded) {
+        int size = rejected.length;
+        int start = random.nextInt(size);
+        for (int i = 0; ; i++) {
+            int index = (start + i) % size;
+            if (!rejected[index] && index != excluded) {
+                return index;
+            }
+        }
+    }
+}
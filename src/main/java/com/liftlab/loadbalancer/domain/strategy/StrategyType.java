@@ -0,0 +1,60 @@
+package com.liftlab.loadbalancer.domain.strategy;
+
+import java.util.Locale;
+
+/**
+ * Enumerates the available load balancing strategies.
+ * Bound from configuration using kebab-case names, for example {@code least-connections}.
+ */
+public enum StrategyType {
+    ROUND_ROBIN,
+    RANDOM,
+    LEAST_CONNECTIONS,
+    PEAK_EWMA,
+    WEIGHTED_ROUND_ROBIN,
+    CONSISTENT_HASH;
+
+    private final String id = name().toLowerCase(Locale.ROOT).replace('_', '-');
+
+    /**
+     * Returns the kebab-case name used in configuration and metrics, for example {@code least-connections}.
+     *
+     * @return the strategy id
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Returns the type with the given kebab-case name.
+     *
+     * @param id the strategy id, for example {@code least-connections}
+     * @return the strategy type
+     * @throws IllegalArgumentException if no strategy has that id
+     */
+    public static StrategyType fromId(String id) {
+        for (StrategyType type : values()) {
+            if (type.id.equals(id)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown load balancing strategy: " + id);
+    }
+
+    /**
+     * Returns the type of the given strategy.
+     *
+     * @param strategy the strategy
+     * @return its type
+     */
+    public static StrategyType of(LoadBalancingStrategy strategy) {
+        return switch (strategy) {
+            case RoundRobinStrategy ignored -> ROUND_ROBIN;
+            case RandomStrategy ignored -> RANDOM;
+            case LeastConnectionsStrategy ignored -> LEAST_CONNECTIONS;
+            case PeakEwmaStrategy ignored -> PEAK_EWMA;
+            case WeightedRoundRobinStrategy ignored -> WEIGHTED_ROUND_ROBIN;
+            case ConsistentHashStrategy ignored -> CONSISTENT_HASH;
+        };
+    }
+}
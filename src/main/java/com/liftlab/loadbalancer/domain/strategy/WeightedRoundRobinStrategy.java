@@ -0,0 +1,171 @@
+package com.liftlab.loadbalancer.domain.strategy;
+
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load balancing strategy implementing nginx-style smooth weighted round robin.
+ *
+ * <p>Instead of running the smooth algorithm under a lock on every request, one full period of
+ * picks is precomputed into an immutable schedule from {@link #onServersChanged(List)}, off the
+ * request path, and requests then walk that schedule with an atomic counter. Since the repository
+ * publishes a new list instance on every change, including weight updates, a reference comparison
+ * is enough to detect that the schedule is stale; until the schedule for a new list is built,
+ * requests pick from that list at random in proportion to the weights.</p>
+ *
+ * <p>Weights are divided by their greatest common divisor, and when a period would still be longer
+ * than {@link #MAX_SEQUENCE_LENGTH} picks, the strategy falls back to weighted random selection,
+ * which keeps the same long-run traffic shares.</p>
+ */
+public final class WeightedRoundRobinStrategy implements LoadBalancingStrategy {
+
+    /**
+     * Upper bound on the work spent precomputing a schedule, measured as period length times server count.
+     */
+    static final long MAX_SCHEDULE_COST = 50_000_000L;
+
+    /**
+     * Upper bound on the number of picks in a precomputed period, bounding the schedule's memory.
+     */
+    static final int MAX_SEQUENCE_LENGTH = 1 << 16;
+
+    private final AtomicInteger index = new AtomicInteger(0);
+    private volatile Schedule schedule = Schedule.EMPTY;
+
+    /**
+     * Selects the next backend server of the smooth weighted round-robin schedule.
+     *
+     * @param servers list of available backend servers
+     * @return the selected backend server
+     * @throws LoadBalancerException if the list is empty
+     */
+    @Override
+    public BackendServer select(List<BackendServer> servers) throws LoadBalancerException {
+        if (servers == null || servers.isEmpty()) {
+            throw new LoadBalancerException("No backend servers available");
+        }
+        Schedule current = schedule;
+        if (current.source != servers) {
+            return weightedRandom(servers);
+        }
+        return current.next(index);
+    }
+
+    /**
+     * Builds the schedule for the new server list, off the request path.
+     *
+     * @param servers the new list of active backend servers
+     */
+    @Override
+    public void onServersChanged(List<BackendServer> servers) {
+        if (schedule.source != servers && !servers.isEmpty()) {
+            schedule = Schedule.build(servers);
+        }
+    }
+
+    /**
+     * Picks a server at random in proportion to the weights, for lists without a schedule.
+     */
+    private static BackendServer weightedRandom(List<BackendServer> servers) {
+        long total = 0;
+        for (int i = 0; i < servers.size(); i++) {
+            total += Math.max(servers.get(i).weight(), 1);
+        }
+        long target = ThreadLocalRandom.current().nextLong(total);
+        for (int i = 0; i < servers.size(); i++) {
+            target -= Math.max(servers.get(i).weight(), 1);
+            if (target < 0) {
+                return servers.get(i);
+            }
+        }
+        return servers.get(servers.size() - 1);
+    }
+
+    /**
+     * Immutable selection plan derived from one server list.
+     */
+    private static final class Schedule {
+
+        static final Schedule EMPTY = new Schedule(List.of(), new BackendServer[0], null, 0);
+
+        final List<BackendServer> source;
+        /** One full period of smooth picks, or {@code null} when using the weighted random fallback. */
+        final BackendServer[] sequence;
+        /** Cumulative weights for the weighted random fallback. */
+        final long[] cumulativeWeights;
+        final long totalWeight;
+
+        private Schedule(List<BackendServer> source, BackendServer[] sequence, long[] cumulativeWeights,
+                         long totalWeight) {
+            this.source = source;
+            this.sequence = sequence;
+            this.cumulativeWeights = cumulativeWeights;
+            this.totalWeight = totalWeight;
+        }
+
+        static Schedule build(List<BackendServer> servers) {
+            int size = servers.size();
+            int[] weights = new int[size];
+            int divisor = 0;
+            for (int i = 0; i < size; i++) {
+                weights[i] = Math.max(servers.get(i).weight(), 1);
+                divisor = gcd(divisor, weights[i]);
+            }
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                weights[i] /= divisor;
+                total += weights[i];
+            }
+            if (total == size) {
+                // All weights are equal, so the smooth schedule is the list order itself.
+                return new Schedule(servers, servers.toArray(new BackendServer[0]), null, total);
+            }
+            if (total > MAX_SEQUENCE_LENGTH || total * size > MAX_SCHEDULE_COST) {
+                long[] cumulative = new long[size];
+                long running = 0;
+                for (int i = 0; i < size; i++) {
+                    running += weights[i];
+                    cumulative[i] = running;
+                }
+                return new Schedule(servers, null, cumulative, total);
+            }
+            BackendServer[] sequence = new BackendServer[(int) total];
+            long[] currentWeights = new long[size];
+            for (int pick = 0; pick < sequence.length; pick++) {
+                int best = 0;
+                for (int i = 0; i < size; i++) {
+                    currentWeights[i] += weights[i];
+                    if (currentWeights[i] > currentWeights[best]) {
+                        best = i;
+                    }
+                }
+                currentWeights[best] -= total;
+                sequence[pick] = servers.get(best);
+            }
+            return new Schedule(servers, sequence, null, total);
+        }
+
+        BackendServer next(AtomicInteger index) {
+            if (sequence != null) {
+                return sequence[Math.floorMod(index.getAndIncrement(), sequence.length)];
+            }
+            long target = ThreadLocalRandom.current().nextLong(totalWeight);
+            int position = Arrays.binarySearch(cumulativeWeights, target + 1);
+            return source.get(position >= 0 ? position : -position - 1);
+        }
+
+        private static int gcd(int a, int b) {
+            while (b != 0) {
+                int t = a % b;
+                a = b;
+                b = t;
+            }
+            return a;
+        }
+    }
+}
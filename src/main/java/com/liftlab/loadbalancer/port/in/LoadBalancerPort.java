@@ -1,5 +1,8 @@
 package com.liftlab.loadbalancer.port.in;
 
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import com.liftlab.loadbalancer.domain.model.ProxyResponse;
+
 /**
  * Inbound port interface for handling client requests.
  */
@@ -8,8 +11,9 @@ public interface LoadBalancerPort {
     /**
      * Handles an incoming client request.
      *
-     * @param request the client request payload
-     * @return a response message
+     * @param request    the client request
+     * @param routingKey the routing key extracted from the request, or {@code null} if there is none
+     * @return the response to relay to the client
      */
-    String handleRequest(String request);
+    ProxyResponse handleRequest(ProxyRequest request, String routingKey);
 }
@@ -0,0 +1,23 @@
+package com.liftlab.loadbalancer.port.out;
+
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import com.liftlab.loadbalancer.domain.model.ProxyResponse;
+
+import java.io.IOException;
+
+/**
+ * Outbound port interface for sending requests to backend servers.
+ */
+public interface BackendClientPort {
+
+    /**
+     * Sends the request to the backend server and returns its response.
+     *
+     * @param server  the backend server to send the request to
+     * @param request the request to send
+     * @return the response of the backend server
+     * @throws IOException if the backend cannot be reached or does not answer in time
+     */
+    ProxyResponse send(BackendServer server, ProxyRequest request) throws IOException;
+}
@@ -1,5 +1,8 @@
 package com.liftlab.loadbalancer.port.out;
 
+import com.liftlab.loadbalancer.domain.model.RequestEvent;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+
 /**
  * Outbound port interface for reporting and monitoring operations.
  */
@@ -11,4 +14,28 @@ public interface MonitoringPort {
      * @param message the message to report
      */
     void report(String message);
+
+    /**
+     * Records the outcome of a forwarded request. Called on the request path, so implementations
+     * must not block. By default the event is reported as a formatted message.
+     *
+     * @param event the request outcome
+     */
+    default void recordRequest(RequestEvent event) {
+        report(event.describe());
+    }
+
+    /**
+     * Records a request a backend answered. Called for every forwarded request, so implementations that
+     * only aggregate the values should override it to record them without creating an event. By default
+     * the values are passed on to {@link #recordRequest(RequestEvent)} as an event.
+     *
+     * @param strategy     the strategy that routed the request
+     * @param backendUrl   the backend that answered
+     * @param status       the backend's status
+     * @param latencyNanos time until the response headers arrived
+     */
+    default void recordForwarded(StrategyType strategy, String backendUrl, int status, long latencyNanos) {
+        recordRequest(RequestEvent.forwarded(strategy, backendUrl, status, latencyNanos));
+    }
 }
@@ -0,0 +1,320 @@
+package com.liftlab.loadbalancer.adapters.in.reactive;
+
+import com.liftlab.loadbalancer.adapters.in.rest.RoutingKeyExtractor;
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.application.factory.RoutingStrategyFactory;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreaker;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreakerRegistry;
+import com.liftlab.loadbalancer.application.resilience.ConcurrencyLimiter;
+import com.liftlab.loadbalancer.application.resilience.ConcurrencyLimiterRegistry;
+import com.liftlab.loadbalancer.application.resilience.OutlierDetector;
+import com.liftlab.loadbalancer.application.resilience.RateLimiter;
+import com.liftlab.loadbalancer.configuration.ForwardingProperties;
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.model.HopByHopHeaders;
+import com.liftlab.loadbalancer.domain.model.RequestEvent;
+import com.liftlab.loadbalancer.domain.stats.BackendStats;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import com.liftlab.loadbalancer.domain.strategy.LoadBalancingStrategy;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import com.liftlab.loadbalancer.port.out.MonitoringPort;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-blocking counterpart of the servlet {@code LoadBalancerController}, active when the application runs
+ * on WebFlux. Any method and any path below {@code /api/loadbalancer/forward} is proxied to a backend
+ * selected by the {@link RoutingStrategyFactory}, with the same rate limiting, circuit breakers,
+ * concurrency limits, outlier detection and monitoring as the servlet stack.
+ *
+ * <p>No thread is held while a request waits for its backend: the exchange is relayed by the event loops
+ * through Reactor Netty's pooled client. Both bodies are streamed as they arrive, and backpressure holds
+ * end to end: the client connection is read only as fast as the backend connection accepts writes, and
+ * the backend response only as fast as the client consumes it. Retries, hedging and response caching
+ * stay with the servlet stack.</p>
+ */
+@RestController
+@RequestMapping("/api/loadbalancer")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveLoadBalancerController {
+
+    private final RoutingStrategyFactory routingStrategyFactory;
+    private final MapBasedBackendConfigRepository backendRepository;
+    private final BackendStatsRegistry statsRegistry;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final ConcurrencyLimiterRegistry concurrencyLimiters;
+    private final OutlierDetector outlierDetector;
+    private final MonitoringPort monitoringPort;
+    private final RateLimiter rateLimiter;
+    private final HttpClient backendHttpClient;
+    private final ForwardingProperties forwardingProperties;
+    private final RoutingKeyExtractor routingKeyExtractor;
+    private final RoutingKeyExtractor clientKeyExtractor;
+
+    public ReactiveLoadBalancerController(RoutingStrategyFactory routingStrategyFactory,
+                                          MapBasedBackendConfigRepository backendRepository,
+                                          BackendStatsRegistry statsRegistry,
+                                          CircuitBreakerRegistry circuitBreakers,
+                                          ConcurrencyLimiterRegistry concurrencyLimiters,
+                                          OutlierDetector outlierDetector,
+                                          MonitoringPort monitoringPort,
+                                          RateLimiter rateLimiter,
+                                          HttpClient backendHttpClient,
+                                          ForwardingProperties forwardingProperties,
+                                          @Value("${loadbalancer.routing.key:}") String routingKey,
+                                          @Value("${loadbalancer.rate-limit.client-key:}") String clientKey) {
+        this.routingStrategyFactory = routingStrategyFactory;
+        this.backendRepository = backendRepository;
+        this.statsRegistry = statsRegistry;
+        this.circuitBreakers = circuitBreakers;
+        this.concurrencyLimiters = concurrencyLimiters;
+        this.outlierDetector = outlierDetector;
+        this.monitoringPort = monitoringPort;
+        this.rateLimiter = rateLimiter;
+        this.backendHttpClient = backendHttpClient;
+        this.forwardingProperties = forwardingProperties;
+        this.routingKeyExtractor = RoutingKeyExtractor.parse(routingKey);
+        this.clientKeyExtractor = RoutingKeyExtractor.parse(clientKey);
+    }
+
+    /**
+     * Endpoint to forward a request to a backend server.
+     *
+     * @param exchange the exchange, providing the request and the response the backend response is
+     *                 streamed to
+     * @return completes once the backend response has been relayed
+     */
+    @RequestMapping({"/forward", "/forward/**"})
+    public Mono<Void> forward(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        String path = request.getPath().pathWithinApplication().value();
+        String query = request.getURI().getRawQuery();
+        if (!rateLimiter.tryAcquire(clientKey(request, path, query))) {
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(rateLimiter.retryAfterSeconds()));
+            return respond(response, 429, "Rate limit exceeded");
+        }
+        String backendPath = path.substring(RoutingKeyExtractor.FORWARD_PATH.length());
+        LoadBalancingStrategy strategy = routingStrategyFactory.getStrategy(backendPath.isEmpty() ? "/" : backendPath);
+        StrategyType strategyType = StrategyType.of(strategy);
+        BackendServer server;
+        try {
+            server = selectServer(strategy, routingKeyExtractor.extract(request.getHeaders()::getFirst, query, path));
+        } catch (LoadBalancerException e) {
+            RequestEvent event = RequestEvent.failed(strategyType, null, 503, e.getMessage());
+            monitoringPort.recordRequest(event);
+            return respond(response, 503, event.describe());
+        }
+        String uri = server.url() + (backendPath.isEmpty() ? "/" : backendPath) + (query != null ? "?" + query : "");
+        return new Attempt(server, strategyType).relay(request, response, uri);
+    }
+
+    private String clientKey(ServerHttpRequest request, String path, String query) {
+        String clientKey = clientKeyExtractor.extract(request.getHeaders()::getFirst, query, path);
+        if (clientKey != null) {
+            return clientKey;
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress != null ? remoteAddress.getHostString() : "";
+    }
+
+    /**
+     * Selects a backend the way the servlet stack does: among the active backends whose circuit is not
+     * open, skipping any that does not admit the request.
+     */
+    private BackendServer selectServer(LoadBalancingStrategy strategy, String routingKey)
+            throws LoadBalancerException {
+        List<BackendServer> servers = backendRepository.getActiveServers();
+        return strategy.select(servers, routingKey, this::admits);
+    }
+
+    private boolean admits(BackendServer server) {
+        ConcurrencyLimiter limiter = concurrencyLimiters.limiterFor(server);
+        if (!limiter.tryAcquire()) {
+            return false;
+        }
+        if (circuitBreakers.circuitBreakerFor(server).tryAcquirePermission()) {
+            return true;
+        }
+        limiter.release();
+        return false;
+    }
+
+    private static Mono<Void> respond(ServerHttpResponse response, int status, String message) {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        response.setStatusCode(HttpStatusCode.valueOf(status));
+        response.getHeaders().setContentType(MediaType.parseMediaType("text/plain;charset=UTF-8"));
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * A request without {@code Content-Length} or {@code Transfer-Encoding} has no body (RFC 9112), which
+     * is sent as an explicit empty body rather than as an empty chunked one.
+     */
+    private static long requestContentLength(HttpHeaders headers) {
+        long contentLength = headers.getContentLength();
+        return contentLength < 0 && !headers.containsKey(HttpHeaders.TRANSFER_ENCODING) ? 0 : contentLength;
+    }
+
+    /**
+     * Hands a buffer read from the backend to the response. On Reactor Netty the buffer is passed on
+     * without a copy and released once written; other servers get a copy.
+     */
+    private static DataBuffer toDataBuffer(DataBufferFactory bufferFactory, ByteBuf buffer) {
+        if (bufferFactory instanceof NettyDataBufferFactory nettyBufferFactory) {
+            return nettyBufferFactory.wrap(buffer);
+        }
+        try {
+            return bufferFactory.wrap(ByteBufUtil.getBytes(buffer));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * One exchange with one backend. As on the servlet stack, the request is tracked as in-flight and holds
+     * a slot of the backend's concurrency limit until its response body has been relayed, and its outcome is
+     * reported to the outlier detector, the circuit breaker and monitoring once the response headers arrive
+     * or the exchange fails. An exchange the client abandons before that only hands back its circuit
+     * breaker permission and its slot, as it says nothing about the backend.
+     */
+    private final class Attempt {
+
+        private final BackendServer server;
+        private final StrategyType strategyType;
+        private final BackendStats stats;
+        private final CircuitBreaker circuitBreaker;
+        private final ConcurrencyLimiter limiter;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private long startNanos;
+        private volatile long latencyNanos = -1;
+
+        Attempt(BackendServer server, StrategyType strategyType) {
+            this.server = server;
+            this.strategyType = strategyType;
+            this.stats = statsRegistry.statsFor(server);
+            this.circuitBreaker = circuitBreakers.circuitBreakerFor(server);
+            this.limiter = concurrencyLimiters.limiterFor(server);
+        }
+
+        Mono<Void> relay(ServerHttpRequest request, ServerHttpResponse response, String uri) {
+            startNanos = System.nanoTime();
+            stats.requestStarted();
+            long contentLength = requestContentLength(request.getHeaders());
+            return backendHttpClient
+                    .headers(headers -> {
+                        request.getHeaders().forEach((name, values) -> {
+                            if (!HopByHopHeaders.isHopByHop(name)) {
+                                headers.add(name, values);
+                            }
+                        });
+                        if (contentLength >= 0) {
+                            headers.set(HttpHeaders.CONTENT_LENGTH, contentLength);
+                        }
+                    })
+                    .responseTimeout(forwardingProperties.readTimeoutFor(server.url()))
+                    .request(HttpMethod.valueOf(request.getMethod().name()))
+                    .uri(uri)
+                    .send((backendRequest, outbound) -> contentLength == 0 ? outbound
+                            : outbound.send(request.getBody().map(NettyDataBufferFactory::toByteBuf)))
+                    .response((backendResponse, body) -> onResponse(backendResponse, body, response))
+                    .then()
+                    .onErrorResume(e -> onFailure(e, response))
+                    .doOnCancel(this::onCancelled);
+        }
+
+        private Mono<Void> onResponse(HttpClientResponse backendResponse, ByteBufFlux body,
+                                      ServerHttpResponse response) {
+            long latency = System.nanoTime() - startNanos;
+            latencyNanos = latency;
+            int status = backendResponse.status().code();
+            outlierDetector.recordResponse(server, status);
+            circuitBreaker.onResult(latency, status >= 500);
+            monitoringPort.recordForwarded(strategyType, server.url(), status, latency);
+
+            response.setStatusCode(HttpStatusCode.valueOf(status));
+            HttpHeaders headers = response.getHeaders();
+            backendResponse.responseHeaders().forEach(header -> {
+                if (!HopByHopHeaders.isHopByHop(header.getKey())) {
+                    headers.add(header.getKey(), header.getValue());
+                }
+            });
+            String contentLength = backendResponse.responseHeaders().get(HttpHeaders.CONTENT_LENGTH);
+            if (contentLength != null) {
+                headers.setContentLength(Long.parseLong(contentLength));
+            }
+            DataBufferFactory bufferFactory = response.bufferFactory();
+            Runnable sample = () -> limiter.onSample(latency, status == 429 || status == 503);
+            // The exchange completes when the backend's body ends, not when the client has taken all of it.
+            return response.writeWith(body.retain()
+                            .doOnComplete(() -> finish(sample))
+                            .map(buffer -> toDataBuffer(bufferFactory, buffer)))
+                    .doFinally(signal -> finish(sample));
+        }
+
+        /**
+         * A failure once the response is under way can only abort it; a failure before is answered with a
+         * 502, or a 504 if the backend did not respond in time.
+         */
+        private Mono<Void> onFailure(Throwable failure, ServerHttpResponse response) {
+            if (latencyNanos >= 0 || response.isCommitted()) {
+                return Mono.error(failure);
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            IOException cause = failure instanceof IOException e ? e : new IOException(failure.getMessage(), failure);
+            int status = failure instanceof ReadTimeoutException ? 504 : 502;
+            RequestEvent event = RequestEvent.failed(strategyType, server.url(), status,
+                    failure.getClass().getSimpleName() + " - " + failure.getMessage());
+            finish(() -> {
+                outlierDetector.recordFailure(server, cause);
+                circuitBreaker.onResult(elapsedNanos, true);
+                limiter.onSample(elapsedNanos, true);
+                monitoringPort.recordRequest(event);
+            });
+            return respond(response, status, event.describe());
+        }
+
+        private void onCancelled() {
+            finish(() -> {
+                if (latencyNanos < 0) {
+                    circuitBreaker.onCancelled();
+                }
+                limiter.release();
+            });
+        }
+
+        private void finish(Runnable outcome) {
+            if (finished.compareAndSet(false, true)) {
+                outcome.run();
+                stats.requestCompleted(System.nanoTime() - startNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.liftlab.loadbalancer.configuration;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Beans of the reactive front end, present when the application runs as a reactive web application.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(ReactiveProperties.class)
+public class ReactiveConfig {
+
+    /**
+     * Tomcat stays on the classpath in the reactive build and would be preferred by auto-configuration,
+     * so Reactor Netty is chosen explicitly.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+            ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+        return factory;
+    }
+
+    /**
+     * The connection pool to the backends. Reactor Netty keeps a separate pool per remote address, so the
+     * limits apply to each backend.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider backendConnectionProvider(ReactiveProperties reactiveProperties) {
+        return ConnectionProvider.builder("backends")
+                .maxConnections(reactiveProperties.maxConnections())
+                .pendingAcquireMaxCount(reactiveProperties.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(reactiveProperties.pendingAcquireTimeout())
+                .maxIdleTime(reactiveProperties.maxIdleTime())
+                .build();
+    }
+
+    @Bean
+    public HttpClient backendHttpClient(ConnectionProvider backendConnectionProvider,
+                                        ForwardingProperties forwardingProperties) {
+        return HttpClient.create(backendConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) forwardingProperties.connectTimeout().toMillis());
+    }
+}
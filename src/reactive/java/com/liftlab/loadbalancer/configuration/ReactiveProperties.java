@@ -0,0 +1,31 @@
+package com.liftlab.loadbalancer.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the reactive front end, bound from {@code loadbalancer.reactive.*}. Only used by the
+ * {@code reactive} build; timeouts are taken from {@code loadbalancer.forwarding.*} as on the servlet stack.
+ *
+ * @param maxConnections         the maximum number of connections to each backend
+ * @param pendingAcquireMaxCount the maximum number of requests waiting for a connection to a backend
+ * @param pendingAcquireTimeout  how long a request waits for a connection before failing
+ * @param maxIdleTime            how long an unused connection to a backend is kept open
+ */
+@ConfigurationProperties("loadbalancer.reactive")
+public record ReactiveProperties(@DefaultValue("2000") int maxConnections,
+                                 @DefaultValue("4000") int pendingAcquireMaxCount,
+                                 @DefaultValue("5s") Duration pendingAcquireTimeout,
+                                 @DefaultValue("30s") Duration maxIdleTime) {
+
+    /**
+     * Returns the default reactive front end settings.
+     *
+     * @return the defaults
+     */
+    public static ReactiveProperties defaults() {
+        return new ReactiveProperties(2000, 4000, Duration.ofSeconds(5), Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,128 @@
+package com.liftlab.loadbalancer.adapters.in.reactive;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.application.factory.RoutingStrategyFactory;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreakerRegistry;
+import com.liftlab.loadbalancer.application.resilience.ConcurrencyLimiterRegistry;
+import com.liftlab.loadbalancer.application.resilience.OutlierDetector;
+import com.liftlab.loadbalancer.application.resilience.RateLimiter;
+import com.liftlab.loadbalancer.configuration.ForwardingProperties;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import com.liftlab.loadbalancer.domain.strategy.RoundRobinStrategy;
+import com.liftlab.loadbalancer.port.out.MonitoringPort;
+import com.liftlab.loadbalancer.support.StubBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for ReactiveLoadBalancerController relaying exchanges through the pooled Reactor Netty client.
+ * The controller is served by Reactor Netty rather than bound to a mock server, whose response write
+ * completes before the body is consumed.
+ */
+class ReactiveLoadBalancerControllerTest {
+
+    private final MapBasedBackendConfigRepository repository = new MapBasedBackendConfigRepository();
+    private final BackendStatsRegistry statsRegistry = new BackendStatsRegistry();
+    private ConnectionProvider connectionProvider;
+    private AnnotationConfigApplicationContext context;
+    private DisposableServer server;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setup() {
+        connectionProvider = ConnectionProvider.create("test-backends", 4);
+        ReactiveLoadBalancerController controller = new ReactiveLoadBalancerController(
+                new RoutingStrategyFactory(new RoundRobinStrategy(), statsRegistry), repository, statsRegistry,
+                CircuitBreakerRegistry.disabled(), ConcurrencyLimiterRegistry.disabled(), OutlierDetector.disabled(),
+                mock(MonitoringPort.class), RateLimiter.disabled(), HttpClient.create(connectionProvider),
+                ForwardingProperties.defaults(), "", "");
+        context = new AnnotationConfigApplicationContext();
+        context.register(WebFluxConfig.class);
+        context.getBeanFactory().registerSingleton("reactiveLoadBalancerController", controller);
+        context.refresh();
+        server = HttpServer.create().port(0)
+                .handle(new ReactorHttpHandlerAdapter(WebHttpHandlerBuilder.applicationContext(context).build()))
+                .bindNow();
+        client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + server.port())
+                .responseTimeout(Duration.ofSeconds(10))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+        context.close();
+        connectionProvider.dispose();
+    }
+
+    @Test
+    void testBodiesAreStreamedThroughBackend() throws Exception {
+        byte[] payload = new byte[512 * 1024];
+        new Random(7).nextBytes(payload);
+        try (StubBackend backend = StubBackend.start("echo", exchange -> {
+            exchange.getResponseHeaders().add("X-Path", exchange.getRequestURI().toString());
+            exchange.sendResponseHeaders(200, 0);
+            try (InputStream in = exchange.getRequestBody(); OutputStream out = exchange.getResponseBody()) {
+                in.transferTo(out);
+            }
+        })) {
+            repository.registerBackend(new BackendServer(backend.url()));
+
+            byte[] echoed = client.post().uri("/api/loadbalancer/forward/echo?q=1")
+                    .bodyValue(payload)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().valueEquals("X-Path", "/echo?q=1")
+                    .expectBody(byte[].class).returnResult().getResponseBody();
+
+            assertThat(echoed).isEqualTo(payload);
+            assertThat(statsRegistry.statsFor(new BackendServer(backend.url())).inFlight()).isZero();
+        }
+    }
+
+    @Test
+    void testUnavailableBackendsAreReported() throws Exception {
+        client.get().uri("/api/loadbalancer/forward/any")
+                .exchange()
+                .expectStatus().isEqualTo(503);
+
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        BackendServer down = new BackendServer("http://localhost:" + closedPort);
+        repository.registerBackend(down);
+        client.get().uri("/api/loadbalancer/forward/any")
+                .exchange()
+                .expectStatus().isEqualTo(502);
+        assertThat(statsRegistry.statsFor(down).inFlight()).isZero();
+    }
+
+    @Configuration
+    @EnableWebFlux
+    static class WebFluxConfig {
+    }
+}
@@ -8,13 +8,15 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(BackendManagementController.class)
+@WebMvcTest({BackendManagementController.class, BackendStatusController.class})
 @Import(BackendManagementControllerTest.TestConfig.class)
 class BackendManagementControllerTest {
 
@@ -41,6 +43,31 @@ class BackendManagementControllerTest {
         assertThat(backendRepository.getActiveServers()).contains(new BackendServer(url));
     }
 
+    @Test
+    void testAddWeightedBackendAndUpdateWeight() throws Exception {
+        String url = "http://weighted.liftlab.com";
+        mockMvc.perform(post("/api/loadbalancer/backend").param("url", url).param("weight", "4"))
+                .andExpect(status().isOk());
+        assertThat(backendRepository.getActiveServers()).contains(new BackendServer(url, 4));
+
+        mockMvc.perform(put("/api/loadbalancer/backend").param("url", url).param("weight", "8"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Backend server weight updated: " + url + " -> 8"));
+        assertThat(backendRepository.getActiveServers()).contains(new BackendServer(url, 8));
+
+        mockMvc.perform(put("/api/loadbalancer/backend").param("url", url).param("weight", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUpdateWeightOfUnregisteredBackendIsNotFound() throws Exception {
+        String url = "http://unknown.liftlab.com";
+        mockMvc.perform(put("/api/loadbalancer/backend").param("url", url).param("weight", "3"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Error updating backend: not registered: " + url));
+        assertThat(backendRepository.getSnapshot().registeredUrls()).doesNotContain(url);
+    }
+
     @Test
     void testRemoveBackend() throws Exception {
         String url = "http://remove.liftlab.com";
@@ -50,4 +77,46 @@ class BackendManagementControllerTest {
                 .andExpect(content().string("Backend server removed: " + url));
         assertThat(backendRepository.getActiveServers()).doesNotContain(new BackendServer(url));
     }
+
+    @Test
+    void testApplyBatchWithIfMatch() throws Exception {
+        String url = "http://batch.liftlab.com";
+        backendRepository.registerBackend(new BackendServer(url));
+        long version = backendRepository.getSnapshot().version();
+        String batch = "{\"add\": [{\"url\": \"http://batch2.liftlab.com\", \"weight\": 2}],"
+                + " \"drain\": [\"" + url + "\"]}";
+
+        mockMvc.perform(post("/api/loadbalancer/backend/batch").contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"" + version + "\"").content(batch))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""))
+                .andExpect(content().string("Backend batch applied: version " + (version + 1)));
+        assertThat(backendRepository.getActiveServers()).contains(new BackendServer("http://batch2.liftlab.com", 2));
+        assertThat(backendRepository.getSnapshot().drainingServers()).contains(new BackendServer(url));
+
+        mockMvc.perform(post("/api/loadbalancer/backend/batch").contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"" + version + "\"").content(batch))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(post("/api/loadbalancer/backend/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"drain\": [\"http://unknown.liftlab.com\"]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStatusIsNotModifiedWhileVersionIsUnchanged() throws Exception {
+        backendRepository.registerBackend(new BackendServer("http://status.liftlab.com"));
+        String eTag = "\"" + backendRepository.getSnapshot().version() + "\"";
+
+        mockMvc.perform(get("/api/loadbalancer/backend/status"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(jsonPath("$.activeServers[?(@.url == 'http://status.liftlab.com')]").exists());
+        mockMvc.perform(get("/api/loadbalancer/backend/status").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        backendRepository.removeBackend(new BackendServer("http://status.liftlab.com"));
+        mockMvc.perform(get("/api/loadbalancer/backend/status").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
 }
@@ -1,7 +1,12 @@
 package com.liftlab.loadbalancer.adapters.in.rest;
 
+import com.liftlab.loadbalancer.application.resilience.RateLimiter;
 import com.liftlab.loadbalancer.application.service.LoadBalancerService;
+import com.liftlab.loadbalancer.configuration.RateLimitProperties;
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import com.liftlab.loadbalancer.domain.model.ProxyResponse;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -9,15 +14,26 @@ import org.springframework.context.annotation.Import;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
  * Test class for LoadBalancerController.
- * Verifies that the controller delegates to LoadBalancerService and returns the expected response.
+ * Verifies that the controller delegates to LoadBalancerService and relays the backend response.
  */
-@WebMvcTest(LoadBalancerController.class)
+@WebMvcTest(controllers = LoadBalancerController.class,
+        properties = "loadbalancer.rate-limit.client-key=header:X-Client-Id")
 @Import(LoadBalancerControllerTest.TestConfig.class)
 public class LoadBalancerControllerTest {
 
@@ -34,20 +50,74 @@ public class LoadBalancerControllerTest {
             // Return a mock LoadBalancerService for testing the controller.
             return mock(LoadBalancerService.class);
         }
+
+        @Bean
+        public RateLimiter rateLimiter() {
+            // A burst of three requests per client, refilled far too slowly to matter during the test.
+            return new RateLimiter(new RateLimitProperties(true, 0.001, 3, 16));
+        }
     }
 
     @Test
     public void testForwardRequest() throws Exception {
         String requestPayload = "Sample Request";
-        String expectedResponse = "Request forwarded to http://backend1.liftlab.com";
+        String expectedResponse = "Response from http://backend1.liftlab.com";
 
-        // Stub the forwardRequest method to return the expected response.
-        when(loadBalancerService.forwardRequest(requestPayload)).thenReturn(expectedResponse);
+        // Stub the forwardRequest method to consume the streamed body and return the backend response.
+        AtomicReference<String> forwardedBody = new AtomicReference<>();
+        when(loadBalancerService.forwardRequest(any(ProxyRequest.class), isNull())).thenAnswer(invocation -> {
+            ProxyRequest request = invocation.getArgument(0);
+            forwardedBody.set(new String(request.body().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] body = expectedResponse.getBytes(StandardCharsets.UTF_8);
+            return new ProxyResponse(201, Map.of("X-Backend", List.of("backend1")),
+                    new ByteArrayInputStream(body), body.length);
+        });
 
         // Perform a POST request to the /api/loadbalancer/forward endpoint.
-        mockMvc.perform(post("/api/loadbalancer/forward")
+        mockMvc.perform(post("/api/loadbalancer/forward/orders?page=2")
                         .content(requestPayload))
-                .andExpect(status().isOk())
+                .andExpect(status().isCreated())
+                .andExpect(header().string("X-Backend", "backend1"))
+                .andExpect(header().longValue("Content-Length", expectedResponse.length()))
                 .andExpect(content().string(expectedResponse));
+
+        // The backend path, query and body are taken from the incoming request.
+        ArgumentCaptor<ProxyRequest> captor = ArgumentCaptor.forClass(ProxyRequest.class);
+        verify(loadBalancerService).forwardRequest(captor.capture(), isNull());
+        ProxyRequest forwarded = captor.getValue();
+        assertThat(forwarded.method()).isEqualTo("POST");
+        assertThat(forwarded.target()).isEqualTo("/orders?page=2");
+        assertThat(forwarded.contentLength()).isEqualTo(requestPayload.length());
+        assertThat(forwardedBody.get()).isEqualTo(requestPayload);
+    }
+
+    @Test
+    public void testForwardRequestWithoutBody() throws Exception {
+        when(loadBalancerService.forwardRequest(any(ProxyRequest.class), isNull())).thenReturn(
+                ProxyResponse.error(503, "Failed to forward request: No backend servers available"));
+
+        mockMvc.perform(get("/api/loadbalancer/forward"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string("Failed to forward request: No backend servers available"));
+    }
+
+    @Test
+    public void testClientOverItsRateIsRejected() throws Exception {
+        clearInvocations(loadBalancerService);
+        when(loadBalancerService.forwardRequest(any(ProxyRequest.class), isNull())).thenAnswer(
+                invocation -> ProxyResponse.error(200, "ok"));
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/loadbalancer/forward").header("X-Client-Id", "greedy"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/loadbalancer/forward").header("X-Client-Id", "greedy"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1000"))
+                .andExpect(content().string("Rate limit exceeded"));
+        // Other clients keep their own budget.
+        mockMvc.perform(get("/api/loadbalancer/forward").header("X-Client-Id", "polite"))
+                .andExpect(status().isOk());
+        verify(loadBalancerService, times(4)).forwardRequest(any(ProxyRequest.class), isNull());
     }
 }
@@ -0,0 +1,28 @@
+package com.liftlab.loadbalancer.adapters.in.rest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingKeyExtractorTest {
+
+    @Test
+    void testExtractFromHeaderQueryAndPath() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/loadbalancer/forward/users/42/cart");
+        request.addHeader("X-Session-Id", "session-1");
+        request.setQueryString("tenant=acme&page=2");
+
+        assertEquals("session-1", RoutingKeyExtractor.parse("header:X-Session-Id").extract(request));
+        assertEquals("acme", RoutingKeyExtractor.parse("query:tenant").extract(request));
+        assertEquals("42", RoutingKeyExtractor.parse("path:1").extract(request));
+        assertNull(RoutingKeyExtractor.parse("path:5").extract(request));
+        assertNull(RoutingKeyExtractor.parse("").extract(request));
+    }
+
+    @Test
+    void testInvalidSpecificationIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RoutingKeyExtractor.parse("cookie:session"));
+        assertThrows(IllegalArgumentException.class, () -> RoutingKeyExtractor.parse("header:"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.liftlab.loadbalancer.adapters.in.rest;
+
+import com.liftlab.loadbalancer.application.factory.RoutingStrategyFactory;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import com.liftlab.loadbalancer.domain.strategy.ConsistentHashStrategy;
+import com.liftlab.loadbalancer.domain.strategy.LeastConnectionsStrategy;
+import com.liftlab.loadbalancer.domain.strategy.RoundRobinStrategy;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StrategyManagementController.class)
+@Import(StrategyManagementControllerTest.TestConfig.class)
+class StrategyManagementControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RoutingStrategyFactory routingStrategyFactory;
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public RoutingStrategyFactory routingStrategyFactory() {
+            return new RoutingStrategyFactory(new RoundRobinStrategy(), new BackendStatsRegistry());
+        }
+    }
+
+    @Test
+    void testSwitchDefaultStrategyAndRollBack() throws Exception {
+        mockMvc.perform(put("/api/loadbalancer/strategy").param("strategy", "least-connections"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Default strategy switched: round-robin -> least-connections"));
+        assertThat(routingStrategyFactory.getStrategy()).isInstanceOf(LeastConnectionsStrategy.class);
+
+        mockMvc.perform(put("/api/loadbalancer/strategy").param("strategy", "round-robin"))
+                .andExpect(status().isOk());
+        assertThat(routingStrategyFactory.getDefaultStrategyType()).isEqualTo(StrategyType.ROUND_ROBIN);
+
+        mockMvc.perform(put("/api/loadbalancer/strategy").param("strategy", "fastest"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Error switching strategy: Unknown load balancing strategy: fastest"));
+    }
+
+    @Test
+    void testSetAndRemoveRouteStrategy() throws Exception {
+        mockMvc.perform(put("/api/loadbalancer/strategy/route")
+                        .param("path", "/carts").param("strategy", "consistent-hash"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Route strategy set: /carts -> consistent-hash"));
+        assertThat(routingStrategyFactory.getStrategy("/carts/7")).isInstanceOf(ConsistentHashStrategy.class);
+
+        mockMvc.perform(get("/api/loadbalancer/strategy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.defaultStrategy").value("round-robin"))
+                .andExpect(jsonPath("$.routes['/carts']").value("consistent-hash"));
+
+        mockMvc.perform(delete("/api/loadbalancer/strategy/route").param("path", "/carts"))
+                .andExpect(status().isOk());
+        assertThat(routingStrategyFactory.getStrategy("/carts/7")).isInstanceOf(RoundRobinStrategy.class);
+
+        mockMvc.perform(delete("/api/loadbalancer/strategy/route").param("path", "/carts"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/loadbalancer/strategy/route")
+                        .param("path", "carts").param("strategy", "random"))
+                .andExpect(status().isBadRequest());
+    }
+}
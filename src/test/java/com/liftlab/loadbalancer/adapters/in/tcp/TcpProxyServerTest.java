@@ -0,0 +1,145 @@
+package com.liftlab.loadbalancer.adapters.in.tcp;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.application.factory.RoutingStrategyFactory;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreaker;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreakerRegistry;
+import com.liftlab.loadbalancer.application.resilience.ConcurrencyLimiterRegistry;
+import com.liftlab.loadbalancer.application.resilience.OutlierDetector;
+import com.liftlab.loadbalancer.configuration.CircuitBreakerProperties;
+import com.liftlab.loadbalancer.configuration.TcpProxyProperties;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import com.liftlab.loadbalancer.domain.strategy.RoundRobinStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for TcpProxyServer relaying connections to an echo backend.
+ */
+class TcpProxyServerTest {
+
+    private final MapBasedBackendConfigRepository repository = new MapBasedBackendConfigRepository();
+    private ServerSocket echoServer;
+    private TcpProxyServer proxy;
+
+    @BeforeEach
+    void setup() throws IOException {
+        echoServer = new ServerSocket(0);
+        Thread.ofVirtual().start(this::echo);
+        proxy = newProxy(CircuitBreakerRegistry.disabled());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        proxy.close();
+        echoServer.close();
+    }
+
+    @Test
+    void testBytesAreRelayedBothWaysWithHalfClose() throws Exception {
+        repository.registerBackend(new BackendServer("http://localhost:" + echoServer.getLocalPort()));
+        byte[] payload = new byte[1 << 20];
+        new Random(42).nextBytes(payload);
+
+        try (Socket client = new Socket("localhost", proxy.port())) {
+            // Write and read concurrently: the payload is far larger than all buffers on the way.
+            CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+                try {
+                    OutputStream out = client.getOutputStream();
+                    out.write(payload);
+                    client.shutdownOutput();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            byte[] echoed = client.getInputStream().readAllBytes();
+            writer.join();
+
+            assertThat(Arrays.equals(echoed, payload)).isTrue();
+        }
+        assertThat(proxy.acceptedConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void testConnectionIsClosedWithoutBackend() throws Exception {
+        try (Socket client = new Socket("localhost", proxy.port())) {
+            client.setSoTimeout(5000);
+            assertThat(client.getInputStream().read()).isEqualTo(-1);
+        }
+        assertThat(proxy.openConnections()).isZero();
+    }
+
+    @Test
+    void testConnectFailuresOpenTheCircuitAndItsBackendIsSkipped() throws Exception {
+        CircuitBreakerRegistry circuitBreakers = new CircuitBreakerRegistry(new CircuitBreakerProperties(true, 4, 4,
+                50, 100, Duration.ofSeconds(1), Duration.ofMinutes(1), 1));
+        proxy.close();
+        proxy = newProxy(circuitBreakers);
+        BackendServer refusing;
+        try (ServerSocket closed = new ServerSocket(0)) {
+            refusing = new BackendServer("http://localhost:" + closed.getLocalPort());
+        }
+        repository.registerBackend(refusing);
+
+        for (int i = 0; i < 4; i++) {
+            try (Socket client = new Socket("localhost", proxy.port())) {
+                client.setSoTimeout(5000);
+                assertThat(client.getInputStream().read()).isEqualTo(-1);
+            }
+        }
+        assertThat(circuitBreakers.circuitBreakerFor(refusing).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // Round robin alternates between the two backends, but the open circuit keeps the refusing one out.
+        repository.registerBackend(new BackendServer("http://localhost:" + echoServer.getLocalPort()));
+        for (int i = 0; i < 2; i++) {
+            try (Socket client = new Socket("localhost", proxy.port())) {
+                client.setSoTimeout(5000);
+                client.getOutputStream().write("ping".getBytes(StandardCharsets.US_ASCII));
+                client.shutdownOutput();
+                InputStream in = client.getInputStream();
+                assertThat(new String(in.readAllBytes(), StandardCharsets.US_ASCII)).isEqualTo("ping");
+            }
+        }
+    }
+
+    private TcpProxyServer newProxy(CircuitBreakerRegistry circuitBreakers) {
+        BackendStatsRegistry statsRegistry = new BackendStatsRegistry();
+        return new TcpProxyServer(new TcpProxyProperties(true, "localhost", 0, 2, DataSize.ofKilobytes(4), 16,
+                Duration.ofSeconds(1)), repository, new RoutingStrategyFactory(new RoundRobinStrategy(),
+                statsRegistry), statsRegistry, OutlierDetector.disabled(), circuitBreakers,
+                ConcurrencyLimiterRegistry.disabled());
+    }
+
+    private void echo() {
+        while (!echoServer.isClosed()) {
+            try {
+                Socket socket = echoServer.accept();
+                Thread.ofVirtual().start(() -> {
+                    try (socket) {
+                        socket.getInputStream().transferTo(socket.getOutputStream());
+                    } catch (IOException e) {
+                        // The client went away.
+                    }
+                });
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+}
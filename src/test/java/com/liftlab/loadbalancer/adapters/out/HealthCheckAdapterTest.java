@@ -1,11 +1,23 @@
 package com.liftlab.loadbalancer.adapters.out.health;
 
 import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.application.resilience.OutlierDetector;
+import com.liftlab.loadbalancer.configuration.HealthCheckProperties;
+import com.liftlab.loadbalancer.configuration.OutlierDetectionProperties;
 import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
 import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import com.liftlab.loadbalancer.support.StubBackend;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -20,6 +32,9 @@ class HealthCheckAdapterTest {
     private MapBasedBackendConfigRepository backendRepository;
     private HealthCheckAdapter healthCheckAdapter;
 
+    private final List<StubBackend> backends = new ArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
     @BeforeEach
     void setup() throws LoadBalancerException {
         backendRepository = new MapBasedBackendConfigRepository();
@@ -28,6 +43,13 @@ class HealthCheckAdapterTest {
         healthCheckAdapter = new HealthCheckAdapter(backendRepository);
     }
 
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        healthCheckAdapter.shutdown();
+        backends.forEach(StubBackend::close);
+    }
+
     @Test
     void testUnhealthyServerIsMarked() throws InterruptedException {
         // Run the health check.
@@ -52,4 +74,137 @@ class HealthCheckAdapterTest {
         );
         assertThat(exception.getMessage()).contains("Invalid backend server provided");
     }
+
+    @Test
+    void testHangingServerIsMarkedWithinReadTimeout() throws Exception {
+        StubBackend hanging = start(StubBackend.start("hanging", exchange -> {
+            // Accept the connection but never answer until the test is over.
+            awaitRelease();
+        }));
+        BackendServer server = new BackendServer(hanging.url());
+        backendRepository.registerBackend(server);
+        healthCheckAdapter.shutdown();
+        healthCheckAdapter = new HealthCheckAdapter(backendRepository,
+                new HealthCheckProperties(Duration.ofSeconds(1), Duration.ofMillis(300), Duration.ofSeconds(5), 8));
+
+        long start = System.nanoTime();
+        healthCheckAdapter.checkHealth();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        assertThat(backendRepository.getInactiveServers()).contains(server);
+    }
+
+    @Test
+    void testSweepTimeScalesWithSlowestServer() throws Exception {
+        List<BackendServer> slowServers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            StubBackend slow = start(StubBackend.start("slow-" + i, exchange -> {
+                sleep(400);
+                StubBackend.respond(exchange, 200, "ok");
+            }));
+            slowServers.add(new BackendServer(slow.url()));
+            backendRepository.registerBackend(slowServers.get(i));
+        }
+
+        long start = System.nanoTime();
+        healthCheckAdapter.checkHealth();
+
+        // Sequential probing would take at least 10 x 400ms.
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        assertThat(backendRepository.getActiveServers()).containsExactlyElementsOf(slowServers);
+    }
+
+    @Test
+    void testSweepTimeoutBoundsWholeSweep() throws Exception {
+        StubBackend hanging = start(StubBackend.start("hanging", exchange -> awaitRelease()));
+        BackendServer server = new BackendServer(hanging.url());
+        backendRepository.registerBackend(server);
+        healthCheckAdapter.shutdown();
+        healthCheckAdapter = new HealthCheckAdapter(backendRepository,
+                new HealthCheckProperties(Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofMillis(500), 8));
+
+        long start = System.nanoTime();
+        healthCheckAdapter.checkHealth();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        assertThat(backendRepository.getInactiveServers()).contains(server);
+    }
+
+    @Test
+    void testServersNotProbedWithinSweepTimeoutKeepTheirState() throws Exception {
+        List<BackendServer> slowServers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            StubBackend slow = start(StubBackend.start("slow-" + i, exchange -> {
+                sleep(300);
+                StubBackend.respond(exchange, 200, "ok");
+            }));
+            slowServers.add(new BackendServer(slow.url()));
+            backendRepository.registerBackend(slowServers.get(i));
+        }
+        backendRepository.removeBackend(new BackendServer("http://localhost:9999"));
+        healthCheckAdapter.shutdown();
+        // One probe at a time: the third one cannot start before the sweep deadline.
+        healthCheckAdapter = new HealthCheckAdapter(backendRepository,
+                new HealthCheckProperties(Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofMillis(450), 1));
+
+        healthCheckAdapter.checkHealth();
+
+        // The second probe was still running at the deadline and counts as failed; the third never ran.
+        assertThat(backendRepository.getActiveServers()).containsExactly(slowServers.get(0), slowServers.get(2));
+        assertThat(backendRepository.getInactiveServers()).containsExactly(slowServers.get(1));
+    }
+
+    @Test
+    void testRecoveredServerIsMarkedHealthy() throws Exception {
+        StubBackend backend = start(StubBackend.start("recovered"));
+        BackendServer server = new BackendServer(backend.url());
+        backendRepository.registerBackend(server);
+        backendRepository.markUnhealthy(server);
+
+        healthCheckAdapter.checkHealth();
+
+        assertThat(backendRepository.getActiveServers()).containsExactly(server);
+    }
+
+    @Test
+    void testEjectedServerIsNotReadmittedByHealthCheck() throws Exception {
+        StubBackend backend = start(StubBackend.start("ejected"));
+        BackendServer server = new BackendServer(backend.url());
+        backendRepository.registerBackend(server);
+        try (OutlierDetector outlierDetector = new OutlierDetector(backendRepository, new BackendStatsRegistry(),
+                OutlierDetectionProperties.defaults())) {
+            for (int i = 0; i < 3; i++) {
+                outlierDetector.recordFailure(server, new ConnectException("Connection refused"));
+            }
+            healthCheckAdapter.shutdown();
+            healthCheckAdapter = new HealthCheckAdapter(backendRepository, HealthCheckProperties.defaults(),
+                    outlierDetector);
+
+            healthCheckAdapter.checkHealth();
+
+            // The probe passes, but the server stays out until its ejection time has passed.
+            assertThat(backendRepository.getInactiveServers()).contains(server);
+        }
+    }
+
+    private StubBackend start(StubBackend backend) {
+        backends.add(backend);
+        return backend;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
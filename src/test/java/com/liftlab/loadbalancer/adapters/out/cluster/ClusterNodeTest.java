@@ -0,0 +1,184 @@
+package com.liftlab.loadbalancer.adapters.out.cluster;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.application.resilience.OutlierDetector;
+import com.liftlab.loadbalancer.configuration.ClusterProperties;
+import com.liftlab.loadbalancer.domain.model.BackendBatch;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ClusterNode with three instances gossiping on localhost.
+ */
+class ClusterNodeTest {
+
+    private static final BackendServer SERVER_1 = new BackendServer("http://backend1.liftlab.com", 2);
+    private static final BackendServer SERVER_2 = new BackendServer("http://backend2.liftlab.com");
+
+    private static final String SECRET = "cluster-test-secret";
+
+    private final List<MapBasedBackendConfigRepository> repositories = new ArrayList<>();
+    private final List<ClusterNode> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < 3; i++) {
+            List<String> seeds = nodes.isEmpty() ? List.of() : List.of(nodes.get(0).nodeId());
+            MapBasedBackendConfigRepository repository = new MapBasedBackendConfigRepository();
+            repositories.add(repository);
+            nodes.add(newNode(0, seeds, SECRET, repository));
+        }
+        await(() -> nodes.stream().allMatch(node -> node.liveMembers().size() == 3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ClusterNode::close);
+    }
+
+    @Test
+    void testRestartedInstanceIsSeenAliveAgain() throws Exception {
+        String restartedId = nodes.get(2).nodeId();
+        int port = Integer.parseInt(restartedId.substring(restartedId.lastIndexOf(':') + 1));
+        // Let the others record a heartbeat the restarted instance takes over two seconds to reach again.
+        Thread.sleep(2000);
+        nodes.remove(2).close();
+        await(() -> nodes.stream().allMatch(node -> node.liveMembers().size() == 2));
+
+        MapBasedBackendConfigRepository repository = new MapBasedBackendConfigRepository();
+        nodes.add(newNode(port, List.of(nodes.get(0).nodeId()), SECRET, repository));
+        await(() -> nodes.stream().allMatch(node -> node.liveMembers().contains(restartedId)
+                && node.liveMembers().size() == 3), Duration.ofSeconds(1));
+        // Still alive once the failure timeout has passed.
+        Thread.sleep(800);
+        assertThat(nodes).allMatch(node -> node.liveMembers().size() == 3);
+
+        repositories.get(0).registerBackend(SERVER_1);
+        await(() -> repository.getActiveServers().equals(List.of(SERVER_1)));
+    }
+
+    @Test
+    void testRecoveredBackendsDoNotOverrideChangesMadeWhileDown() throws Exception {
+        repositories.get(0).registerBackend(SERVER_1);
+        repositories.get(0).registerBackend(SERVER_2);
+        await(() -> repositories.stream().allMatch(repository -> repository.getActiveServers().size() == 2));
+        String restartedId = nodes.get(2).nodeId();
+        int port = Integer.parseInt(restartedId.substring(restartedId.lastIndexOf(':') + 1));
+        nodes.remove(2).close();
+        repositories.get(0).removeBackend(SERVER_1);
+        repositories.get(0).updateWeight(new BackendServer(SERVER_2.url(), 5));
+        await(() -> repositories.get(1).getActiveServers().equals(List.of(new BackendServer(SERVER_2.url(), 5))));
+
+        // As recovered from the journal, with the state from before the changes.
+        MapBasedBackendConfigRepository repository = new MapBasedBackendConfigRepository();
+        repository.registerBackend(SERVER_1);
+        repository.registerBackend(SERVER_2);
+        nodes.add(newNode(port, List.of(nodes.get(0).nodeId()), SECRET, repository));
+        await(() -> repository.getActiveServers().equals(List.of(new BackendServer(SERVER_2.url(), 5))));
+        Thread.sleep(300);
+
+        assertThat(repositories.get(0).getActiveServers()).containsExactly(new BackendServer(SERVER_2.url(), 5));
+        assertThat(repository.getActiveServers()).containsExactly(new BackendServer(SERVER_2.url(), 5));
+    }
+
+    @Test
+    void testInstanceWithoutTheSecretCannotJoin() throws Exception {
+        MapBasedBackendConfigRepository repository = new MapBasedBackendConfigRepository();
+        repository.registerBackend(SERVER_2);
+        try (ClusterNode intruder = newNode(0, List.of(nodes.get(0).nodeId()), "wrong-secret", repository)) {
+            repositories.get(0).registerBackend(SERVER_1);
+            await(() -> repositories.stream().allMatch(known -> known.getActiveServers().size() == 1));
+            Thread.sleep(300);
+
+            assertThat(intruder.liveMembers()).containsExactly(intruder.nodeId());
+            assertThat(nodes).allMatch(node -> node.liveMembers().size() == 3);
+            assertThat(repositories).allMatch(known -> known.getActiveServers().equals(List.of(SERVER_1)));
+            assertThat(repository.getActiveServers()).containsExactly(SERVER_2);
+        }
+    }
+
+    @Test
+    void testRegistrationsSpreadToAllInstances() throws Exception {
+        repositories.get(1).registerBackend(SERVER_1);
+        repositories.get(2).registerBackend(SERVER_2);
+        await(() -> repositories.stream().allMatch(repository -> repository.getActiveServers().size() == 2));
+        assertThat(repositories.get(0).getActiveServers()).containsExactlyInAnyOrder(SERVER_1, SERVER_2);
+
+        repositories.get(0).applyBatch(new BackendBatch(null, null, List.of(SERVER_1.url()),
+                List.of(SERVER_2.url())), MapBasedBackendConfigRepository.ANY_VERSION);
+        await(() -> repositories.stream().allMatch(repository ->
+                repository.getSnapshot().drainingServers().equals(List.of(SERVER_1))
+                        && repository.getActiveServers().isEmpty()));
+    }
+
+    @Test
+    void testHealthChecksAreShardedAndVerdictsShared() throws Exception {
+        List<BackendServer> servers = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            servers.add(new BackendServer("http://backend" + i + ".liftlab.com"));
+        }
+        for (BackendServer server : servers) {
+            repositories.get(0).registerBackend(server);
+        }
+        await(() -> repositories.stream().allMatch(repository -> repository.getActiveServers().size() == 30));
+        for (BackendServer server : servers) {
+            assertThat(nodes.stream().filter(node -> node.isHealthCheckOwner(server))).hasSize(1);
+        }
+        assertThat(nodes).allMatch(node -> servers.stream().anyMatch(node::isHealthCheckOwner));
+
+        BackendServer failing = servers.get(7);
+        int owner = ownerOf(failing);
+        repositories.get(owner).markUnhealthy(failing);
+        await(() -> repositories.stream().allMatch(repository ->
+                repository.getInactiveServers().equals(List.of(failing))));
+
+        nodes.get(owner).close();
+        nodes.remove(owner);
+        repositories.remove(owner);
+        await(() -> nodes.stream().allMatch(node -> node.liveMembers().size() == 2));
+        assertThat(nodes.stream().filter(node -> node.isHealthCheckOwner(failing))).hasSize(1);
+        repositories.get(ownerOf(failing)).markHealthy(failing);
+        await(() -> repositories.stream().allMatch(repository -> repository.getInactiveServers().isEmpty()));
+    }
+
+    private static ClusterNode newNode(int port, List<String> seeds, String secret,
+                                       MapBasedBackendConfigRepository repository) {
+        return new ClusterNode(new ClusterProperties(true, "localhost", port, seeds, Duration.ofMillis(20),
+                Duration.ofMillis(500), secret, Duration.ofHours(1)), repository, OutlierDetector.disabled());
+    }
+
+    private int ownerOf(BackendServer server) {
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i).isHealthCheckOwner(server)) {
+                return i;
+            }
+        }
+        throw new AssertionError("No owner of " + server.url());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        await(condition, Duration.ofSeconds(10));
+    }
+
+    private static void await(BooleanSupplier condition, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("condition not met in time").isNegative();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
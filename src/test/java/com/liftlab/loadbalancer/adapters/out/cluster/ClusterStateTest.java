@@ -0,0 +1,90 @@
+package com.liftlab.loadbalancer.adapters.out.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for merging and purging ClusterState entries.
+ */
+class ClusterStateTest {
+
+    private static final String URL = "http://backend1.liftlab.com";
+
+    @Test
+    void testLaterWriteWinsInAnyMergeOrder() {
+        ClusterState first = new ClusterState("node-a");
+        ClusterState second = new ClusterState("node-b");
+        ClusterState.Registration older = first.register(URL, 1, false);
+        second.mergeRegistrations(List.of(older));
+        ClusterState.Registration newer = second.register(URL, 5, false);
+
+        ClusterState forward = new ClusterState("node-c");
+        forward.mergeRegistrations(List.of(older));
+        forward.mergeRegistrations(List.of(newer));
+        ClusterState backward = new ClusterState("node-d");
+        backward.mergeRegistrations(List.of(newer));
+        assertThat(backward.mergeRegistrations(List.of(older))).isEmpty();
+
+        assertThat(forward.registration(URL)).isEqualTo(newer);
+        assertThat(backward.registration(URL)).isEqualTo(newer);
+        assertThat(forward.digest()).isEqualTo(backward.digest());
+    }
+
+    @Test
+    void testTombstoneIsNotUndoneByOlderRegistration() {
+        ClusterState first = new ClusterState("node-a");
+        ClusterState second = new ClusterState("node-b");
+        ClusterState.Registration registration = first.register(URL, 1, false);
+        second.mergeRegistrations(List.of(registration));
+        ClusterState.Registration tombstone = second.remove(URL);
+
+        assertThat(first.mergeRegistrations(List.of(tombstone))).containsExactly(tombstone);
+        assertThat(second.mergeRegistrations(List.of(registration))).isEmpty();
+        assertThat(first.registration(URL).removed()).isTrue();
+        assertThat(first.digest()).isEqualTo(second.digest());
+    }
+
+    @Test
+    void testOldTombstonesArePurgedAndNotTakenBack() {
+        ClusterState first = new ClusterState("node-a");
+        ClusterState second = new ClusterState("node-b");
+        first.register(URL, 1, false);
+        first.recordHealth(URL, true);
+        ClusterState.Registration tombstone = first.remove(URL);
+        second.mergeRegistrations(List.of(tombstone));
+
+        assertThat(first.purgeTombstones(tombstone.timestamp())).isZero();
+        assertThat(first.purgeTombstones(tombstone.timestamp() + 1)).isOne();
+        assertThat(first.registration(URL)).isNull();
+        assertThat(first.verdict(URL)).isNull();
+        // A peer that has not purged it yet sends it back.
+        assertThat(first.mergeRegistrations(second.registrations())).isEmpty();
+        assertThat(first.registration(URL)).isNull();
+    }
+
+    @Test
+    void testStateSurvivesSerialization() throws IOException {
+        ClusterState state = new ClusterState("node-a");
+        state.register(URL, 3, true);
+        state.remove("http://backend2.liftlab.com");
+        state.recordHealth(URL, false);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        state.writeTo(new DataOutputStream(bytes));
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        ClusterState copy = new ClusterState("node-b");
+        copy.mergeRegistrations(ClusterState.readRegistrations(in));
+        copy.mergeVerdicts(ClusterState.readVerdicts(in));
+
+        assertThat(copy.digest()).isEqualTo(state.digest()).isNotZero();
+        assertThat(copy.verdict(URL).healthy()).isFalse();
+    }
+}
@@ -0,0 +1,222 @@
+package com.liftlab.loadbalancer.adapters.out.http;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.configuration.ForwardingProperties;
+import com.liftlab.loadbalancer.configuration.Http2Properties;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import com.liftlab.loadbalancer.domain.model.ProxyResponse;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http2.Http2Protocol;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for JdkHttpBackendClient forwarding over h2c to an embedded Tomcat.
+ */
+class JdkHttpBackendClientTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Tomcat tomcat;
+    private BackendServer backend;
+
+    private void startBackend(boolean h2c) throws IOException, LifecycleException {
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tomcat").toString());
+        Connector connector = new Connector();
+        connector.setPort(0);
+        if (h2c) {
+            connector.addUpgradeProtocol(new Http2Protocol());
+        }
+        tomcat.setConnector(connector);
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "protocol", new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                if (request.getParameter("wait") != null) {
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                request.getInputStream().readAllBytes();
+                response.getOutputStream().write(request.getProtocol().getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        context.addServletMappingDecoded("/*", "protocol");
+        tomcat.start();
+        backend = new BackendServer("http://localhost:" + connector.getLocalPort());
+    }
+
+    @AfterEach
+    void tearDown() throws LifecycleException {
+        release.countDown();
+        if (tomcat != null) {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+        executor.close();
+    }
+
+    @Test
+    void testRequestsAreMultiplexedOverBoundedConnections() throws Exception {
+        startBackend(true);
+        JdkHttpBackendClient client = new JdkHttpBackendClient(ForwardingProperties.defaults(),
+                new Http2Properties(true, 4, 3, Duration.ofSeconds(60)), executor);
+        // Upgrades the first connection to h2c.
+        assertThat(body(client.send(backend, get("/")))).isEqualTo("HTTP/2.0");
+
+        List<Future<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            responses.add(executor.submit(() -> body(client.send(backend, get("/?wait")))));
+        }
+        Http2ConnectionPool pool = client.http2Pool(backend.url());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.streams() < 6 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // Four streams on the upgraded connection and one on each new connection until it is upgraded.
+        assertThat(pool.streams()).isEqualTo(6);
+        assertThat(pool.connections()).isEqualTo(3);
+
+        release.countDown();
+        for (Future<String> response : responses) {
+            assertThat(response.get(10, TimeUnit.SECONDS)).isEqualTo("HTTP/2.0");
+        }
+        assertThat(pool.streams()).isZero();
+        assertThat(pool.connections()).isEqualTo(3);
+    }
+
+    @Test
+    void testRequestWaitsForStreamOnceConnectionsAreFull() throws Exception {
+        startBackend(true);
+        JdkHttpBackendClient client = new JdkHttpBackendClient(new ForwardingProperties(Duration.ofMillis(200),
+                Duration.ofSeconds(30), Map.of()), new Http2Properties(true, 1, 1, Duration.ofSeconds(60)), executor);
+        Future<String> first = executor.submit(() -> body(client.send(backend, get("/?wait"))));
+        Http2ConnectionPool pool;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (((pool = client.http2Pool(backend.url())) == null || pool.streams() == 0)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        long start = System.nanoTime();
+        try {
+            client.send(backend, get("/"));
+            throw new AssertionError("Expected the request to time out waiting for a stream");
+        } catch (IOException e) {
+            assertThat(e).hasMessageContaining("No HTTP/2 stream available");
+        }
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+
+        release.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("HTTP/2.0");
+        assertThat(body(client.send(backend, get("/")))).isEqualTo("HTTP/2.0");
+        assertThat(pool.connections()).isOne();
+    }
+
+    @Test
+    void testConnectionToHttp11BackendCarriesOneRequestAtATime() throws Exception {
+        startBackend(false);
+        JdkHttpBackendClient client = new JdkHttpBackendClient(ForwardingProperties.defaults(),
+                new Http2Properties(true, 4, 3, Duration.ofSeconds(60)), executor);
+        assertThat(body(client.send(backend, get("/")))).isEqualTo("HTTP/1.1");
+
+        List<Future<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            responses.add(executor.submit(() -> body(client.send(backend, get("/?wait")))));
+        }
+        Http2ConnectionPool pool = client.http2Pool(backend.url());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.streams() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(pool.connections()).isEqualTo(2);
+
+        release.countDown();
+        for (Future<String> response : responses) {
+            assertThat(response.get(10, TimeUnit.SECONDS)).isEqualTo("HTTP/1.1");
+        }
+    }
+
+    @Test
+    void testIdleConnectionsAreRetired() throws Exception {
+        startBackend(true);
+        JdkHttpBackendClient client = new JdkHttpBackendClient(ForwardingProperties.defaults(),
+                new Http2Properties(true, 4, 3, Duration.ofMillis(100)), executor);
+        assertThat(body(client.send(backend, get("/")))).isEqualTo("HTTP/2.0");
+        Http2ConnectionPool pool = client.http2Pool(backend.url());
+        Http2ConnectionPool.Connection connection = pool.acquire(Duration.ofSeconds(1));
+        connection.release();
+
+        client.retireIdleConnections();
+        assertThat(pool.connections()).isOne();
+        Thread.sleep(200);
+        client.retireIdleConnections();
+
+        assertThat(pool.connections()).isZero();
+        assertThat(connection.client().awaitTermination(Duration.ofSeconds(5))).isTrue();
+        assertThat(body(client.send(backend, get("/")))).isEqualTo("HTTP/2.0");
+        assertThat(pool.connections()).isOne();
+    }
+
+    @Test
+    void testConnectionsOfDeregisteredBackendAreClosedOnceReleased() throws Exception {
+        startBackend(true);
+        JdkHttpBackendClient client = new JdkHttpBackendClient(ForwardingProperties.defaults(),
+                new Http2Properties(true, 4, 3, Duration.ofSeconds(60)), executor);
+        assertThat(body(client.send(backend, get("/")))).isEqualTo("HTTP/2.0");
+        Http2ConnectionPool pool = client.http2Pool(backend.url());
+        Http2ConnectionPool.Connection connection = pool.acquire(Duration.ofSeconds(1));
+
+        client.onServersChanged(new MapBasedBackendConfigRepository().getSnapshot());
+
+        assertThat(client.http2Pool(backend.url())).isNull();
+        assertThat(connection.client().isTerminated()).isFalse();
+        connection.release();
+        assertThat(connection.client().awaitTermination(Duration.ofSeconds(5))).isTrue();
+        try {
+            pool.acquire(Duration.ofSeconds(1));
+            throw new AssertionError("Expected a closed pool to refuse streams");
+        } catch (IOException e) {
+            assertThat(e).hasMessageContaining("are closed");
+        }
+    }
+
+    private static ProxyRequest get(String target) {
+        int query = target.indexOf('?');
+        return new ProxyRequest("GET", query < 0 ? target : target.substring(0, query),
+                query < 0 ? null : target.substring(query + 1), Map.of(), new ByteArrayInputStream(new byte[0]), 0);
+    }
+
+    private static String body(ProxyResponse response) throws IOException {
+        try (InputStream body = response.body()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
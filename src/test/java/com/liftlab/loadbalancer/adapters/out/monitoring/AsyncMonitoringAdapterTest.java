@@ -0,0 +1,97 @@
+package com.liftlab.loadbalancer.adapters.out.monitoring;
+
+import com.liftlab.loadbalancer.configuration.MonitoringProperties;
+import com.liftlab.loadbalancer.configuration.MonitoringProperties.OverflowPolicy;
+import com.liftlab.loadbalancer.domain.model.RequestEvent;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import com.liftlab.loadbalancer.port.out.MonitoringPort;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for AsyncMonitoringAdapter with an in-memory sink.
+ */
+class AsyncMonitoringAdapterTest {
+
+    @Test
+    void testEventsAreDeliveredToSinkInOrder() {
+        RecordingSink sink = new RecordingSink(null);
+        try (AsyncMonitoringAdapter adapter = new AsyncMonitoringAdapter(sink, MonitoringProperties.defaults())) {
+            adapter.recordRequest(RequestEvent.forwarded(StrategyType.ROUND_ROBIN, "http://backend1.liftlab.com",
+                    200, 1_000_000));
+            adapter.report("Backend registered");
+            adapter.recordRequest(RequestEvent.failed(StrategyType.ROUND_ROBIN, null, 503,
+                    "No backend servers available"));
+        }
+
+        // Closing delivers everything that was buffered.
+        assertThat(sink.delivered).containsExactly(
+                "Request forwarded to http://backend1.liftlab.com with status 200",
+                "Backend registered",
+                "Failed to forward request: No backend servers available");
+    }
+
+    @Test
+    void testProducersNeverBlockOnStalledSinkAndDropsAreCounted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        MonitoringProperties properties = new MonitoringProperties(64, 16, OverflowPolicy.DROP, 10);
+        try (AsyncMonitoringAdapter adapter = new AsyncMonitoringAdapter(sink, properties)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 10_000; i++) {
+                adapter.report("event " + i);
+            }
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+            // The sink holds at most one event and the buffer 64; everything else is dropped.
+            assertThat(adapter.droppedEvents()).isGreaterThanOrEqualTo(10_000 - 65);
+            release.countDown();
+        }
+        assertThat(sink.delivered.size()).isBetween(1, 65);
+    }
+
+    @Test
+    void testSamplePolicyThinsEventsBeforeBufferIsFull() {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        MonitoringProperties properties = new MonitoringProperties(64, 16, OverflowPolicy.SAMPLE, 10);
+        try (AsyncMonitoringAdapter adapter = new AsyncMonitoringAdapter(sink, properties)) {
+            for (int i = 0; i < 10_000; i++) {
+                adapter.report("event " + i);
+            }
+            assertThat(adapter.sampledOutEvents()).isGreaterThan(5_000);
+            assertThat(adapter.sampledOutEvents() + adapter.droppedEvents()).isGreaterThanOrEqualTo(10_000 - 65);
+            release.countDown();
+        }
+    }
+
+    /**
+     * Sink recording every message; optionally blocks on the first one until released.
+     */
+    private static final class RecordingSink implements MonitoringPort {
+        final List<String> delivered = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+
+        RecordingSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void report(String message) {
+            delivered.add(message);
+            if (release != null) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
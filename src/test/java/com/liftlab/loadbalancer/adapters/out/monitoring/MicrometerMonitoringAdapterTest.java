@@ -0,0 +1,131 @@
+package com.liftlab.loadbalancer.adapters.out.monitoring;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.model.RequestEvent;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for MicrometerMonitoringAdapter with a SimpleMeterRegistry.
+ */
+class MicrometerMonitoringAdapterTest {
+
+    private static final BackendServer SERVER_1 = new BackendServer("http://backend1.liftlab.com");
+    private static final BackendServer SERVER_2 = new BackendServer("http://backend2.liftlab.com");
+
+    private SimpleMeterRegistry registry;
+    private BackendStatsRegistry statsRegistry;
+    private MicrometerMonitoringAdapter adapter;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        statsRegistry = new BackendStatsRegistry();
+        adapter = new MicrometerMonitoringAdapter(registry, statsRegistry);
+    }
+
+    @Test
+    void testCountsRequestsAndErrorsPerBackendAndStrategy() {
+        adapter.recordRequest(forwarded(StrategyType.ROUND_ROBIN, SERVER_1, 200, 5));
+        adapter.recordRequest(forwarded(StrategyType.ROUND_ROBIN, SERVER_1, 503, 5));
+        adapter.recordRequest(RequestEvent.failed(StrategyType.ROUND_ROBIN, SERVER_1.url(), 502, "Connection reset"));
+        adapter.recordRequest(forwarded(StrategyType.PEAK_EWMA, SERVER_1, 200, 5));
+        adapter.recordRequest(RequestEvent.failed(StrategyType.PEAK_EWMA, null, 503, "No backend servers available"));
+
+        assertThat(count(MicrometerMonitoringAdapter.REQUESTS, SERVER_1.url(), "round-robin")).isEqualTo(3);
+        assertThat(count(MicrometerMonitoringAdapter.ERRORS, SERVER_1.url(), "round-robin")).isEqualTo(2);
+        assertThat(count(MicrometerMonitoringAdapter.REQUESTS, SERVER_1.url(), "peak-ewma")).isEqualTo(1);
+        assertThat(count(MicrometerMonitoringAdapter.ERRORS, MicrometerMonitoringAdapter.NO_BACKEND, "peak-ewma"))
+                .isEqualTo(1);
+        // Failures without a response carry no latency.
+        assertThat(timer(SERVER_1.url(), "round-robin").count()).isEqualTo(2);
+    }
+
+    @Test
+    void testLatencyTimerPublishesPercentiles() {
+        for (int i = 1; i <= 1000; i++) {
+            adapter.recordRequest(forwarded(StrategyType.ROUND_ROBIN, SERVER_1, 200, i));
+        }
+
+        ValueAtPercentile[] percentiles = timer(SERVER_1.url(), "round-robin").takeSnapshot().percentileValues();
+        assertThat(Arrays.stream(percentiles).map(ValueAtPercentile::percentile))
+                .containsExactly(0.5, 0.99, 0.999);
+        assertThat(percentiles[0].value(TimeUnit.MILLISECONDS)).isBetween(450.0, 550.0);
+        assertThat(percentiles[1].value(TimeUnit.MILLISECONDS)).isBetween(950.0, 1050.0);
+    }
+
+    @Test
+    void testInFlightGaugesFollowRegisteredBackends() throws Exception {
+        MapBasedBackendConfigRepository repository = new MapBasedBackendConfigRepository();
+        repository.registerBackend(SERVER_1);
+        repository.registerBackend(SERVER_2);
+        adapter.onServersChanged(repository.getSnapshot());
+        adapter.recordRequest(forwarded(StrategyType.ROUND_ROBIN, SERVER_2, 200, 5));
+        statsRegistry.statsFor(SERVER_1).requestStarted();
+        statsRegistry.statsFor(SERVER_1).requestStarted();
+
+        assertThat(registry.get(MicrometerMonitoringAdapter.IN_FLIGHT).tag("backend", SERVER_1.url()).gauge().value())
+                .isEqualTo(2.0);
+
+        repository.removeBackend(SERVER_2);
+        adapter.onServersChanged(repository.getSnapshot());
+
+        assertThat(registry.find(MicrometerMonitoringAdapter.IN_FLIGHT).tag("backend", SERVER_2.url()).gauge())
+                .isNull();
+        assertThat(registry.find(MicrometerMonitoringAdapter.REQUESTS).tag("backend", SERVER_2.url()).counter())
+                .isNull();
+        assertThat(registry.find(MicrometerMonitoringAdapter.IN_FLIGHT).tag("backend", SERVER_1.url()).gauge())
+                .isNotNull();
+    }
+
+    @Test
+    void testRecordingDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 20_000; i++) {
+            recordForwarded(i);
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            recordForwarded(i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Allow for incidental allocations such as histogram rotation, but nothing per request.
+        assertThat(allocated).isLessThan(100_000);
+    }
+
+    private void recordForwarded(int i) {
+        switch (i % 3) {
+            case 0 -> adapter.recordForwarded(StrategyType.ROUND_ROBIN, SERVER_1.url(), 200, 3_000_000);
+            case 1 -> adapter.recordForwarded(StrategyType.ROUND_ROBIN, SERVER_2.url(), 500, 40_000_000);
+            default -> adapter.recordForwarded(StrategyType.CONSISTENT_HASH, SERVER_1.url(), 200, 7_000_000);
+        }
+    }
+
+    private static RequestEvent forwarded(StrategyType strategy, BackendServer server, int status, long millis) {
+        return RequestEvent.forwarded(strategy, server.url(), status, TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private double count(String name, String backend, String strategy) {
+        return registry.get(name).tags("backend", backend, "strategy", strategy).counter().count();
+    }
+
+    private Timer timer(String backend, String strategy) {
+        return registry.get(MicrometerMonitoringAdapter.LATENCY).tags("backend", backend, "strategy", strategy).timer();
+    }
+}
@@ -0,0 +1,104 @@
+package com.liftlab.loadbalancer.adapters.out.repository;
+
+import com.liftlab.loadbalancer.configuration.PersistenceProperties;
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendBatch;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for recovering the backend registry from BackendJournal.
+ */
+class BackendJournalTest {
+
+    private static final BackendServer SERVER_1 = new BackendServer("http://backend1.liftlab.com", 2);
+    private static final BackendServer SERVER_2 = new BackendServer("http://backend2.liftlab.com");
+    private static final BackendServer SERVER_3 = new BackendServer("http://backend3.liftlab.com");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testRegistrationsSurviveRestart() throws LoadBalancerException {
+        try (BackendJournal journal = open(DataSize.ofMegabytes(1))) {
+            MapBasedBackendConfigRepository repository = new MapBasedBackendConfigRepository(journal);
+            repository.registerBackend(new BackendServer(SERVER_1.url()));
+            repository.registerBackend(SERVER_2);
+            repository.registerBackend(SERVER_3);
+            repository.updateWeight(SERVER_1);
+            repository.removeBackend(SERVER_2);
+            repository.applyBatch(new BackendBatch(null, null, List.of(SERVER_3.url()), null),
+                    MapBasedBackendConfigRepository.ANY_VERSION);
+            repository.markUnhealthy(SERVER_1);
+        }
+
+        try (BackendJournal journal = open(DataSize.ofMegabytes(1))) {
+            MapBasedBackendConfigRepository.Snapshot snapshot = new MapBasedBackendConfigRepository(journal)
+                    .getSnapshot();
+
+            assertThat(snapshot.activeServers()).containsExactly(SERVER_1);
+            assertThat(snapshot.drainingServers()).containsExactly(SERVER_3);
+        }
+    }
+
+    @Test
+    void testFullJournalIsCompactedIntoSnapshot() throws LoadBalancerException {
+        try (BackendJournal journal = open(DataSize.ofKilobytes(1))) {
+            MapBasedBackendConfigRepository repository = new MapBasedBackendConfigRepository(journal);
+            for (int i = 0; i < 200; i++) {
+                repository.registerBackend(new BackendServer("http://backend" + i + ".liftlab.com"));
+                if (i % 2 == 1) {
+                    repository.removeBackend(new BackendServer("http://backend" + (i - 1) + ".liftlab.com"));
+                }
+            }
+        }
+
+        try (BackendJournal journal = open(DataSize.ofKilobytes(1))) {
+            assertThat(new MapBasedBackendConfigRepository(journal).getActiveServers())
+                    .hasSize(100)
+                    .allMatch(server -> server.url().matches("http://backend\\d*[13579]\\.liftlab\\.com"));
+        }
+    }
+
+    @Test
+    void testTornAndUnfinishedEntriesAreIgnored() throws Exception {
+        try (BackendJournal journal = open(DataSize.ofKilobytes(64))) {
+            journal.recover();
+            journal.append(List.of(new BackendJournal.Entry(SERVER_1.url(), 2, false, false)));
+            // The second entry of a batch is lost, so the whole batch must be dropped.
+            journal.append(List.of(new BackendJournal.Entry(SERVER_2.url(), 1, false, false),
+                    new BackendJournal.Entry(SERVER_3.url(), 1, false, false)));
+        }
+        long lastEntry = 12 + 3 * (8 + 5 + SERVER_1.url().length()) - 1;
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("journal.log").toFile(), "rw")) {
+            file.seek(lastEntry);
+            file.write(0);
+        }
+
+        try (BackendJournal journal = open(DataSize.ofKilobytes(64))) {
+            assertThat(journal.recover()).containsExactly(new BackendJournal.Entry(SERVER_1.url(), 2, false, false));
+        }
+    }
+
+    @Test
+    void testDisabledJournalKeepsNothing() {
+        try (BackendJournal journal = BackendJournal.disabled()) {
+            assertThat(journal.append(List.of(BackendJournal.Entry.removal(SERVER_1.url())))).isFalse();
+            assertThat(journal.recover()).isEmpty();
+        }
+    }
+
+    private BackendJournal open(DataSize journalSize) {
+        return new BackendJournal(new PersistenceProperties(true, directory.toString(), journalSize,
+                Duration.ofMillis(1)));
+    }
+}
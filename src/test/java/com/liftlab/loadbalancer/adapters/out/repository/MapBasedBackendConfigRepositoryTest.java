@@ -0,0 +1,153 @@
+package com.liftlab.loadbalancer.adapters.out.repository;
+
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.exception.VersionConflictException;
+import com.liftlab.loadbalancer.domain.model.BackendBatch;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the snapshot behaviour of MapBasedBackendConfigRepository.
+ */
+class MapBasedBackendConfigRepositoryTest {
+
+    private static final BackendServer SERVER_1 = new BackendServer("http://backend1.liftlab.com");
+    private static final BackendServer SERVER_2 = new BackendServer("http://backend2.liftlab.com");
+
+    private MapBasedBackendConfigRepository repository;
+
+    @BeforeEach
+    void setup() throws LoadBalancerException {
+        repository = new MapBasedBackendConfigRepository();
+        repository.registerBackend(SERVER_1);
+        repository.registerBackend(SERVER_2);
+    }
+
+    @Test
+    void testReadsReturnSameSnapshotUntilStateChanges() {
+        List<BackendServer> first = repository.getActiveServers();
+        List<BackendServer> second = repository.getActiveServers();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first).containsExactly(SERVER_1, SERVER_2);
+        assertThrows(UnsupportedOperationException.class, () -> first.add(SERVER_1));
+    }
+
+    @Test
+    void testVersionOnlyBumpsOnActualChange() throws LoadBalancerException {
+        long version = repository.getSnapshot().version();
+
+        // Re-registering or marking an already healthy server healthy is a no-op.
+        repository.registerBackend(SERVER_1);
+        repository.markHealthy(SERVER_1);
+        repository.removeBackend(new BackendServer("http://unknown.liftlab.com"));
+        assertThat(repository.getSnapshot().version()).isEqualTo(version);
+
+        repository.markUnhealthy(SERVER_1);
+        assertThat(repository.getSnapshot().version()).isEqualTo(version + 1);
+        repository.markUnhealthy(SERVER_1);
+        assertThat(repository.getSnapshot().version()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void testHealthTransitionsMoveServersBetweenSets() throws LoadBalancerException {
+        repository.markUnhealthy(SERVER_2);
+        MapBasedBackendConfigRepository.Snapshot snapshot = repository.getSnapshot();
+        assertThat(snapshot.activeServers()).containsExactly(SERVER_1);
+        assertThat(snapshot.inactiveServers()).containsExactly(SERVER_2);
+
+        repository.markHealthy(SERVER_2);
+        repository.removeBackend(SERVER_1);
+        assertThat(repository.getActiveServers()).containsExactly(SERVER_2);
+        assertThat(repository.getInactiveServers()).isEmpty();
+    }
+
+    @Test
+    void testListenersReceiveLatestSnapshot() throws Exception {
+        LinkedBlockingQueue<MapBasedBackendConfigRepository.Snapshot> notifications = new LinkedBlockingQueue<>();
+        repository.addSnapshotListener(notifications::add);
+        assertThat(notifications.poll(5, TimeUnit.SECONDS).activeServers()).containsExactly(SERVER_1, SERVER_2);
+
+        repository.removeBackend(SERVER_1);
+        MapBasedBackendConfigRepository.Snapshot latest = notifications.poll(5, TimeUnit.SECONDS);
+        // Notifications may be coalesced, but the last one always reflects the current state.
+        while (latest.version() < repository.getSnapshot().version()) {
+            latest = notifications.poll(5, TimeUnit.SECONDS);
+        }
+        assertThat(latest.activeServers()).containsExactly(SERVER_2);
+    }
+
+    @Test
+    void testDiffBatchBumpsVersionOnce() throws LoadBalancerException {
+        long version = repository.getSnapshot().version();
+        BackendBatch batch = new BackendBatch(null,
+                List.of(new BackendBatch.Backend("http://backend3.liftlab.com", 3)),
+                List.of(SERVER_2.url()), List.of(SERVER_1.url()));
+
+        MapBasedBackendConfigRepository.Snapshot snapshot = repository.applyBatch(batch, version);
+
+        assertThat(snapshot.version()).isEqualTo(version + 1);
+        assertThat(snapshot.activeServers()).containsExactly(new BackendServer("http://backend3.liftlab.com", 3));
+        assertThat(snapshot.drainingServers()).containsExactly(SERVER_2);
+        assertThat(snapshot.registeredUrls()).containsExactlyInAnyOrder(
+                SERVER_2.url(), "http://backend3.liftlab.com");
+        assertThat(repository.applyBatch(batch, MapBasedBackendConfigRepository.ANY_VERSION).version())
+                .isEqualTo(version + 1);
+    }
+
+    @Test
+    void testDesiredSetReplacesBackendsAndKeepsHealth() throws LoadBalancerException {
+        repository.markUnhealthy(SERVER_2);
+        repository.applyBatch(new BackendBatch(null, null, List.of(SERVER_1.url()), null),
+                MapBasedBackendConfigRepository.ANY_VERSION);
+
+        MapBasedBackendConfigRepository.Snapshot snapshot = repository.applyBatch(new BackendBatch(
+                List.of(new BackendBatch.Backend(SERVER_1.url(), null), new BackendBatch.Backend(SERVER_2.url(), 5)),
+                null, null, null), MapBasedBackendConfigRepository.ANY_VERSION);
+
+        assertThat(snapshot.activeServers()).containsExactly(SERVER_1);
+        assertThat(snapshot.inactiveServers()).containsExactly(new BackendServer(SERVER_2.url(), 5));
+        assertThat(snapshot.drainingServers()).isEmpty();
+
+        snapshot = repository.applyBatch(new BackendBatch(List.of(), null, null, null), snapshot.version());
+        assertThat(snapshot.registeredUrls()).isEmpty();
+    }
+
+    @Test
+    void testInvalidBatchChangesNothing() {
+        MapBasedBackendConfigRepository.Snapshot before = repository.getSnapshot();
+        List<BackendBatch> invalid = List.of(
+                new BackendBatch(null, List.of(new BackendBatch.Backend("http://backend3.liftlab.com", 0)),
+                        null, List.of(SERVER_1.url())),
+                new BackendBatch(null, List.of(new BackendBatch.Backend(SERVER_1.url(), 1)),
+                        null, List.of(SERVER_1.url())),
+                new BackendBatch(null, null, List.of("http://unknown.liftlab.com"), List.of(SERVER_2.url())),
+                new BackendBatch(List.of(), null, null, List.of(SERVER_1.url())));
+
+        for (BackendBatch batch : invalid) {
+            assertThrows(LoadBalancerException.class,
+                    () -> repository.applyBatch(batch, MapBasedBackendConfigRepository.ANY_VERSION));
+        }
+        assertThat(repository.getSnapshot()).isSameAs(before);
+    }
+
+    @Test
+    void testStaleVersionIsRejected() throws LoadBalancerException {
+        long version = repository.getSnapshot().version();
+        repository.markUnhealthy(SERVER_1);
+
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> repository.applyBatch(new BackendBatch(null, null, null, List.of(SERVER_1.url())), version));
+
+        assertThat(conflict.getCurrentVersion()).isEqualTo(version + 1);
+        assertThat(repository.getInactiveServers()).containsExactly(SERVER_1);
+    }
+}
@@ -0,0 +1,278 @@
+package com.liftlab.loadbalancer.application.cache;
+
+import com.liftlab.loadbalancer.configuration.CacheProperties;
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import com.liftlab.loadbalancer.domain.model.ProxyResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ResponseCache storage rules, eviction, buffer reuse and request coalescing.
+ */
+class ResponseCacheTest {
+
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    @Test
+    void testFreshResponsesAreServedFromTheCache() {
+        ResponseCache cache = new ResponseCache(CacheProperties.defaults());
+        Function<ProxyRequest, ProxyResponse> backend = backend(Map.of("Cache-Control", List.of("max-age=60")));
+
+        ProxyResponse first = cache.forward(get("/items", Map.of()), backend);
+        ProxyResponse second = cache.forward(get("/items", Map.of()), backend);
+
+        assertThat(body(first)).isEqualTo("response 1");
+        assertThat(body(second)).isEqualTo("response 1");
+        assertThat(second.contentLength()).isEqualTo("response 1".length());
+        assertThat(second.headers()).containsEntry("Age", List.of("0"));
+        assertThat(backendCalls).hasValue(1);
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.sizeBytes()).isEqualTo("response 1".length());
+    }
+
+    @Test
+    void testResponsesThatMustNotBeSharedAreNotStored() {
+        ResponseCache cache = new ResponseCache(CacheProperties.defaults());
+        List<Map<String, List<String>>> uncacheable = List.of(
+                Map.of(),
+                Map.of("Cache-Control", List.of("no-store")),
+                Map.of("Cache-Control", List.of("private, max-age=60")),
+                Map.of("Cache-Control", List.of("max-age=60"), "Set-Cookie", List.of("session=1")),
+                Map.of("Cache-Control", List.of("max-age=60"), "Vary", List.of("User-Agent")));
+
+        for (Map<String, List<String>> headers : uncacheable) {
+            cache.forward(get("/items", Map.of()), backend(headers));
+        }
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.isCacheable(get("/items", Map.of("Authorization", List.of("Bearer x"))))).isFalse();
+        assertThat(cache.isCacheable(new ProxyRequest("POST", "/items", null, Map.of(),
+                InputStream.nullInputStream(), 0))).isFalse();
+    }
+
+    @Test
+    void testKeyHeadersSeparateEntries() {
+        ResponseCache cache = new ResponseCache(CacheProperties.defaults());
+        Function<ProxyRequest, ProxyResponse> backend = backend(Map.of("Cache-Control", List.of("max-age=60"),
+                "Vary", List.of("Accept")));
+
+        body(cache.forward(get("/items", Map.of("Accept", List.of("application/json"))), backend));
+        body(cache.forward(get("/items", Map.of("accept", List.of("text/html"))), backend));
+        String json = body(cache.forward(get("/items", Map.of("Accept", List.of("application/json"))), backend));
+
+        assertThat(json).isEqualTo("response 1");
+        assertThat(backendCalls).hasValue(2);
+    }
+
+    @Test
+    void testEntriesExpireAndNoCacheRequestsRefreshThem() throws InterruptedException {
+        ResponseCache cache = new ResponseCache(properties(10, Duration.ofMillis(50)));
+        Function<ProxyRequest, ProxyResponse> backend = backend(Map.of());
+
+        body(cache.forward(get("/items", Map.of()), backend));
+        Thread.sleep(80);
+        assertThat(body(cache.forward(get("/items", Map.of()), backend))).isEqualTo("response 2");
+
+        ProxyRequest noCache = get("/items", Map.of("Cache-Control", List.of("no-cache")));
+        assertThat(body(cache.forward(noCache, backend))).isEqualTo("response 3");
+        assertThat(body(cache.forward(get("/items", Map.of()), backend))).isEqualTo("response 3");
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntriesAreEvicted() {
+        ResponseCache cache = new ResponseCache(properties(10, Duration.ofMinutes(1)));
+        Function<ProxyRequest, ProxyResponse> backend = backend(Map.of());
+
+        for (int i = 0; i < 10; i++) {
+            body(cache.forward(get("/items/" + i, Map.of()), backend));
+        }
+        // Touch the first entry so that it is the most recently used one.
+        body(cache.forward(get("/items/0", Map.of()), backend));
+        body(cache.forward(get("/items/10", Map.of()), backend));
+
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(cache.evictions()).isPositive();
+        int calls = backendCalls.get();
+        body(cache.forward(get("/items/0", Map.of()), backend));
+        body(cache.forward(get("/items/10", Map.of()), backend));
+        assertThat(backendCalls).hasValue(calls);
+    }
+
+    @Test
+    void testBlocksOfEvictedEntriesAreReused() {
+        // Room for two bodies of one block each.
+        ResponseCache cache = new ResponseCache(new CacheProperties(true, 100, DataSize.ofKilobytes(8),
+                DataSize.ofKilobytes(4), Duration.ofMinutes(1), List.of()));
+        Function<ProxyRequest, ProxyResponse> backend = backend(Map.of());
+        ProxyResponse held = cache.forward(get("/items/0", Map.of()), backend);
+
+        for (int i = 1; i < 10; i++) {
+            body(cache.forward(get("/items/" + i, Map.of()), backend));
+            int calls = backendCalls.get();
+            assertThat(body(cache.forward(get("/items/" + i, Map.of()), backend))).isEqualTo("response " + (i + 1));
+            assertThat(backendCalls).hasValue(calls);
+        }
+
+        // Evicted while its response was open, the first body is only reused once that response is closed.
+        assertThat(body(held)).isEqualTo("response 1");
+        assertThat(cache.evictions()).isPositive();
+    }
+
+    @Test
+    void testBodiesLargerThanAnEntryAreStreamedThrough() {
+        ResponseCache cache = new ResponseCache(new CacheProperties(true, 10, DataSize.ofMegabytes(1),
+                DataSize.ofBytes(4), Duration.ofMinutes(1), List.of()));
+        byte[] large = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+        ProxyResponse response = cache.forward(get("/large", Map.of()),
+                request -> new ProxyResponse(200, Map.of(), new ByteArrayInputStream(large), -1));
+
+        assertThat(body(response)).isEqualTo("0123456789");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testConcurrentMissesAreCoalesced() throws Exception {
+        ResponseCache cache = new ResponseCache(CacheProperties.defaults());
+        CountDownLatch release = new CountDownLatch(1);
+        Function<ProxyRequest, ProxyResponse> backend = request -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return backend(Map.of("Cache-Control", List.of("max-age=60"))).apply(request);
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> bodies = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                bodies.add(executor.submit(() -> body(cache.forward(get("/hot", Map.of()), backend))));
+            }
+            // Give every request time to miss before the backend answers.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cache.misses() < 16 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<String> body : bodies) {
+                assertThat(body.get(5, TimeUnit.SECONDS)).isEqualTo("response 1");
+            }
+        }
+
+        assertThat(backendCalls).hasValue(1);
+        assertThat(cache.coalescedRequests()).isEqualTo(15);
+    }
+
+    @Test
+    void testMissesOnUncacheableKeysAreNotCoalesced() throws Exception {
+        ResponseCache cache = new ResponseCache(CacheProperties.defaults());
+        Function<ProxyRequest, ProxyResponse> uncacheable = backend(Map.of("Cache-Control", List.of("no-store")));
+        body(cache.forward(get("/live", Map.of()), uncacheable));
+
+        CountDownLatch arrived = new CountDownLatch(8);
+        AtomicBoolean concurrent = new AtomicBoolean(true);
+        Function<ProxyRequest, ProxyResponse> backend = request -> {
+            arrived.countDown();
+            try {
+                // Only completes if no request waits for another one's response.
+                if (!arrived.await(2, TimeUnit.SECONDS)) {
+                    concurrent.set(false);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return uncacheable.apply(request);
+        };
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> bodies = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                bodies.add(executor.submit(() -> body(cache.forward(get("/live", Map.of()), backend))));
+            }
+            for (Future<String> body : bodies) {
+                assertThat(body.get(10, TimeUnit.SECONDS)).startsWith("response ");
+            }
+        }
+
+        assertThat(concurrent).isTrue();
+        assertThat(backendCalls).hasValue(9);
+        assertThat(cache.coalescedRequests()).isZero();
+    }
+
+    @Test
+    void testMissesAreStillCoalescedAfterAnErrorResponse() throws Exception {
+        ResponseCache cache = new ResponseCache(CacheProperties.defaults());
+        Function<ProxyRequest, ProxyResponse> failing = request -> {
+            backendCalls.incrementAndGet();
+            return ProxyResponse.error(503, "Service Unavailable");
+        };
+        assertThat(cache.forward(get("/flaky", Map.of()), failing).status()).isEqualTo(503);
+
+        Function<ProxyRequest, ProxyResponse> recovered = backend(Map.of("Cache-Control", List.of("max-age=60")));
+        Function<ProxyRequest, ProxyResponse> slow = request -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return recovered.apply(request);
+        };
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> bodies = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                bodies.add(executor.submit(() -> body(cache.forward(get("/flaky", Map.of()), slow))));
+            }
+            for (Future<String> body : bodies) {
+                assertThat(body.get(10, TimeUnit.SECONDS)).isEqualTo("response 2");
+            }
+        }
+
+        assertThat(backendCalls).hasValue(2);
+        assertThat(cache.coalescedRequests()).isPositive();
+    }
+
+    private Function<ProxyRequest, ProxyResponse> backend(Map<String, List<String>> headers) {
+        return request -> {
+            byte[] body = ("response " + backendCalls.incrementAndGet()).getBytes(StandardCharsets.UTF_8);
+            return new ProxyResponse(200, headers, new ByteArrayInputStream(body), body.length);
+        };
+    }
+
+    private static CacheProperties properties(int maxEntries, Duration defaultTtl) {
+        return new CacheProperties(true, maxEntries, DataSize.ofMegabytes(1), DataSize.ofKilobytes(64), defaultTtl,
+                List.of("Accept"));
+    }
+
+    private static ProxyRequest get(String path, Map<String, List<String>> headers) {
+        return new ProxyRequest("GET", path, null, headers, InputStream.nullInputStream(), 0);
+    }
+
+    private static String body(ProxyResponse response) {
+        try (InputStream body = response.body()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.liftlab.loadbalancer.application.factory;
+
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import com.liftlab.loadbalancer.domain.strategy.ConsistentHashStrategy;
+import com.liftlab.loadbalancer.domain.strategy.LeastConnectionsStrategy;
+import com.liftlab.loadbalancer.domain.strategy.LoadBalancingStrategy;
+import com.liftlab.loadbalancer.domain.strategy.RandomStrategy;
+import com.liftlab.loadbalancer.domain.strategy.RoundRobinStrategy;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoutingStrategyFactoryTest {
+
+    private static final List<BackendServer> SERVERS = List.of(
+            new BackendServer("http://backend1.liftlab.com"),
+            new BackendServer("http://backend2.liftlab.com"),
+            new BackendServer("http://backend3.liftlab.com"));
+
+    private BackendStatsRegistry statsRegistry;
+    private RoutingStrategyFactory factory;
+
+    @BeforeEach
+    void setup() {
+        statsRegistry = new BackendStatsRegistry();
+        factory = new RoutingStrategyFactory(new RoundRobinStrategy(), statsRegistry);
+        factory.onServersChanged(SERVERS);
+    }
+
+    @Test
+    void testSwitchingBackResumesStrategyState() throws LoadBalancerException {
+        LoadBalancingStrategy roundRobin = factory.getStrategy();
+        assertThat(roundRobin.select(SERVERS)).isEqualTo(SERVERS.get(0));
+
+        assertThat(factory.setDefaultStrategy(StrategyType.RANDOM)).isEqualTo(StrategyType.ROUND_ROBIN);
+        assertThat(factory.getStrategy()).isInstanceOf(RandomStrategy.class);
+        assertThat(factory.setDefaultStrategy(StrategyType.ROUND_ROBIN)).isEqualTo(StrategyType.RANDOM);
+
+        // The same instance is switched back in, continuing where it left off.
+        assertThat(factory.getStrategy()).isSameAs(roundRobin);
+        assertThat(factory.getStrategy().select(SERVERS)).isEqualTo(SERVERS.get(1));
+    }
+
+    @Test
+    void testLoadAwareStrategySeesRequestsStartedBeforeSwitch() throws LoadBalancerException {
+        statsRegistry.statsFor(SERVERS.get(0)).requestStarted();
+        statsRegistry.statsFor(SERVERS.get(1)).requestStarted();
+
+        factory.setDefaultStrategy(StrategyType.LEAST_CONNECTIONS);
+
+        assertThat(factory.getStrategy()).isInstanceOf(LeastConnectionsStrategy.class);
+        assertThat(factory.getStrategy().select(SERVERS)).isEqualTo(SERVERS.get(2));
+    }
+
+    @Test
+    void testRoutesUseLongestMatchingPrefix() {
+        factory.setRouteStrategy("/orders/", StrategyType.CONSISTENT_HASH);
+        factory.setRouteStrategy("/orders/export", StrategyType.RANDOM);
+
+        assertThat(factory.getStrategy("/orders")).isInstanceOf(ConsistentHashStrategy.class);
+        assertThat(factory.getStrategy("/orders/42")).isInstanceOf(ConsistentHashStrategy.class);
+        assertThat(factory.getStrategy("/orders/export/2024")).isInstanceOf(RandomStrategy.class);
+        assertThat(factory.getStrategy("/orders-archive")).isInstanceOf(RoundRobinStrategy.class);
+        assertThat(factory.getStrategy("/")).isInstanceOf(RoundRobinStrategy.class);
+        assertThat(factory.getRouteStrategyTypes())
+                .containsExactly(Map.entry("/orders/export", StrategyType.RANDOM),
+                        Map.entry("/orders", StrategyType.CONSISTENT_HASH));
+
+        // Switching the default leaves routes alone.
+        factory.setDefaultStrategy(StrategyType.RANDOM);
+        assertThat(factory.getStrategy("/orders/42")).isInstanceOf(ConsistentHashStrategy.class);
+
+        assertThat(factory.removeRouteStrategy("/orders")).isTrue();
+        assertThat(factory.removeRouteStrategy("/orders")).isFalse();
+        assertThat(factory.getStrategy("/orders/42")).isInstanceOf(RandomStrategy.class);
+        assertThatThrownBy(() -> factory.setRouteStrategy("orders", StrategyType.RANDOM))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testIdleStrategiesAreKeptCurrent() throws LoadBalancerException {
+        factory.setRouteStrategy("/carts", StrategyType.CONSISTENT_HASH);
+        BackendServer chosen = factory.getStrategy("/carts").select(SERVERS, "cart-17");
+
+        List<BackendServer> remaining = new ArrayList<>(SERVERS);
+        remaining.remove(chosen);
+        // The strategy is idle while the route is removed, but still follows the server change.
+        factory.removeRouteStrategy("/carts");
+        factory.onServersChanged(List.copyOf(remaining));
+        factory.setDefaultStrategy(StrategyType.CONSISTENT_HASH);
+
+        assertThat(factory.getStrategy().select(List.copyOf(remaining), "cart-17")).isIn(remaining);
+    }
+
+    @Test
+    void testSwitchUnderConcurrentSelection() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(4);
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                started.countDown();
+                try {
+                    while (running.get()) {
+                        assertThat(factory.getStrategy("/orders/1").select(SERVERS, "key")).isIn(SERVERS);
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            }));
+        }
+        started.await();
+        StrategyType[] types = StrategyType.values();
+        for (int i = 0; i < 1_000; i++) {
+            factory.setDefaultStrategy(types[i % types.length]);
+            factory.setRouteStrategy("/orders", types[(i + 1) % types.length]);
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertThat(failure.get()).isNull();
+    }
+}
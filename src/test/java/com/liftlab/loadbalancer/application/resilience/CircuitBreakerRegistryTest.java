@@ -0,0 +1,70 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.configuration.CircuitBreakerProperties;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for CircuitBreakerRegistry.
+ */
+class CircuitBreakerRegistryTest {
+
+    private static final BackendServer SERVER_1 = new BackendServer("http://backend1.liftlab.com");
+    private static final BackendServer SERVER_2 = new BackendServer("http://backend2.liftlab.com");
+    private static final BackendServer SERVER_3 = new BackendServer("http://backend3.liftlab.com");
+
+    @Test
+    void testEachBackendHasOneCircuit() {
+        CircuitBreakerRegistry registry = newRegistry(Duration.ofMinutes(1));
+        open(registry.circuitBreakerFor(SERVER_2));
+
+        assertThat(registry.circuitBreakerFor(new BackendServer(SERVER_2.url(), 5)))
+                .isSameAs(registry.circuitBreakerFor(SERVER_2));
+        assertThat(registry.circuitBreakerFor(SERVER_2).tryAcquirePermission()).isFalse();
+        assertThat(registry.circuitBreakerFor(SERVER_1).tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void testRemovedBackendsLoseTheirCircuit() throws Exception {
+        CircuitBreakerRegistry registry = newRegistry(Duration.ofMinutes(1));
+        CircuitBreaker circuitBreaker = registry.circuitBreakerFor(SERVER_3);
+        open(circuitBreaker);
+        MapBasedBackendConfigRepository repository = new MapBasedBackendConfigRepository();
+        repository.registerBackend(SERVER_1);
+        repository.registerBackend(SERVER_2);
+
+        registry.onServersChanged(repository.getSnapshot());
+
+        assertThat(registry.circuitBreakerFor(SERVER_3)).isNotSameAs(circuitBreaker);
+        assertThat(registry.circuitBreakerFor(SERVER_3).getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testDisabledRegistryNeverOpens() {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.disabled();
+        CircuitBreaker circuitBreaker = registry.circuitBreakerFor(SERVER_1);
+        for (int i = 0; i < 100; i++) {
+            circuitBreaker.onResult(0, true);
+        }
+
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(registry.circuitBreakerFor(SERVER_2)).isSameAs(circuitBreaker);
+    }
+
+    private static CircuitBreakerRegistry newRegistry(Duration openDuration) {
+        return new CircuitBreakerRegistry(new CircuitBreakerProperties(true, 4, 4, 50, 100, Duration.ofSeconds(1),
+                openDuration, 1));
+    }
+
+    private static void open(CircuitBreaker circuitBreaker) {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onResult(0, true);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
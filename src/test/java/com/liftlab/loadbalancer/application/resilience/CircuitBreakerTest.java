@@ -0,0 +1,139 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import com.liftlab.loadbalancer.configuration.CircuitBreakerProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for CircuitBreaker state transitions and its sliding window.
+ */
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    @Test
+    void testOpensOnFailureRate() {
+        CircuitBreaker circuitBreaker = newCircuitBreaker(Duration.ofMinutes(1));
+        // Below the minimum number of calls, failures alone do not open the circuit.
+        record(circuitBreaker, 4, FAST, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        circuitBreaker.onResult(FAST, true);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void testOldOutcomesLeaveTheWindow() {
+        CircuitBreaker circuitBreaker = newCircuitBreaker(Duration.ofMinutes(1));
+        record(circuitBreaker, 10, FAST, false);
+        record(circuitBreaker, 4, FAST, true);
+        // Ten successes push the failures out of the ten-call window.
+        record(circuitBreaker, 10, FAST, false);
+        record(circuitBreaker, 4, FAST, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        circuitBreaker.onResult(FAST, true);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void testOpensOnSlowCallRate() {
+        CircuitBreaker circuitBreaker = newCircuitBreaker(Duration.ofMinutes(1));
+        record(circuitBreaker, 3, FAST, false);
+        record(circuitBreaker, 7, SLOW, false);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        circuitBreaker.onResult(SLOW, false);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void testHalfOpenAdmitsLimitedTrialsAndCloses() throws InterruptedException {
+        CircuitBreaker circuitBreaker = newCircuitBreaker(Duration.ofMillis(50));
+        openByFailures(circuitBreaker);
+        Thread.sleep(100);
+
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+
+        circuitBreaker.onResult(FAST, false);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        circuitBreaker.onResult(FAST, false);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        // The window starts empty again, so a single failure does not reopen the circuit.
+        circuitBreaker.onResult(FAST, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testFailedTrialReopens() throws InterruptedException {
+        CircuitBreaker circuitBreaker = newCircuitBreaker(Duration.ofMillis(50));
+        openByFailures(circuitBreaker);
+        Thread.sleep(100);
+
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        circuitBreaker.onResult(SLOW, false);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void testConcurrentRecordingKeepsWindowConsistent() throws InterruptedException {
+        CircuitBreakerProperties properties = new CircuitBreakerProperties(true, 64, 64, 100, 100,
+                Duration.ofSeconds(1), Duration.ofMinutes(1), 2);
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", properties);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    circuitBreaker.onResult(FAST, i % 4 == 0);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // A quarter of the calls fail, far below the threshold of 100%.
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        // If the totals drifted from the slots, the circuit would open before or after the window is all failures.
+        record(circuitBreaker, 64, FAST, false);
+        record(circuitBreaker, 63, FAST, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        circuitBreaker.onResult(FAST, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private CircuitBreaker newCircuitBreaker(Duration openDuration) {
+        // Ten-call window evaluated from five calls; opens at 50% failures or 80% slow calls.
+        CircuitBreakerProperties properties = new CircuitBreakerProperties(true, 10, 5, 50, 80,
+                Duration.ofSeconds(1), openDuration, 2);
+        return new CircuitBreaker("http://backend1.liftlab.com", properties);
+    }
+
+    private static void openByFailures(CircuitBreaker circuitBreaker) {
+        record(circuitBreaker, 5, FAST, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private static void record(CircuitBreaker circuitBreaker, int calls, long durationNanos, boolean failed) {
+        for (int i = 0; i < calls; i++) {
+            circuitBreaker.onResult(durationNanos, failed);
+        }
+    }
+}
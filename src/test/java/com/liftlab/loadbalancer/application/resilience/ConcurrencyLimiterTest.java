@@ -0,0 +1,92 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import com.liftlab.loadbalancer.configuration.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ConcurrencyLimiter admission and limit adaptation.
+ */
+class ConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final long SLOW = Duration.ofMillis(10).toNanos();
+
+    @Test
+    void testRequestsAboveTheLimitAreNotAdmitted() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("backend", new ConcurrencyLimitProperties(true, 2, 1,
+                100, 1000));
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void testLimitGrowsWhileLatencyStaysAtTheNoLoadLevel() {
+        ConcurrencyLimiter limiter = newLimiter(10);
+
+        for (int round = 0; round < 5; round++) {
+            runAtLimit(limiter, FAST, false);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void testLimitShrinksWhenRequestsQueueUp() {
+        ConcurrencyLimiter limiter = newLimiter(50);
+        runAtLimit(limiter, FAST, false);
+        int grown = limiter.getLimit();
+
+        for (int round = 0; round < 20; round++) {
+            runAtLimit(limiter, SLOW, false);
+        }
+
+        // Small limits tolerate a queue of a few requests, so the limit settles just above the minimum.
+        assertThat(limiter.getLimit()).isLessThan(grown).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void testOverloadShrinksTheLimit() {
+        ConcurrencyLimiter limiter = newLimiter(20);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.onSample(FAST, true);
+
+        assertThat(limiter.getLimit()).isLessThan(20);
+    }
+
+    @Test
+    void testDisabledLimiterAdmitsEverything() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("backend", ConcurrencyLimitProperties.disabled());
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+    }
+
+    private static ConcurrencyLimiter newLimiter(int initialLimit) {
+        return new ConcurrencyLimiter("backend", new ConcurrencyLimitProperties(true, initialLimit, 4, 1000, 1000));
+    }
+
+    /**
+     * Fills the limit, then completes every request with the given latency.
+     */
+    private static void runAtLimit(ConcurrencyLimiter limiter, long latencyNanos, boolean overloaded) {
+        int admitted = 0;
+        while (limiter.tryAcquire()) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limiter.onSample(latencyNanos, overloaded);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.configuration.OutlierDetectionProperties;
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for OutlierDetector using MapBasedBackendConfigRepository.
+ */
+class OutlierDetectorTest {
+
+    private static final BackendServer SERVER_1 = new BackendServer("http://backend1.liftlab.com");
+    private static final BackendServer SERVER_2 = new BackendServer("http://backend2.liftlab.com");
+    private static final BackendServer SERVER_3 = new BackendServer("http://backend3.liftlab.com");
+    private static final BackendServer SERVER_4 = new BackendServer("http://backend4.liftlab.com");
+
+    private MapBasedBackendConfigRepository repository;
+    private BackendStatsRegistry statsRegistry;
+    private OutlierDetector detector;
+
+    @BeforeEach
+    void setup() throws LoadBalancerException {
+        repository = new MapBasedBackendConfigRepository();
+        for (BackendServer server : new BackendServer[] {SERVER_1, SERVER_2, SERVER_3, SERVER_4}) {
+            repository.registerBackend(server);
+        }
+        statsRegistry = new BackendStatsRegistry();
+        detector = newDetector(Duration.ofSeconds(10), 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        detector.close();
+    }
+
+    @Test
+    void testConsecutiveErrorsEjectBackend() {
+        for (int i = 0; i < 4; i++) {
+            detector.recordResponse(SERVER_1, 503);
+        }
+        // A success in between resets the streak.
+        detector.recordResponse(SERVER_1, 200);
+        for (int i = 0; i < 4; i++) {
+            detector.recordResponse(SERVER_1, 500);
+        }
+        assertThat(repository.getActiveServers()).contains(SERVER_1);
+
+        detector.recordFailure(SERVER_1, new HttpTimeoutException("request timed out"));
+
+        assertThat(repository.getInactiveServers()).containsExactly(SERVER_1);
+        assertThat(detector.isEjected(SERVER_1)).isTrue();
+    }
+
+    @Test
+    void testConsecutiveConnectFailuresEjectBackend() {
+        detector.recordFailure(SERVER_2, new ConnectException("Connection refused"));
+        detector.recordFailure(SERVER_2, new ConnectException("Connection refused"));
+        assertThat(repository.getActiveServers()).contains(SERVER_2);
+
+        detector.recordFailure(SERVER_2, new ConnectException("Connection refused"));
+
+        assertThat(repository.getInactiveServers()).containsExactly(SERVER_2);
+    }
+
+    @Test
+    void testEjectedBackendIsReadmittedWithExponentialBackOff() throws Exception {
+        detector.close();
+        detector = newDetector(Duration.ofMillis(200), 50);
+
+        ejectByConnectFailures(SERVER_1);
+        assertThat(repository.getInactiveServers()).containsExactly(SERVER_1);
+        awaitActive(SERVER_1, Duration.ofSeconds(5));
+        assertThat(detector.isEjected(SERVER_1)).isFalse();
+
+        // The second ejection lasts twice as long as the first.
+        long start = System.nanoTime();
+        ejectByConnectFailures(SERVER_1);
+        awaitActive(SERVER_1, Duration.ofSeconds(5));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(400));
+    }
+
+    @Test
+    void testBackendFailingHealthProbeIsNotReadmitted() throws Exception {
+        detector.close();
+        detector = newDetector(Duration.ofMillis(100), 50);
+        AtomicInteger probes = new AtomicInteger();
+        detector.setHealthProbe(server -> probes.incrementAndGet() < 0);
+
+        ejectByConnectFailures(SERVER_1);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (detector.isEjected(SERVER_1) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // The ejection is over, but the backend stays out until a health check finds it recovered.
+        assertThat(detector.isEjected(SERVER_1)).isFalse();
+        assertThat(probes.get()).isEqualTo(1);
+        assertThat(repository.getInactiveServers()).containsExactly(SERVER_1);
+    }
+
+    @Test
+    void testLatencyOutlierIsEjected() throws Exception {
+        recordLatency(SERVER_1, 10);
+        recordLatency(SERVER_2, 12);
+        recordLatency(SERVER_3, 11);
+        recordLatency(SERVER_4, 200);
+
+        detector.recordResponse(SERVER_1, 200);
+        detector.recordResponse(SERVER_4, 200);
+
+        // The comparison runs on the detector's thread.
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (repository.getActiveServers().contains(SERVER_4) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(repository.getActiveServers()).containsExactly(SERVER_1, SERVER_2, SERVER_3);
+        assertThat(repository.getInactiveServers()).containsExactly(SERVER_4);
+    }
+
+    @Test
+    void testEjectionsAreCappedByMaxEjectionPercent() {
+        detector.close();
+        detector = newDetector(Duration.ofSeconds(10), 25);
+
+        ejectByConnectFailures(SERVER_1);
+        ejectByConnectFailures(SERVER_2);
+
+        assertThat(repository.getInactiveServers()).containsExactly(SERVER_1);
+        assertThat(detector.isEjected(SERVER_2)).isFalse();
+    }
+
+    @Test
+    void testDisabledDetectorNeverEjects() {
+        OutlierDetector disabled = OutlierDetector.disabled();
+        for (int i = 0; i < 10; i++) {
+            disabled.recordResponse(SERVER_1, 500);
+            disabled.recordFailure(SERVER_1, new IOException("Connection reset"));
+        }
+        assertThat(disabled.isEjected(SERVER_1)).isFalse();
+        assertThat(repository.getActiveServers()).contains(SERVER_1);
+    }
+
+    private OutlierDetector newDetector(Duration baseEjectionTime, int maxEjectionPercent) {
+        // Compare latencies on every response to keep the test deterministic.
+        return new OutlierDetector(repository, statsRegistry, new OutlierDetectionProperties(true, 5, 3, 3.0,
+                Duration.ofMillis(50), 1, baseEjectionTime, Duration.ofMinutes(1), maxEjectionPercent));
+    }
+
+    private void ejectByConnectFailures(BackendServer server) {
+        for (int i = 0; i < 3; i++) {
+            detector.recordFailure(server, new ConnectException("Connection refused"));
+        }
+    }
+
+    private void recordLatency(BackendServer server, long millis) {
+        statsRegistry.statsFor(server).requestStarted();
+        statsRegistry.statsFor(server).requestCompleted(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private void awaitActive(BackendServer server, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!repository.getActiveServers().contains(server) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(repository.getActiveServers()).contains(server);
+    }
+}
@@ -0,0 +1,74 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import com.liftlab.loadbalancer.configuration.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for RateLimiter buckets and its bounded client table.
+ */
+class RateLimiterTest {
+
+    @Test
+    void testBurstThenSustainedRate() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(new RateLimitProperties(true, 100, 5, 16));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.tryAcquire("client")).isTrue();
+        }
+        assertThat(rateLimiter.tryAcquire("client")).isFalse();
+        assertThat(rateLimiter.tryAcquire("other")).isTrue();
+
+        // At 100 requests per second a token is back after 10 ms.
+        Thread.sleep(30);
+        assertThat(rateLimiter.tryAcquire("client")).isTrue();
+        assertThat(rateLimiter.rejectedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void testConcurrentRequestsNeverExceedTheBurst() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(new RateLimitProperties(true, 0.001, 100, 16));
+        AtomicInteger admitted = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 1_000; i++) {
+                executor.execute(() -> {
+                    if (rateLimiter.tryAcquire("client")) {
+                        admitted.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        // A racing first request may create a second bucket, which admits at most one more burst.
+        assertThat(admitted.get()).isBetween(100, 200);
+    }
+
+    @Test
+    void testThrottledClientsSurviveAFloodOfNewClients() {
+        RateLimiter rateLimiter = new RateLimiter(new RateLimitProperties(true, 0.001, 2, 64));
+        rateLimiter.tryAcquire("greedy");
+        rateLimiter.tryAcquire("greedy");
+        assertThat(rateLimiter.tryAcquire("greedy")).isFalse();
+
+        // Far more clients than the table holds; each one leaves a bucket with tokens to spare.
+        for (int i = 0; i < 100_000; i++) {
+            rateLimiter.tryAcquire("client-" + i);
+        }
+
+        assertThat(rateLimiter.tryAcquire("greedy")).isFalse();
+    }
+
+    @Test
+    void testDisabledLimiterAdmitsEverything() {
+        RateLimiter rateLimiter = RateLimiter.disabled();
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(rateLimiter.tryAcquire("client")).isTrue();
+        }
+    }
+}
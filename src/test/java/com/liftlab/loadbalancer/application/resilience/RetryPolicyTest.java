@@ -0,0 +1,80 @@
+package com.liftlab.loadbalancer.application.resilience;
+
+import com.liftlab.loadbalancer.configuration.RetryProperties;
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for RetryPolicy eligibility, hedge delay and the retry budget.
+ */
+class RetryPolicyTest {
+
+    @Test
+    void testOnlyRequestsWithoutBodyQualify() {
+        RetryPolicy policy = new RetryPolicy(RetryProperties.defaults());
+
+        assertThat(policy.canHedge(request("GET", 0))).isTrue();
+        assertThat(policy.canHedge(request("DELETE", 0))).isTrue();
+        assertThat(policy.canHedge(request("POST", 0))).isFalse();
+        assertThat(policy.canHedge(request("PUT", 10))).isFalse();
+        assertThat(policy.canRetry(request("POST", 0))).isTrue();
+        assertThat(policy.canRetry(request("GET", -1))).isFalse();
+        assertThat(RetryPolicy.disabled().canHedge(request("GET", 0))).isFalse();
+        assertThat(RetryPolicy.disabled().canRetry(request("GET", 0))).isFalse();
+    }
+
+    @Test
+    void testOnlyConnectionFailuresAreRetried() {
+        assertThat(RetryPolicy.isConnectFailure(new ConnectException("refused"))).isTrue();
+        assertThat(RetryPolicy.isConnectFailure(new HttpTimeoutException("timed out"))).isFalse();
+    }
+
+    @Test
+    void testHedgeDelayFollowsThePercentileWithAFloor() {
+        RetryPolicy policy = new RetryPolicy(new RetryProperties(1, true, 95, Duration.ofMillis(10), 20, 100));
+        for (int i = 0; i < 100; i++) {
+            policy.recordLatency(Duration.ofMillis(1).toNanos());
+        }
+        assertThat(policy.hedgeDelayNanos()).isEqualTo(Duration.ofMillis(10).toNanos());
+
+        RetryPolicy slower = new RetryPolicy(new RetryProperties(1, true, 95, Duration.ofMillis(10), 20, 100));
+        assertThat(slower.hedgeDelayNanos()).isEqualTo(-1);
+        for (int i = 0; i < 100; i++) {
+            slower.recordLatency(Duration.ofMillis(40).toNanos());
+        }
+        // The estimate is cached between refreshes.
+        assertThat(slower.hedgeDelayNanos()).isEqualTo(-1);
+    }
+
+    @Test
+    void testBudgetIsRefilledByTraffic() {
+        RetryBudget budget = new RetryBudget(20, 2);
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+
+        for (int i = 0; i < 4; i++) {
+            budget.recordRequest();
+        }
+        assertThat(budget.tryAcquire()).isFalse();
+        budget.recordRequest();
+        assertThat(budget.tryAcquire()).isTrue();
+
+        for (int i = 0; i < 1_000; i++) {
+            budget.recordRequest();
+        }
+        assertThat(budget.available()).isEqualTo(2);
+    }
+
+    private static ProxyRequest request(String method, long contentLength) {
+        return new ProxyRequest(method, "/", null, Map.of(), InputStream.nullInputStream(), contentLength);
+    }
+}
@@ -1,16 +1,33 @@
 package com.liftlab.loadbalancer.application.service;
 
+import com.liftlab.loadbalancer.adapters.out.http.JdkHttpBackendClient;
 import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
+import com.liftlab.loadbalancer.application.cache.ResponseCache;
 import com.liftlab.loadbalancer.application.factory.RoutingStrategyFactory;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreakerRegistry;
+import com.liftlab.loadbalancer.application.resilience.ConcurrencyLimiterRegistry;
+import com.liftlab.loadbalancer.application.resilience.OutlierDetector;
+import com.liftlab.loadbalancer.application.resilience.RetryPolicy;
+import com.liftlab.loadbalancer.configuration.ForwardingProperties;
 import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import com.liftlab.loadbalancer.domain.model.ProxyResponse;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
 import com.liftlab.loadbalancer.domain.strategy.RoundRobinStrategy;
 import com.liftlab.loadbalancer.port.out.MonitoringPort;
+import com.liftlab.loadbalancer.support.StubBackend;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -21,36 +38,47 @@ class LoadBalancerServiceConcurrentTest {
     private RoutingStrategyFactory routingStrategyFactory;
     private MonitoringPort monitoringPort;
     private MapBasedBackendConfigRepository backendRepository;
+    private ExecutorService clientExecutor;
     private LoadBalancerService loadBalancerService;
+    private final List<StubBackend> backends = new ArrayList<>();
 
     @BeforeEach
     void setup() throws Exception {
         // Use the RoundRobinStrategy for predictable behavior.
-        routingStrategyFactory = new RoutingStrategyFactory(new RoundRobinStrategy());
+        BackendStatsRegistry statsRegistry = new BackendStatsRegistry();
+        routingStrategyFactory = new RoutingStrategyFactory(new RoundRobinStrategy(), statsRegistry);
         // Mock the MonitoringPort.
         monitoringPort = mock(MonitoringPort.class);
         // Use the new map-based repository.
         backendRepository = new MapBasedBackendConfigRepository();
-        // Clear any potential pre-registered servers.
-        backendRepository.removeBackend(new BackendServer("http://localhost:8081"));
-        backendRepository.removeBackend(new BackendServer("http://localhost:8082"));
-        backendRepository.removeBackend(new BackendServer("http://localhost:8083"));
-        // Register three backend servers.
-        backendRepository.registerBackend(new BackendServer("http://localhost:8081"));
-        backendRepository.registerBackend(new BackendServer("http://localhost:8082"));
-        backendRepository.registerBackend(new BackendServer("http://localhost:8083"));
+        // Start and register three stub backend servers.
+        for (int i = 1; i <= 3; i++) {
+            StubBackend backend = StubBackend.start("backend" + i);
+            backends.add(backend);
+            backendRepository.registerBackend(new BackendServer(backend.url()));
+        }
         // Create the load balancer service.
-        loadBalancerService = new LoadBalancerService(routingStrategyFactory, monitoringPort, backendRepository);
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        loadBalancerService = new LoadBalancerService(routingStrategyFactory, monitoringPort, backendRepository,
+                statsRegistry, new JdkHttpBackendClient(ForwardingProperties.defaults(), clientExecutor),
+                OutlierDetector.disabled(), CircuitBreakerRegistry.disabled(), RetryPolicy.disabled(),
+                ForkJoinPool.commonPool(), ResponseCache.disabled(), ConcurrencyLimiterRegistry.disabled());
+    }
+
+    @AfterEach
+    void tearDown() {
+        backends.forEach(StubBackend::close);
+        clientExecutor.close();
     }
 
     @Test
-    void testConcurrentForwardRequests() throws InterruptedException, ExecutionException {
+    void testConcurrentForwardRequests() throws InterruptedException, ExecutionException, IOException {
         int numberOfRequests = 60;
         ExecutorService executorService = Executors.newFixedThreadPool(10);
         CountDownLatch startLatch = new CountDownLatch(1);
         CountDownLatch doneLatch = new CountDownLatch(numberOfRequests);
 
-        List<Future<String>> futures = new ArrayList<>();
+        List<Future<ProxyResponse>> futures = new ArrayList<>();
 
         // Submit concurrent tasks.
         for (int i = 0; i < numberOfRequests; i++) {
@@ -59,8 +87,10 @@ class LoadBalancerServiceConcurrentTest {
                 // Wait until all tasks are ready.
                 startLatch.await();
                 try {
-                    String response = loadBalancerService.forwardRequest("Concurrent Request " + index);
-                    return response;
+                    byte[] body = ("Concurrent Request " + index).getBytes(StandardCharsets.UTF_8);
+                    ProxyRequest request = new ProxyRequest("POST", "/", null, Map.of(),
+                            new ByteArrayInputStream(body), body.length);
+                    return loadBalancerService.forwardRequest(request, null);
                 } finally {
                     doneLatch.countDown();
                 }
@@ -75,30 +105,29 @@ class LoadBalancerServiceConcurrentTest {
 
         // Collect responses.
         List<String> responses = new ArrayList<>();
-        for (Future<String> future : futures) {
-            responses.add(future.get());
+        for (Future<ProxyResponse> future : futures) {
+            ProxyResponse response = future.get();
+            assertThat(response.status()).isEqualTo(200);
+            try (InputStream body = response.body()) {
+                responses.add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
         }
 
-        // Verify that every response contains one of the registered URLs.
+        // Verify that every response was served by one of the registered backends.
         for (String response : responses) {
             assertThat(response).matches(r ->
-                            r.contains("http://localhost:8081") ||
-                                    r.contains("http://localhost:8082") ||
-                                    r.contains("http://localhost:8083"),
-                    "Response should contain one of the registered backend URLs");
+                            r.startsWith("backend1") || r.startsWith("backend2") || r.startsWith("backend3"),
+                    "Response should come from one of the registered backends");
         }
 
-        // Optionally, we can verify that the monitoringPort.report() was called the expected number of times.
+        // Verify that the monitoringPort.recordForwarded() was called the expected number of times.
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(monitoringPort, times(numberOfRequests)).report(captor.capture());
+        verify(monitoringPort, times(numberOfRequests)).recordForwarded(any(), captor.capture(), anyInt(), anyLong());
 
-        // Verify that each monitoring report contains one of the registered URLs.
-        for (String report : captor.getAllValues()) {
-            assertThat(report).matches(r ->
-                            r.contains("http://localhost:8081") ||
-                                    r.contains("http://localhost:8082") ||
-                                    r.contains("http://localhost:8083"),
-                    "Monitoring report should contain one of the registered backend URLs");
+        // Verify that each monitoring record names one of the registered URLs.
+        for (String url : captor.getAllValues()) {
+            assertThat(url).matches(u -> backends.stream().anyMatch(b -> b.url().equals(u)),
+                    "Monitoring record should name one of the registered backend URLs");
         }
     }
 }
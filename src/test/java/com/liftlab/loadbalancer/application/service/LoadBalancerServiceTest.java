@@ -1,14 +1,47 @@
 package com.liftlab.loadbalancer.application.service;
 
+import com.liftlab.loadbalancer.adapters.out.http.JdkHttpBackendClient;
 import com.liftlab.loadbalancer.adapters.out.repository.MapBasedBackendConfigRepository;
 import com.liftlab.loadbalancer.application.factory.RoutingStrategyFactory;
+import com.liftlab.loadbalancer.application.cache.ResponseCache;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreaker;
+import com.liftlab.loadbalancer.application.resilience.CircuitBreakerRegistry;
+import com.liftlab.loadbalancer.application.resilience.ConcurrencyLimiterRegistry;
+import com.liftlab.loadbalancer.application.resilience.OutlierDetector;
+import com.liftlab.loadbalancer.application.resilience.RetryPolicy;
+import com.liftlab.loadbalancer.configuration.CircuitBreakerProperties;
+import com.liftlab.loadbalancer.configuration.ConcurrencyLimitProperties;
+import com.liftlab.loadbalancer.configuration.ForwardingProperties;
+import com.liftlab.loadbalancer.configuration.OutlierDetectionProperties;
+import com.liftlab.loadbalancer.configuration.RetryProperties;
 import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
 import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.model.ProxyRequest;
+import com.liftlab.loadbalancer.domain.model.ProxyResponse;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
 import com.liftlab.loadbalancer.domain.strategy.RoundRobinStrategy;
+import com.liftlab.loadbalancer.domain.strategy.StrategyType;
+import com.liftlab.loadbalancer.port.out.BackendClientPort;
 import com.liftlab.loadbalancer.port.out.MonitoringPort;
+import com.liftlab.loadbalancer.support.StubBackend;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,59 +51,429 @@ class LoadBalancerServiceTest {
     private RoutingStrategyFactory routingStrategyFactory;
     private MonitoringPort monitoringPort;
     private MapBasedBackendConfigRepository backendRepository;
+    private BackendStatsRegistry statsRegistry;
+    private ExecutorService executor;
     private LoadBalancerService loadBalancerService;
+    private StubBackend backend1;
+    private StubBackend backend2;
 
     @BeforeEach
-    void setup() throws LoadBalancerException {
+    void setup() throws Exception {
         // Use RoundRobinStrategy.
-        routingStrategyFactory = new RoutingStrategyFactory(new RoundRobinStrategy());
+        statsRegistry = new BackendStatsRegistry();
+        routingStrategyFactory = new RoutingStrategyFactory(new RoundRobinStrategy(), statsRegistry);
         // Mock the MonitoringPort.
         monitoringPort = mock(MonitoringPort.class);
-        // Use the new MapBasedBackendConfigRepository.
+        // Start two stub backends and register the first one.
+        backend1 = StubBackend.start("backend1");
+        backend2 = StubBackend.start("backend2");
         backendRepository = new MapBasedBackendConfigRepository();
-        // Clear any existing backend entries and register a fixed backend "http://localhost:8081".
-        // (If defaults exist, remove them for predictable behavior.)
-        backendRepository.removeBackend(new BackendServer("http://localhost:8081"));
-        backendRepository.removeBackend(new BackendServer("http://localhost:8082"));
-        backendRepository.registerBackend(new BackendServer("http://localhost:8081"));
-        loadBalancerService = new LoadBalancerService(routingStrategyFactory, monitoringPort, backendRepository);
+        backendRepository.registerBackend(new BackendServer(backend1.url()));
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        loadBalancerService = newService(ForwardingProperties.defaults());
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend1.close();
+        backend2.close();
+        executor.close();
     }
 
     @Test
-    void testForwardRequestSuccess() {
-        String request = "Test Request";
-        String response = loadBalancerService.forwardRequest(request);
+    void testForwardRequestSuccess() throws IOException {
+        ProxyResponse response = loadBalancerService.forwardRequest(request("POST", "/orders", "Test Request"), null);
 
-        // We registered http://localhost:8081, so we expect this URL in the response.
-        assertTrue(response.contains("http://localhost:8081"),
-                "Response should contain the backend URL 'http://localhost:8081'.");
+        // We registered backend1, so we expect its echoed response.
+        assertEquals(200, response.status());
+        assertEquals(List.of("backend1"), header(response, "X-Backend"));
+        assertEquals(1, statsRegistry.statsFor(new BackendServer(backend1.url())).inFlight(),
+                "The request stays in flight until the backend's response body has ended.");
+        try (InputStream body = response.body()) {
+            assertEquals("backend1 POST /orders?page=1 Test Request",
+                    new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(0, statsRegistry.statsFor(new BackendServer(backend1.url())).inFlight(),
+                    "The in-flight count should be released once the backend's body has ended.");
+        }
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(monitoringPort).report(captor.capture());
-        assertTrue(captor.getValue().contains("http://localhost:8081"),
-                "Monitoring report should contain the backend URL 'http://localhost:8081'.");
+        verify(monitoringPort).recordForwarded(eq(StrategyType.ROUND_ROBIN), eq(backend1.url()), eq(200), anyLong());
+        verify(monitoringPort, never()).recordRequest(any());
     }
 
     @Test
     void testDynamicRegistration() throws LoadBalancerException {
-        // Remove the initial server.
-        backendRepository.removeBackend(new BackendServer("http://localhost:8081"));
-        // Register a new backend dynamically.
-        backendRepository.registerBackend(new BackendServer("http://localhost:8082"));
+        // Remove the initial server and register a new backend dynamically.
+        backendRepository.removeBackend(new BackendServer(backend1.url()));
+        backendRepository.registerBackend(new BackendServer(backend2.url()));
+
+        ProxyResponse response = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+
+        // Expect the response to now come from the new backend.
+        assertEquals(200, response.status());
+        assertTrue(body(response).startsWith("backend2 GET"),
+                "Response should come from the dynamically registered backend.");
+
+        verify(monitoringPort).recordForwarded(any(), eq(backend2.url()), eq(200), anyLong());
+    }
+
+    @Test
+    void testNoBackendAvailableReturnsServiceUnavailable() throws LoadBalancerException {
+        backendRepository.removeBackend(new BackendServer(backend1.url()));
+
+        ProxyResponse response = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+
+        assertEquals(503, response.status());
+        assertEquals("Failed to forward request: No backend servers available", body(response));
+    }
+
+    @Test
+    void testUnreachableBackendReturnsBadGateway() throws LoadBalancerException {
+        String url = backend2.url();
+        backend2.close();
+        backendRepository.removeBackend(new BackendServer(backend1.url()));
+        backendRepository.registerBackend(new BackendServer(url));
+
+        ProxyResponse response = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+
+        assertEquals(502, response.status());
+        assertTrue(body(response).contains(url));
+    }
+
+    @Test
+    void testSlowBackendReturnsGatewayTimeout() throws Exception {
+        try (StubBackend slow = StubBackend.start("slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubBackend.respond(exchange, 200, "late");
+        })) {
+            backendRepository.removeBackend(new BackendServer(backend1.url()));
+            backendRepository.registerBackend(new BackendServer(slow.url()));
+            // Per-backend read timeout override for the slow backend only.
+            loadBalancerService = newService(new ForwardingProperties(Duration.ofSeconds(2), Duration.ofSeconds(30),
+                    Map.of(slow.url(), new ForwardingProperties.BackendTimeouts(null, Duration.ofMillis(200)))));
+
+            ProxyResponse response = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+
+            assertEquals(504, response.status());
+        }
+    }
+
+    @Test
+    void testFailingBackendIsEjectedByOutlierDetection() throws Exception {
+        try (StubBackend failing = StubBackend.start("failing", exchange -> StubBackend.respond(exchange, 500, "boom"));
+             OutlierDetector outlierDetector = new OutlierDetector(backendRepository, statsRegistry,
+                     OutlierDetectionProperties.defaults())) {
+            BackendServer failingServer = new BackendServer(failing.url());
+            backendRepository.registerBackend(failingServer);
+            loadBalancerService = new LoadBalancerService(routingStrategyFactory, monitoringPort, backendRepository,
+                    statsRegistry, new JdkHttpBackendClient(ForwardingProperties.defaults(), executor),
+                    outlierDetector, CircuitBreakerRegistry.disabled(), RetryPolicy.disabled(), executor,
+                    ResponseCache.disabled(), ConcurrencyLimiterRegistry.disabled());
+
+            // Round robin alternates between the two backends; the failing one is ejected after 5 errors.
+            for (int i = 0; i < 10; i++) {
+                loadBalancerService.forwardRequest(request("GET", "/", ""), null).body().close();
+            }
+
+            assertEquals(List.of(failingServer), backendRepository.getInactiveServers());
+            assertEquals(200, loadBalancerService.forwardRequest(request("GET", "/", ""), null).status());
+        }
+    }
+
+    @Test
+    void testBackendWithOpenCircuitIsSkipped() throws Exception {
+        try (StubBackend failing = StubBackend.start("failing",
+                exchange -> StubBackend.respond(exchange, 503, "busy"))) {
+            backendRepository.registerBackend(new BackendServer(failing.url()));
+            loadBalancerService = new LoadBalancerService(routingStrategyFactory, monitoringPort, backendRepository,
+                    statsRegistry, new JdkHttpBackendClient(ForwardingProperties.defaults(), executor),
+                    OutlierDetector.disabled(), new CircuitBreakerRegistry(new CircuitBreakerProperties(true, 4, 4,
+                            50, 100, Duration.ofSeconds(5), Duration.ofMinutes(1), 1)), RetryPolicy.disabled(),
+                    executor, ResponseCache.disabled(), ConcurrencyLimiterRegistry.disabled());
+
+            // Round robin alternates; the failing backend's circuit opens after its fourth call.
+            for (int i = 0; i < 8; i++) {
+                loadBalancerService.forwardRequest(request("GET", "/", ""), null).body().close();
+            }
+
+            // The backend stays registered and active, but no longer gets traffic.
+            assertEquals(2, backendRepository.getActiveServers().size());
+            for (int i = 0; i < 4; i++) {
+                ProxyResponse response = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+                assertEquals(200, response.status());
+                assertEquals(List.of("backend1"), header(response, "X-Backend"));
+                response.body().close();
+            }
+        }
+    }
+
+    @Test
+    void testRuntimeFailureIsReportedToTheCircuitBreaker() throws Exception {
+        BackendClientPort client = mock(BackendClientPort.class);
+        when(client.send(any(), any())).thenThrow(new IllegalArgumentException("Illegal character in authority"));
+        CircuitBreakerRegistry circuitBreakers = new CircuitBreakerRegistry(new CircuitBreakerProperties(true, 4, 4,
+                50, 100, Duration.ofSeconds(5), Duration.ofMinutes(1), 1));
+        loadBalancerService = new LoadBalancerService(routingStrategyFactory, monitoringPort, backendRepository,
+                statsRegistry, client, OutlierDetector.disabled(), circuitBreakers, RetryPolicy.disabled(), executor,
+                ResponseCache.disabled(), ConcurrencyLimiterRegistry.disabled());
+
+        for (int i = 0; i < 4; i++) {
+            ProxyResponse response = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+            assertEquals(502, response.status());
+            assertTrue(body(response).contains("Illegal character in authority"));
+        }
+
+        BackendServer server = new BackendServer(backend1.url());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakers.circuitBreakerFor(server).getState());
+        assertEquals(0, statsRegistry.statsFor(server).inFlight());
+    }
+
+    @Test
+    void testBackendAtItsConcurrencyLimitIsSkipped() throws Exception {
+        backendRepository.registerBackend(new BackendServer(backend2.url()));
+        loadBalancerService = new LoadBalancerService(routingStrategyFactory, monitoringPort, backendRepository,
+                statsRegistry, new JdkHttpBackendClient(ForwardingProperties.defaults(), executor),
+                OutlierDetector.disabled(), CircuitBreakerRegistry.disabled(), RetryPolicy.disabled(), executor,
+                ResponseCache.disabled(),
+                new ConcurrencyLimiterRegistry(new ConcurrencyLimitProperties(true, 1, 1, 1, 1000)));
 
-        // Re-create the service to pick up updated repository state.
-        loadBalancerService = new LoadBalancerService(routingStrategyFactory, monitoringPort, backendRepository);
+        // Each backend admits one request at a time, held until its body is closed.
+        ProxyResponse first = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+        ProxyResponse second = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+        assertNotEquals(header(first, "X-Backend"), header(second, "X-Backend"));
 
-        String request = "Dynamic Test";
-        String response = loadBalancerService.forwardRequest(request);
+        ProxyResponse rejected = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+        assertEquals(503, rejected.status());
+        assertEquals("Failed to forward request: No backend server has capacity", body(rejected));
 
-        // Expect the response to now contain the new backend URL.
-        assertTrue(response.contains("http://localhost:8082"),
-                "Response should contain the dynamically registered backend URL 'http://localhost:8082'.");
+        first.body().close();
+        ProxyResponse third = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+        assertEquals(200, third.status());
+        assertEquals(header(first, "X-Backend"), header(third, "X-Backend"));
+        third.body().close();
+        second.body().close();
+    }
+
+    @Test
+    void testConnectFailureIsRetriedOnAnotherBackend() throws LoadBalancerException {
+        String url = backend2.url();
+        backend2.close();
+        backendRepository.registerBackend(new BackendServer(url));
+        loadBalancerService = newService(new RetryPolicy(new RetryProperties(1, false, 95, Duration.ofMillis(10),
+                20, 100)));
+
+        // Round robin sends one of the two requests to the closed backend first.
+        for (int i = 0; i < 2; i++) {
+            ProxyResponse response = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+            assertEquals(200, response.status());
+            assertTrue(body(response).startsWith("backend1 GET"));
+        }
+    }
+
+    @Test
+    void testRetriesStopWhenTheBudgetIsSpent() throws LoadBalancerException {
+        String url = backend2.url();
+        backend2.close();
+        backendRepository.registerBackend(new BackendServer(url));
+        loadBalancerService = newService(new RetryPolicy(new RetryProperties(1, false, 95, Duration.ofMillis(10),
+                0, 0)));
+
+        List<Integer> statuses = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            ProxyResponse response = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+            statuses.add(response.status());
+            body(response);
+        }
+
+        assertTrue(statuses.contains(502), "Without budget the failed connection must not be retried.");
+    }
+
+    @Test
+    void testBudgetIsNotSpentWhenNoOtherBackendAdmitsTheRetry() throws LoadBalancerException {
+        // One retry in the budget and none earned; each backend admits one request at a time.
+        loadBalancerService = new LoadBalancerService(routingStrategyFactory, monitoringPort, backendRepository,
+                statsRegistry, new JdkHttpBackendClient(ForwardingProperties.defaults(), executor),
+                OutlierDetector.disabled(), CircuitBreakerRegistry.disabled(),
+                new RetryPolicy(new RetryProperties(1, false, 95, Duration.ofMillis(10), 0, 1)), executor,
+                ResponseCache.disabled(),
+                new ConcurrencyLimiterRegistry(new ConcurrencyLimitProperties(true, 1, 1, 1, 1000)));
+        ProxyResponse held = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+        String url = backend2.url();
+        backend2.close();
+        backendRepository.registerBackend(new BackendServer(url));
+
+        // The connection fails and backend1 refuses the retry, so it is not sent.
+        ProxyResponse refused = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+        assertEquals(502, refused.status());
+        body(refused);
+        body(held);
+
+        // Round robin sends one of the two requests to the closed backend first; its retry needs the budget.
+        for (int i = 0; i < 2; i++) {
+            ProxyResponse response = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+            assertEquals(200, response.status());
+            assertTrue(body(response).startsWith("backend1 GET"));
+        }
+    }
+
+    @Test
+    void testSlowBackendIsHedged() throws Exception {
+        try (StubBackend slow = StubBackend.start("slow", exchange -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubBackend.respond(exchange, 200, "late");
+        })) {
+            backendRepository.registerBackend(new BackendServer(slow.url()));
+            RetryPolicy retryPolicy = new RetryPolicy(new RetryProperties(0, true, 95, Duration.ofMillis(10),
+                    20, 100));
+            for (int i = 0; i < 100; i++) {
+                retryPolicy.recordLatency(Duration.ofMillis(20).toNanos());
+            }
+            loadBalancerService = newService(retryPolicy);
+
+            // Round robin sends one of the two requests to the slow backend, which is hedged after ~20 ms.
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < 2; i++) {
+                ProxyResponse response = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+                assertEquals(200, response.status());
+                assertEquals(List.of("backend1"), header(response, "X-Backend"));
+                response.body().close();
+            }
+            assertTrue(Duration.ofNanos(System.nanoTime() - startNanos).compareTo(Duration.ofSeconds(3)) < 0,
+                    "The hedged copy should answer long before the slow backend.");
+            // The losing attempt is cancelled and no longer counted as in flight.
+            BackendServer slowServer = new BackendServer(slow.url());
+            long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+            while (statsRegistry.statsFor(slowServer).inFlight() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, statsRegistry.statsFor(slowServer).inFlight());
+        }
+    }
+
+    @Test
+    void testHedgeCancelledBeforeItStartsReturnsItsSlot() throws Exception {
+        try (StubBackend slow = StubBackend.start("slow", exchange -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubBackend.respond(exchange, 200, "late");
+        })) {
+            backendRepository.registerBackend(new BackendServer(slow.url()));
+            RetryPolicy retryPolicy = new RetryPolicy(new RetryProperties(0, true, 95, Duration.ofMillis(10),
+                    20, 100));
+            for (int i = 0; i < 100; i++) {
+                retryPolicy.recordLatency(Duration.ofMillis(20).toNanos());
+            }
+            ConcurrencyLimiterRegistry limiters = new ConcurrencyLimiterRegistry(
+                    new ConcurrencyLimitProperties(true, 10, 1, 100, 1000));
+            // A single forwarding thread queues the hedge behind the slow attempt, so it is still pending
+            // when the slow backend answers first.
+            try (ExecutorService forwarding = Executors.newSingleThreadExecutor()) {
+                loadBalancerService = new LoadBalancerService(routingStrategyFactory, monitoringPort,
+                        backendRepository, statsRegistry,
+                        new JdkHttpBackendClient(ForwardingProperties.defaults(), executor),
+                        OutlierDetector.disabled(), CircuitBreakerRegistry.disabled(), retryPolicy, forwarding,
+                        ResponseCache.disabled(), limiters);
+
+                // Round robin sends the first request to backend1 and the second to the slow backend.
+                ProxyResponse first = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+                assertTrue(body(first).startsWith("backend1 GET"));
+                ProxyResponse second = loadBalancerService.forwardRequest(request("GET", "/", ""), null);
+                assertEquals("late", body(second));
+            }
+            assertEquals(0, limiters.limiterFor(new BackendServer(backend1.url())).inFlight(),
+                    "The hedge that never started must return its concurrency slot.");
+            assertEquals(0, limiters.limiterFor(new BackendServer(slow.url())).inFlight());
+        }
+    }
+
+    @Test
+    void testLargeBodiesAreStreamedBothWays() throws Exception {
+        long size = 8L * 1024 * 1024;
+        try (StubBackend counting = StubBackend.start("counting", exchange -> {
+            // Count the uploaded bytes and stream the same amount back.
+            long received = exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            exchange.sendResponseHeaders(200, received);
+            try (OutputStream out = exchange.getResponseBody()) {
+                byte[] chunk = new byte[8192];
+                for (long sent = 0; sent < received; sent += chunk.length) {
+                    out.write(chunk, 0, (int) Math.min(chunk.length, received - sent));
+                }
+            }
+        })) {
+            backendRepository.removeBackend(new BackendServer(backend1.url()));
+            backendRepository.registerBackend(new BackendServer(counting.url()));
+            InputStream upload = new InputStream() {
+                private long remaining = size;
+
+                @Override
+                public int read() {
+                    return remaining-- > 0 ? 'x' : -1;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    int count = (int) Math.min(length, remaining);
+                    Arrays.fill(buffer, offset, offset + count, (byte) 'x');
+                    remaining -= count;
+                    return count;
+                }
+            };
+
+            ProxyResponse response = loadBalancerService.forwardRequest(
+                    new ProxyRequest("PUT", "/upload", null, Map.of(), upload, size), null);
+
+            assertEquals(200, response.status());
+            assertEquals(size, response.contentLength());
+            try (InputStream body = response.body()) {
+                assertEquals(size, body.transferTo(OutputStream.nullOutputStream()));
+            }
+        }
+    }
+
+    private LoadBalancerService newService(ForwardingProperties properties) {
+        return new LoadBalancerService(routingStrategyFactory, monitoringPort, backendRepository, statsRegistry,
+                new JdkHttpBackendClient(properties, executor), OutlierDetector.disabled(),
+                CircuitBreakerRegistry.disabled(), RetryPolicy.disabled(), executor, ResponseCache.disabled(),
+                ConcurrencyLimiterRegistry.disabled());
+    }
+
+    private LoadBalancerService newService(RetryPolicy retryPolicy) {
+        return new LoadBalancerService(routingStrategyFactory, monitoringPort, backendRepository, statsRegistry,
+                new JdkHttpBackendClient(ForwardingProperties.defaults(), executor), OutlierDetector.disabled(),
+                CircuitBreakerRegistry.disabled(), retryPolicy, executor, ResponseCache.disabled(),
+                ConcurrencyLimiterRegistry.disabled());
+    }
+
+    private static ProxyRequest request(String method, String path, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return new ProxyRequest(method, path, method.equals("POST") ? "page=1" : null,
+                Map.of("Content-Type", List.of("text/plain")), new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    private static List<String> header(ProxyResponse response, String name) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(response.headers());
+        return headers.get(name);
+    }
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(monitoringPort).report(captor.capture());
-        assertTrue(captor.getValue().contains("http://localhost:8082"),
-                "Monitoring report should contain the backend URL 'http://localhost:8082'.");
+    private static String body(ProxyResponse response) {
+        try (InputStream body = response.body()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,59 @@
+package com.liftlab.loadbalancer.domain.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for LatencyHistogram buckets and percentiles.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketsCoverEveryValueWithBoundedError() {
+        long[] samples = {0, 1, 7, 8, 9, 15, 16, 1_000, 123_456, 1L << 40, Long.MAX_VALUE};
+        for (long micros : samples) {
+            int bucket = LatencyHistogram.bucket(micros);
+            assertThat(bucket).isBetween(0, LatencyHistogram.BUCKETS - 1);
+            assertThat(LatencyHistogram.upperBoundMicros(bucket)).isGreaterThanOrEqualTo(micros)
+                    .isLessThanOrEqualTo(micros + Math.min(micros / 8, Long.MAX_VALUE - micros));
+            if (bucket > 0) {
+                assertThat(LatencyHistogram.upperBoundMicros(bucket - 1)).isLessThan(micros);
+            }
+        }
+    }
+
+    @Test
+    void testPercentilesOfRecordedLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram(Duration.ofMinutes(1));
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(Duration.ofMillis(millis).toNanos());
+        }
+
+        assertThat(histogram.percentileNanos(50, 1)).isBetween(Duration.ofMillis(50).toNanos(),
+                Duration.ofMillis(57).toNanos());
+        assertThat(histogram.percentileNanos(95, 1)).isBetween(Duration.ofMillis(95).toNanos(),
+                Duration.ofMillis(107).toNanos());
+    }
+
+    @Test
+    void testNoEstimateBelowTheMinimumSamples() {
+        LatencyHistogram histogram = new LatencyHistogram(Duration.ofMinutes(1));
+        histogram.record(1_000_000);
+
+        assertThat(histogram.percentileNanos(95, 2)).isEqualTo(-1);
+        assertThat(new LatencyHistogram(Duration.ofMinutes(1)).percentileNanos(95, 0)).isEqualTo(-1);
+    }
+
+    @Test
+    void testOldWindowsAreForgotten() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(Duration.ofMillis(50));
+        histogram.record(Duration.ofSeconds(1).toNanos());
+
+        Thread.sleep(120);
+
+        assertThat(histogram.percentileNanos(50, 1)).isEqualTo(-1);
+    }
+}
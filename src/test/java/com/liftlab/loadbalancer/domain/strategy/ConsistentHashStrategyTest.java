@@ -0,0 +1,106 @@
+package com.liftlab.loadbalancer.domain.strategy;
+
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashStrategyTest {
+
+    @Test
+    void testSameKeyRoutesToSameBackend() throws LoadBalancerException {
+        ConsistentHashStrategy strategy = new ConsistentHashStrategy();
+        List<BackendServer> servers = servers(5);
+        strategy.onServersChanged(servers);
+
+        BackendServer first = strategy.select(servers, "user-42");
+        for (int i = 0; i < 20; i++) {
+            assertEquals(first, strategy.select(servers, "user-42"));
+        }
+    }
+
+    @Test
+    void testAddingBackendMovesAboutOneNthOfKeys() throws LoadBalancerException {
+        ConsistentHashStrategy strategy = new ConsistentHashStrategy();
+        List<BackendServer> before = servers(10);
+        List<BackendServer> after = servers(11);
+        int keys = 10_000;
+        strategy.onServersChanged(before);
+
+        List<BackendServer> placements = new ArrayList<>();
+        for (int i = 0; i < keys; i++) {
+            placements.add(strategy.select(before, "key-" + i));
+        }
+        strategy.onServersChanged(after);
+        int moved = 0;
+        for (int i = 0; i < keys; i++) {
+            if (!placements.get(i).equals(strategy.select(after, "key-" + i))) {
+                moved++;
+            }
+        }
+
+        // Ideally 1/11 (about 9%) of the keys move to the new backend.
+        assertThat((double) moved / keys).isBetween(0.05, 0.15);
+    }
+
+    @Test
+    void testStaleTableKeepsKeysOfRemainingBackends() throws LoadBalancerException {
+        ConsistentHashStrategy strategy = new ConsistentHashStrategy();
+        List<BackendServer> before = servers(5);
+        strategy.onServersChanged(before);
+        List<BackendServer> after = before.subList(1, 5);
+        int keys = 2_000;
+
+        for (int i = 0; i < keys; i++) {
+            BackendServer placed = strategy.select(before, "key-" + i);
+            // The table is not rebuilt for a list the strategy was not notified of.
+            BackendServer stale = strategy.select(after, "key-" + i);
+            assertTrue(after.contains(stale));
+            if (!placed.equals(before.get(0))) {
+                assertEquals(placed, stale);
+            }
+        }
+    }
+
+    @Test
+    void testKeyOfRejectedBackendMovesToSameBackend() throws LoadBalancerException {
+        ConsistentHashStrategy strategy = new ConsistentHashStrategy();
+        List<BackendServer> servers = servers(5);
+        strategy.onServersChanged(servers);
+        BackendServer owner = strategy.select(servers, "user-42");
+
+        BackendServer fallback = strategy.select(servers, "user-42", server -> !server.equals(owner));
+        assertNotEquals(owner, fallback);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(fallback, strategy.select(servers, "user-42", server -> !server.equals(owner)));
+        }
+        assertEquals(owner, strategy.select(servers, "user-42", server -> true));
+    }
+
+    @Test
+    void testSelectWithoutKeyReturnsAvailableBackend() throws LoadBalancerException {
+        ConsistentHashStrategy strategy = new ConsistentHashStrategy();
+        List<BackendServer> servers = servers(3);
+        assertTrue(servers.contains(strategy.select(servers)));
+    }
+
+    @Test
+    void testSelectWithEmptyList() {
+        ConsistentHashStrategy strategy = new ConsistentHashStrategy();
+        Exception exception = assertThrows(LoadBalancerException.class, () -> strategy.select(List.of(), "key"));
+        assertEquals("No backend servers available", exception.getMessage());
+    }
+
+    private static List<BackendServer> servers(int count) {
+        List<BackendServer> servers = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            servers.add(new BackendServer("http://backend" + i + ".liftlab.com"));
+        }
+        return List.copyOf(servers);
+    }
+}
@@ -0,0 +1,59 @@
+package com.liftlab.loadbalancer.domain.strategy;
+
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeastConnectionsStrategyTest {
+
+    private final BackendServer busy = new BackendServer("http://backend1.liftlab.com");
+    private final BackendServer idle = new BackendServer("http://backend2.liftlab.com");
+    private final List<BackendServer> servers = List.of(busy, idle);
+
+    @Test
+    void testSelectLeastLoaded() throws LoadBalancerException {
+        BackendStatsRegistry statsRegistry = new BackendStatsRegistry();
+        LeastConnectionsStrategy strategy = new LeastConnectionsStrategy(statsRegistry);
+        statsRegistry.statsFor(busy).requestStarted();
+        statsRegistry.statsFor(busy).requestStarted();
+        statsRegistry.statsFor(idle).requestStarted();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(idle, strategy.select(servers), "The server with fewer in-flight requests should win.");
+        }
+
+        // Once the busy server drains below the other one, it becomes the preferred choice.
+        statsRegistry.statsFor(busy).requestCompleted(1_000_000);
+        statsRegistry.statsFor(busy).requestCompleted(1_000_000);
+        assertEquals(busy, strategy.select(servers));
+    }
+
+    @Test
+    void testLeastLoadedAdmittedServerWinsOverRejectedIdleOne() throws LoadBalancerException {
+        BackendStatsRegistry statsRegistry = new BackendStatsRegistry();
+        LeastConnectionsStrategy strategy = new LeastConnectionsStrategy(statsRegistry);
+        BackendServer openCircuit = new BackendServer("http://backend3.liftlab.com");
+        statsRegistry.statsFor(busy).requestStarted();
+        statsRegistry.statsFor(busy).requestStarted();
+        statsRegistry.statsFor(idle).requestStarted();
+        List<BackendServer> withOpenCircuit = List.of(openCircuit, busy, idle);
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(idle, strategy.select(withOpenCircuit, null, server -> !server.equals(openCircuit)),
+                    "The least-loaded admitted server should win, not a random one.");
+        }
+        assertThrows(LoadBalancerException.class, () -> strategy.select(withOpenCircuit, null, server -> false));
+    }
+
+    @Test
+    void testSelectWithEmptyList() {
+        LeastConnectionsStrategy strategy = new LeastConnectionsStrategy(new BackendStatsRegistry());
+        Exception exception = assertThrows(LoadBalancerException.class, () -> strategy.select(List.of()));
+        assertEquals("No backend servers available", exception.getMessage());
+    }
+}
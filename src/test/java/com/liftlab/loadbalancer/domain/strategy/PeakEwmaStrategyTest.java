@@ -0,0 +1,77 @@
+package com.liftlab.loadbalancer.domain.strategy;
+
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import com.liftlab.loadbalancer.domain.stats.BackendStats;
+import com.liftlab.loadbalancer.domain.stats.BackendStatsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeakEwmaStrategyTest {
+
+    private final BackendServer slow = new BackendServer("http://backend1.liftlab.com");
+    private final BackendServer fast = new BackendServer("http://backend2.liftlab.com");
+    private final List<BackendServer> servers = List.of(slow, fast);
+
+    @Test
+    void testSelectLowerLatencyBackend() throws LoadBalancerException {
+        BackendStatsRegistry statsRegistry = new BackendStatsRegistry();
+        PeakEwmaStrategy strategy = new PeakEwmaStrategy(statsRegistry);
+        observe(statsRegistry.statsFor(slow), 100_000_000L);
+        observe(statsRegistry.statsFor(fast), 1_000_000L);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(fast, strategy.select(servers), "The backend with the lower EWMA latency should win.");
+        }
+    }
+
+    @Test
+    void testLatencyPeakIsAdoptedImmediately() {
+        BackendStats stats = new BackendStats();
+        observe(stats, 1_000_000L);
+        observe(stats, 50_000_000L);
+        assertTrue(stats.ewmaLatencyNanos() > 40_000_000L, "A latency spike should replace the average at once.");
+    }
+
+    @Test
+    void testPendingBackendWithoutObservationsIsPenalized() throws LoadBalancerException {
+        BackendStatsRegistry statsRegistry = new BackendStatsRegistry();
+        PeakEwmaStrategy strategy = new PeakEwmaStrategy(statsRegistry);
+        statsRegistry.statsFor(fast).requestStarted();
+        observe(statsRegistry.statsFor(slow), 100_000_000L);
+
+        assertEquals(slow, strategy.select(servers));
+    }
+
+    @Test
+    void testCheapestAdmittedBackendWinsOverRejectedIdleOne() throws LoadBalancerException {
+        BackendStatsRegistry statsRegistry = new BackendStatsRegistry();
+        PeakEwmaStrategy strategy = new PeakEwmaStrategy(statsRegistry);
+        BackendServer openCircuit = new BackendServer("http://backend3.liftlab.com");
+        observe(statsRegistry.statsFor(slow), 100_000_000L);
+        observe(statsRegistry.statsFor(fast), 10_000_000L);
+        observe(statsRegistry.statsFor(openCircuit), 1_000_000L);
+        List<BackendServer> withOpenCircuit = List.of(openCircuit, slow, fast);
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(fast, strategy.select(withOpenCircuit, null, server -> !server.equals(openCircuit)),
+                    "The cheapest admitted backend should win, not a random one.");
+        }
+        assertThrows(LoadBalancerException.class, () -> strategy.select(withOpenCircuit, null, server -> false));
+    }
+
+    @Test
+    void testSelectWithEmptyList() {
+        PeakEwmaStrategy strategy = new PeakEwmaStrategy(new BackendStatsRegistry());
+        Exception exception = assertThrows(LoadBalancerException.class, () -> strategy.select(List.of()));
+        assertEquals("No backend servers available", exception.getMessage());
+    }
+
+    private static void observe(BackendStats stats, long latencyNanos) {
+        stats.requestStarted();
+        stats.requestCompleted(latencyNanos);
+    }
+}
@@ -26,6 +26,21 @@ class RoundRobinStrategyTest {
         assertEquals(first, third, "Should cycle back to the first server.");
     }
 
+    @Test
+    void testSelectSkipsServersRejectedByFilter() throws LoadBalancerException {
+        RoundRobinStrategy strategy = new RoundRobinStrategy();
+        BackendServer limited = new BackendServer("http://backend1.liftlab.com");
+        List<BackendServer> servers = List.of(limited, new BackendServer("http://backend2.liftlab.com"),
+                new BackendServer("http://backend3.liftlab.com"));
+
+        for (int i = 0; i < 9; i++) {
+            assertNotEquals(limited, strategy.select(servers, null, server -> !server.equals(limited)));
+        }
+        Exception exception = assertThrows(LoadBalancerException.class,
+                () -> strategy.select(servers, null, server -> false));
+        assertEquals("No backend server has capacity", exception.getMessage());
+    }
+
     @Test
     void testSelectWithEmptyList() {
         RoundRobinStrategy strategy = new RoundRobinStrategy();
@@ -0,0 +1,83 @@
+package com.liftlab.loadbalancer.domain.strategy;
+
+import com.liftlab.loadbalancer.domain.exception.LoadBalancerException;
+import com.liftlab.loadbalancer.domain.model.BackendServer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedRoundRobinStrategyTest {
+
+    private final BackendServer a = new BackendServer("http://backend1.liftlab.com", 5);
+    private final BackendServer b = new BackendServer("http://backend2.liftlab.com", 1);
+    private final BackendServer c = new BackendServer("http://backend3.liftlab.com", 1);
+
+    @Test
+    void testSelectFollowsSmoothSequence() throws LoadBalancerException {
+        WeightedRoundRobinStrategy strategy = new WeightedRoundRobinStrategy();
+        List<BackendServer> servers = List.of(a, b, c);
+        strategy.onServersChanged(servers);
+
+        List<BackendServer> picks = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            picks.add(strategy.select(servers));
+        }
+
+        // The nginx reference sequence for weights {5, 1, 1}.
+        assertEquals(List.of(a, a, b, a, c, a, a), picks);
+    }
+
+    @Test
+    void testWeightChangeIsPickedUp() throws LoadBalancerException {
+        WeightedRoundRobinStrategy strategy = new WeightedRoundRobinStrategy();
+        strategy.onServersChanged(List.of(a, b));
+
+        // A weight update publishes a new list, which must rebuild the schedule.
+        List<BackendServer> reweighted = List.of(new BackendServer(a.url(), 1), new BackendServer(b.url(), 3));
+        strategy.onServersChanged(reweighted);
+        List<BackendServer> picks = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            picks.add(strategy.select(reweighted));
+        }
+        Map<String, Long> counts = picks.stream()
+                .collect(Collectors.groupingBy(BackendServer::url, Collectors.counting()));
+
+        assertEquals(100L, counts.get(a.url()));
+        assertEquals(300L, counts.get(b.url()));
+    }
+
+    @Test
+    void testListWithoutScheduleIsPickedInProportionToWeights() throws LoadBalancerException {
+        WeightedRoundRobinStrategy strategy = new WeightedRoundRobinStrategy();
+        strategy.onServersChanged(List.of(a, b, c));
+        // Weights whose period is far too long to precompute, on a list the strategy was not notified of.
+        BackendServer heavy = new BackendServer(a.url(), 10_000_000);
+        BackendServer light = new BackendServer(b.url(), 3_333_333);
+        List<BackendServer> servers = List.of(heavy, light);
+
+        Map<BackendServer, Long> counts = new HashMap<>();
+        for (int i = 0; i < 4000; i++) {
+            counts.merge(strategy.select(servers), 1L, Long::sum);
+        }
+        strategy.onServersChanged(servers);
+        for (int i = 0; i < 4000; i++) {
+            counts.merge(strategy.select(servers), 1L, Long::sum);
+        }
+
+        assertEquals(8000L, counts.get(heavy) + counts.get(light));
+        assertTrue(counts.get(heavy) > 5600 && counts.get(heavy) < 6400, "heavy picks: " + counts.get(heavy));
+    }
+
+    @Test
+    void testSelectWithEmptyList() {
+        WeightedRoundRobinStrategy strategy = new WeightedRoundRobinStrategy();
+        Exception exception = assertThrows(LoadBalancerException.class, () -> strategy.select(List.of()));
+        assertEquals("No backend servers available", exception.getMessage());
+    }
+}
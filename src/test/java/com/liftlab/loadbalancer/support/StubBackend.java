@@ -0,0 +1,88 @@
+package com.liftlab.loadbalancer.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal in-process HTTP backend used by tests in place of real backend servers.
+ * By default it answers every request with {@code 200} and a body echoing its name,
+ * the request method, target and body.
+ */
+public final class StubBackend implements AutoCloseable {
+
+    private final String name;
+    private final HttpServer server;
+
+    private StubBackend(String name, HttpHandler handler) throws IOException {
+        this.name = name;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/", handler != null ? handler : this::echo);
+        // Platform threads: the JDK server synchronizes on I/O paths, which would pin virtual threads.
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.start();
+    }
+
+    /**
+     * Starts an echoing backend on an ephemeral port.
+     *
+     * @param name the name included in every response
+     * @return the running backend
+     */
+    public static StubBackend start(String name) throws IOException {
+        return new StubBackend(name, null);
+    }
+
+    /**
+     * Starts a backend with a custom handler on an ephemeral port.
+     *
+     * @param name    the name of the backend
+     * @param handler the handler serving every request
+     * @return the running backend
+     */
+    public static StubBackend start(String name, HttpHandler handler) throws IOException {
+        return new StubBackend(name, handler);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Sends a response with the given status and text body.
+     */
+    public static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void echo(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        exchange.getResponseHeaders().add("X-Backend", name);
+        respond(exchange, 200, name + " " + exchange.getRequestMethod() + " "
+                + exchange.getRequestURI() + " " + body);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}